@@ -0,0 +1,202 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.benchmarks;
+
+import de.tu_dortmund.ub.data.ldp.LDPStatics;
+import de.tu_dortmund.ub.data.ldp.LinkedDataPlatform;
+import de.tu_dortmund.ub.data.ldp.LinkedDataPlatformConfig;
+import de.tu_dortmund.ub.data.ldp.LinkedDataPlatformContext;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.eclipse.jetty.server.LocalConnector;
+import org.eclipse.jetty.server.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endpoint Benchmark
+ *
+ * The full request path of the resource and service endpoints - HTTP parsing, filters, backend executor, caches and
+ * response writing - against {@link InMemoryLinkedDataStorage}. The requests go through a Jetty
+ * {@link LocalConnector}, so no sockets are involved.
+ *
+ * {@code threads} compares Jetty and backend executor on platform threads with virtual threads; the latter needs a
+ * Java 21 JVM ({@code -jvm}), on older JVMs it falls back to platform threads.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class EndpointBenchmark {
+
+    private static final String ABOUT    = request("/resource/gnd/118540238/about", "text/turtle");
+    private static final String REDIRECT = request("/resource/gnd/118540238", "text/turtle");
+    private static final String MISSING  = request("/resource/gnd/missing/about", "text/turtle");
+    private static final String SEARCH   = request("/service/search?q=Goethe&rows=10", "application/json");
+    private static final String SPARQL   = request("/service/sparql?q=SELECT%20%3Fs%20WHERE%20%7B%20%3Fs%20%3Fp%20%3Fo%20%7D%20LIMIT%2010", "application/sparql-results+json");
+
+    @Param({ LDPStatics.THREADS_PLATFORM, LDPStatics.THREADS_VIRTUAL })
+    public String threads;
+
+    /**
+     * with {@code false} every request goes to the storage
+     */
+    @Param({ "true", "false" })
+    public boolean cache;
+
+    private Server         server;
+    private LocalConnector connector;
+
+    @Setup
+    public void setup() throws Exception {
+
+        // the endpoints log every request on INFO
+        LogManager.getRootLogger().setLevel(Level.WARN);
+
+        Properties properties = new Properties();
+        properties.setProperty(LDPStatics.SERVICE_NAME_IDENTIFIER, "benchmark");
+        properties.setProperty(LDPStatics.SERVICE_CONTEXTPATH_IDENTIFIER, "/");
+        properties.setProperty(LDPStatics.SERVICE_THREADS_IDENTIFIER, this.threads);
+        properties.setProperty(LDPStatics.SERVICE_LANGUAGE_DEFAULT_IDENTIFIER, "de");
+        properties.setProperty(LDPStatics.LDP_ENDPOINT_HOME_CONTENT_IDENTIFIER, Files.createTempDirectory("ldp-benchmark").toString());
+        properties.setProperty(LDPStatics.LDP_ENDPOINT_PING_IDENTIFIER, "/_ping");
+        properties.setProperty(LDPStatics.LDP_ENDPOINT_HEALTH_IDENTIFIER, "/_health");
+        properties.setProperty(LDPStatics.LDP_ENDPOINT_RESOURCE_CONTEXTPATH_IDENTIFIER, "/resource/*");
+        properties.setProperty(LDPStatics.LDP_ENDPOINT_SERVICE_CONTEXTPATH_IDENTIFIER, "/service/*");
+        properties.setProperty(LDPStatics.RESOURCE_BASEURL_IDENTIFIER, "http://data.ub.tu-dortmund.de");
+        properties.setProperty(LDPStatics.STORAGE_GRAPH_DEFAULT_IDENTIFIER, "gnd");
+        properties.setProperty(LDPStatics.STORAGE_GRAPHS_IDENTIFIER, "gnd");
+        properties.setProperty(LDPStatics.SERVICE_IPRANGE_TU_IDENTIFIER, "129\\.217\\..*");
+        properties.setProperty(LDPStatics.SERVICE_IPRANGE_TU_EXCEPTIONS_IDENTIFIER, "");
+        properties.setProperty(LDPStatics.SERVICE_IPRANGE_UB_IDENTIFIER, "129\\.217\\.132\\..*");
+        properties.setProperty(LDPStatics.SERVICE_IPRANGE_UB_EXCEPTIONS_IDENTIFIER, "");
+
+        if (!this.cache) {
+
+            properties.setProperty(LDPStatics.RESOURCE_CACHE_SIZE_IDENTIFIER, "0");
+            properties.setProperty(LDPStatics.SPARQL_CACHE_SIZE_IDENTIFIER, "0");
+        }
+
+        LinkedDataPlatformConfig config = new LinkedDataPlatformConfig(properties);
+
+        this.server = new Server(LinkedDataPlatform.createThreadPool(config));
+        this.connector = new LocalConnector(this.server);
+        this.server.addConnector(this.connector);
+
+        LinkedDataPlatformContext platformContext = new LinkedDataPlatformContext(config, new InMemoryLinkedDataStorage(), null);
+        this.server.addBean(platformContext);
+        this.server.setHandler(LinkedDataPlatform.createContextHandler(config, platformContext, this.server.getThreadPool()));
+
+        this.server.start();
+
+        // fail early instead of measuring error pages
+        expect(ABOUT, " 200 ");
+        expect(REDIRECT, " 303 ");
+        expect(MISSING, " 404 ");
+        expect(SEARCH, " 200 ");
+        expect(SPARQL, " 200 ");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+
+        this.server.stop();
+    }
+
+    @Benchmark
+    public String about() throws Exception {
+
+        return this.connector.getResponses(ABOUT);
+    }
+
+    @Benchmark
+    public String redirect() throws Exception {
+
+        return this.connector.getResponses(REDIRECT);
+    }
+
+    @Benchmark
+    public String missing() throws Exception {
+
+        return this.connector.getResponses(MISSING);
+    }
+
+    @Benchmark
+    public String search() throws Exception {
+
+        return this.connector.getResponses(SEARCH);
+    }
+
+    @Benchmark
+    public String sparql() throws Exception {
+
+        return this.connector.getResponses(SPARQL);
+    }
+
+    private void expect(String request, String status) throws Exception {
+
+        String response = this.connector.getResponses(request);
+
+        if (response == null || !response.startsWith("HTTP/1.1" + status)) {
+
+            throw new IllegalStateException("Unexpected response to " + request.split("\r\n")[0] + ": " + response);
+        }
+    }
+
+    /**
+     * {@code Connection: close} makes {@link LocalConnector#getResponses(String)} return as soon as the response is
+     * complete.
+     */
+    private static String request(String path, String accept) {
+
+        return "GET " + path + " HTTP/1.1\r\n"
+                + "Host: data.ub.tu-dortmund.de\r\n"
+                + "Accept: " + accept + "\r\n"
+                + "X-Forwarded-For: 93.184.216.34\r\n"
+                + "Connection: close\r\n"
+                + "\r\n";
+    }
+}
@@ -0,0 +1,160 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.benchmarks;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+
+import java.util.HashMap;
+import java.util.Properties;
+
+/**
+ * In-Memory Linked Data Storage
+ *
+ * Answers every call from constant data, so the benchmarks measure the platform and not a backend. Resources whose
+ * name contains {@code missing} do not exist, all others are public.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class InMemoryLinkedDataStorage implements LinkedDataStorage {
+
+    private static final String TURTLE;
+
+    static {
+
+        StringBuilder turtle = new StringBuilder();
+
+        for (int i = 0; i < 40; i++) {
+
+            turtle.append("<http://data.ub.tu-dortmund.de/resource/gnd/118540238> <http://d-nb.info/standards/elementset/gnd#variantName> \"Variant name ").append(i).append("\" .\n");
+        }
+
+        TURTLE = turtle.toString();
+    }
+
+    @Override
+    public void init(Properties config) throws LinkedDataStorageException {
+    }
+
+    @Override
+    public HashMap<String, String> health(Properties properties) {
+
+        HashMap<String, String> health = new HashMap<>();
+        health.put("storage", "in-memory");
+
+        return health;
+    }
+
+    @Override
+    public String getResource(String resource, String format) throws LinkedDataStorageException {
+
+        return this.getResource(null, resource, format, false);
+    }
+
+    @Override
+    public String getResource(String resource, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.getResource(null, resource, format, isAuthorized);
+    }
+
+    @Override
+    public String getResource(String graph, String resource, String format) throws LinkedDataStorageException {
+
+        return this.getResource(graph, resource, format, false);
+    }
+
+    @Override
+    public String getResource(String graph, String resource, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        return resource.contains("missing") ? null : TURTLE;
+    }
+
+    @Override
+    public String getAccessRights(String resource) throws LinkedDataStorageException {
+
+        return "public";
+    }
+
+    @Override
+    public String getAccessRights(String graph, String resource) throws LinkedDataStorageException {
+
+        return "public";
+    }
+
+    @Override
+    public String searchResource(Properties query, String format) throws LinkedDataStorageException {
+
+        return this.searchResource(null, query, format, false);
+    }
+
+    @Override
+    public String searchResource(Properties query, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.searchResource(null, query, format, isAuthorized);
+    }
+
+    @Override
+    public String searchResource(String graph, Properties query, String format) throws LinkedDataStorageException {
+
+        return this.searchResource(graph, query, format, false);
+    }
+
+    @Override
+    public String searchResource(String graph, Properties query, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        return "{ \"numFound\" : 1, \"docs\" : [ { \"id\" : \"118540238\" } ] }";
+    }
+
+    @Override
+    public String sparqlQuery(String query, String format) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(null, query, format, false);
+    }
+
+    @Override
+    public String sparqlQuery(String query, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(null, query, format, isAuthorized);
+    }
+
+    @Override
+    public String sparqlQuery(String graph, String query, String format) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(graph, query, format, false);
+    }
+
+    @Override
+    public String sparqlQuery(String graph, String query, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        return "{ \"head\" : { \"vars\" : [ \"s\" ] }, \"results\" : { \"bindings\" : [] } }";
+    }
+
+    @Override
+    public String sparqlUpdate(String data) throws LinkedDataStorageException {
+
+        return "204";
+    }
+}
@@ -0,0 +1,147 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import de.tu_dortmund.ub.data.ldp.ContentNegotiator;
+import de.tu_dortmund.ub.data.ldp.auth.model.LoginResponse;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.util.impl.Lookup;
+import de.tu_dortmund.ub.util.rights.AnalyseIPRange;
+import de.tu_dortmund.ub.util.rights.IPRangeClass;
+import de.tu_dortmund.ub.util.rights.IPRangeMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request Hot Path Benchmark
+ *
+ * The steps every resource and service request goes through before it reaches the storage: ip range check, content
+ * negotiation, decoding of the {@code PaiaService} cookie and the provider lookup.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestHotPathBenchmark {
+
+    private static final String TU_RANGES     = "129\\.217\\..*|192\\.168\\..*|10.0.0.0/8|2001:638:500::/40";
+    private static final String TU_EXCEPTIONS = "129\\.217\\.13\\..*";
+    private static final String UB_RANGES     = "129\\.217\\.132\\..*|129\\.217\\.133\\..*";
+    private static final String UB_EXCEPTIONS = "129\\.217\\.133\\.99";
+
+    private static final ObjectReader LOGIN_RESPONSE_READER = new ObjectMapper().reader(LoginResponse.class);
+
+    private static final String COOKIE = "%7B%22patron%22%3A%221234567%22%2C%22access_token%22%3A%222YotnFZFEjr1zCsicMWpAA%22%2C%22token_type%22%3A%22Bearer%22%2C%22scope%22%3A%22read_patron+read_fees+read_items+write_items%22%2C%22expires_in%22%3A%223600%22%7D";
+
+    @State(Scope.Benchmark)
+    public static class Address {
+
+        /**
+         * {@code X-Forwarded-For} of a request from the library, one from outside and one with a proxy chain
+         */
+        @Param({ "129.217.132.17", "93.184.216.34", "93.184.216.34, 10.12.0.1, 129.217.133.5" })
+        public String forwardedFor;
+
+        private IPRangeMatcher ipRangeMatcher;
+
+        @Setup
+        public void setup() {
+
+            this.ipRangeMatcher = IPRangeMatcher.compile(TU_RANGES, TU_EXCEPTIONS, UB_RANGES, UB_EXCEPTIONS);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Accept {
+
+        /**
+         * {@code Accept} of a browser, of a linked data client and of curl
+         */
+        @Param({ "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8", "text/turtle;q=1.0, application/rdf+xml;q=0.5", "*/*" })
+        public String accept;
+    }
+
+    /**
+     * The two checks of the endpoints before {@link IPRangeMatcher}.
+     */
+    @Benchmark
+    public boolean analyseAccessRights(final Address address) {
+
+        return AnalyseIPRange.analyseAccessRights(address.forwardedFor, TU_RANGES, TU_EXCEPTIONS)
+                | AnalyseIPRange.analyseAccessRights(address.forwardedFor, UB_RANGES, UB_EXCEPTIONS);
+    }
+
+    @Benchmark
+    public IPRangeClass classify(final Address address) {
+
+        return address.ipRangeMatcher.classify(address.forwardedFor);
+    }
+
+    @Benchmark
+    public String negotiateResource(final Accept accept) {
+
+        return ContentNegotiator.RESOURCE.negotiate(accept.accept);
+    }
+
+    @Benchmark
+    public String negotiateResults(final Accept accept) {
+
+        return ContentNegotiator.RESULTS.negotiate(accept.accept);
+    }
+
+    /**
+     * As in {@code RequestContext}, which reads the token from the cookie if there is no {@code Authorization} header.
+     */
+    @Benchmark
+    public LoginResponse decodeCookie() throws IOException {
+
+        return LOGIN_RESPONSE_READER.readValue(URLDecoder.decode(COOKIE, "UTF-8"));
+    }
+
+    @Benchmark
+    public LinkedDataStorage lookup() {
+
+        return Lookup.lookup(LinkedDataStorage.class);
+    }
+}
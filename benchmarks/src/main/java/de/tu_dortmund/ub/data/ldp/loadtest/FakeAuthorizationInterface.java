@@ -0,0 +1,73 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.loadtest;
+
+import de.tu_dortmund.ub.data.ldp.auth.AuthorizationException;
+import de.tu_dortmund.ub.data.ldp.auth.AuthorizationInterface;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Properties;
+
+/**
+ * Fake Authorization Interface
+ *
+ * Stand-in for the PAIA service in load tests: tokens starting with {@code valid} - with or without {@code Bearer} - are accepted, all others rejected.
+ * Every validation waits for a latency drawn from the {@link LatencyModel} configured by
+ * {@code loadtest.auth.latency.median}, {@code loadtest.auth.latency.p99} and {@code loadtest.auth.errorrate}.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class FakeAuthorizationInterface implements AuthorizationInterface {
+
+    private volatile LatencyModel latencyModel = new LatencyModel(0, 0, 0);
+
+    @Override
+    public void init(Properties properties) {
+
+        this.latencyModel = LatencyModel.of(properties, "loadtest.auth");
+    }
+
+    @Override
+    public HashMap<String, String> health(Properties properties) {
+
+        HashMap<String, String> health = new HashMap<>();
+        health.put("authorization", "fake");
+
+        return health;
+    }
+
+    @Override
+    public boolean isTokenValid(HttpServletResponse httpServletResponse, String service, String patronid, String access_token) throws AuthorizationException {
+
+        if (this.latencyModel.delay()) {
+
+            throw new AuthorizationException("injected error");
+        }
+
+        return access_token != null && (access_token.startsWith("valid") || access_token.startsWith("Bearer valid"));
+    }
+}
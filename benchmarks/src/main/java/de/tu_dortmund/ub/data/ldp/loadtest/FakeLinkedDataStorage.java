@@ -0,0 +1,243 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.loadtest;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fake Linked Data Storage
+ *
+ * Stand-in for the triple store in load tests. Every call waits for a latency drawn from a {@link LatencyModel} and
+ * fails at the configured rate; resources are answered with a payload of the configured size, a fraction of them with
+ * a large one. Resources whose name contains {@code missing} do not exist, those containing {@code internal} are only
+ * visible inside the UB.
+ *
+ * Configured through the platform configuration:
+ *
+ * <pre>
+ * loadtest.storage.latency.median   = 5        (ms)
+ * loadtest.storage.latency.p99      = 50       (ms)
+ * loadtest.storage.errorrate        = 0.0
+ * loadtest.storage.payload          = 4096     (bytes)
+ * loadtest.storage.payload.large    = 1048576  (bytes)
+ * loadtest.storage.payload.largerate = 0.01
+ * </pre>
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class FakeLinkedDataStorage implements LinkedDataStorage {
+
+    private static Logger logger = Logger.getLogger(FakeLinkedDataStorage.class.getName());
+
+    private volatile LatencyModel latencyModel = new LatencyModel(0, 0, 0);
+    private volatile byte[]       payload      = new byte[0];
+    private volatile byte[]       largePayload = new byte[0];
+    private volatile double       largeRate    = 0;
+
+    @Override
+    public void init(Properties config) throws LinkedDataStorageException {
+
+        this.latencyModel = LatencyModel.of(config, "loadtest.storage");
+        this.payload = payload(Integer.parseInt(config.getProperty("loadtest.storage.payload", "4096")));
+        this.largePayload = payload(Integer.parseInt(config.getProperty("loadtest.storage.payload.large", "1048576")));
+        this.largeRate = Double.parseDouble(config.getProperty("loadtest.storage.payload.largerate", "0.01"));
+
+        logger.info(String.format("fake storage: latency %s, payload %d bytes, %.2f %% with %d bytes", this.latencyModel, this.payload.length, this.largeRate * 100, this.largePayload.length));
+    }
+
+    @Override
+    public HashMap<String, String> health(Properties properties) {
+
+        HashMap<String, String> health = new HashMap<>();
+        health.put("storage", "fake");
+
+        return health;
+    }
+
+    @Override
+    public String getResource(String resource, String format) throws LinkedDataStorageException {
+
+        return this.getResource(null, resource, format, false);
+    }
+
+    @Override
+    public String getResource(String resource, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.getResource(null, resource, format, isAuthorized);
+    }
+
+    @Override
+    public String getResource(String graph, String resource, String format) throws LinkedDataStorageException {
+
+        return this.getResource(graph, resource, format, false);
+    }
+
+    @Override
+    public String getResource(String graph, String resource, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        byte[] payload = this.resource(resource);
+
+        return payload != null ? new String(payload, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Writes the payload directly, so large payloads are not materialized as strings.
+     */
+    @Override
+    public boolean getResource(String graph, String resource, String format, boolean isAuthorized, OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        byte[] payload = this.resource(resource);
+
+        if (payload == null) {
+
+            return false;
+        }
+
+        outputStream.write(payload);
+        outputStream.flush();
+
+        return true;
+    }
+
+    @Override
+    public String getAccessRights(String resource) throws LinkedDataStorageException {
+
+        return this.getAccessRights(null, resource);
+    }
+
+    @Override
+    public String getAccessRights(String graph, String resource) throws LinkedDataStorageException {
+
+        this.call("getAccessRights");
+
+        return resource.contains("internal") ? "internal" : "public";
+    }
+
+    @Override
+    public String searchResource(Properties query, String format) throws LinkedDataStorageException {
+
+        return this.searchResource(null, query, format, false);
+    }
+
+    @Override
+    public String searchResource(Properties query, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.searchResource(null, query, format, isAuthorized);
+    }
+
+    @Override
+    public String searchResource(String graph, Properties query, String format) throws LinkedDataStorageException {
+
+        return this.searchResource(graph, query, format, false);
+    }
+
+    @Override
+    public String searchResource(String graph, Properties query, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        this.call("searchResource");
+
+        return "{ \"numFound\" : 1, \"q\" : \"" + query.getProperty("q", "").replace("\"", "") + "\", \"docs\" : [ { \"id\" : \"1\" } ] }";
+    }
+
+    @Override
+    public String sparqlQuery(String query, String format) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(null, query, format, false);
+    }
+
+    @Override
+    public String sparqlQuery(String query, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(null, query, format, isAuthorized);
+    }
+
+    @Override
+    public String sparqlQuery(String graph, String query, String format) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(graph, query, format, false);
+    }
+
+    @Override
+    public String sparqlQuery(String graph, String query, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        this.call("sparqlQuery");
+
+        return "{ \"head\" : { \"vars\" : [ \"s\" ] }, \"results\" : { \"bindings\" : [ { \"s\" : { \"type\" : \"literal\", \"value\" : \"" + query.length() + "\" } } ] } }";
+    }
+
+    @Override
+    public String sparqlUpdate(String data) throws LinkedDataStorageException {
+
+        this.call("sparqlUpdate");
+
+        return "204";
+    }
+
+    private byte[] resource(String resource) throws LinkedDataStorageException {
+
+        this.call("getResource");
+
+        if (resource.contains("missing")) {
+
+            return null;
+        }
+
+        return this.largeRate > 0 && ThreadLocalRandom.current().nextDouble() < this.largeRate ? this.largePayload : this.payload;
+    }
+
+    private void call(String method) throws LinkedDataStorageException {
+
+        if (this.latencyModel.delay()) {
+
+            throw new LinkedDataStorageException("injected error in " + method);
+        }
+    }
+
+    /**
+     * @return N-Triples of about {@code size} bytes
+     */
+    private static byte[] payload(int size) {
+
+        byte[] line = "<http://data.ub.tu-dortmund.de/resource/gnd/1> <http://www.w3.org/2000/01/rdf-schema#label> \"Lorem ipsum dolor sit amet\" .\n".getBytes(StandardCharsets.UTF_8);
+        byte[] payload = new byte[size];
+
+        for (int i = 0; i < size; i += line.length) {
+
+            System.arraycopy(line, 0, payload, i, Math.min(line.length, size - i));
+        }
+
+        return payload;
+    }
+}
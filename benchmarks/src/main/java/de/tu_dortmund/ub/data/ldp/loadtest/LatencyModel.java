@@ -0,0 +1,114 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.loadtest;
+
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Latency Model
+ *
+ * Log-normal latency given by its median and 99th percentile, which is how backend latencies are usually described
+ * and what they look like: most calls are fast, a few are much slower. Together with an error rate it is what the
+ * fake providers inject into every call.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class LatencyModel {
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.3263;
+
+    private final double mu;
+    private final double sigma;
+    private final double errorRate;
+
+    /**
+     * @param median    median latency in milliseconds; {@code 0} for no latency
+     * @param p99       99th percentile in milliseconds, at least {@code median}
+     * @param errorRate fraction of the calls that fail
+     */
+    public LatencyModel(final double median, final double p99, final double errorRate) {
+
+        this.mu = median > 0 ? Math.log(median) : Double.NEGATIVE_INFINITY;
+        this.sigma = median > 0 && p99 > median ? Math.log(p99 / median) / Z_99 : 0;
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Reads {@code <prefix>.latency.median}, {@code <prefix>.latency.p99} and {@code <prefix>.errorrate}.
+     */
+    public static LatencyModel of(final Properties properties, final String prefix) {
+
+        final double median = Double.parseDouble(properties.getProperty(prefix + ".latency.median", "0"));
+        final double p99 = Double.parseDouble(properties.getProperty(prefix + ".latency.p99", String.valueOf(median)));
+        final double errorRate = Double.parseDouble(properties.getProperty(prefix + ".errorrate", "0"));
+
+        return new LatencyModel(median, p99, errorRate);
+    }
+
+    /**
+     * @return a latency in nanoseconds
+     */
+    public long sample() {
+
+        if (this.mu == Double.NEGATIVE_INFINITY) {
+
+            return 0;
+        }
+
+        final double millis = Math.exp(this.mu + this.sigma * ThreadLocalRandom.current().nextGaussian());
+
+        return (long) (millis * 1e6);
+    }
+
+    /**
+     * Blocks the calling thread for a sampled latency.
+     *
+     * @return {@code true} if the call should fail
+     */
+    public boolean delay() {
+
+        final long nanos = this.sample();
+        final long deadline = System.nanoTime() + nanos;
+
+        // parkNanos may return early
+        for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+
+            LockSupport.parkNanos(remaining);
+        }
+
+        return this.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < this.errorRate;
+    }
+
+    @Override
+    public String toString() {
+
+        return this.mu == Double.NEGATIVE_INFINITY ? "none" : String.format("median %.1f ms, p99 %.1f ms, errors %.2f %%",
+                Math.exp(this.mu), Math.exp(this.mu + this.sigma * Z_99), this.errorRate * 100);
+    }
+}
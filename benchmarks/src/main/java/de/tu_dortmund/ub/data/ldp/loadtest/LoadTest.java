@@ -0,0 +1,516 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.loadtest;
+
+import de.tu_dortmund.ub.data.ldp.LDPStatics;
+import de.tu_dortmund.ub.data.ldp.LinkedDataPlatform;
+import de.tu_dortmund.ub.data.ldp.LinkedDataPlatformConfig;
+import de.tu_dortmund.ub.data.ldp.LinkedDataPlatformContext;
+import de.tu_dortmund.ub.util.metrics.Histogram;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load Test
+ *
+ * Starts the platform with {@link FakeLinkedDataStorage} and {@link FakeAuthorizationInterface} on a free port - or
+ * targets a running server with {@code -url} - and drives a mix of resource, about, search and SPARQL requests
+ * against it.
+ *
+ * <ul>
+ *     <li>{@code -mode=open}: requests are started at a fixed {@code -rate}, whether earlier ones have finished or not,
+ *     like independent users. The latency is measured from the time a request <em>should</em> have been sent, so
+ *     a stalled server is not hidden by the generator waiting for it (coordinated omission).</li>
+ *     <li>{@code -mode=closed}: {@code -connections} clients send their next request when the last one has finished.
+ *     With {@code -rate} the clients are paced and the latency is corrected the same way; without, it is the plain
+ *     service time at maximum throughput.</li>
+ * </ul>
+ *
+ * All other options - {@code -rate}, {@code -connections}, {@code -duration}, {@code -warmup}, {@code -report} (s),
+ * {@code -mix}, {@code -ids}, {@code -missing}, {@code -authorized}, {@code -maxerrorrate}, {@code -conf} - and the
+ * {@code -loadtest.*} keys of the fakes are described in the README. The exit code is {@code 1} if the error rate
+ * exceeds {@code -maxerrorrate}, so the test can gate a release.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class LoadTest {
+
+    /**
+     * 10 µs to about 2 min in steps of 10 %, fine enough for p999
+     */
+    private static final long[] LATENCY_BOUNDS = Histogram.exponentialBounds(10_000L, 1.1, 175);
+
+    private enum Route {
+
+        RESOURCE("/resource/gnd/%s", "text/turtle"),
+        ABOUT("/resource/gnd/%s/about", "text/turtle"),
+        SEARCH("/service/search?q=%s&rows=10", "application/json"),
+        SPARQL("/service/sparql?q=SELECT%%20%%3Fp%%20%%3Fo%%20WHERE%%20%%7B%%20%%3Chttp%%3A%%2F%%2Fdata.ub.tu-dortmund.de%%2Fresource%%2Fgnd%%2F%s%%3E%%20%%3Fp%%20%%3Fo%%20%%7D", "application/sparql-results+json");
+
+        private final String path;
+        private final String accept;
+
+        Route(final String path, final String accept) {
+
+            this.path = path;
+            this.accept = accept;
+        }
+    }
+
+    private final Properties options;
+
+    private final Route[] routes;
+    private final int[]   weights;
+    private final int     totalWeight;
+    private final int     ids;
+    private final double  missing;
+    private final double  authorized;
+
+    private final Stats[]                 stats    = new Stats[Route.values().length];
+    private final Stats                   total    = new Stats();
+    private final AtomicReference<Stats>  interval = new AtomicReference<>(new Stats());
+
+    private CloseableHttpClient httpClient;
+    private String              baseUrl;
+    private long                measureFrom;
+
+    public LoadTest(final Properties options) {
+
+        this.options = options;
+
+        final List<Route> routes = new ArrayList<>();
+        final List<Integer> weights = new ArrayList<>();
+        int totalWeight = 0;
+
+        for (String entry : options.getProperty("mix", "resource:10,about:60,search:20,sparql:10").split(",")) {
+
+            final String[] pair = entry.trim().split(":");
+
+            routes.add(Route.valueOf(pair[0].trim().toUpperCase()));
+            weights.add(Integer.parseInt(pair[1].trim()));
+            totalWeight += weights.get(weights.size() - 1);
+        }
+
+        this.routes = routes.toArray(new Route[routes.size()]);
+        this.weights = new int[weights.size()];
+
+        for (int i = 0; i < this.weights.length; i++) {
+
+            this.weights[i] = weights.get(i);
+        }
+
+        this.totalWeight = totalWeight;
+        this.ids = Integer.parseInt(options.getProperty("ids", "100000"));
+        this.missing = Double.parseDouble(options.getProperty("missing", "0.02"));
+        this.authorized = Double.parseDouble(options.getProperty("authorized", "0.1"));
+
+        for (int i = 0; i < this.stats.length; i++) {
+
+            this.stats[i] = new Stats();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        final Properties options = new Properties();
+
+        for (final String arg : args) {
+
+            if (arg.startsWith("-") && arg.contains("=")) {
+
+                options.setProperty(arg.substring(1, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        // the endpoints log every request on INFO
+        BasicConfigurator.configure();
+        LogManager.getRootLogger().setLevel(Level.WARN);
+
+        System.exit(new LoadTest(options).run() ? 0 : 1);
+    }
+
+    /**
+     * @return {@code false} if the error rate exceeded {@code -maxerrorrate}
+     */
+    public boolean run() throws Exception {
+
+        final Server server = this.options.getProperty("url") == null ? this.startServer() : null;
+
+        final int connections = Integer.parseInt(this.options.getProperty("connections", "32"));
+        final double rate = Double.parseDouble(this.options.getProperty("rate", "200"));
+        final long warmup = TimeUnit.SECONDS.toNanos(Long.parseLong(this.options.getProperty("warmup", "10")));
+        final long duration = TimeUnit.SECONDS.toNanos(Long.parseLong(this.options.getProperty("duration", "60")));
+        final long report = TimeUnit.SECONDS.toNanos(Long.parseLong(this.options.getProperty("report", "10")));
+        final boolean open = !"closed".equals(this.options.getProperty("mode", "open"));
+
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(connections);
+        connectionManager.setDefaultMaxPerRoute(connections);
+
+        this.httpClient = HttpClients.custom().setConnectionManager(connectionManager).disableRedirectHandling().build();
+
+        if (server == null) {
+
+            this.baseUrl = this.options.getProperty("url");
+        }
+
+        System.out.println(String.format("%s loop, %s, %d connections, %d s (+ %d s warmup) against %s",
+                open ? "open" : "closed", rate > 0 ? rate + " req/s" : "max. rate", connections,
+                TimeUnit.NANOSECONDS.toSeconds(duration), TimeUnit.NANOSECONDS.toSeconds(warmup), this.baseUrl));
+
+        final long start = System.nanoTime();
+        final long end = start + warmup + duration;
+
+        this.measureFrom = start + warmup;
+
+        final Thread reporter = new Thread(() -> this.report(start, report, end), "loadtest-report");
+        reporter.setDaemon(true);
+        reporter.start();
+
+        final ExecutorService clients = Executors.newFixedThreadPool(connections);
+        long backlog = 0;
+
+        try {
+
+            if (open) {
+
+                backlog = this.openLoop((ThreadPoolExecutor) clients, rate, start, end);
+            }
+            else {
+
+                this.closedLoop(clients, connections, rate, start, end);
+            }
+
+            clients.shutdown();
+            clients.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        finally {
+
+            clients.shutdownNow();
+            this.httpClient.close();
+
+            if (server != null) {
+
+                server.stop();
+            }
+        }
+
+        return this.summary(duration, open ? backlog : -1);
+    }
+
+    private Server startServer() throws Exception {
+
+        final Properties properties = new Properties();
+        properties.setProperty(LDPStatics.SERVICE_NAME_IDENTIFIER, "loadtest");
+        properties.setProperty(LDPStatics.SERVICE_CONTEXTPATH_IDENTIFIER, "/");
+        properties.setProperty(LDPStatics.SERVICE_LANGUAGE_DEFAULT_IDENTIFIER, "de");
+        properties.setProperty(LDPStatics.LDP_ENDPOINT_HOME_CONTENT_IDENTIFIER, Files.createTempDirectory("ldp-loadtest").toString());
+        properties.setProperty(LDPStatics.LDP_ENDPOINT_PING_IDENTIFIER, "/_ping");
+        properties.setProperty(LDPStatics.LDP_ENDPOINT_HEALTH_IDENTIFIER, "/_health");
+        properties.setProperty(LDPStatics.LDP_ENDPOINT_RESOURCE_CONTEXTPATH_IDENTIFIER, "/resource/*");
+        properties.setProperty(LDPStatics.LDP_ENDPOINT_SERVICE_CONTEXTPATH_IDENTIFIER, "/service/*");
+        properties.setProperty(LDPStatics.RESOURCE_BASEURL_IDENTIFIER, "http://data.ub.tu-dortmund.de");
+        properties.setProperty(LDPStatics.STORAGE_GRAPH_DEFAULT_IDENTIFIER, "gnd");
+        properties.setProperty(LDPStatics.STORAGE_GRAPHS_IDENTIFIER, "gnd");
+        properties.setProperty(LDPStatics.SERVICE_IPRANGE_TU_IDENTIFIER, "129\\.217\\..*");
+        properties.setProperty(LDPStatics.SERVICE_IPRANGE_TU_EXCEPTIONS_IDENTIFIER, "");
+        properties.setProperty(LDPStatics.SERVICE_IPRANGE_UB_IDENTIFIER, "129\\.217\\.132\\..*");
+        properties.setProperty(LDPStatics.SERVICE_IPRANGE_UB_EXCEPTIONS_IDENTIFIER, "");
+        properties.setProperty("loadtest.storage.latency.median", "5");
+        properties.setProperty("loadtest.storage.latency.p99", "50");
+
+        // a production conf file can be used as the base, e.g. to test its cache and executor settings
+        final String conffile = this.options.getProperty("conf");
+
+        if (conffile != null) {
+
+            try (InputStream inputStream = new FileInputStream(conffile); Reader reader = new InputStreamReader(inputStream, LinkedDataPlatform.UTF_8)) {
+
+                properties.load(reader);
+            }
+        }
+
+        // options with a dot are configuration keys, e.g. -loadtest.storage.latency.p99=200 or -backend.executor.threads=16
+        for (String key : this.options.stringPropertyNames()) {
+
+            if (key.contains(".")) {
+
+                properties.setProperty(key, this.options.getProperty(key));
+            }
+        }
+
+        final LinkedDataPlatformConfig config = new LinkedDataPlatformConfig(properties);
+
+        final Server server = new Server(LinkedDataPlatform.createThreadPool(config));
+        final ServerConnector connector = new ServerConnector(server);
+        connector.setPort(0);
+        server.addConnector(connector);
+
+        final LinkedDataPlatformContext platformContext = new LinkedDataPlatformContext(config, new FakeLinkedDataStorage(), new FakeAuthorizationInterface());
+        server.addBean(platformContext);
+        server.setHandler(LinkedDataPlatform.createContextHandler(config, platformContext, server.getThreadPool()));
+
+        server.start();
+
+        this.baseUrl = "http://localhost:" + connector.getLocalPort();
+
+        return server;
+    }
+
+    /**
+     * Starts a request every {@code 1 / rate} seconds. If all clients are busy, requests queue up in the executor -
+     * their waiting time counts as latency.
+     *
+     * @return the largest number of requests that had to wait for a client
+     */
+    private long openLoop(final ThreadPoolExecutor clients, final double rate, final long start, final long end) {
+
+        final double interval = 1e9 / rate;
+        long backlog = 0;
+
+        for (long i = 0; ; i++) {
+
+            final long intended = start + (long) (i * interval);
+
+            if (intended >= end) {
+
+                break;
+            }
+
+            parkUntil(intended);
+
+            clients.execute(() -> this.execute(intended));
+
+            backlog = Math.max(backlog, clients.getQueue().size());
+        }
+
+        return backlog;
+    }
+
+    private void closedLoop(final ExecutorService clients, final int connections, final double rate, final long start, final long end) {
+
+        // each client sends every connections / rate seconds; without a rate as fast as it can
+        final double interval = rate > 0 ? 1e9 * connections / rate : 0;
+
+        for (int c = 0; c < connections; c++) {
+
+            final long offset = (long) (interval * c / connections);
+
+            clients.execute(() -> {
+
+                for (long i = 0; ; i++) {
+
+                    final long intended = interval > 0 ? start + offset + (long) (i * interval) : System.nanoTime();
+
+                    if (intended >= end) {
+
+                        break;
+                    }
+
+                    parkUntil(intended);
+
+                    this.execute(intended);
+                }
+            });
+        }
+    }
+
+    private void execute(final long intended) {
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final Route route = this.route(random.nextInt(this.totalWeight));
+        final String id = random.nextDouble() < this.missing ? "missing-" + random.nextInt(this.ids) : String.valueOf(1 + random.nextInt(this.ids));
+
+        final HttpGet request = new HttpGet(this.baseUrl + String.format(route.path, id));
+        request.setHeader("Accept", route.accept);
+
+        if (random.nextDouble() < this.authorized) {
+
+            request.setHeader("Authorization", "valid-" + random.nextInt(1000));
+        }
+
+        boolean failed;
+
+        try (CloseableHttpResponse response = this.httpClient.execute(request)) {
+
+            EntityUtils.consume(response.getEntity());
+
+            failed = response.getStatusLine().getStatusCode() >= 500;
+        }
+        catch (Exception e) {
+
+            failed = true;
+        }
+
+        final long latency = System.nanoTime() - intended;
+
+        if (intended >= this.measureFrom) {
+
+            this.stats[route.ordinal()].record(latency, failed);
+            this.total.record(latency, failed);
+        }
+
+        this.interval.get().record(latency, failed);
+    }
+
+    private Route route(final int value) {
+
+        int cumulative = 0;
+
+        for (int i = 0; i < this.routes.length; i++) {
+
+            cumulative += this.weights[i];
+
+            if (value < cumulative) {
+
+                return this.routes[i];
+            }
+        }
+
+        return this.routes[this.routes.length - 1];
+    }
+
+    private void report(final long start, final long period, final long end) {
+
+        for (long next = start + period; next <= end; next += period) {
+
+            parkUntil(next);
+
+            final Stats stats = this.interval.getAndSet(new Stats());
+
+            System.out.println(String.format("[%4d s] %8.1f req/s  p50 %8.2f ms  p99 %8.2f ms  p999 %8.2f ms  errors %d%s",
+                    TimeUnit.NANOSECONDS.toSeconds(next - start), stats.latency.getCount() * 1e9 / period,
+                    millis(stats.quantile(0.5)), millis(stats.quantile(0.99)), millis(stats.quantile(0.999)), stats.errors.sum(), next <= this.measureFrom ? "  (warmup)" : ""));
+        }
+    }
+
+    private boolean summary(final long duration, final long backlog) {
+
+        System.out.println();
+        System.out.println(String.format("%-10s %10s %8s %10s %10s %10s %10s %10s", "route", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+
+        for (Route route : Route.values()) {
+
+            if (this.stats[route.ordinal()].latency.getCount() > 0) {
+
+                this.stats[route.ordinal()].print(route.name().toLowerCase(), duration);
+            }
+        }
+
+        this.total.print("total", duration);
+
+        if (backlog > 0) {
+
+            System.out.println(String.format("up to %d requests waited for a client connection - raise -connections if this is large", backlog));
+        }
+
+        final long requests = this.total.latency.getCount();
+        final double errorRate = requests > 0 ? (double) this.total.errors.sum() / requests : 0;
+        final double maxErrorRate = Double.parseDouble(this.options.getProperty("maxerrorrate", "0.01"));
+
+        if (errorRate > maxErrorRate) {
+
+            System.out.println(String.format("FAILED: error rate %.2f %% > %.2f %%", errorRate * 100, maxErrorRate * 100));
+
+            return false;
+        }
+
+        return true;
+    }
+
+    private static void parkUntil(final long deadline) {
+
+        for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static double millis(final long nanos) {
+
+        return nanos == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : nanos / 1e6;
+    }
+
+    private static final class Stats {
+
+        private final Histogram       latency = new Histogram(LATENCY_BOUNDS);
+        private final LongAdder       errors  = new LongAdder();
+        private final LongAccumulator max     = new LongAccumulator(Long::max, 0);
+
+        private void record(final long latency, final boolean failed) {
+
+            this.latency.record(latency);
+            this.max.accumulate(latency);
+
+            if (failed) {
+
+                this.errors.increment();
+            }
+        }
+
+        private void print(final String name, final long duration) {
+
+            System.out.println(String.format("%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f", name, this.latency.getCount(), this.errors.sum(),
+                    this.latency.getCount() * 1e9 / duration, millis(this.quantile(0.5)), millis(this.quantile(0.99)),
+                    millis(this.quantile(0.999)), millis(this.max.get())));
+        }
+
+        /**
+         * @return the upper bound of the bucket of the quantile - at most 10 % above the exact value - or the maximum
+         */
+        private long quantile(final double quantile) {
+
+            return Math.min(this.latency.getValueAtQuantile(quantile), this.max.get());
+        }
+    }
+}
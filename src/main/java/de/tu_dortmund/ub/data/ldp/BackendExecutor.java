@@ -0,0 +1,703 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp;
+
+import de.tu_dortmund.ub.util.concurrent.VirtualThreads;
+import org.apache.log4j.Logger;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Backend Executor
+ *
+ * Bounded thread pool for the blocking storage and authorization calls of the endpoints. A request is put into async
+ * mode and processed on a backend thread, so the Jetty thread returns to the pool at once. If all backend threads are
+ * busy and the queue is full, the request is rejected with {@code 503 Service Unavailable} and {@code Retry-After}.
+ * A request whose response has not been committed within {@code timeout} milliseconds is answered the same way; a
+ * response that is already being written is not cut off.
+ *
+ * In virtual-thread mode every request gets its own virtual thread instead; at most {@code threads + queueSize}
+ * requests are processed at once, the rest are rejected the same way.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class BackendExecutor extends AbstractLifeCycle {
+
+    private static Logger logger = Logger.getLogger(BackendExecutor.class.getName());
+
+    private final String  serviceName;
+    private final int     threads;
+    private final int     queueSize;
+    private final String  retryAfter;
+    private final long    timeout;
+    private final boolean virtual;
+
+    // how long to wait for a task that is writing the response when the deadline has passed
+    private static final long BUSY_DELAY = 100;
+
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder timeouts   = new LongAdder();
+
+    private volatile ExecutorService             executor;
+    private volatile Semaphore                   permits;
+    private volatile ScheduledThreadPoolExecutor deadlines;
+
+    /**
+     * @param threads    number of backend threads
+     * @param queueSize  number of requests waiting for a backend thread
+     * @param retryAfter value of the {@code Retry-After} header of rejected requests in seconds
+     */
+    public BackendExecutor(final String serviceName, final int threads, final int queueSize, final int retryAfter) {
+
+        this(serviceName, threads, queueSize, retryAfter, 60000, false);
+    }
+
+    /**
+     * @param timeout how long a request may take in milliseconds before it is answered with {@code 503}
+     * @param virtual run each request on its own virtual thread, if the JVM supports it
+     */
+    public BackendExecutor(final String serviceName, final int threads, final int queueSize, final int retryAfter, final long timeout, final boolean virtual) {
+
+        this.serviceName = serviceName;
+        this.threads = threads;
+        this.queueSize = queueSize;
+        this.retryAfter = String.valueOf(retryAfter);
+        this.timeout = timeout;
+        this.virtual = virtual;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+
+        if (this.timeout > 0) {
+
+            final ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, (runnable) -> {
+
+                final Thread thread = new Thread(runnable, "ldp-backend-deadline");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+            deadlines.setRemoveOnCancelPolicy(true);
+
+            this.deadlines = deadlines;
+        }
+
+        if (this.virtual) {
+
+            final ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+
+            if (executor != null) {
+
+                this.permits = new Semaphore(this.threads + this.queueSize);
+                this.executor = executor;
+
+                logger.info(String.format("[%s] backend executor started on virtual threads (max. %d concurrent requests)", this.serviceName, this.threads + this.queueSize));
+
+                return;
+            }
+
+            logger.warn(String.format("[%s] virtual threads are not supported by this JVM - using platform threads", this.serviceName));
+        }
+
+        this.permits = null;
+
+        final AtomicInteger counter = new AtomicInteger();
+        final ThreadFactory threadFactory = (runnable) -> {
+
+            final Thread thread = new Thread(runnable, "ldp-backend-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        };
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(this.threads, this.threads, 60, TimeUnit.SECONDS,
+                this.queueSize > 0 ? new ArrayBlockingQueue<>(this.queueSize) : new SynchronousQueue<>(), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        this.executor = executor;
+
+        logger.info(String.format("[%s] backend executor started (threads = %d, queue = %d)", this.serviceName, this.threads, this.queueSize));
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+
+        final ScheduledThreadPoolExecutor deadlines = this.deadlines;
+
+        this.deadlines = null;
+
+        if (deadlines != null) {
+
+            deadlines.shutdownNow();
+        }
+
+        final ExecutorService executor = this.executor;
+
+        if (executor != null) {
+
+            executor.shutdown();
+
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+
+                logger.warn(String.format("[%s] %d backend tasks still running", this.serviceName, this.getActiveCount()));
+            }
+        }
+    }
+
+    /**
+     * Processes the request on a backend thread. Falls back to the calling thread if the request does not support
+     * async processing.
+     */
+    public void dispatch(final HttpServletRequest httpServletRequest, final HttpServletResponse httpServletResponse, final Task task) throws ServletException, IOException {
+
+        final ExecutorService executor = this.executor;
+
+        if (executor == null || !httpServletRequest.isAsyncSupported()) {
+
+            task.process(httpServletRequest, httpServletResponse);
+
+            return;
+        }
+
+        // Jetty resets the servlet path and the path info of the request when the servlet returns
+        final AsyncContext asyncContext = httpServletRequest.startAsync(new DispatchedRequest(httpServletRequest), httpServletResponse);
+
+        // the request is completed either by the task or by the deadline, whichever comes first; the deadline is kept
+        // here instead of by the container, which would cut off a response that is already being written
+        final Completion completion = new Completion();
+        final ScheduledThreadPoolExecutor deadlines = this.deadlines;
+
+        asyncContext.setTimeout(0);
+
+        if (deadlines != null) {
+
+            completion.deadline = deadlines.schedule(() -> this.expire(asyncContext, completion), this.timeout, TimeUnit.MILLISECONDS);
+        }
+
+        final Semaphore permits = this.permits;
+
+        try {
+
+            if (permits != null && !permits.tryAcquire()) {
+
+                throw new RejectedExecutionException();
+            }
+
+            try {
+
+                executor.execute(() -> {
+
+                    // after a timeout the response belongs to the container again
+                    final HttpServletResponse response = new DispatchedResponse((HttpServletResponse) asyncContext.getResponse(), completion);
+
+                    try {
+
+                        task.process((HttpServletRequest) asyncContext.getRequest(), response);
+                    }
+                    catch (Exception e) {
+
+                        logger.error(String.format("[%s] something went wrong", this.serviceName), e);
+
+                        this.sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "something went wrong");
+                    }
+                    finally {
+
+                        completion.complete(asyncContext);
+
+                        if (permits != null) {
+
+                            permits.release();
+                        }
+                    }
+                });
+            }
+            catch (RejectedExecutionException e) {
+
+                if (permits != null) {
+
+                    permits.release();
+                }
+
+                throw e;
+            }
+        }
+        catch (RejectedExecutionException e) {
+
+            this.rejections.increment();
+
+            logger.warn(String.format("[%s] backend executor saturated - request rejected", this.serviceName));
+
+            final HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+            response.setHeader("Retry-After", this.retryAfter);
+            this.sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service overloaded! Please try again later!");
+
+            completion.complete(asyncContext);
+        }
+    }
+
+    /**
+     * Runs on the deadline thread: answers the request with {@code 503} unless the task has completed it or has
+     * committed the response already.
+     */
+    private void expire(final AsyncContext asyncContext, final Completion completion) {
+
+        if (!completion.lock.tryLock()) {
+
+            // the task is writing the response, which commits it sooner or later - look again shortly
+            final ScheduledThreadPoolExecutor deadlines = this.deadlines;
+
+            if (deadlines != null) {
+
+                try {
+
+                    completion.deadline = deadlines.schedule(() -> this.expire(asyncContext, completion), BUSY_DELAY, TimeUnit.MILLISECONDS);
+                }
+                catch (RejectedExecutionException e) {
+
+                    logger.debug(String.format("[%s] backend executor stopped", this.serviceName));
+                }
+            }
+
+            return;
+        }
+
+        try {
+
+            final HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+
+            if (completion.completed || response.isCommitted()) {
+
+                return;
+            }
+
+            completion.completed = true;
+
+            this.timeouts.increment();
+
+            logger.warn(String.format("[%s] request not answered within %d ms", this.serviceName, this.timeout));
+
+            response.setHeader("Retry-After", this.retryAfter);
+            this.sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Backend timed out! Please try again later!");
+
+            asyncContext.complete();
+        }
+        finally {
+
+            completion.lock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if the requests run on virtual threads
+     */
+    public boolean isVirtual() {
+
+        return this.permits != null;
+    }
+
+    public int getActiveCount() {
+
+        final ExecutorService executor = this.executor;
+        final Semaphore permits = this.permits;
+
+        if (permits != null) {
+
+            return this.threads + this.queueSize - permits.availablePermits();
+        }
+
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getActiveCount() : 0;
+    }
+
+    public int getQueueSize() {
+
+        final ExecutorService executor = this.executor;
+
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+    }
+
+    public long getRejections() {
+
+        return this.rejections.sum();
+    }
+
+    public long getTimeouts() {
+
+        return this.timeouts.sum();
+    }
+
+    private void sendError(final HttpServletResponse httpServletResponse, final int status, final String message) {
+
+        if (!httpServletResponse.isCommitted()) {
+
+            try {
+
+                httpServletResponse.sendError(status, message);
+            }
+            catch (IOException e) {
+
+                logger.error(String.format("[%s] could not send error %d", this.serviceName, status), e);
+            }
+        }
+    }
+
+    /**
+     * The request as seen by the servlet at dispatch time.
+     */
+    private static final class DispatchedRequest extends HttpServletRequestWrapper {
+
+        private final String servletPath;
+        private final String pathInfo;
+
+        private DispatchedRequest(final HttpServletRequest httpServletRequest) {
+
+            super(httpServletRequest);
+
+            this.servletPath = httpServletRequest.getServletPath();
+            this.pathInfo = httpServletRequest.getPathInfo();
+        }
+
+        @Override
+        public String getServletPath() {
+
+            return this.servletPath;
+        }
+
+        @Override
+        public String getPathInfo() {
+
+            return this.pathInfo;
+        }
+    }
+
+    /**
+     * Completion of a dispatched request, shared by the task, its response and the deadline. The lock makes completing
+     * the request and writing to its response mutually exclusive.
+     */
+    private static final class Completion {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private          boolean            completed;
+        private volatile ScheduledFuture<?> deadline;
+
+        /**
+         * Completes the request, unless the deadline has done so already.
+         */
+        private void complete(final AsyncContext asyncContext) {
+
+            this.lock.lock();
+
+            try {
+
+                if (this.completed) {
+
+                    return;
+                }
+
+                this.completed = true;
+
+                final ScheduledFuture<?> deadline = this.deadline;
+
+                if (deadline != null) {
+
+                    deadline.cancel(false);
+                }
+
+                asyncContext.complete();
+            }
+            finally {
+
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * The response as seen by the task: once the request is completed by the deadline, the task can no longer change it.
+     */
+    private static final class DispatchedResponse extends HttpServletResponseWrapper {
+
+        private final Completion completion;
+
+        private ServletOutputStream outputStream;
+        private PrintWriter         writer;
+
+        private DispatchedResponse(final HttpServletResponse httpServletResponse, final Completion completion) {
+
+            super(httpServletResponse);
+
+            this.completion = completion;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+
+            if (this.outputStream == null) {
+
+                final ServletOutputStream[] outputStream = new ServletOutputStream[1];
+
+                this.guarded(() -> outputStream[0] = super.getOutputStream());
+
+                this.outputStream = new ServletOutputStream() {
+
+                    @Override
+                    public boolean isReady() {
+
+                        return outputStream[0].isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(final WriteListener writeListener) {
+
+                        outputStream[0].setWriteListener(writeListener);
+                    }
+
+                    @Override
+                    public void write(final int b) throws IOException {
+
+                        DispatchedResponse.this.guarded(() -> outputStream[0].write(b));
+                    }
+
+                    @Override
+                    public void write(final byte[] b, final int off, final int len) throws IOException {
+
+                        DispatchedResponse.this.guarded(() -> outputStream[0].write(b, off, len));
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+
+                        DispatchedResponse.this.guarded(outputStream[0]::flush);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+
+                        DispatchedResponse.this.guarded(outputStream[0]::close);
+                    }
+                };
+            }
+
+            return this.outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+
+            if (this.writer == null) {
+
+                final PrintWriter[] writer = new PrintWriter[1];
+
+                this.guarded(() -> writer[0] = super.getWriter());
+
+                this.writer = new PrintWriter(writer[0]) {
+
+                    @Override
+                    public void write(final int c) {
+
+                        DispatchedResponse.this.ignored(() -> super.write(c));
+                    }
+
+                    @Override
+                    public void write(final char[] buf, final int off, final int len) {
+
+                        DispatchedResponse.this.ignored(() -> super.write(buf, off, len));
+                    }
+
+                    @Override
+                    public void write(final String s, final int off, final int len) {
+
+                        DispatchedResponse.this.ignored(() -> super.write(s, off, len));
+                    }
+
+                    @Override
+                    public void flush() {
+
+                        DispatchedResponse.this.ignored(super::flush);
+                    }
+
+                    @Override
+                    public void close() {
+
+                        DispatchedResponse.this.ignored(super::close);
+                    }
+                };
+            }
+
+            return this.writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+
+            this.guarded(super::flushBuffer);
+        }
+
+        @Override
+        public void sendError(final int sc, final String msg) throws IOException {
+
+            this.guarded(() -> super.sendError(sc, msg));
+        }
+
+        @Override
+        public void sendError(final int sc) throws IOException {
+
+            this.guarded(() -> super.sendError(sc));
+        }
+
+        @Override
+        public void sendRedirect(final String location) throws IOException {
+
+            this.guarded(() -> super.sendRedirect(location));
+        }
+
+        @Override
+        public void setStatus(final int sc) {
+
+            this.ignored(() -> super.setStatus(sc));
+        }
+
+        @Override
+        public void setHeader(final String name, final String value) {
+
+            this.ignored(() -> super.setHeader(name, value));
+        }
+
+        @Override
+        public void addHeader(final String name, final String value) {
+
+            this.ignored(() -> super.addHeader(name, value));
+        }
+
+        @Override
+        public void setDateHeader(final String name, final long date) {
+
+            this.ignored(() -> super.setDateHeader(name, date));
+        }
+
+        @Override
+        public void setContentType(final String type) {
+
+            this.ignored(() -> super.setContentType(type));
+        }
+
+        @Override
+        public void setCharacterEncoding(final String charset) {
+
+            this.ignored(() -> super.setCharacterEncoding(charset));
+        }
+
+        @Override
+        public void setContentLength(final int len) {
+
+            this.ignored(() -> super.setContentLength(len));
+        }
+
+        @Override
+        public void setContentLengthLong(final long len) {
+
+            this.ignored(() -> super.setContentLengthLong(len));
+        }
+
+        /**
+         * Runs the action while the request cannot be completed by the deadline; fails if it has been already.
+         */
+        private void guarded(final ResponseAction action) throws IOException {
+
+            this.completion.lock.lock();
+
+            try {
+
+                if (this.completion.completed) {
+
+                    throw new IOException("Request already answered after the timeout!");
+                }
+
+                action.run();
+            }
+            finally {
+
+                this.completion.lock.unlock();
+            }
+        }
+
+        /**
+         * Runs the action while the request cannot be completed by the deadline; skips it if it has been already.
+         */
+        private void ignored(final Runnable action) {
+
+            this.completion.lock.lock();
+
+            try {
+
+                if (!this.completion.completed) {
+
+                    action.run();
+                }
+            }
+            finally {
+
+                this.completion.lock.unlock();
+            }
+        }
+    }
+
+    private interface ResponseAction {
+
+        void run() throws IOException;
+    }
+
+    /**
+     * The blocking part of a request, i.e. the former body of {@code doGet} or {@code doPost}.
+     */
+    public interface Task {
+
+        void process(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException;
+    }
+}
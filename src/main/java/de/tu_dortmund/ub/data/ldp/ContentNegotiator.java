@@ -0,0 +1,254 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content Negotiation
+ *
+ * Selects the format of a response from the {@code Accept} header as described in RFC 7231, section 5.3.2: every
+ * offered media type gets the weight of the most specific media range matching it, the offer with the highest weight
+ * wins and ties are broken by the order of the offers. A missing, empty or malformed header selects the first offer;
+ * if no offer is acceptable, {@link #negotiate(String)} returns {@code null}.
+ *
+ * The results are memoized per {@code Accept} string, because clients send only a handful of distinct values.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class ContentNegotiator {
+
+    /**
+     * Formats of the resource representations
+     */
+    public static final ContentNegotiator RESOURCE = new ContentNegotiator(new String[][] {
+            { LDPStatics.TEXT_HTML_MIMETYPE, LDPStatics.FORMAT_HTML },
+            { LDPStatics.APPLICATION_RDF_XML_MIMETYPE, LDPStatics.FORMAT_RDF_XML },
+            { LDPStatics.APPLICATION_XHTML_XML_MIMETYPE, LDPStatics.FORMAT_RDFA },
+            { LDPStatics.TEXT_TURTLE_MIMETYPE, LDPStatics.FORMAT_TURTLE },
+            { "application/x-turtle", LDPStatics.FORMAT_TURTLE },
+            { "application/turtle", LDPStatics.FORMAT_TURTLE },
+            { LDPStatics.APPLICATION_JSON_LD_MIMETYPE, LDPStatics.FORMAT_JSON },
+            { LDPStatics.APPLICATION_JSON_MIMETYPE, LDPStatics.FORMAT_JSON },
+            { LDPStatics.APPLICATION_N_QUADS_MIMETYPE, LDPStatics.FORMAT_NQUADS },
+    });
+
+    /**
+     * Formats of the search and SPARQL results
+     */
+    public static final ContentNegotiator RESULTS = new ContentNegotiator(new String[][] {
+            { LDPStatics.TEXT_HTML_MIMETYPE, LDPStatics.FORMAT_HTML },
+            { LDPStatics.APPLICATION_SPARQL_RESULTS_JSON_MIMETYPE, LDPStatics.FORMAT_JSON },
+            { LDPStatics.APPLICATION_SPARQL_RESULTS_XML_MIMETYPE, LDPStatics.FORMAT_XML },
+            { LDPStatics.APPLICATION_JSON_MIMETYPE, LDPStatics.FORMAT_JSON },
+            { LDPStatics.APPLICATION_XML_MIMETYPE, LDPStatics.FORMAT_XML },
+    });
+
+    private static final int    TABLE_SIZE     = 256;
+    private static final String NOT_ACCEPTABLE = "";
+
+    private final String[][] offers;
+    private final String     defaultFormat;
+
+    private final ConcurrentHashMap<String, String> table = new ConcurrentHashMap<>();
+
+    /**
+     * @param offers pairs of media type and format in the order of preference
+     */
+    public ContentNegotiator(final String[][] offers) {
+
+        this.offers = new String[offers.length][];
+
+        for (int i = 0; i < offers.length; i++) {
+
+            final int slash = offers[i][0].indexOf('/');
+
+            this.offers[i] = new String[] { offers[i][0].substring(0, slash), offers[i][0].substring(slash + 1), offers[i][1] };
+        }
+
+        this.defaultFormat = offers[0][1];
+    }
+
+    /**
+     * @param accept value of the {@code Accept} header; may be {@code null}
+     * @return the negotiated format or {@code null} if none of the offers is acceptable
+     */
+    public String negotiate(final String accept) {
+
+        if (accept == null || accept.trim().isEmpty()) {
+
+            return this.defaultFormat;
+        }
+
+        String format = this.table.get(accept);
+
+        if (format == null) {
+
+            format = this.select(accept);
+
+            // the table is bounded, so arbitrary headers cannot fill it up
+            if (this.table.size() < TABLE_SIZE) {
+
+                this.table.putIfAbsent(accept, format);
+            }
+        }
+
+        return format.isEmpty() ? null : format;
+    }
+
+    int getTableSize() {
+
+        return this.table.size();
+    }
+
+    /**
+     * Adds {@code header} to the {@code Vary} header of the response, unless it is already listed.
+     */
+    public static void vary(final HttpServletResponse httpServletResponse, final String header) {
+
+        final String vary = httpServletResponse.getHeader("Vary");
+
+        if (vary == null || vary.isEmpty()) {
+
+            httpServletResponse.setHeader("Vary", header);
+        }
+        else {
+
+            for (String value : vary.split(",")) {
+
+                if (value.trim().equalsIgnoreCase(header) || value.trim().equals("*")) {
+
+                    return;
+                }
+            }
+
+            httpServletResponse.setHeader("Vary", vary + ", " + header);
+        }
+    }
+
+    private String select(final String accept) {
+
+        final List<MediaRange> ranges = new ArrayList<>();
+
+        for (String element : accept.split(",")) {
+
+            final String[] parameters = element.split(";");
+            String range = parameters[0].trim().toLowerCase(Locale.ROOT);
+
+            if (range.equals("*")) {
+
+                // sent by some Java clients
+                range = "*/*";
+            }
+
+            final int slash = range.indexOf('/');
+
+            if (slash <= 0 || slash == range.length() - 1) {
+
+                continue;
+            }
+
+            float q = 1.0f;
+
+            for (int i = 1; i < parameters.length; i++) {
+
+                final String parameter = parameters[i].trim().toLowerCase(Locale.ROOT);
+
+                if (parameter.startsWith("q=")) {
+
+                    try {
+
+                        q = Math.max(0.0f, Math.min(1.0f, Float.parseFloat(parameter.substring(2))));
+                    }
+                    catch (NumberFormatException e) {
+
+                        q = 0.0f;
+                    }
+
+                    break;
+                }
+            }
+
+            ranges.add(new MediaRange(range.substring(0, slash), range.substring(slash + 1), q));
+        }
+
+        if (ranges.isEmpty()) {
+
+            return this.defaultFormat;
+        }
+
+        String format = NOT_ACCEPTABLE;
+        float best = 0.0f;
+
+        for (String[] offer : this.offers) {
+
+            // the most specific matching range determines the weight
+            MediaRange match = null;
+
+            for (MediaRange range : ranges) {
+
+                if (range.matches(offer[0], offer[1]) && (match == null || range.specificity > match.specificity)) {
+
+                    match = range;
+                }
+            }
+
+            final float q = match != null ? match.q : 0.0f;
+
+            if (q > best) {
+
+                format = offer[2];
+                best = q;
+            }
+        }
+
+        return format;
+    }
+
+    private static final class MediaRange {
+
+        private final String type;
+        private final String subtype;
+        private final float  q;
+        private final int    specificity;
+
+        private MediaRange(final String type, final String subtype, final float q) {
+
+            this.type = type;
+            this.subtype = subtype;
+            this.q = q;
+            this.specificity = type.equals("*") ? 0 : subtype.equals("*") ? 1 : 2;
+        }
+
+        private boolean matches(final String type, final String subtype) {
+
+            return this.type.equals("*") || (this.type.equals(type) && (this.subtype.equals("*") || this.subtype.equals(subtype)));
+        }
+    }
+}
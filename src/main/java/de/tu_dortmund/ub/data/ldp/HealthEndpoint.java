@@ -24,71 +24,45 @@ SOFTWARE.
 
 package de.tu_dortmund.ub.data.ldp;
 
-import de.tu_dortmund.ub.data.ldp.auth.AuthorizationInterface;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.tu_dortmund.ub.data.ldp.auth.TokenValidationCache;
+import de.tu_dortmund.ub.data.ldp.cache.RepresentationCache;
+import de.tu_dortmund.ub.data.ldp.cache.SparqlResultCache;
+import de.tu_dortmund.ub.data.ldp.storage.CoalescingLinkedDataStorage;
 import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
-import de.tu_dortmund.ub.util.impl.Lookup;
+import de.tu_dortmund.ub.util.concurrent.SingleFlight;
 import org.apache.log4j.Logger;
-import org.apache.log4j.PropertyConfigurator;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.*;
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Properties;
+import java.util.Map;
 
 /**
  * Created by Hans-Georg on 24.07.2015.
  */
 public class HealthEndpoint extends HttpServlet {
 
-    private String conffile  = "";
-    private Properties config = new Properties();
-    private Logger logger = Logger.getLogger(HealthEndpoint.class.getName());
-
-    public HealthEndpoint() throws IOException {
-
-        this("conf/ldp.properties");
-    }
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
-    public HealthEndpoint(String conffile) throws IOException {
-
-        this.conffile = conffile;
-
-        // Init properties
-        try {
-            InputStream inputStream = new FileInputStream(this.conffile);
-
-            try {
-                BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
-
-                try {
-                    this.config.load(reader);
+    private Logger logger = Logger.getLogger(HealthEndpoint.class.getName());
+    private final LinkedDataPlatformContext context;
 
-                } finally {
-                    reader.close();
-                }
-            }
-            finally {
-                inputStream.close();
-            }
-        }
-        catch (IOException e) {
-            System.out.println("FATAL ERROR: Die Datei '" + this.conffile + "' konnte nicht geöffnet werden!");
-        }
+    public HealthEndpoint(LinkedDataPlatformContext context) {
 
-        // init logger
-        PropertyConfigurator.configure(this.config.getProperty("service.log4j-conf"));
+        this.context = context;
 
         this.logger.info("Starting 'HealthEndpoint' ...");
-        this.logger.info("conf-file = " + this.conffile);
-        this.logger.info("log4j-conf-file = " + this.config.getProperty("service.log4j-conf"));
     }
 
     public void doOptions(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
 
+        LinkedDataPlatformConfig config = this.context.getConfig();
+
         response.setHeader("Access-Control-Allow-Methods", config.getProperty("Access-Control-Allow-Methods"));
         response.addHeader("Access-Control-Allow-Headers", config.getProperty("Access-Control-Allow-Headers"));
         response.setHeader("Accept", config.getProperty("Accept"));
@@ -103,58 +77,95 @@ public class HealthEndpoint extends HttpServlet {
 
         try {
 
-            HashMap<String,String> health = null;
-
-            // ILS
-            if (Lookup.lookupAll(AuthorizationInterface.class).size() > 0) {
-
-                AuthorizationInterface authorizationInterface = Lookup.lookup(AuthorizationInterface.class);
-                // init Auth
-                authorizationInterface.init(this.config);
-
-                health = authorizationInterface.health(this.config);
+            LinkedDataPlatformConfig config = this.context.getConfig();
+
+            // the providers are probed in the background; only the last snapshot is read here
+            HealthMonitor.Snapshot snapshot = this.context.getHealthMonitor().getSnapshot();
+
+            ObjectNode json = MAPPER.createObjectNode();
+
+            json.put("name", config.getServiceName());
+            json.put("timestamp", LocalDateTime.now().toString());
+            json.put("ready", this.context.isReady());
+
+            TokenValidationCache tokenValidationCache = this.context.getTokenValidationCache();
+            ObjectNode tokencache = json.putObject("tokencache");
+            tokencache.put("size", tokenValidationCache.size());
+            tokencache.put("hits", tokenValidationCache.getHits());
+            tokencache.put("misses", tokenValidationCache.getMisses());
+
+            RepresentationCache representationCache = this.context.getRepresentationCache();
+            ObjectNode resourcecache = json.putObject("resourcecache");
+            resourcecache.put("size", representationCache.size());
+            resourcecache.put("bytes", representationCache.getBytes());
+            resourcecache.put("hits", representationCache.getHits());
+            resourcecache.put("misses", representationCache.getMisses());
+            resourcecache.put("notmodified", representationCache.getNotModified());
+
+            SparqlResultCache sparqlResultCache = this.context.getSparqlResultCache();
+            ObjectNode sparqlcache = json.putObject("sparqlcache");
+            sparqlcache.put("size", sparqlResultCache.size());
+            sparqlcache.put("bytes", sparqlResultCache.getBytes());
+            sparqlcache.put("hits", sparqlResultCache.getHits());
+            sparqlcache.put("misses", sparqlResultCache.getMisses());
+            sparqlcache.put("hitratio", Math.round(sparqlResultCache.getHitRatio() * 10000) / 10000.0);
+            sparqlcache.put("rejections", sparqlResultCache.getRejections());
+            sparqlcache.put("evictions", sparqlResultCache.getEvictions());
+
+            BackendExecutor backendExecutor = this.context.getBackendExecutor();
+            ObjectNode backend = json.putObject("backend");
+            backend.put("threads", backendExecutor.isVirtual() ? LDPStatics.THREADS_VIRTUAL : LDPStatics.THREADS_PLATFORM);
+            backend.put("active", backendExecutor.getActiveCount());
+            backend.put("queued", backendExecutor.getQueueSize());
+            backend.put("rejections", backendExecutor.getRejections());
+            backend.put("timeouts", backendExecutor.getTimeouts());
+
+            LinkedDataStorage linkedDataStorage = this.context.getLinkedDataStorage();
+
+            if (linkedDataStorage instanceof CoalescingLinkedDataStorage) {
+
+                SingleFlight<String, Object> singleFlight = ((CoalescingLinkedDataStorage) linkedDataStorage).getSingleFlight();
+                ObjectNode coalescing = json.putObject("coalescing");
+                coalescing.put("inflight", singleFlight.getInFlight());
+                coalescing.put("calls", singleFlight.getLeaders());
+                coalescing.put("coalesced", singleFlight.getFollowers());
+                coalescing.put("timeouts", singleFlight.getTimeouts());
             }
-            // JOP
-            if (Lookup.lookupAll(LinkedDataStorage.class).size() > 0) {
 
-                LinkedDataStorage linkedDataStorage = Lookup.lookup(LinkedDataStorage.class);
-                // init Storage
-                linkedDataStorage.init(this.config);
+            if (!snapshot.getChecks().isEmpty()) {
 
-                if (health == null) {
+                json.put("age", snapshot.getAge());
 
-                    health = linkedDataStorage.health(this.config);
-                }
-                else {
+                ObjectNode checks = json.putObject("checks");
+                ObjectNode dependencies = null;
 
-                    health.putAll(linkedDataStorage.health(this.config));
-                }
-            }
-
-            String json = "{ ";
+                for (HealthMonitor.Check check : snapshot.getChecks().values()) {
 
-            json += "\"name\" : \"" + config.getProperty("service.name") + "\",";
-            json += "\"timestamp\" : \"" + LocalDateTime.now() + "\"";
+                    ObjectNode node = checks.putObject(check.getName());
+                    node.put("status", check.getStatus().name());
+                    node.put("latency", Math.round(check.getLatency() / 1e4) / 100.0);
 
-            if (health != null && health.size() > 0) {
+                    if (check.getError() != null) {
 
-                json += ", \"dependencies\" : { ";
+                        node.put("error", check.getError());
+                    }
 
-                for (String dependency : health.keySet()) {
+                    // ILS and JOP report their state as key/value pairs
+                    for (Map.Entry<String, String> detail : check.getDetails().entrySet()) {
 
-                    json += "\"" + dependency + "\" : \"" + health.get(dependency) + "\", ";
-                }
+                        if (dependencies == null) {
 
-                json = json.substring(0, json.length() - 2);
+                            dependencies = json.putObject("dependencies");
+                        }
 
-                json += "}";
+                        dependencies.put(detail.getKey(), detail.getValue());
+                    }
+                }
             }
 
-            json += " }";
-
             response.setContentType("application/json;charset=UTF-8");
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().println(json);
+            response.setStatus(this.context.isReady() ? HttpServletResponse.SC_OK : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.getWriter().println(MAPPER.writeValueAsString(json));
         }
         catch (Exception e) {
 
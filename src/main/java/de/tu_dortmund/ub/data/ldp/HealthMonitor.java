@@ -0,0 +1,360 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp;
+
+import de.tu_dortmund.ub.data.ldp.auth.AuthorizationInterface;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import org.apache.log4j.Logger;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Health Monitor
+ *
+ * Probes the {@code health} methods of the authorization and storage providers in the background and keeps the last
+ * result as an immutable {@link Snapshot}, so {@link HealthEndpoint} answers in constant time however often it is
+ * polled. The probes run concurrently, each with a deadline; a probe that is still running at the next refresh is
+ * not started again, so a hung backend ties up at most one thread.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class HealthMonitor extends AbstractLifeCycle {
+
+    private static Logger logger = Logger.getLogger(HealthMonitor.class.getName());
+
+    public static final String AUTHORIZATION = "authorization";
+    public static final String STORAGE       = "storage";
+
+    public enum Status { UP, DOWN, TIMEOUT }
+
+    private final LinkedDataPlatformContext context;
+    private final String                    serviceName;
+    private final long                      interval;
+    private final long                      timeout;
+
+    private final Map<String, Probe> probes = new LinkedHashMap<>();
+
+    private volatile Snapshot                 snapshot = new Snapshot(0, Collections.<String, Check>emptyMap());
+    private volatile ScheduledExecutorService scheduler;
+    private volatile ExecutorService          executor;
+
+    /**
+     * @param interval time between two refreshes in milliseconds
+     * @param timeout  deadline of a probe in milliseconds
+     */
+    public HealthMonitor(final LinkedDataPlatformContext context, final long interval, final long timeout) {
+
+        this.context = context;
+        this.serviceName = context.getConfig().getServiceName();
+        this.interval = interval;
+        this.timeout = timeout;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+
+        final AtomicInteger counter = new AtomicInteger();
+
+        this.executor = Executors.newCachedThreadPool((runnable) -> {
+
+            final Thread thread = new Thread(runnable, "ldp-health-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+
+            final Thread thread = new Thread(runnable, "ldp-health");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        // the first snapshot is taken at once, so the endpoint never serves an empty one
+        this.refresh();
+
+        this.scheduler.scheduleWithFixedDelay(this::refresh, this.interval, this.interval, TimeUnit.MILLISECONDS);
+
+        logger.info(String.format("[%s] health checks every %d ms (timeout = %d ms)", this.serviceName, this.interval, this.timeout));
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+
+        if (this.scheduler != null) {
+
+            this.scheduler.shutdownNow();
+        }
+        if (this.executor != null) {
+
+            this.executor.shutdownNow();
+        }
+
+        this.probes.clear();
+    }
+
+    /**
+     * @return the result of the last refresh
+     */
+    public Snapshot getSnapshot() {
+
+        return this.snapshot;
+    }
+
+    /**
+     * Probes all providers concurrently and publishes the results. Called by the scheduler only.
+     */
+    void refresh() {
+
+        try {
+
+            final Properties properties = this.context.getConfig().toProperties();
+
+            final AuthorizationInterface authorizationInterface = this.context.getAuthorizationInterface();
+            final LinkedDataStorage linkedDataStorage = this.context.getLinkedDataStorage();
+
+            if (authorizationInterface != null) {
+
+                this.submit(AUTHORIZATION, () -> authorizationInterface.health(properties));
+            }
+            if (linkedDataStorage != null) {
+
+                this.submit(STORAGE, () -> linkedDataStorage.health(properties));
+            }
+
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeout);
+            final Map<String, Check> checks = new LinkedHashMap<>();
+
+            for (Map.Entry<String, Probe> entry : this.probes.entrySet()) {
+
+                checks.put(entry.getKey(), entry.getValue().await(deadline));
+            }
+
+            this.snapshot = new Snapshot(System.currentTimeMillis(), Collections.unmodifiableMap(checks));
+
+            for (Check check : checks.values()) {
+
+                if (check.getStatus() != Status.UP) {
+
+                    logger.warn(String.format("[%s] health check '%s': %s after %.1f ms%s", this.serviceName, check.getName(), check.getStatus(), check.getLatency() / 1e6,
+                            check.getError() != null ? " - " + check.getError() : ""));
+                }
+            }
+        }
+        catch (Exception e) {
+
+            logger.error(String.format("[%s] health checks failed", this.serviceName), e);
+        }
+    }
+
+    private void submit(final String name, final HealthCall call) {
+
+        final Probe running = this.probes.get(name);
+
+        // a hung probe keeps its thread; it is reported as timed out until it returns
+        if (running != null && !running.future.isDone()) {
+
+            return;
+        }
+
+        this.probes.put(name, new Probe(name, call, this.executor));
+    }
+
+    @FunctionalInterface
+    private interface HealthCall {
+
+        HashMap<String, String> health() throws Exception;
+    }
+
+    private static final class Probe {
+
+        private final String                          name;
+        private final long                            start;
+        private final Future<HashMap<String, String>> future;
+
+        private volatile long end;
+
+        private Probe(final String name, final HealthCall call, final ExecutorService executor) {
+
+            this.name = name;
+            this.start = System.nanoTime();
+            this.future = executor.submit(() -> {
+
+                try {
+
+                    return call.health();
+                }
+                finally {
+
+                    this.end = System.nanoTime();
+                }
+            });
+        }
+
+        private Check await(final long deadline) throws InterruptedException {
+
+            try {
+
+                final HashMap<String, String> details = this.future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                return new Check(this.name, Status.UP, this.latency(), details != null ? details : new HashMap<String, String>(), null);
+            }
+            catch (TimeoutException e) {
+
+                return new Check(this.name, Status.TIMEOUT, this.latency(), Collections.<String, String>emptyMap(), null);
+            }
+            catch (ExecutionException e) {
+
+                return new Check(this.name, Status.DOWN, this.latency(), Collections.<String, String>emptyMap(), String.valueOf(e.getCause()));
+            }
+        }
+
+        private long latency() {
+
+            final long end = this.end;
+
+            return (end != 0 ? end : System.nanoTime()) - this.start;
+        }
+    }
+
+    /**
+     * Result of one provider probe.
+     */
+    public static final class Check {
+
+        private final String              name;
+        private final Status              status;
+        private final long                latency;
+        private final Map<String, String> details;
+        private final String              error;
+
+        Check(final String name, final Status status, final long latency, final Map<String, String> details, final String error) {
+
+            this.name = name;
+            this.status = status;
+            this.latency = latency;
+            this.details = Collections.unmodifiableMap(details);
+            this.error = error;
+        }
+
+        public String getName() {
+
+            return this.name;
+        }
+
+        public Status getStatus() {
+
+            return this.status;
+        }
+
+        /**
+         * @return duration of the probe in nanoseconds; for a timed out probe the time it has been running
+         */
+        public long getLatency() {
+
+            return this.latency;
+        }
+
+        /**
+         * @return what the provider reported, e.g. its version or state
+         */
+        public Map<String, String> getDetails() {
+
+            return this.details;
+        }
+
+        public String getError() {
+
+            return this.error;
+        }
+    }
+
+    /**
+     * Results of all probes of one refresh.
+     */
+    public static final class Snapshot {
+
+        private final long               timestamp;
+        private final Map<String, Check> checks;
+
+        Snapshot(final long timestamp, final Map<String, Check> checks) {
+
+            this.timestamp = timestamp;
+            this.checks = checks;
+        }
+
+        /**
+         * @return time of the refresh in milliseconds since the epoch
+         */
+        public long getTimestamp() {
+
+            return this.timestamp;
+        }
+
+        /**
+         * @return age of the snapshot in milliseconds
+         */
+        public long getAge() {
+
+            return System.currentTimeMillis() - this.timestamp;
+        }
+
+        public Map<String, Check> getChecks() {
+
+            return this.checks;
+        }
+
+        /**
+         * @return {@code true} if all providers are up
+         */
+        public boolean isUp() {
+
+            for (Check check : this.checks.values()) {
+
+                if (check.getStatus() != Status.UP) {
+
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -37,6 +37,10 @@ public class LDPStatics {
     public static final String SERVICE_PORT_IDENTIFIER                      = "service.port";
     public static final String SERVICE_CONTEXTPATH_IDENTIFIER               = "service.contextpath";
     public static final String SERVICE_LANGUAGE_DEFAULT_IDENTIFIER          = "service.language.default";
+    public static final String SERVICE_THREADS_IDENTIFIER                   = "service.threads";
+    public static final String SERVICE_ISTEST_IDENTIFIER                    = "service.istest";
+    public static final String SERVICE_FORBIDDEN_MESSAGE_IDENTIFIER         = "service.forbidden.message";
+    public static final String SERVICE_CONF_RELOAD_IDENTIFIER               = "service.conf.reload";
     public static final String SERVICE_IPRANGE_TU_IDENTIFIER                = "service.iprange.tu";
     public static final String SERVICE_IPRANGE_TU_EXCEPTIONS_IDENTIFIER     = "service.iprange.tu.exceptions";
     public static final String SERVICE_IPRANGE_UB_IDENTIFIER                = "service.iprange.ub";
@@ -45,18 +49,64 @@ public class LDPStatics {
     public static final String LDP_ENDPOINT_HOME_CONTENT_IDENTIFIER         = "ldp.endpoint.home.content";
     public static final String LDP_ENDPOINT_RESOURCE_CONTEXTPATH_IDENTIFIER = "ldp.endpoint.resource.contextpath";
     public static final String LDP_ENDPOINT_SERVICE_CONTEXTPATH_IDENTIFIER  = "ldp.endpoint.service.contextpath";
+    public static final String LDP_ENDPOINT_PING_IDENTIFIER                 = "ldp.endpoint.ping";
+    public static final String LDP_ENDPOINT_HEALTH_IDENTIFIER               = "ldp.endpoint.health";
+    public static final String LDP_ENDPOINT_METRICS_IDENTIFIER              = "ldp.endpoint.metrics";
+
+    public static final String RESOURCE_BASEURL_IDENTIFIER                  = "resource.baseurl";
+
+    public static final String STORAGE_GRAPH_DEFAULT_IDENTIFIER             = "storage.graph.default";
+    public static final String STORAGE_GRAPHS_IDENTIFIER                   = "storage.graphs";
 
     public static final String CORS_ACCESS_CONTROL_ALLOW_METHODS_IDENTIFIER = "cors.access-control-allow-methods";
     public static final String CORS_ACCESS_CONTROL_ALLOW_HEADERS_IDENTIFIER = "cors.access-control-allow-headers";
     public static final String CORS_ACCESS_CONTROL_ALLOW_ORIGIN_IDENTIFIER  = "cors.access-control-allow-origin";
     public static final String CORS_ACCEPT_IDENTIFIER                       = "cors.accept";
 
+    public static final String AUTH_TOKEN_CACHE_SIZE_IDENTIFIER             = "auth.token.cache.size";
+    public static final String AUTH_TOKEN_CACHE_TTL_IDENTIFIER              = "auth.token.cache.ttl";
+
+    public static final String RESOURCE_CACHE_SIZE_IDENTIFIER               = "resource.cache.size";
+    public static final String RESOURCE_CACHE_MAXBYTES_IDENTIFIER           = "resource.cache.maxbytes";
+    public static final String RESOURCE_CACHE_MAXENTRYSIZE_IDENTIFIER       = "resource.cache.maxentrysize";
+    public static final String RESOURCE_PREFETCH_THREADS_IDENTIFIER         = "resource.prefetch.threads";
+    public static final String RESOURCE_PREFETCH_SIZE_IDENTIFIER            = "resource.prefetch.size";
+    public static final String RESOURCE_PREFETCH_TTL_IDENTIFIER             = "resource.prefetch.ttl";
+
+    public static final String SPARQL_CACHE_SIZE_IDENTIFIER                 = "sparql.cache.size";
+    public static final String SPARQL_CACHE_MAXBYTES_IDENTIFIER             = "sparql.cache.maxbytes";
+    public static final String SPARQL_CACHE_MAXENTRYSIZE_IDENTIFIER         = "sparql.cache.maxentrysize";
+
+    public static final String SERVICE_BATCH_MAXSIZE_IDENTIFIER             = "service.batch.maxsize";
+
+    public static final String STORAGE_ACCESSRIGHTS_INDEX_IDENTIFIER        = "storage.accessrights.index";
+    public static final String STORAGE_NEGATIVE_SIZE_IDENTIFIER             = "storage.negative.size";
+    public static final String STORAGE_NEGATIVE_FILTER_IDENTIFIER           = "storage.negative.filter";
+
+    public static final String STORAGE_CLASS_IDENTIFIER                     = "storage.class";
+    public static final String STORAGE_COALESCING_IDENTIFIER                = "storage.coalescing";
+    public static final String STORAGE_COALESCING_TIMEOUT_IDENTIFIER        = "storage.coalescing.timeout";
+    public static final String STORAGE_COALESCING_MAXBUFFER_IDENTIFIER      = "storage.coalescing.maxbuffer";
+
+    public static final String BACKEND_EXECUTOR_THREADS_IDENTIFIER          = "backend.executor.threads";
+    public static final String BACKEND_EXECUTOR_QUEUE_IDENTIFIER            = "backend.executor.queue";
+    public static final String BACKEND_EXECUTOR_RETRYAFTER_IDENTIFIER       = "backend.executor.retryafter";
+    public static final String BACKEND_EXECUTOR_TIMEOUT_IDENTIFIER          = "backend.executor.timeout";
+
+    public static final String HEALTH_INTERVAL_IDENTIFIER                   = "health.interval";
+    public static final String HEALTH_TIMEOUT_IDENTIFIER                    = "health.timeout";
+
     // values
+    public static final String THREADS_PLATFORM = "platform";
+    public static final String THREADS_VIRTUAL = "virtual";
+
     public static final String FORMAT_HTML = "html";
     public static final String FORMAT_XML = "xml";
     public static final String FORMAT_JSON = "json";
     public static final String FORMAT_RDF_XML = "rdf.xml";
     public static final String FORMAT_TURTLE = "rdf.ttl";
+    public static final String FORMAT_RDFA = "rdfa";
+    public static final String FORMAT_NQUADS = "nquads";
 
     public static final String APPLICATION_XML_MIMETYPE = "application/xml";
     public static final String APPLICATION_JSON_MIMETYPE = "application/json";
@@ -64,4 +114,8 @@ public class LDPStatics {
     public static final String APPLICATION_JSON_LD_MIMETYPE = "application/ld+json";
     public static final String TEXT_TURTLE_MIMETYPE = "text/turtle";
     public static final String TEXT_HTML_MIMETYPE = "text/html";
+    public static final String APPLICATION_XHTML_XML_MIMETYPE = "application/xhtml+xml";
+    public static final String APPLICATION_N_QUADS_MIMETYPE = "application/n-quads";
+    public static final String APPLICATION_SPARQL_RESULTS_JSON_MIMETYPE = "application/sparql-results+json";
+    public static final String APPLICATION_SPARQL_RESULTS_XML_MIMETYPE = "application/sparql-results+xml";
 }
@@ -22,15 +22,28 @@
 
 package de.tu_dortmund.ub.data.ldp;
 
+import de.tu_dortmund.ub.data.ldp.auth.AuthorizationInterface;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.util.concurrent.VirtualThreads;
+import de.tu_dortmund.ub.util.impl.Lookup;
 import org.apache.log4j.Logger;
 import org.apache.log4j.PropertyConfigurator;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.servlet.DefaultServlet;
+import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
-
-import java.io.*;
+import org.eclipse.jetty.util.thread.ExecutorThreadPool;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import javax.servlet.DispatcherType;
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumSet;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Linked Data Platform
@@ -44,7 +57,7 @@ public class LinkedDataPlatform {
     private static final String     CONFIG_PROPERTIES_FILE_NAME = "config.properties";
     private static final String     CONF_FOLDER_NAME            = "conf";
     public static final  String     UTF_8                       = "UTF-8";
-    private static       Properties config                      = new Properties();
+    private static       LinkedDataPlatformConfig config        = new LinkedDataPlatformConfig(new Properties());
 
     private static Logger logger = Logger.getLogger(LinkedDataPlatform.class.getName());
 
@@ -67,16 +80,10 @@ public class LinkedDataPlatform {
             }
         }
 
-        // Init properties
+        // Init properties: parsed once into a snapshot shared by all endpoints
         try {
 
-            try (InputStream inputStream = new FileInputStream(conffile)) {
-
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, UTF_8))) {
-
-                    config.load(reader);
-                }
-            }
+            config = LinkedDataPlatformConfig.load(conffile);
         }
         catch (IOException e) {
 
@@ -96,12 +103,51 @@ public class LinkedDataPlatform {
 
         logger.info(String.format("[%s] log4j-conf-file = %s", serviceName, log4jConfFile));
 
+        // resolve providers once; the endpoints use the cached instances
+        for (final LinkedDataStorage linkedDataStorage : Lookup.lookupAll(LinkedDataStorage.class)) {
+
+            logger.info(String.format("[%s] LinkedDataStorage = %s", serviceName, linkedDataStorage.getClass().getName()));
+        }
+        for (final AuthorizationInterface authorizationInterface : Lookup.lookupAll(AuthorizationInterface.class)) {
+
+            logger.info(String.format("[%s] AuthorizationInterface = %s", serviceName, authorizationInterface.getClass().getName()));
+        }
+
         // Server
-        Server server = new Server(Integer.parseInt(config.getProperty(LDPStatics.SERVICE_PORT_IDENTIFIER)));
+        Server server = new Server(createThreadPool(config));
+        server.setStopAtShutdown(true);
+
+        ServerConnector connector = new ServerConnector(server);
+        connector.setPort(Integer.parseInt(config.getProperty(LDPStatics.SERVICE_PORT_IDENTIFIER)));
+        server.addConnector(connector);
+
+        // shared providers: initialized on server start, shut down on server stop
+        LinkedDataPlatformContext platformContext = new LinkedDataPlatformContext(config);
+        server.addBean(platformContext);
+
+        // the conf file is watched and reloaded without restart
+        if (config.getBoolean(LDPStatics.SERVICE_CONF_RELOAD_IDENTIFIER, true)) {
+
+            server.addBean(new LinkedDataPlatformConfigWatcher(conffile, platformContext));
+        }
+
+        server.setHandler(createContextHandler(config, platformContext, server.getThreadPool()));
+
+        // Start Server
+        server.start();
+        server.join();
+    }
+
+    /**
+     * Sets up the endpoints and filters. Also used by the benchmarks and the load test, so they exercise the same
+     * request path as the server.
+     *
+     * @param threadPool the pool of the server, reported by the metrics endpoint
+     */
+    public static ServletContextHandler createContextHandler(final LinkedDataPlatformConfig config, final LinkedDataPlatformContext platformContext, final ThreadPool threadPool) {
 
         ServletContextHandler context = new ServletContextHandler();
         context.setContextPath(config.getProperty(LDPStatics.SERVICE_CONTEXTPATH_IDENTIFIER));
-        server.setHandler(context);
 
         // Endpoints
         // - home
@@ -110,19 +156,63 @@ public class LinkedDataPlatform {
         context.addServlet(holderHome, "/*");
 
         // - _ping
-        context.addServlet(new ServletHolder(new PingEndpoint(conffile)), config.getProperty("ldp.endpoint.ping"));
+        context.addServlet(new ServletHolder(new PingEndpoint(platformContext)), config.getProperty(LDPStatics.LDP_ENDPOINT_PING_IDENTIFIER));
 
         // - _health
-        context.addServlet(new ServletHolder(new HealthEndpoint(conffile)), config.getProperty("ldp.endpoint.health"));
+        context.addServlet(new ServletHolder(new HealthEndpoint(platformContext)), config.getProperty(LDPStatics.LDP_ENDPOINT_HEALTH_IDENTIFIER));
 
-        // - resource
-        context.addServlet(new ServletHolder(new LinkedDataPlatformResourceEndpoint(conffile)), config.getProperty(LDPStatics.LDP_ENDPOINT_RESOURCE_CONTEXTPATH_IDENTIFIER));
+        // - _metrics
+        context.addServlet(new ServletHolder(new MetricsEndpoint(platformContext, threadPool)), config.getProperty(LDPStatics.LDP_ENDPOINT_METRICS_IDENTIFIER, "/_metrics"));
 
-        // - services
-        context.addServlet(new ServletHolder(new LinkedDataPlatformServiceEndpoint(conffile)), config.getProperty(LDPStatics.LDP_ENDPOINT_SERVICE_CONTEXTPATH_IDENTIFIER));
+        // - metrics: latency, status and size of resource and service requests
+        FilterHolder holderMetricsResource = new FilterHolder(new MetricsFilter(platformContext.getMetrics(), MetricsFilter.Endpoint.RESOURCE));
+        holderMetricsResource.setAsyncSupported(true);
+        context.addFilter(holderMetricsResource, config.getProperty(LDPStatics.LDP_ENDPOINT_RESOURCE_CONTEXTPATH_IDENTIFIER), EnumSet.of(DispatcherType.REQUEST));
 
-        // Start Server
-        server.start();
-        server.join();
+        FilterHolder holderMetricsService = new FilterHolder(new MetricsFilter(platformContext.getMetrics(), MetricsFilter.Endpoint.SERVICE));
+        holderMetricsService.setAsyncSupported(true);
+        context.addFilter(holderMetricsService, config.getProperty(LDPStatics.LDP_ENDPOINT_SERVICE_CONTEXTPATH_IDENTIFIER), EnumSet.of(DispatcherType.REQUEST));
+
+        // - request context: headers, parameters and cookies of resource and service requests are parsed once
+        FilterHolder holderRequestContext = new FilterHolder(new RequestContextFilter(platformContext));
+        holderRequestContext.setAsyncSupported(true);
+        context.addFilter(holderRequestContext, config.getProperty(LDPStatics.LDP_ENDPOINT_RESOURCE_CONTEXTPATH_IDENTIFIER), EnumSet.of(DispatcherType.REQUEST));
+        context.addFilter(holderRequestContext, config.getProperty(LDPStatics.LDP_ENDPOINT_SERVICE_CONTEXTPATH_IDENTIFIER), EnumSet.of(DispatcherType.REQUEST));
+
+        // - resource (async: processed on the backend executor)
+        ServletHolder holderResource = new ServletHolder(new LinkedDataPlatformResourceEndpoint(platformContext));
+        holderResource.setAsyncSupported(true);
+        context.addServlet(holderResource, config.getProperty(LDPStatics.LDP_ENDPOINT_RESOURCE_CONTEXTPATH_IDENTIFIER));
+
+        // - services (async: processed on the backend executor)
+        ServletHolder holderService = new ServletHolder(new LinkedDataPlatformServiceEndpoint(platformContext));
+        holderService.setAsyncSupported(true);
+        context.addServlet(holderService, config.getProperty(LDPStatics.LDP_ENDPOINT_SERVICE_CONTEXTPATH_IDENTIFIER));
+
+        return context;
+    }
+
+    /**
+     * @return Jetty's default pool or - with {@code service.threads=virtual} on Java 21+ - a virtual thread per task
+     */
+    public static ThreadPool createThreadPool(final LinkedDataPlatformConfig config) {
+
+        final String serviceName = config.getServiceName();
+
+        if (LDPStatics.THREADS_VIRTUAL.equals(config.getProperty(LDPStatics.SERVICE_THREADS_IDENTIFIER, LDPStatics.THREADS_PLATFORM))) {
+
+            ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+
+            if (executor != null) {
+
+                logger.info(String.format("[%s] requests are handled on virtual threads", serviceName));
+
+                return new ExecutorThreadPool(executor);
+            }
+
+            logger.warn(String.format("[%s] virtual threads are not supported by this JVM - using platform threads", serviceName));
+        }
+
+        return new QueuedThreadPool();
     }
 }
@@ -0,0 +1,251 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp;
+
+import de.tu_dortmund.ub.util.rights.IPRangeMatcher;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Linked Data Platform Config
+ *
+ * Immutable snapshot of the conf file. The values read on every request are parsed once into typed fields, all other
+ * properties are kept in an unmodifiable map, so reads never lock. {@link LinkedDataPlatformContext} holds the current
+ * snapshot and swaps it as a whole on reload.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class LinkedDataPlatformConfig {
+
+    private final Map<String, String> properties;
+
+    private final String         serviceName;
+    private final String         languageDefault;
+    private final String         graphDefault;
+    private final Set<String>    graphs;
+    private final String         resourceBaseUrl;
+    private final String         forbiddenMessage;
+    private final boolean        isTest;
+    private final String         corsAllowOrigin;
+    private final String         corsAllowMethods;
+    private final String         corsAllowHeaders;
+    private final String         corsAccept;
+    private final IPRangeMatcher ipRangeMatcher;
+
+    public LinkedDataPlatformConfig(final Properties config) {
+
+        final Map<String, String> properties = new HashMap<>();
+
+        for (String key : config.stringPropertyNames()) {
+
+            properties.put(key, config.getProperty(key));
+        }
+
+        this.properties = Collections.unmodifiableMap(properties);
+
+        this.serviceName = this.getProperty(LDPStatics.SERVICE_NAME_IDENTIFIER);
+        this.languageDefault = this.getProperty(LDPStatics.SERVICE_LANGUAGE_DEFAULT_IDENTIFIER);
+        this.graphDefault = this.getProperty(LDPStatics.STORAGE_GRAPH_DEFAULT_IDENTIFIER);
+        this.graphs = split(this.getProperty(LDPStatics.STORAGE_GRAPHS_IDENTIFIER));
+        this.resourceBaseUrl = this.getProperty(LDPStatics.RESOURCE_BASEURL_IDENTIFIER);
+        this.forbiddenMessage = this.getProperty(LDPStatics.SERVICE_FORBIDDEN_MESSAGE_IDENTIFIER);
+        this.isTest = Boolean.parseBoolean(this.getProperty(LDPStatics.SERVICE_ISTEST_IDENTIFIER));
+
+        this.corsAllowOrigin = this.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_ORIGIN_IDENTIFIER);
+        this.corsAllowMethods = this.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_METHODS_IDENTIFIER);
+        this.corsAllowHeaders = this.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_HEADERS_IDENTIFIER);
+        this.corsAccept = this.getProperty(LDPStatics.CORS_ACCEPT_IDENTIFIER);
+
+        this.ipRangeMatcher = IPRangeMatcher.compile(
+                this.getProperty(LDPStatics.SERVICE_IPRANGE_TU_IDENTIFIER),
+                this.getProperty(LDPStatics.SERVICE_IPRANGE_TU_EXCEPTIONS_IDENTIFIER),
+                this.getProperty(LDPStatics.SERVICE_IPRANGE_UB_IDENTIFIER),
+                this.getProperty(LDPStatics.SERVICE_IPRANGE_UB_EXCEPTIONS_IDENTIFIER));
+    }
+
+    /**
+     * Reads the conf file (UTF-8).
+     */
+    public static LinkedDataPlatformConfig load(final String conffile) throws IOException {
+
+        final Properties config = new Properties();
+
+        try (InputStream inputStream = new FileInputStream(conffile)) {
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, LinkedDataPlatform.UTF_8))) {
+
+                config.load(reader);
+            }
+        }
+
+        return new LinkedDataPlatformConfig(config);
+    }
+
+    public String getProperty(final String key) {
+
+        return this.properties.get(key);
+    }
+
+    public String getProperty(final String key, final String defaultValue) {
+
+        final String value = this.properties.get(key);
+
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(final String key, final int defaultValue) {
+
+        final String value = this.properties.get(key);
+
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    public long getLong(final String key, final long defaultValue) {
+
+        final String value = this.properties.get(key);
+
+        return value != null ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    public boolean getBoolean(final String key, final boolean defaultValue) {
+
+        final String value = this.properties.get(key);
+
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+
+    /**
+     * @return a copy of all properties, e.g. for the {@code init} and {@code health} methods of the providers
+     */
+    public Properties toProperties() {
+
+        final Properties config = new Properties();
+        config.putAll(this.properties);
+
+        return config;
+    }
+
+    public String getServiceName() {
+
+        return this.serviceName;
+    }
+
+    public String getLanguageDefault() {
+
+        return this.languageDefault;
+    }
+
+    /**
+     * @return {@code storage.graph.default}
+     */
+    public String getGraphDefault() {
+
+        return this.graphDefault;
+    }
+
+    /**
+     * @return {@code true} if the graph is listed in {@code storage.graphs}
+     */
+    public boolean isGraph(final String graph) {
+
+        return graph != null && this.graphs.contains(graph);
+    }
+
+    public Set<String> getGraphs() {
+
+        return this.graphs;
+    }
+
+    public String getResourceBaseUrl() {
+
+        return this.resourceBaseUrl;
+    }
+
+    public String getForbiddenMessage() {
+
+        return this.forbiddenMessage;
+    }
+
+    public boolean isTest() {
+
+        return this.isTest;
+    }
+
+    public String getCorsAllowOrigin() {
+
+        return this.corsAllowOrigin;
+    }
+
+    public String getCorsAllowMethods() {
+
+        return this.corsAllowMethods;
+    }
+
+    public String getCorsAllowHeaders() {
+
+        return this.corsAllowHeaders;
+    }
+
+    public String getCorsAccept() {
+
+        return this.corsAccept;
+    }
+
+    /**
+     * @return the TU and UB ip ranges compiled from {@code service.iprange.*}
+     */
+    public IPRangeMatcher getIPRangeMatcher() {
+
+        return this.ipRangeMatcher;
+    }
+
+    private static Set<String> split(final String value) {
+
+        final Set<String> values = new LinkedHashSet<>();
+
+        if (value != null) {
+
+            for (String item : value.split("[,|;\\s]+")) {
+
+                if (!item.isEmpty()) {
+
+                    values.add(item);
+                }
+            }
+        }
+
+        return Collections.unmodifiableSet(values);
+    }
+}
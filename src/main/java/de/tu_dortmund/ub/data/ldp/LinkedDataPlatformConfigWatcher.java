@@ -0,0 +1,252 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp;
+
+import org.apache.log4j.Logger;
+import org.apache.log4j.PropertyConfigurator;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Linked Data Platform Config Watcher
+ *
+ * Watches the conf file and publishes a new {@link LinkedDataPlatformConfig} snapshot - including the compiled ip
+ * ranges, the graph list and the CORS headers - when it changes. The file is parsed on the watcher thread; requests
+ * keep working with the snapshot they have read. A file that cannot be read or has no {@code service.name} is
+ * rejected and the current snapshot stays in place.
+ *
+ * Ports, context paths, cache sizes and the backend executor are set up once at start; changes to them are only
+ * logged.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class LinkedDataPlatformConfigWatcher extends AbstractLifeCycle {
+
+    private static Logger logger = Logger.getLogger(LinkedDataPlatformConfigWatcher.class.getName());
+
+    // editors save in several steps, so events are collected until the file has been quiet for this long
+    private static final long QUIET_PERIOD = 250;
+
+    private static final String[] RESTART_IDENTIFIERS = {
+            LDPStatics.SERVICE_PORT_IDENTIFIER,
+            LDPStatics.SERVICE_CONTEXTPATH_IDENTIFIER,
+            LDPStatics.SERVICE_THREADS_IDENTIFIER,
+            LDPStatics.LDP_ENDPOINT_HOME_CONTENT_IDENTIFIER,
+            LDPStatics.LDP_ENDPOINT_RESOURCE_CONTEXTPATH_IDENTIFIER,
+            LDPStatics.LDP_ENDPOINT_SERVICE_CONTEXTPATH_IDENTIFIER,
+            LDPStatics.LDP_ENDPOINT_PING_IDENTIFIER,
+            LDPStatics.LDP_ENDPOINT_HEALTH_IDENTIFIER,
+            LDPStatics.LDP_ENDPOINT_METRICS_IDENTIFIER,
+            LDPStatics.AUTH_TOKEN_CACHE_SIZE_IDENTIFIER,
+            LDPStatics.AUTH_TOKEN_CACHE_TTL_IDENTIFIER,
+            LDPStatics.RESOURCE_CACHE_SIZE_IDENTIFIER,
+            LDPStatics.RESOURCE_CACHE_MAXBYTES_IDENTIFIER,
+            LDPStatics.RESOURCE_CACHE_MAXENTRYSIZE_IDENTIFIER,
+            LDPStatics.RESOURCE_PREFETCH_THREADS_IDENTIFIER,
+            LDPStatics.RESOURCE_PREFETCH_SIZE_IDENTIFIER,
+            LDPStatics.RESOURCE_PREFETCH_TTL_IDENTIFIER,
+            LDPStatics.SPARQL_CACHE_SIZE_IDENTIFIER,
+            LDPStatics.SPARQL_CACHE_MAXBYTES_IDENTIFIER,
+            LDPStatics.SPARQL_CACHE_MAXENTRYSIZE_IDENTIFIER,
+            LDPStatics.STORAGE_CLASS_IDENTIFIER,
+            LDPStatics.STORAGE_ACCESSRIGHTS_INDEX_IDENTIFIER,
+            LDPStatics.STORAGE_NEGATIVE_SIZE_IDENTIFIER,
+            LDPStatics.STORAGE_NEGATIVE_FILTER_IDENTIFIER,
+            LDPStatics.STORAGE_COALESCING_IDENTIFIER,
+            LDPStatics.STORAGE_COALESCING_TIMEOUT_IDENTIFIER,
+            LDPStatics.STORAGE_COALESCING_MAXBUFFER_IDENTIFIER,
+            LDPStatics.BACKEND_EXECUTOR_THREADS_IDENTIFIER,
+            LDPStatics.BACKEND_EXECUTOR_QUEUE_IDENTIFIER,
+            LDPStatics.BACKEND_EXECUTOR_RETRYAFTER_IDENTIFIER,
+            LDPStatics.BACKEND_EXECUTOR_TIMEOUT_IDENTIFIER,
+            LDPStatics.HEALTH_INTERVAL_IDENTIFIER,
+            LDPStatics.HEALTH_TIMEOUT_IDENTIFIER,
+    };
+
+    private final Path                      conffile;
+    private final LinkedDataPlatformContext context;
+
+    private final LongAdder reloads  = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile WatchService watchService;
+    private volatile Thread       thread;
+
+    public LinkedDataPlatformConfigWatcher(final String conffile, final LinkedDataPlatformContext context) {
+
+        this.conffile = Paths.get(conffile).toAbsolutePath();
+        this.context = context;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+
+        final WatchService watchService = this.conffile.getFileSystem().newWatchService();
+
+        this.conffile.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        final Thread thread = new Thread(() -> this.watch(watchService), "ldp-config-watcher");
+        thread.setDaemon(true);
+
+        this.watchService = watchService;
+        this.thread = thread;
+
+        thread.start();
+
+        logger.info(String.format("[%s] watching '%s' for changes", this.context.getConfig().getServiceName(), this.conffile));
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+
+        final WatchService watchService = this.watchService;
+        final Thread thread = this.thread;
+
+        if (watchService != null) {
+
+            watchService.close();
+        }
+
+        if (thread != null) {
+
+            thread.interrupt();
+            thread.join(1000);
+        }
+    }
+
+    /**
+     * Reads the conf file and publishes it as the new snapshot.
+     *
+     * @return {@code false} if the file could not be read; the current snapshot is kept then
+     */
+    public boolean reload() {
+
+        final LinkedDataPlatformConfig current = this.context.getConfig();
+        final long start = System.nanoTime();
+
+        try {
+
+            final LinkedDataPlatformConfig config = LinkedDataPlatformConfig.load(this.conffile.toString());
+
+            if (config.getServiceName() == null) {
+
+                throw new IllegalStateException("'" + LDPStatics.SERVICE_NAME_IDENTIFIER + "' is missing - incomplete file?");
+            }
+
+            this.context.reload(config);
+
+            if (!Objects.equals(current.getProperty(LDPStatics.SERVICE_LOG4J_CONF_IDENTIFIER), config.getProperty(LDPStatics.SERVICE_LOG4J_CONF_IDENTIFIER))) {
+
+                PropertyConfigurator.configure(config.getProperty(LDPStatics.SERVICE_LOG4J_CONF_IDENTIFIER));
+            }
+
+            for (String identifier : RESTART_IDENTIFIERS) {
+
+                if (!Objects.equals(current.getProperty(identifier), config.getProperty(identifier))) {
+
+                    logger.warn(String.format("[%s] '%s' changed - takes effect after a restart", config.getServiceName(), identifier));
+                }
+            }
+
+            this.reloads.increment();
+
+            logger.info(String.format("[%s] configuration reloaded in %.1f ms (graphs = %s)", config.getServiceName(), (System.nanoTime() - start) / 1e6, config.getGraphs()));
+
+            return true;
+        }
+        catch (Exception e) {
+
+            this.failures.increment();
+
+            logger.error(String.format("[%s] could not reload '%s' - keeping the current configuration", current.getServiceName(), this.conffile), e);
+
+            return false;
+        }
+    }
+
+    public long getReloads() {
+
+        return this.reloads.sum();
+    }
+
+    public long getFailures() {
+
+        return this.failures.sum();
+    }
+
+    private void watch(final WatchService watchService) {
+
+        try {
+
+            while (true) {
+
+                boolean changed = this.isConffileChanged(watchService.take());
+
+                WatchKey key;
+
+                while ((key = watchService.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS)) != null) {
+
+                    changed |= this.isConffileChanged(key);
+                }
+
+                if (changed) {
+
+                    this.reload();
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e) {
+
+            logger.debug("config watcher stopped");
+        }
+    }
+
+    private boolean isConffileChanged(final WatchKey key) {
+
+        boolean changed = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || this.conffile.getFileName().equals(event.context())) {
+
+                changed = true;
+            }
+        }
+
+        key.reset();
+
+        return changed;
+    }
+}
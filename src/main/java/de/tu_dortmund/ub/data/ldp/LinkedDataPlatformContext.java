@@ -0,0 +1,445 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp;
+
+import de.tu_dortmund.ub.data.ldp.auth.AuthorizationInterface;
+import de.tu_dortmund.ub.data.ldp.auth.InstrumentedAuthorizationInterface;
+import de.tu_dortmund.ub.data.ldp.auth.TokenValidationCache;
+import de.tu_dortmund.ub.data.ldp.cache.AccessRightsIndex;
+import de.tu_dortmund.ub.data.ldp.cache.RepresentationCache;
+import de.tu_dortmund.ub.data.ldp.cache.RepresentationPrefetcher;
+import de.tu_dortmund.ub.data.ldp.cache.SparqlResultCache;
+import de.tu_dortmund.ub.data.ldp.storage.CoalescingLinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.InstrumentedLinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.NegativeLookupLinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.util.impl.Lookup;
+import de.tu_dortmund.ub.util.rights.IPRangeMatcher;
+import org.apache.log4j.Logger;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Linked Data Platform Context
+ *
+ * Shared runtime state of all endpoints. The context is registered as a bean of the Jetty server: the
+ * {@link LinkedDataStorage} and {@link AuthorizationInterface} providers are initialized once when the server starts
+ * and shut down when it stops. All requests share these instances.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class LinkedDataPlatformContext extends AbstractLifeCycle {
+
+    private static Logger logger = Logger.getLogger(LinkedDataPlatformContext.class.getName());
+
+    private final AtomicReference<LinkedDataPlatformConfig> config;
+
+    private final String                   serviceName;
+    private final TokenValidationCache     tokenValidationCache;
+    private final RepresentationCache      representationCache;
+    private final RepresentationPrefetcher representationPrefetcher;
+    private final SparqlResultCache        sparqlResultCache;
+    private final AccessRightsIndex        accessRightsIndex;
+    private final BackendExecutor          backendExecutor;
+    private final HealthMonitor            healthMonitor;
+
+    private final LinkedDataPlatformMetrics metrics = new LinkedDataPlatformMetrics();
+
+    private volatile LinkedDataStorage               linkedDataStorage;
+    private volatile NegativeLookupLinkedDataStorage negativeLookup;
+    private volatile AuthorizationInterface          authorizationInterface;
+    private volatile boolean                         ready = false;
+
+    public LinkedDataPlatformContext(final Properties config) {
+
+        this(new LinkedDataPlatformConfig(config), null, null);
+    }
+
+    public LinkedDataPlatformContext(final LinkedDataPlatformConfig config) {
+
+        this(config, null, null);
+    }
+
+    /**
+     * @param config                 the platform configuration
+     * @param linkedDataStorage      storage provider to use; if {@code null} it is looked up via {@link Lookup} - or
+     *                               instantiated, if {@code storage.class} names a class that is not registered
+     * @param authorizationInterface authorization provider to use; if {@code null} it is looked up via {@link Lookup}
+     */
+    public LinkedDataPlatformContext(final LinkedDataPlatformConfig config, final LinkedDataStorage linkedDataStorage, final AuthorizationInterface authorizationInterface) {
+
+        this.config = new AtomicReference<>(config);
+        this.serviceName = config.getServiceName();
+        this.linkedDataStorage = linkedDataStorage;
+        this.authorizationInterface = authorizationInterface;
+
+        this.tokenValidationCache = new TokenValidationCache(
+                config.getInt(LDPStatics.AUTH_TOKEN_CACHE_SIZE_IDENTIFIER, 10000),
+                config.getLong(LDPStatics.AUTH_TOKEN_CACHE_TTL_IDENTIFIER, 300));
+
+        this.representationCache = new RepresentationCache(
+                config.getInt(LDPStatics.RESOURCE_CACHE_SIZE_IDENTIFIER, 10000),
+                config.getLong(LDPStatics.RESOURCE_CACHE_MAXBYTES_IDENTIFIER, 67108864),
+                config.getInt(LDPStatics.RESOURCE_CACHE_MAXENTRYSIZE_IDENTIFIER, 262144));
+
+        this.representationPrefetcher = new RepresentationPrefetcher(this.serviceName, this.representationCache,
+                config.getInt(LDPStatics.RESOURCE_PREFETCH_THREADS_IDENTIFIER, 4),
+                config.getInt(LDPStatics.RESOURCE_PREFETCH_SIZE_IDENTIFIER, 1000),
+                config.getLong(LDPStatics.RESOURCE_PREFETCH_TTL_IDENTIFIER, 10000));
+
+        this.sparqlResultCache = new SparqlResultCache(
+                config.getInt(LDPStatics.SPARQL_CACHE_SIZE_IDENTIFIER, 1000),
+                config.getLong(LDPStatics.SPARQL_CACHE_MAXBYTES_IDENTIFIER, 33554432),
+                config.getInt(LDPStatics.SPARQL_CACHE_MAXENTRYSIZE_IDENTIFIER, 1048576));
+
+        this.accessRightsIndex = new AccessRightsIndex(this.serviceName);
+
+        this.backendExecutor = new BackendExecutor(this.serviceName,
+                config.getInt(LDPStatics.BACKEND_EXECUTOR_THREADS_IDENTIFIER, 64),
+                config.getInt(LDPStatics.BACKEND_EXECUTOR_QUEUE_IDENTIFIER, 256),
+                config.getInt(LDPStatics.BACKEND_EXECUTOR_RETRYAFTER_IDENTIFIER, 5),
+                config.getLong(LDPStatics.BACKEND_EXECUTOR_TIMEOUT_IDENTIFIER, 60000),
+                LDPStatics.THREADS_VIRTUAL.equals(config.getProperty(LDPStatics.SERVICE_THREADS_IDENTIFIER, LDPStatics.THREADS_PLATFORM)));
+
+        this.healthMonitor = new HealthMonitor(this,
+                config.getLong(LDPStatics.HEALTH_INTERVAL_IDENTIFIER, 5000),
+                config.getLong(LDPStatics.HEALTH_TIMEOUT_IDENTIFIER, 2000));
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+
+        if (this.linkedDataStorage == null) {
+
+            this.linkedDataStorage = this.lookupLinkedDataStorage(this.getConfig().getProperty(LDPStatics.STORAGE_CLASS_IDENTIFIER));
+        }
+        if (this.authorizationInterface == null) {
+
+            this.authorizationInterface = Lookup.lookup(AuthorizationInterface.class);
+        }
+
+        boolean initialized = true;
+
+        if (this.authorizationInterface != null) {
+
+            try {
+
+                this.authorizationInterface.init(this.getConfig().toProperties());
+
+                logger.info(String.format("[%s] AuthorizationInterface '%s' initialized", this.serviceName, this.authorizationInterface.getClass().getName()));
+            }
+            catch (Exception e) {
+
+                initialized = false;
+                logger.error(String.format("[%s] Could not initialize AuthorizationInterface '%s'!", this.serviceName, this.authorizationInterface.getClass().getName()), e);
+            }
+        }
+        else {
+
+            logger.warn(String.format("[%s] No AuthorizationInterface implemented!", this.serviceName));
+        }
+
+        if (this.linkedDataStorage != null) {
+
+            try {
+
+                this.linkedDataStorage.init(this.getConfig().toProperties());
+
+                logger.info(String.format("[%s] LinkedDataStorage '%s' initialized", this.serviceName, this.linkedDataStorage.getClass().getName()));
+            }
+            catch (Exception e) {
+
+                initialized = false;
+                logger.error(String.format("[%s] Could not initialize LinkedDataStorage '%s'!", this.serviceName, this.linkedDataStorage.getClass().getName()), e);
+            }
+        }
+        else {
+
+            logger.warn(String.format("[%s] No LinkedDataStorage implemented!", this.serviceName));
+        }
+
+        // time the provider calls below the coalescing, so that every real backend call is counted once
+        if (this.linkedDataStorage != null && !(this.linkedDataStorage instanceof CoalescingLinkedDataStorage)
+                && !(this.linkedDataStorage instanceof NegativeLookupLinkedDataStorage)
+                && !(this.linkedDataStorage instanceof InstrumentedLinkedDataStorage)) {
+
+            this.linkedDataStorage = new InstrumentedLinkedDataStorage(this.linkedDataStorage, this.metrics.backend("storage"));
+        }
+        if (this.authorizationInterface != null && !(this.authorizationInterface instanceof InstrumentedAuthorizationInterface)) {
+
+            this.authorizationInterface = new InstrumentedAuthorizationInterface(this.authorizationInterface, this.metrics.backend("authorization"));
+        }
+
+        // answer lookups of missing resources before they reach the provider, but after the coalescing
+        if (this.linkedDataStorage != null && !(this.linkedDataStorage instanceof CoalescingLinkedDataStorage)
+                && !(this.linkedDataStorage instanceof NegativeLookupLinkedDataStorage)) {
+
+            final boolean filter = this.getConfig().getBoolean(LDPStatics.STORAGE_NEGATIVE_FILTER_IDENTIFIER, true);
+            final int size = this.getConfig().getInt(LDPStatics.STORAGE_NEGATIVE_SIZE_IDENTIFIER, 10000);
+
+            if (filter || size > 0) {
+
+                this.negativeLookup = new NegativeLookupLinkedDataStorage(this.serviceName, this.linkedDataStorage, size);
+                this.linkedDataStorage = this.negativeLookup;
+
+                if (filter && initialized) {
+
+                    this.negativeLookup.build(this.getConfig().getGraphs());
+                }
+            }
+        }
+
+        if (this.linkedDataStorage != null && !(this.linkedDataStorage instanceof CoalescingLinkedDataStorage)
+                && this.getConfig().getBoolean(LDPStatics.STORAGE_COALESCING_IDENTIFIER, true)) {
+
+            final long timeout = this.getConfig().getLong(LDPStatics.STORAGE_COALESCING_TIMEOUT_IDENTIFIER, 30000);
+            final int threads = this.getConfig().getInt(LDPStatics.BACKEND_EXECUTOR_THREADS_IDENTIFIER, 64);
+            final int maxBuffer = this.getConfig().getInt(LDPStatics.STORAGE_COALESCING_MAXBUFFER_IDENTIFIER, 1048576);
+
+            this.linkedDataStorage = new CoalescingLinkedDataStorage(this.linkedDataStorage, timeout, threads, maxBuffer);
+
+            logger.info(String.format("[%s] concurrent identical storage calls are coalesced (timeout = %d ms, max. buffer = %d bytes)", this.serviceName, timeout, maxBuffer));
+        }
+
+        if (this.linkedDataStorage != null && initialized && this.getConfig().getBoolean(LDPStatics.STORAGE_ACCESSRIGHTS_INDEX_IDENTIFIER, true)) {
+
+            this.accessRightsIndex.build(this.linkedDataStorage, this.getConfig().getGraphs());
+        }
+
+        this.backendExecutor.start();
+        this.representationPrefetcher.start();
+        this.healthMonitor.start();
+
+        this.ready = initialized;
+
+        logger.info(String.format("[%s] ready = %s", this.serviceName, this.ready));
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+
+        this.ready = false;
+
+        this.healthMonitor.stop();
+
+        // let running requests finish before the providers go away
+        this.backendExecutor.stop();
+        this.representationPrefetcher.stop();
+
+        this.tokenValidationCache.clear();
+        this.representationCache.clear();
+        this.sparqlResultCache.clear();
+        this.accessRightsIndex.clear();
+
+        if (this.linkedDataStorage != null) {
+
+            try {
+
+                this.linkedDataStorage.shutdown();
+            }
+            catch (Exception e) {
+
+                logger.error(String.format("[%s] Could not shut down LinkedDataStorage!", this.serviceName), e);
+            }
+        }
+
+        if (this.authorizationInterface != null) {
+
+            try {
+
+                this.authorizationInterface.shutdown();
+            }
+            catch (Exception e) {
+
+                logger.error(String.format("[%s] Could not shut down AuthorizationInterface!", this.serviceName), e);
+            }
+        }
+
+        logger.info(String.format("[%s] providers shut down", this.serviceName));
+    }
+
+    /**
+     * @return the current configuration snapshot; read it once per request to see consistent values
+     */
+    public LinkedDataPlatformConfig getConfig() {
+
+        return this.config.get();
+    }
+
+    /**
+     * Replaces the configuration snapshot atomically. Requests already running keep the snapshot they have read.
+     *
+     * @return the previous snapshot
+     */
+    public LinkedDataPlatformConfig reload(final LinkedDataPlatformConfig config) {
+
+        return this.config.getAndSet(config);
+    }
+
+    /**
+     * @return {@code true} if the context is started and all available providers are initialized
+     */
+    public boolean isReady() {
+
+        return this.ready && this.isStarted();
+    }
+
+    /**
+     * @param className {@code storage.class}; if {@code null} the first registered provider is used
+     */
+    private LinkedDataStorage lookupLinkedDataStorage(final String className) throws ReflectiveOperationException {
+
+        if (className == null || className.trim().isEmpty()) {
+
+            return Lookup.lookup(LinkedDataStorage.class);
+        }
+
+        for (LinkedDataStorage linkedDataStorage : Lookup.lookupAll(LinkedDataStorage.class)) {
+
+            if (linkedDataStorage.getClass().getName().equals(className.trim())) {
+
+                return linkedDataStorage;
+            }
+        }
+
+        logger.info(String.format("[%s] LinkedDataStorage '%s' is not registered - creating an instance", this.serviceName, className.trim()));
+
+        return Class.forName(className.trim()).asSubclass(LinkedDataStorage.class).newInstance();
+    }
+
+    /**
+     * @return the shared storage provider or {@code null} if none is implemented
+     */
+    public LinkedDataStorage getLinkedDataStorage() {
+
+        return this.linkedDataStorage;
+    }
+
+    /**
+     * @return the shared authorization provider or {@code null} if none is implemented
+     */
+    public AuthorizationInterface getAuthorizationInterface() {
+
+        return this.authorizationInterface;
+    }
+
+    /**
+     * @return the cache of validated access tokens in front of {@link #getAuthorizationInterface()}
+     */
+    public TokenValidationCache getTokenValidationCache() {
+
+        return this.tokenValidationCache;
+    }
+
+    /**
+     * @return the cache of resource representations in front of {@link #getLinkedDataStorage()}
+     */
+    public RepresentationCache getRepresentationCache() {
+
+        return this.representationCache;
+    }
+
+    /**
+     * @return the prefetcher filling the gap between a {@code 303 See Other} and the request of its target
+     */
+    public RepresentationPrefetcher getRepresentationPrefetcher() {
+
+        return this.representationPrefetcher;
+    }
+
+    /**
+     * @return the cache of SPARQL query results in front of {@link #getLinkedDataStorage()}
+     */
+    public SparqlResultCache getSparqlResultCache() {
+
+        return this.sparqlResultCache;
+    }
+
+    /**
+     * @return the index of the resources that are not public
+     */
+    public AccessRightsIndex getAccessRightsIndex() {
+
+        return this.accessRightsIndex;
+    }
+
+    /**
+     * @return the decorator answering lookups of missing resources or {@code null} if it is switched off
+     */
+    public NegativeLookupLinkedDataStorage getNegativeLookup() {
+
+        return this.negativeLookup;
+    }
+
+    /**
+     * Drops everything cached and updates the access rights index. Called after {@code update} has been applied.
+     *
+     * An update may write to any graph ({@code GRAPH}, {@code WITH}, {@code INTO}), whose IRIs cannot be mapped to the
+     * names in {@code storage.graphs}; so the caches of all graphs are dropped.
+     */
+    public void invalidate(final String update) {
+
+        this.representationCache.invalidateAll();
+        this.sparqlResultCache.invalidateAll();
+
+        logger.debug(String.format("[%s] caches of all graphs invalidated", this.serviceName));
+
+        this.accessRightsIndex.update(this.linkedDataStorage, update);
+    }
+
+    /**
+     * @return the pool that runs the blocking part of the resource and service requests
+     */
+    public BackendExecutor getBackendExecutor() {
+
+        return this.backendExecutor;
+    }
+
+    /**
+     * @return the background checks of the providers served by {@link HealthEndpoint}
+     */
+    public HealthMonitor getHealthMonitor() {
+
+        return this.healthMonitor;
+    }
+
+    /**
+     * @return the request and backend metrics exposed by {@link MetricsEndpoint}
+     */
+    public LinkedDataPlatformMetrics getMetrics() {
+
+        return this.metrics;
+    }
+
+    /**
+     * @return the TU and UB ip ranges of the current configuration snapshot
+     */
+    public IPRangeMatcher getIPRangeMatcher() {
+
+        return this.getConfig().getIPRangeMatcher();
+    }
+}
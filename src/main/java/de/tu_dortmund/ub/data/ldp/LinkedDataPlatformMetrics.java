@@ -0,0 +1,197 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp;
+
+import de.tu_dortmund.ub.util.metrics.CallMetrics;
+import de.tu_dortmund.ub.util.metrics.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Linked Data Platform Metrics
+ *
+ * Request latencies per route and method, response sizes per content type, status codes per route and the latencies
+ * of the backend calls. Everything is recorded into {@link Histogram}s and {@link LongAdder}s, which are created once
+ * per label combination; recording a request is two map lookups and a few adds.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class LinkedDataPlatformMetrics {
+
+    private static final double NANOS_TO_SECONDS = 1e-9;
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Histogram>>  requestDurations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Integer, LongAdder>> responses        = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Histogram>                             responseSizes    = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Histogram>>  backendDurations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>>  backendErrors    = new ConcurrentHashMap<>();
+
+    /**
+     * @param route       e.g. {@code about} or {@code sparql}
+     * @param method      HTTP method
+     * @param contentType content type of the response or {@code null}
+     * @param bytes       size of the response body; only recorded for successful responses
+     */
+    public void recordRequest(final String route, final String method, final int status, final String contentType, final long nanos, final long bytes) {
+
+        child(child(this.requestDurations, route, key -> new ConcurrentHashMap<>()), method(method), key -> new Histogram(Histogram.LATENCY_NANOS)).record(nanos);
+        child(child(this.responses, route, key -> new ConcurrentHashMap<>()), status, key -> new LongAdder()).increment();
+
+        if (status >= 200 && status < 300 && contentType != null) {
+
+            final int parameters = contentType.indexOf(';');
+            final String mediaType = parameters < 0 ? contentType : contentType.substring(0, parameters).trim();
+
+            child(this.responseSizes, mediaType, key -> new Histogram(Histogram.SIZE_BYTES)).record(bytes);
+        }
+    }
+
+    /**
+     * @param component e.g. {@code storage} or {@code authorization}
+     * @return the receiver for the call durations of the component
+     */
+    public CallMetrics backend(final String component) {
+
+        final ConcurrentHashMap<String, Histogram> durations = child(this.backendDurations, component, key -> new ConcurrentHashMap<>());
+        final ConcurrentHashMap<String, LongAdder> errors = child(this.backendErrors, component, key -> new ConcurrentHashMap<>());
+
+        return (method, nanos, failed) -> {
+
+            child(durations, method, key -> new Histogram(Histogram.LATENCY_NANOS)).record(nanos);
+
+            if (failed) {
+
+                child(errors, method, key -> new LongAdder()).increment();
+            }
+        };
+    }
+
+    /**
+     * Appends all metrics in the Prometheus text format.
+     */
+    public void writeTo(final StringBuilder out) {
+
+        out.append("# HELP ldp_request_duration_seconds Duration of the resource and service requests.\n");
+        out.append("# TYPE ldp_request_duration_seconds histogram\n");
+        for (Map.Entry<String, ConcurrentHashMap<String, Histogram>> route : sorted(this.requestDurations).entrySet()) {
+
+            for (Map.Entry<String, Histogram> method : sorted(route.getValue()).entrySet()) {
+
+                method.getValue().writeTo(out, "ldp_request_duration_seconds", "route=\"" + route.getKey() + "\",method=\"" + method.getKey() + "\"", NANOS_TO_SECONDS);
+            }
+        }
+
+        out.append("# HELP ldp_responses_total Responses by route and status code.\n");
+        out.append("# TYPE ldp_responses_total counter\n");
+        for (Map.Entry<String, ConcurrentHashMap<Integer, LongAdder>> route : sorted(this.responses).entrySet()) {
+
+            for (Map.Entry<Integer, LongAdder> status : sorted(route.getValue()).entrySet()) {
+
+                out.append("ldp_responses_total{route=\"").append(route.getKey()).append("\",status=\"").append(status.getKey()).append("\"} ").append(status.getValue().sum()).append('\n');
+            }
+        }
+
+        out.append("# HELP ldp_response_size_bytes Size of the successful responses by content type.\n");
+        out.append("# TYPE ldp_response_size_bytes histogram\n");
+        for (Map.Entry<String, Histogram> contentType : sorted(this.responseSizes).entrySet()) {
+
+            contentType.getValue().writeTo(out, "ldp_response_size_bytes", "content_type=\"" + escape(contentType.getKey()) + "\"", 1);
+        }
+
+        out.append("# HELP ldp_backend_duration_seconds Duration of the calls to the storage and authorization providers.\n");
+        out.append("# TYPE ldp_backend_duration_seconds histogram\n");
+        for (Map.Entry<String, ConcurrentHashMap<String, Histogram>> component : sorted(this.backendDurations).entrySet()) {
+
+            for (Map.Entry<String, Histogram> method : sorted(component.getValue()).entrySet()) {
+
+                method.getValue().writeTo(out, "ldp_backend_duration_seconds", "component=\"" + component.getKey() + "\",method=\"" + method.getKey() + "\"", NANOS_TO_SECONDS);
+            }
+        }
+
+        out.append("# HELP ldp_backend_errors_total Calls to the providers that threw an exception.\n");
+        out.append("# TYPE ldp_backend_errors_total counter\n");
+        for (Map.Entry<String, ConcurrentHashMap<String, LongAdder>> component : sorted(this.backendErrors).entrySet()) {
+
+            for (Map.Entry<String, LongAdder> method : sorted(component.getValue()).entrySet()) {
+
+                out.append("ldp_backend_errors_total{component=\"").append(component.getKey()).append("\",method=\"").append(method.getKey()).append("\"} ").append(method.getValue().sum()).append('\n');
+            }
+        }
+    }
+
+    Histogram getRequestDuration(final String route, final String method) {
+
+        final ConcurrentHashMap<String, Histogram> methods = this.requestDurations.get(route);
+
+        return methods != null ? methods.get(method) : null;
+    }
+
+    Histogram getBackendDuration(final String component, final String method) {
+
+        final ConcurrentHashMap<String, Histogram> methods = this.backendDurations.get(component);
+
+        return methods != null ? methods.get(method) : null;
+    }
+
+    /**
+     * Only the common methods get their own label, so arbitrary methods cannot create new series.
+     */
+    private static String method(final String method) {
+
+        switch (method) {
+
+            case "GET":
+            case "POST":
+            case "HEAD":
+            case "OPTIONS":
+                return method;
+            default:
+                return "other";
+        }
+    }
+
+    private static <K, V> V child(final ConcurrentHashMap<K, V> map, final K key, final Function<K, V> factory) {
+
+        // get first: computeIfAbsent locks the bin even if the key is present
+        final V value = map.get(key);
+
+        return value != null ? value : map.computeIfAbsent(key, factory);
+    }
+
+    private static <K, V> TreeMap<K, V> sorted(final Map<K, V> map) {
+
+        return new TreeMap<>(map);
+    }
+
+    private static String escape(final String value) {
+
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
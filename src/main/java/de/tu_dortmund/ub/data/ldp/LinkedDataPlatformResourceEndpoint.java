@@ -22,25 +22,17 @@
 
 package de.tu_dortmund.ub.data.ldp;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import de.tu_dortmund.ub.data.ldp.auth.AuthorizationException;
-import de.tu_dortmund.ub.data.ldp.auth.AuthorizationInterface;
-import de.tu_dortmund.ub.data.ldp.auth.model.LoginResponse;
+import de.tu_dortmund.ub.data.ldp.cache.Representation;
+import de.tu_dortmund.ub.data.ldp.cache.RepresentationCache;
 import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
-import de.tu_dortmund.ub.util.impl.Lookup;
-import de.tu_dortmund.ub.util.rights.AnalyseIPRange;
 import org.apache.log4j.Logger;
-import org.apache.log4j.PropertyConfigurator;
 
 import javax.servlet.ServletException;
-import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
-import java.net.URLDecoder;
-import java.util.Enumeration;
-import java.util.Properties;
+import java.util.function.Predicate;
 
 /**
  * Linked Data Platform Resource Endpoint
@@ -51,195 +43,61 @@ import java.util.Properties;
  */
 public class LinkedDataPlatformResourceEndpoint extends HttpServlet {
 
-    public static final  String     UTF_8  = "UTF-8";
-    private static       Properties config = new Properties();
+    public static final String UTF_8 = "UTF-8";
 
     private static Logger logger = Logger.getLogger(LinkedDataPlatformResourceEndpoint.class.getName());
 
-    public LinkedDataPlatformResourceEndpoint(String conffile) {
+    private final LinkedDataPlatformContext context;
 
-        // Init properties
-        try {
+    public LinkedDataPlatformResourceEndpoint(LinkedDataPlatformContext context) {
 
-            try (InputStream inputStream = new FileInputStream(conffile)) {
+        this.context = context;
 
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, UTF_8))) {
-
-                    config.load(reader);
-                }
-            }
-        }
-        catch (IOException e) {
-
-            logger.error("something went wrong", e);
-            logger.error(String.format("FATAL ERROR: Could not read '%s'!", conffile));
-        }
-
-        // init logger
-        PropertyConfigurator.configure(config.getProperty(LDPStatics.SERVICE_LOG4J_CONF_IDENTIFIER));
-
-        final String serviceName = config.getProperty(LDPStatics.SERVICE_NAME_IDENTIFIER);
-
-        logger.info(String.format("[%s] Starting '" + LinkedDataPlatformResourceEndpoint.class.getName() + "' ...", serviceName));
-        logger.info(String.format("[%s] conf-file = %s", serviceName, conffile));
-
-        final String log4jConfFile = config.getProperty(LDPStatics.SERVICE_LOG4J_CONF_IDENTIFIER);
-
-        logger.info(String.format("[%s] log4j-conf-file = %s", serviceName, log4jConfFile));
+        logger.info(String.format("[%s] Starting '" + LinkedDataPlatformResourceEndpoint.class.getName() + "' ...", context.getConfig().getServiceName()));
     }
 
     protected void doOptions(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
 
-        response.setHeader("Access-Control-Allow-Methods", config.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_METHODS_IDENTIFIER));
-        response.addHeader("Access-Control-Allow-Headers", config.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_HEADERS_IDENTIFIER));
-        response.setHeader("Access-Control-Allow-Origin", config.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_ORIGIN_IDENTIFIER));
-        response.setHeader("Accept", config.getProperty(LDPStatics.CORS_ACCEPT_IDENTIFIER));
+        LinkedDataPlatformConfig config = this.context.getConfig();
+
+        response.setHeader("Access-Control-Allow-Methods", config.getCorsAllowMethods());
+        response.addHeader("Access-Control-Allow-Headers", config.getCorsAllowHeaders());
+        response.setHeader("Access-Control-Allow-Origin", config.getCorsAllowOrigin());
+        response.setHeader("Accept", config.getCorsAccept());
 
         response.getWriter().println();
     }
 
     protected void doGet(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
 
-        ObjectMapper mapper = new ObjectMapper();
-
-        // CORS ORIGIN RESPONSE HEADER
-        httpServletResponse.setHeader("Access-Control-Allow-Origin", config.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_ORIGIN_IDENTIFIER));
-
-        // analyse ip range
-        String ips = httpServletRequest.getHeader("X-Forwarded-For");
-
-        boolean isTUintern = AnalyseIPRange.analyseAccessRights(ips, config.getProperty(LDPStatics.SERVICE_IPRANGE_TU_IDENTIFIER), config.getProperty(LDPStatics.SERVICE_IPRANGE_TU_EXCEPTIONS_IDENTIFIER));
-        boolean isUBintern = AnalyseIPRange.analyseAccessRights(ips, config.getProperty(LDPStatics.SERVICE_IPRANGE_UB_IDENTIFIER), config.getProperty(LDPStatics.SERVICE_IPRANGE_UB_EXCEPTIONS_IDENTIFIER));
-
-        logger.debug("[" + config.getProperty("service.name") + "] " + "Where is it from? " + httpServletRequest.getHeader("X-Forwarded-For") + ", " + isTUintern + ", " + isUBintern);
-
-        // analyse request header
-        String format = "html";
-        String profile = this.config.getProperty("storage.graph.default");
-        String language = "de";
-        String authorization = "";
-
-        Enumeration<String> headerNames = httpServletRequest.getHeaderNames();
-        while (headerNames.hasMoreElements()) {
-
-            String headerNameKey = headerNames.nextElement();
-            logger.debug("headerNameKey = " + headerNameKey + " / headerNameValue = " + httpServletRequest.getHeader(headerNameKey));
-
-            if (headerNameKey.equals("Accept")) {
-
-                if (httpServletRequest.getHeader(headerNameKey).contains("text/html")) {
-                    format = "html";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("application/rdf+xml")) {
-                    format = "rdf.xml";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("application/xhtml+xml")) {
-                    format = "rdfa";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("text/turtle")
-                        || httpServletRequest.getHeader(headerNameKey).contains("application/x-turtle")
-                        || httpServletRequest.getHeader(headerNameKey).contains("application/turtle")) {
-                    format = "rdf.ttl";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("application/ld+json")) {
-                    format = "json";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("application/n-quads")) {
-                    format = "nquads";
-                }
-            }
-            if (headerNameKey.equals("Authorization")) {
-                authorization = httpServletRequest.getHeader(headerNameKey);
-            }
-            if (headerNameKey.equals("Accept-Language")) {
-                language = httpServletRequest.getHeader(headerNameKey);
-            }
-        }
-
-        if (httpServletRequest.getParameter("format") != null) {
-            format = httpServletRequest.getParameter("format");
-        }
-
-        this.logger.info("format = " + format);
-
-        if (httpServletRequest.getParameter("profile") != null) {
-            profile = httpServletRequest.getParameter("profile");
-        }
-
-        this.logger.info("profile = " + profile);
-
-        // language
-        if (language != null && language.startsWith("de")) {
-            language = "de";
-        } else if (language != null && language.startsWith("en")) {
-            language = "en";
-        } else if (httpServletRequest.getParameter("lang") != null) {
-            language = httpServletRequest.getParameter("lang");
-        } else {
-            language = this.config.getProperty(LDPStatics.SERVICE_LANGUAGE_DEFAULT_IDENTIFIER);
-        }
-
-        this.logger.info("language = " + language);
-
-        String patronid = "";
-
-        // if not exists token
-        if (authorization.equals("")) {
-
-            // if exists PaiaService-Cookie: read content
-            Cookie[] cookies = httpServletRequest.getCookies();
-
-            if (cookies != null) {
-                for (Cookie cookie : cookies) {
-                    if (cookie.getName().equals("PaiaService")) {
-
-                        String value = URLDecoder.decode(cookie.getValue(), "UTF-8");
-                        this.logger.info(value);
-                        LoginResponse loginResponse = mapper.readValue(value, LoginResponse.class);
-
-                        authorization = loginResponse.getAccess_token();
-                        patronid = loginResponse.getPatron();
-
-                        break;
-                    }
-                }
-            }
-        }
-
-        logger.info("authorization: " + authorization);
-
-        boolean isAuthorized = false;
-
-        if (!authorization.equals("")) {
+        this.context.getBackendExecutor().dispatch(httpServletRequest, httpServletResponse, this::processGet);
+    }
 
-            if (Lookup.lookupAll(AuthorizationInterface.class).size() > 0) {
+    private void processGet(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
 
-                AuthorizationInterface authorizationInterface = Lookup.lookup(AuthorizationInterface.class);
-                // init Authorization Service
-                authorizationInterface.init(this.config);
+        LinkedDataPlatformConfig config = this.context.getConfig();
 
-                try {
+        // CORS ORIGIN RESPONSE HEADER
+        httpServletResponse.setHeader("Access-Control-Allow-Origin", config.getCorsAllowOrigin());
 
-                    isAuthorized = authorizationInterface.isTokenValid(httpServletResponse, "data", patronid, authorization);
-                }
-                catch (AuthorizationException e) {
+        // headers, parameters and cookies are parsed once by the RequestContextFilter
+        RequestContext requestContext = RequestContext.of(httpServletRequest, this.context);
 
-                    // TODO correct error handling
-                    this.logger.error("[" + config.getProperty("service.name") + "] " + HttpServletResponse.SC_UNAUTHORIZED + "!");
-                }
-            } else {
+        String format = requestContext.getFormat(ContentNegotiator.RESOURCE);
+        String profile = requestContext.getProfile();
+        String language = requestContext.getLanguage();
 
-                // TODO correct error handling
-                this.logger.error("[" + this.config.getProperty("service.name") + "] " + HttpServletResponse.SC_INTERNAL_SERVER_ERROR + ": " + "Authorization Interface not implemented!");
-            }
-        }
+        boolean isUBintern = requestContext.isUBintern();
+        boolean isAuthorized = requestContext.isAuthorized(httpServletResponse);
 
-        this.logger.debug("[" + config.getProperty("service.name") + "] " + "Authorization: " + authorization + " - " + isAuthorized);
+        // Linked Data Storage
+        LinkedDataStorage linkedDataStorage = this.context.getLinkedDataStorage();
 
-        // ... - if not is authorized - against DFN-AAI service
-        if (!isAuthorized) {
+        if (!this.context.isReady()) {
 
-            // TODO if exists OpenAM-Session-Cookie: read content
-            this.logger.debug("[" + config.getProperty("service.name") + "] " + "Authorization: " + authorization + " - " + isAuthorized);
+            httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service not ready!");
         }
-
-        // Linked Data Storage
-        if (Lookup.lookupAll(LinkedDataStorage.class).size() > 0) {
+        else if (linkedDataStorage != null) {
 
             try {
 
@@ -248,24 +106,23 @@ public class LinkedDataPlatformResourceEndpoint extends HttpServlet {
                 // TODO get graph from request
 
                 // TODO is graph valid?
-                if (!config.getProperty("storage.graphs").contains(graph)) {
+                if (!config.isGraph(graph)) {
 
                     httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "Bad request - graph is not valid!");
                 }
                 else {
 
-                    LinkedDataStorage linkedDataStorage = Lookup.lookup(LinkedDataStorage.class);
-                    // init LinkedDataStorage
-                    linkedDataStorage.init(config);
-
                     logger.info("PathInfo: " + httpServletRequest.getPathInfo());
                     String[] path = httpServletRequest.getPathInfo().split("/");
 
                     if (path[path.length - 1].startsWith("about-meta")) {
 
+                        boolean isNegotiated = requestContext.isFormatNegotiated();
+
                         try {
 
                             format = path[path.length - 1].split("about-meta\\.")[1];
+                            isNegotiated = false;
                         }
                         catch (ArrayIndexOutOfBoundsException e) {
 
@@ -274,63 +131,73 @@ public class LinkedDataPlatformResourceEndpoint extends HttpServlet {
 
                         logger.info("format = " + format);
 
-                        if (!format.contains("html") && !format.contains("rdf.xml") && !format.contains("rdf.ttl") && !format.contains("json") && !format.contains("nquads")) {
+                        if (format == null) {
+
+                            httpServletResponse.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE, "None of the available formats is acceptable: " + requestContext.getAccept());
+                        }
+                        else if (!format.contains("html") && !format.contains("rdf.xml") && !format.contains("rdf.ttl") && !format.contains("json") && !format.contains("nquads")) {
 
                             httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "No valid {format} requested: " + format);
 
                         }
                         else {
 
-                            String uri = config.getProperty("resource.baseurl") + httpServletRequest.getServletPath() + httpServletRequest.getPathInfo().split("-meta")[0];
+                            String uri = config.getResourceBaseUrl() + httpServletRequest.getServletPath() + httpServletRequest.getPathInfo().split("-meta")[0];
 
-                            String resource = linkedDataStorage.getResource(graph, uri, format, isAuthorized);
+                            final String representationFormat = format;
+                            final boolean isFormatNegotiated = isNegotiated;
+                            Predicate<String> isAllowed = (rights) -> !rights.equals("internal") || (rights.equals("internal") && isUBintern) || isAuthorized;
 
-                            if (resource == null) {
+                            // the representation comes with its access rights - from the cache or with one storage call
+                            RepresentationCache.Key key = new RepresentationCache.Key(graph, uri, format, language, isAuthorized);
+                            Representation representation = this.context.getRepresentationCache().get(key);
+                            String accessRights = representation != null ? representation.getAccessRights() : this.context.getAccessRightsIndex().getAccessRights(graph, uri);
 
-                                httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Resource not found!");
-                            }
-                            else {
+                            // a resource the index knows to be forbidden is refused without a backend call
+                            if (representation == null && (accessRights == null || isAllowed.test(accessRights))) {
 
-                                String accessRights = linkedDataStorage.getAccessRights(graph, uri);
+                                representation = this.context.getRepresentationCache().load(linkedDataStorage, key, (rights, lastModified) -> {
 
-                                if (!accessRights.equals("internal") || (accessRights.equals("internal") && isUBintern) || isAuthorized) {
+                                    if (!isAllowed.test(rights)) {
 
-                                    if (format.contains("html")) {
-
-                                        httpServletResponse.setContentType("text/html;charset=UTF-8");
+                                        return null;
                                     }
-                                    else if (format.contains("rdf.xml")) {
 
-                                        httpServletResponse.setContentType("application/rdf+xml;charset=UTF-8");
-                                    }
-                                    else if (format.contains("rdf.ttl")) {
+                                    prepare(httpServletResponse, representationFormat, isFormatNegotiated, null, lastModified);
 
-                                        httpServletResponse.setContentType("text/turtle;charset=UTF-8");
-                                    }
-                                    else if (format.contains("json")) {
+                                    return httpServletResponse.getOutputStream();
+                                });
+                                accessRights = representation != null ? representation.getAccessRights() : null;
+                            }
 
-                                        httpServletResponse.setContentType("application/ld+json;charset=UTF-8");
-                                    }
-                                    else if (format.contains("nquads")) {
+                            if (representation == RepresentationCache.TOO_LARGE) {
 
-                                        httpServletResponse.setContentType("application/n-quads;charset=UTF-8");
-                                    }
+                                // too large for the cache - written to the response while it was read
+                            }
+                            else if (accessRights == null) {
 
-                                    httpServletResponse.setStatus(HttpServletResponse.SC_OK);
-                                    httpServletResponse.getWriter().println(resource);
-                                }
-                                else {
+                                httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Resource not found!");
+                            }
+                            else if (isAllowed.test(accessRights)) {
 
-                                    httpServletResponse.sendError(HttpServletResponse.SC_FORBIDDEN, config.getProperty("service.forbidden.message"));
-                                }
+                                prepare(httpServletResponse, format, isNegotiated, null, 0);
+
+                                this.context.getRepresentationCache().send(representation, httpServletRequest, httpServletResponse);
+                            }
+                            else {
+
+                                httpServletResponse.sendError(HttpServletResponse.SC_FORBIDDEN, config.getForbiddenMessage());
                             }
                         }
                     }
                     else if (path[path.length - 1].startsWith("about")) {
 
+                        boolean isNegotiated = requestContext.isFormatNegotiated();
+
                         try {
 
                             format = path[path.length - 1].split("about\\.")[1];
+                            isNegotiated = false;
                         }
                         catch (ArrayIndexOutOfBoundsException e) {
 
@@ -339,7 +206,11 @@ public class LinkedDataPlatformResourceEndpoint extends HttpServlet {
 
                         logger.info("format = " + format);
 
-                        if (!format.contains("html") && !format.contains("rdf.xml") && !format.contains("rdf.ttl") && !format.contains("json") && !format.contains("nquads")) {
+                        if (format == null) {
+
+                            httpServletResponse.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE, "None of the available formats is acceptable: " + requestContext.getAccept());
+                        }
+                        else if (!format.contains("html") && !format.contains("rdf.xml") && !format.contains("rdf.ttl") && !format.contains("json") && !format.contains("nquads")) {
 
                             httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "No valid {format} requested: " + format);
                         }
@@ -347,62 +218,80 @@ public class LinkedDataPlatformResourceEndpoint extends HttpServlet {
 
                             String[] tmp = httpServletRequest.getPathInfo().split("/about");
 
-                            String uri = config.getProperty("resource.baseurl") + httpServletRequest.getServletPath() + tmp[0];
+                            String uri = config.getResourceBaseUrl() + httpServletRequest.getServletPath() + tmp[0];
                             if (tmp.length == 2 && !tmp[1].startsWith(".")) {
 
                                 uri += "/about";
                             }
                             logger.debug(tmp.length + " / uri: " + uri);
 
-                            String accessRights = linkedDataStorage.getAccessRights(graph, uri);
+                            final String representationFormat = format;
+                            final boolean isFormatNegotiated = isNegotiated;
+                            final String link = "<" + uri + "/about-meta>; rel=meta";
+                            Predicate<String> isAllowed = (rights) -> rights.equals("public") || (rights.equals("internal") && isUBintern) || isAuthorized;
 
-                            if (accessRights.equals("public")
-                                    || (accessRights.equals("internal") && isUBintern) || isAuthorized) {
+                            RepresentationCache.Key key = new RepresentationCache.Key(graph, uri, format, language, isAuthorized);
+                            Representation representation = this.context.getRepresentationCache().get(key);
 
-                                String resource = linkedDataStorage.getResource(graph, uri, format, isAuthorized);
+                            if (representation == null) {
 
-                                if (resource == null) {
+                                // the 303 See Other to this document may have started reading it; a prefetched NOT_FOUND
+                                // has no access rights and is answered with 404 below without reading it again
+                                representation = this.context.getRepresentationPrefetcher().take(key);
+                            }
 
-                                    httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Resource not found!");
-                                } else {
+                            String accessRights = representation != null ? representation.getAccessRights() : this.context.getAccessRightsIndex().getAccessRights(graph, uri);
 
-                                    if (format.contains("html")) {
+                            // a resource the index knows to be forbidden is refused without a backend call
+                            if (representation == null && (accessRights == null || isAllowed.test(accessRights))) {
 
-                                        httpServletResponse.setContentType("text/html;charset=UTF-8");
-                                    } else if (format.contains("rdf.xml")) {
+                                representation = this.context.getRepresentationCache().load(linkedDataStorage, key, (rights, lastModified) -> {
 
-                                        httpServletResponse.setContentType("application/rdf+xml;charset=UTF-8");
-                                    } else if (format.contains("rdf.ttl")) {
+                                    if (!isAllowed.test(rights)) {
 
-                                        httpServletResponse.setContentType("text/turtle;charset=UTF-8");
-                                    } else if (format.contains("json")) {
+                                        return null;
+                                    }
 
-                                        httpServletResponse.setContentType("application/ld+json;charset=UTF-8");
-                                    } else if (format.contains("nquads")) {
+                                    prepare(httpServletResponse, representationFormat, isFormatNegotiated, link, lastModified);
 
-                                        httpServletResponse.setContentType("application/n-quads;charset=UTF-8");
-                                    }
+                                    return httpServletResponse.getOutputStream();
+                                });
+                                accessRights = representation != null ? representation.getAccessRights() : null;
+                            }
 
-                                    httpServletResponse.setHeader("Link", "<" + uri + "/about-meta>; rel=meta");
-                                    httpServletResponse.setStatus(HttpServletResponse.SC_OK);
-                                    httpServletResponse.getWriter().println(resource);
-                                }
+                            if (representation == RepresentationCache.TOO_LARGE) {
+
+                                // too large for the cache - written to the response while it was read
+                            }
+                            else if (accessRights == null) {
+
+                                httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Resource not found!");
+                            }
+                            else if (isAllowed.test(accessRights)) {
+
+                                prepare(httpServletResponse, format, isNegotiated, link, 0);
+
+                                this.context.getRepresentationCache().send(representation, httpServletRequest, httpServletResponse);
                             } else {
 
-                                httpServletResponse.sendError(HttpServletResponse.SC_FORBIDDEN, config.getProperty("service.forbidden.message"));
+                                httpServletResponse.sendError(HttpServletResponse.SC_FORBIDDEN, config.getForbiddenMessage());
                             }
                         }
                     } else {
 
-                        if (!format.equals("html") && !format.equals("rdfa") && !format.equals("rdf.xml") && !format.equals("rdf.ttl") && !format.equals("json") && !format.equals("nquads")) {
+                        if (format == null) {
+
+                            httpServletResponse.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE, "None of the available formats is acceptable: " + requestContext.getAccept());
+                        }
+                        else if (!format.equals("html") && !format.equals("rdfa") && !format.equals("rdf.xml") && !format.equals("rdf.ttl") && !format.equals("json") && !format.equals("nquads")) {
 
                             httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "No valid {format} requested: " + format);
                         } else {
 
                             // HTTP 303 See Other mit about.{format} + ggf. .{lang}
-                            String uri = config.getProperty("resource.baseurl");
+                            String uri = config.getResourceBaseUrl();
 
-                            if (Boolean.parseBoolean(config.getProperty("service.istest"))) {
+                            if (config.isTest()) {
 
                                 uri = "http://" + httpServletRequest.getServerName() + ":" + httpServletRequest.getServerPort();
                             }
@@ -411,9 +300,22 @@ public class LinkedDataPlatformResourceEndpoint extends HttpServlet {
 
                             logger.debug("303-URI: " + uri);
 
+                            // the client follows at once - read the about document in the meantime; without a query
+                            // string the follow-up request negotiates the same format, graph and language
+                            if (httpServletRequest.getQueryString() == null && !httpServletRequest.getPathInfo().contains("/about") && !format.equals("rdfa")) {
+
+                                String about = config.getResourceBaseUrl() + httpServletRequest.getServletPath() + httpServletRequest.getPathInfo();
+                                String accessRights = this.context.getAccessRightsIndex().getAccessRights(graph, about);
+
+                                if (accessRights == null || accessRights.equals("public") || (accessRights.equals("internal") && isUBintern) || isAuthorized) {
+
+                                    this.context.getRepresentationPrefetcher().prefetch(linkedDataStorage, new RepresentationCache.Key(graph, about, format, language, isAuthorized));
+                                }
+                            }
+
                             httpServletResponse.setStatus(HttpServletResponse.SC_SEE_OTHER);
                             httpServletResponse.setHeader("Location", uri);
-                            httpServletResponse.setHeader("Vary", "Accept");
+                            ContentNegotiator.vary(httpServletResponse, "Accept");
                             httpServletResponse.getWriter().println("");
                         }
                     }
@@ -422,7 +324,11 @@ public class LinkedDataPlatformResourceEndpoint extends HttpServlet {
             catch(Exception e) {
 
                 logger.error("something went wrong", e);
-                httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "something went wrong");
+                // a streamed response may already be committed
+                if (!httpServletResponse.isCommitted()) {
+
+                    httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "something went wrong");
+                }
             }
         }
         else {
@@ -430,4 +336,51 @@ public class LinkedDataPlatformResourceEndpoint extends HttpServlet {
             // TODO no storage configured
         }
     }
+
+    /**
+     * Sets content type, status and the headers of a representation about to be sent.
+     *
+     * @param link         value of the {@code Link} header or {@code null}
+     * @param lastModified as reported by the storage or {@code 0}, then it is left to the representation cache
+     */
+    private static void prepare(final HttpServletResponse httpServletResponse, final String format, final boolean isNegotiated, final String link, final long lastModified) {
+
+        if (format.contains("html")) {
+
+            httpServletResponse.setContentType("text/html;charset=UTF-8");
+        }
+        else if (format.contains("rdf.xml")) {
+
+            httpServletResponse.setContentType("application/rdf+xml;charset=UTF-8");
+        }
+        else if (format.contains("rdf.ttl")) {
+
+            httpServletResponse.setContentType("text/turtle;charset=UTF-8");
+        }
+        else if (format.contains("json")) {
+
+            httpServletResponse.setContentType("application/ld+json;charset=UTF-8");
+        }
+        else if (format.contains("nquads")) {
+
+            httpServletResponse.setContentType("application/n-quads;charset=UTF-8");
+        }
+
+        if (link != null) {
+
+            httpServletResponse.setHeader("Link", link);
+        }
+        if (isNegotiated) {
+
+            ContentNegotiator.vary(httpServletResponse, "Accept");
+        }
+        ContentNegotiator.vary(httpServletResponse, "Accept-Language");
+
+        if (lastModified > 0) {
+
+            httpServletResponse.setDateHeader("Last-Modified", lastModified);
+        }
+
+        httpServletResponse.setStatus(HttpServletResponse.SC_OK);
+    }
 }
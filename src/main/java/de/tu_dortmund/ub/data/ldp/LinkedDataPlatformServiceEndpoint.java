@@ -21,25 +21,27 @@
  */
 package de.tu_dortmund.ub.data.ldp;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import de.tu_dortmund.ub.data.ldp.auth.AuthorizationException;
-import de.tu_dortmund.ub.data.ldp.auth.AuthorizationInterface;
-import de.tu_dortmund.ub.data.ldp.auth.model.LoginResponse;
+import de.tu_dortmund.ub.data.ldp.cache.Representation;
+import de.tu_dortmund.ub.data.ldp.cache.RepresentationCache;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
-import de.tu_dortmund.ub.util.impl.Lookup;
-import de.tu_dortmund.ub.util.rights.AnalyseIPRange;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
 import org.apache.log4j.Logger;
-import org.apache.log4j.PropertyConfigurator;
 
 import javax.servlet.ServletException;
-import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
 import java.net.URLDecoder;
-import java.util.Enumeration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -51,288 +53,182 @@ import java.util.stream.Collectors;
  */
 public class LinkedDataPlatformServiceEndpoint extends HttpServlet {
 
-    public static final  String     UTF_8                       = "UTF-8";
-    private Properties config                      = new Properties();
+    public static final String UTF_8 = "UTF-8";
 
-    private Logger logger = Logger.getLogger(LinkedDataPlatformServiceEndpoint.class.getName());
-
-    public LinkedDataPlatformServiceEndpoint(String conffile) {
-
-        // Init properties
-        try {
-
-            try (InputStream inputStream = new FileInputStream(conffile)) {
-
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, UTF_8))) {
-
-                    this.config.load(reader);
-                }
-            }
-        }
-        catch (IOException e) {
-
-            this.logger.error("something went wrong", e);
-            this.logger.error(String.format("FATAL ERROR: Could not read '%s'!", conffile));
-        }
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
-        // init logger
-        PropertyConfigurator.configure(this.config.getProperty(LDPStatics.SERVICE_LOG4J_CONF_IDENTIFIER));
+    private Logger logger = Logger.getLogger(LinkedDataPlatformServiceEndpoint.class.getName());
 
-        final String serviceName = this.config.getProperty(LDPStatics.SERVICE_NAME_IDENTIFIER);
+    private final LinkedDataPlatformContext context;
 
-        logger.info(String.format("[%s] Starting '" + LinkedDataPlatformServiceEndpoint.class.getName() + "' ...", serviceName));
-        logger.info(String.format("[%s] conf-file = %s", serviceName, conffile));
+    public LinkedDataPlatformServiceEndpoint(LinkedDataPlatformContext context) {
 
-        final String log4jConfFile = this.config.getProperty(LDPStatics.SERVICE_LOG4J_CONF_IDENTIFIER);
+        this.context = context;
 
-        logger.info(String.format("[%s] log4j-conf-file = %s", serviceName, log4jConfFile));
+        logger.info(String.format("[%s] Starting '" + LinkedDataPlatformServiceEndpoint.class.getName() + "' ...", context.getConfig().getServiceName()));
     }
 
     public void doOptions(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
 
-        response.setHeader("Access-Control-Allow-Methods", this.config.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_METHODS_IDENTIFIER));
-        response.addHeader("Access-Control-Allow-Headers", this.config.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_HEADERS_IDENTIFIER));
-        response.setHeader("Access-Control-Allow-Origin", this.config.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_ORIGIN_IDENTIFIER));
-        response.setHeader("Accept", this.config.getProperty(LDPStatics.CORS_ACCEPT_IDENTIFIER));
+        LinkedDataPlatformConfig config = this.context.getConfig();
+
+        response.setHeader("Access-Control-Allow-Methods", config.getCorsAllowMethods());
+        response.addHeader("Access-Control-Allow-Headers", config.getCorsAllowHeaders());
+        response.setHeader("Access-Control-Allow-Origin", config.getCorsAllowOrigin());
+        response.setHeader("Accept", config.getCorsAccept());
 
         response.getWriter().println();
     }
 
     protected void doGet(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
 
-        ObjectMapper mapper = new ObjectMapper();
-
-        httpServletResponse.setHeader("Access-Control-Allow-Origin", this.config.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_ORIGIN_IDENTIFIER));
-
-        // analyse ip range
-        String ips = httpServletRequest.getHeader("X-Forwarded-For");
-
-        boolean isTUintern = AnalyseIPRange.analyseAccessRights(ips, this.config.getProperty(LDPStatics.SERVICE_IPRANGE_TU_IDENTIFIER), config.getProperty(LDPStatics.SERVICE_IPRANGE_TU_EXCEPTIONS_IDENTIFIER));
-        boolean isUBintern = AnalyseIPRange.analyseAccessRights(ips, this.config.getProperty(LDPStatics.SERVICE_IPRANGE_UB_IDENTIFIER), config.getProperty(LDPStatics.SERVICE_IPRANGE_UB_EXCEPTIONS_IDENTIFIER));
-
-        this.logger.debug("[" + this.config.getProperty("service.name") + "] " + "Where is it from? " + httpServletRequest.getHeader("X-Forwarded-For") + ", " + isTUintern + ", " + isUBintern);
+        this.context.getBackendExecutor().dispatch(httpServletRequest, httpServletResponse, this::processGet);
+    }
 
-        String format = "html";
-        String profile = this.config.getProperty("storage.graph.default");
-        String language = "de";
-        String authorization = "";
+    private void processGet(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
 
-        Enumeration<String> headerNames = httpServletRequest.getHeaderNames();
-        while ( headerNames.hasMoreElements() ) {
+        LinkedDataPlatformConfig config = this.context.getConfig();
 
-            String headerNameKey = headerNames.nextElement();
-            this.logger.debug("headerNameKey = " + headerNameKey + " / headerNameValue = " + httpServletRequest.getHeader(headerNameKey));
+        // CORS ORIGIN RESPONSE HEADER
+        httpServletResponse.setHeader("Access-Control-Allow-Origin", config.getCorsAllowOrigin());
 
-            if (headerNameKey.equals("Accept")) {
+        // headers, parameters and cookies are parsed once by the RequestContextFilter
+        RequestContext requestContext = RequestContext.of(httpServletRequest, this.context);
 
-                if (httpServletRequest.getHeader(headerNameKey).contains("text/html")) {
-                    format = "html";
-                }
-                else if (httpServletRequest.getHeader(headerNameKey).contains("application/rdf+xml")) {
-                    format = "rdf.xml";
-                }
-                else if (httpServletRequest.getHeader(headerNameKey).contains("application/xhtml+xml")) {
-                    format = "rdfa";
-                }
-                else if (httpServletRequest.getHeader(headerNameKey).contains("text/turtle")
-                        || httpServletRequest.getHeader(headerNameKey).contains("application/x-turtle")
-                        || httpServletRequest.getHeader(headerNameKey).contains("application/turtle")) {
-                    format = "rdf.ttl";
-                }
-                else if (httpServletRequest.getHeader(headerNameKey).contains("application/ld+json")) {
-                    format = "json";
-                }
-                else if (httpServletRequest.getHeader(headerNameKey).contains("application/json")) {
-                    format = "json";
-                }
-                else if (httpServletRequest.getHeader(headerNameKey).contains("application/n-quads")) {
-                    format = "nquads";
-                }
-                else if (httpServletRequest.getHeader(headerNameKey).contains("application/sparql-results+json")) {
-                    format = "json";
-                }
-                else if (httpServletRequest.getHeader(headerNameKey).contains("application/sparql-results+xml")) {
-                    format = "xml";
-                }
-            }
-            if (headerNameKey.equals("Authorization")) {
-                authorization = httpServletRequest.getHeader( headerNameKey );
-            }
-        }
+        // search and SPARQL results are offered in other formats than the resource representations
+        String format = requestContext.getFormat(httpServletRequest.getPathInfo() != null && httpServletRequest.getPathInfo().startsWith("/resource") ? ContentNegotiator.RESOURCE : ContentNegotiator.RESULTS);
+        String profile = requestContext.getProfile();
+        String language = requestContext.getLanguage();
 
-        if (httpServletRequest.getParameter("format") != null) {
-            format = httpServletRequest.getParameter("format");
-        }
+        boolean isUBintern = requestContext.isUBintern();
+        boolean isAuthorized = requestContext.isAuthorized(httpServletResponse);
 
-        this.logger.info("format = " + format);
+        // Linked Data Storage
+        LinkedDataStorage linkedDataStorage = this.context.getLinkedDataStorage();
 
-        if (httpServletRequest.getParameter("profile") != null) {
-            profile = httpServletRequest.getParameter("profile");
-        }
+        if (!this.context.isReady()) {
 
-        this.logger.info("profile = " + profile);
-
-        // language
-        if (language != null && language.startsWith("de")) {
-            language = "de";
-        } else if (language != null && language.startsWith("en")) {
-            language = "en";
-        } else if (httpServletRequest.getParameter("lang") != null) {
-            language = httpServletRequest.getParameter("lang");
-        } else {
-            language = this.config.getProperty(LDPStatics.SERVICE_LANGUAGE_DEFAULT_IDENTIFIER);
+            httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service not ready!");
         }
+        else if (linkedDataStorage != null) {
 
-        this.logger.info("language = " + language);
-
-        String patronid = "";
-
-        // if not exists token
-        if (authorization.equals("")) {
+            try {
 
-            // if exists PaiaService-Cookie: read content
-            Cookie[] cookies = httpServletRequest.getCookies();
+                String graph = profile;
 
-            if (cookies != null) {
-                for (Cookie cookie : cookies) {
-                    if (cookie.getName().equals("PaiaService")) {
+                // TODO get graph from request
 
-                        String value = URLDecoder.decode(cookie.getValue(), "UTF-8");
-                        this.logger.info(value);
-                        LoginResponse loginResponse = mapper.readValue(value, LoginResponse.class);
+                this.logger.debug("[" + config.getServiceName() + "] " + "Graph: " + graph);
 
-                        authorization = loginResponse.getAccess_token();
-                        patronid = loginResponse.getPatron();
+                // TODO is graph valid?
+                if (!config.isGraph(graph)) {
 
-                        break;
-                    }
+                    httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "Bad request - graph is not valid!");
                 }
-            }
-        }
-
-        this.logger.info("authorization: " + authorization);
-
-        boolean isAuthorized = false;
-
-        if (!authorization.equals("")) {
-
-            if (Lookup.lookupAll(AuthorizationInterface.class).size() > 0) {
-
-                AuthorizationInterface authorizationInterface = Lookup.lookup(AuthorizationInterface.class);
-                // init Authorization Service
-                authorizationInterface.init(this.config);
-
-                try {
+                else {
 
-                    isAuthorized = authorizationInterface.isTokenValid(httpServletResponse, "data", patronid, authorization);
-                }
-                catch (AuthorizationException e) {
+                    this.logger.debug("[" + config.getServiceName() + "] " + "getPathInfo: " + httpServletRequest.getPathInfo());
 
-                    // TODO correct error handling
-                    this.logger.error("[" + config.getProperty("service.name") + "] " + HttpServletResponse.SC_UNAUTHORIZED + "!");
-                }
-            } else {
+                    if (httpServletRequest.getPathInfo().startsWith("/resources")) {
 
-                // TODO correct error handling
-                this.logger.error("[" + this.config.getProperty("service.name") + "] " + HttpServletResponse.SC_INTERNAL_SERVER_ERROR + ": " + "Authorization Interface not implemented!");
-            }
-        }
+                        // Batch: checked before "/resource", which is a prefix of it
+                        String[] uris = httpServletRequest.getParameterValues("uri");
+                        int maxSize = config.getInt(LDPStatics.SERVICE_BATCH_MAXSIZE_IDENTIFIER, 100);
 
-        this.logger.debug("[" + config.getProperty("service.name") + "] " + "Authorization: " + authorization + " - " + isAuthorized);
+                        if (uris == null || uris.length == 0) {
 
-        // ... - if not is authorized - against DFN-AAI service
-        if (!isAuthorized) {
+                            httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "Bad request. Parameter 'uri' not defined!");
+                        }
+                        else if (uris.length > maxSize) {
 
-            // TODO if exists OpenAM-Session-Cookie: read content
-            this.logger.debug("[" + config.getProperty("service.name") + "] " + "Authorization: " + authorization + " - " + isAuthorized);
-        }
+                            httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "Bad request. Not more than " + maxSize + " values of parameter 'uri' allowed!");
+                        }
+                        else if (format == null) {
 
-        // Linked Data Storage
-        if (Lookup.lookupAll(LinkedDataStorage.class).size() > 0) {
+                            httpServletResponse.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE, "None of the available formats is acceptable: " + requestContext.getAccept());
+                        }
+                        else {
 
-            try {
+                            Set<String> resources = new LinkedHashSet<>();
 
-                String graph = profile;
+                            for (String uri : uris) {
 
-                // TODO get graph from request
+                                if (uri != null && !uri.equals("")) {
 
-                this.logger.debug("[" + config.getProperty("service.name") + "] " + "Graph: " + graph);
+                                    resources.add(URLDecoder.decode(uri, "UTF-8"));
+                                }
+                            }
 
-                // TODO is graph valid?
-                if (!this.config.getProperty("storage.graphs").contains(graph)) {
+                            httpServletResponse.setContentType("application/json;charset=UTF-8");
 
-                    httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "Bad request - graph is not valid!");
-                }
-                else {
+                            if (requestContext.isFormatNegotiated()) {
 
-                    LinkedDataStorage linkedDataStorage = Lookup.lookup(LinkedDataStorage.class);
-                    // init LinkedDataStorage
-                    linkedDataStorage.init(this.config);
+                                ContentNegotiator.vary(httpServletResponse, "Accept");
+                            }
+                            ContentNegotiator.vary(httpServletResponse, "Accept-Language");
 
-                    this.logger.debug("[" + config.getProperty("service.name") + "] " + "getPathInfo: " + httpServletRequest.getPathInfo());
+                            httpServletResponse.setStatus(HttpServletResponse.SC_OK);
 
-                    if (httpServletRequest.getPathInfo().startsWith("/resource")) {
+                            this.sendResources(linkedDataStorage, graph, resources, format, language, isAuthorized, isAllowed(isUBintern, isAuthorized), config.getForbiddenMessage(), httpServletResponse);
+                        }
+                    }
+                    else if (httpServletRequest.getPathInfo().startsWith("/resource")) {
 
                         if (httpServletRequest.getParameter("uri") == null || httpServletRequest.getParameter("uri").equals("")) {
 
                             httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "Bad request. Parameter 'uri' not defined!");
-                        } else {
+                        }
+                        else if (format == null) {
 
-                            String uri = URLDecoder.decode(httpServletRequest.getParameter("uri"), "UTF-8");
+                            httpServletResponse.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE, "None of the available formats is acceptable: " + requestContext.getAccept());
+                        }
+                        else {
 
-                            String resource = linkedDataStorage.getResource(graph, uri, format, isAuthorized);
+                            String uri = URLDecoder.decode(httpServletRequest.getParameter("uri"), "UTF-8");
 
-                            if (resource == null) {
+                            final String representationFormat = format;
+                            final boolean isNegotiated = requestContext.isFormatNegotiated();
+                            Predicate<String> isAllowed = isAllowed(isUBintern, isAuthorized);
 
-                                if (format.contains("html")) {
+                            // the representation comes with its access rights - from the cache or with one storage call
+                            RepresentationCache.Key key = new RepresentationCache.Key(graph, uri, format, language, isAuthorized);
+                            Representation representation = this.context.getRepresentationCache().get(key);
+                            String accessRights = representation != null ? representation.getAccessRights() : this.context.getAccessRightsIndex().getAccessRights(graph, uri);
 
-                                    httpServletResponse.setContentType("text/html;charset=UTF-8");
-                                } else if (format.contains("rdf.xml")) {
+                            // a resource the index knows to be forbidden is refused without a backend call
+                            if (representation == null && (accessRights == null || isAllowed.test(accessRights))) {
 
-                                    httpServletResponse.setContentType("application/xml;charset=UTF-8");
-                                } else if (format.contains("rdf.ttl")) {
+                                representation = this.context.getRepresentationCache().load(linkedDataStorage, key, (rights, lastModified) -> {
 
-                                    httpServletResponse.setContentType("text/plain;charset=UTF-8");
-                                } else if (format.contains("json")) {
+                                    if (!isAllowed.test(rights)) {
 
-                                    httpServletResponse.setContentType("application/json;charset=UTF-8");
-                                } else if (format.contains("nquads")) {
+                                        return null;
+                                    }
 
-                                    httpServletResponse.setContentType("text/plain;charset=UTF-8");
-                                }
+                                    prepare(httpServletResponse, representationFormat, isNegotiated, lastModified);
 
-                                httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Resource <" + uri + "> not found!");
+                                    return httpServletResponse.getOutputStream();
+                                });
+                                accessRights = representation != null ? representation.getAccessRights() : null;
                             }
-                            else {
-
-                                String accessRights = linkedDataStorage.getAccessRights(uri);
-
-                                if (!accessRights.equals("internal") || (accessRights.equals("internal") && isUBintern) || isAuthorized) {
 
-                                    if (format.contains("html")) {
-
-                                        httpServletResponse.setContentType("text/html;charset=UTF-8");
-                                    } else if (format.contains("rdf.xml")) {
-
-                                        httpServletResponse.setContentType("application/rdf+xml;charset=UTF-8");
-                                    } else if (format.contains("rdf.ttl")) {
+                            if (representation == RepresentationCache.TOO_LARGE) {
 
-                                        httpServletResponse.setContentType("text/turtle;charset=UTF-8");
-                                    } else if (format.contains("json")) {
+                                // too large for the cache - written to the response while it was read
+                            }
+                            else if (accessRights == null) {
 
-                                        httpServletResponse.setContentType("application/ld+json;charset=UTF-8");
-                                    } else if (format.contains("nquads")) {
+                                httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Resource <" + uri + "> not found!");
+                            }
+                            else if (isAllowed.test(accessRights)) {
 
-                                        httpServletResponse.setContentType("application/n-quads;charset=UTF-8");
-                                    }
+                                prepare(httpServletResponse, format, isNegotiated, 0);
 
-                                    httpServletResponse.setStatus(HttpServletResponse.SC_OK);
-                                    httpServletResponse.getWriter().println(resource);
-                                }
-                                else {
+                                this.context.getRepresentationCache().send(representation, httpServletRequest, httpServletResponse);
+                            }
+                            else {
 
-                                    httpServletResponse.sendError(HttpServletResponse.SC_FORBIDDEN, config.getProperty("service.forbidden.message"));
-                                }
+                                httpServletResponse.sendError(HttpServletResponse.SC_FORBIDDEN, config.getForbiddenMessage());
                             }
                         }
                     }
@@ -345,7 +241,11 @@ public class LinkedDataPlatformServiceEndpoint extends HttpServlet {
                         }
                         else {
 
-                            if (!format.equals("html") && !format.equals("xml") && !format.equals("json")) {
+                            if (format == null) {
+
+                                httpServletResponse.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE, "None of the available formats is acceptable: " + requestContext.getAccept());
+                            }
+                            else if (!format.equals("html") && !format.equals("xml") && !format.equals("json")) {
 
                                 httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "No valid {format} requested: " + format);
                             }
@@ -376,8 +276,6 @@ public class LinkedDataPlatformServiceEndpoint extends HttpServlet {
 
                                 try {
 
-                                    String resource = linkedDataStorage.searchResource(graph, query, format, isAuthorized);
-
                                     if (format.contains("html")) {
 
                                         httpServletResponse.setContentType("text/html;charset=UTF-8");
@@ -392,26 +290,37 @@ public class LinkedDataPlatformServiceEndpoint extends HttpServlet {
                                         httpServletResponse.setContentType("application/ld+json;charset=UTF-8");
                                     }
 
-                                    if (resource == null) {
+                                    if (requestContext.isFormatNegotiated()) {
 
-                                        httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "No resources not found!");
-                                    } else {
+                                        ContentNegotiator.vary(httpServletResponse, "Accept");
+                                    }
 
-                                        httpServletResponse.setHeader("Access-Control-Allow-Origin", "*");
-                                        httpServletResponse.setStatus(HttpServletResponse.SC_OK);
-                                        httpServletResponse.getWriter().println(resource);
+                                    httpServletResponse.setHeader("Access-Control-Allow-Origin", "*");
+                                    httpServletResponse.setStatus(HttpServletResponse.SC_OK);
+
+                                    if (!linkedDataStorage.searchResource(graph, query, format, isAuthorized, httpServletResponse.getOutputStream())) {
+
+                                        httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "No resources not found!");
                                     }
                                 } catch (Exception e) {
 
                                     this.logger.error(e.getMessage());
-                                    httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Failed to connect to backend! Please try again later!");
+                                    // a streamed response may already be committed
+                                    if (!httpServletResponse.isCommitted()) {
+
+                                        httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Failed to connect to backend! Please try again later!");
+                                    }
                                 }
                             }
                         }
                     }
                     else if (httpServletRequest.getPathInfo().startsWith("/sparql")) {
 
-                        if (!format.equals("html") && !format.equals("xml") && !format.equals("json")) {
+                        if (format == null) {
+
+                            httpServletResponse.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE, "None of the available formats is acceptable: " + requestContext.getAccept());
+                        }
+                        else if (!format.equals("html") && !format.equals("xml") && !format.equals("json")) {
 
                             httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "No valid {format} requested: " + format);
                         }
@@ -420,32 +329,36 @@ public class LinkedDataPlatformServiceEndpoint extends HttpServlet {
                             try {
 
                                 // SPARQL
-                                String resource = linkedDataStorage.sparqlQuery(graph, httpServletRequest.getParameter("q"), format, isAuthorized);
+                                if (format.contains("html")) {
 
-                                if (resource == null) {
+                                    httpServletResponse.setContentType("text/html;charset=UTF-8");
+                                } else if (format.contains("xml")) {
 
-                                    httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Resource not found!");
+                                    httpServletResponse.setContentType("application/sparql-results+xml;charset=UTF-8");
+                                } else if (format.contains("json")) {
+
+                                    httpServletResponse.setContentType("application/sparql-results+json;charset=UTF-8");
                                 }
-                                else {
 
-                                    if (format.contains("html")) {
+                                if (requestContext.isFormatNegotiated()) {
 
-                                        httpServletResponse.setContentType("text/html;charset=UTF-8");
-                                    } else if (format.contains("xml")) {
+                                    ContentNegotiator.vary(httpServletResponse, "Accept");
+                                }
 
-                                        httpServletResponse.setContentType("application/sparql-results+xml;charset=UTF-8");
-                                    } else if (format.contains("json")) {
+                                httpServletResponse.setStatus(HttpServletResponse.SC_OK);
 
-                                        httpServletResponse.setContentType("application/sparql-results+json;charset=UTF-8");
-                                    }
+                                if (!this.context.getSparqlResultCache().send(linkedDataStorage, graph, httpServletRequest.getParameter("q"), format, isAuthorized, httpServletResponse)) {
 
-                                    httpServletResponse.setStatus(HttpServletResponse.SC_OK);
-                                    httpServletResponse.getWriter().println(resource);
+                                    httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Resource not found!");
                                 }
                             } catch (Exception e) {
 
                                 this.logger.error(e.getMessage());
-                                httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Failed to connect to backend! Please try again later!");
+                                // a streamed response may already be committed
+                                if (!httpServletResponse.isCommitted()) {
+
+                                    httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Failed to connect to backend! Please try again later!");
+                                }
                             }
                         }
                     }
@@ -458,175 +371,221 @@ public class LinkedDataPlatformServiceEndpoint extends HttpServlet {
             catch(Exception e) {
 
                 this.logger.error("something went wrong", e);
-                httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "something went wrong");
+                // a streamed response may already be committed
+                if (!httpServletResponse.isCommitted()) {
+
+                    httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "something went wrong");
+                }
             }
         }
     }
 
-    protected void doPost(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
+    /**
+     * Sets content type, status and the headers of a representation about to be sent.
+     *
+     * @param lastModified as reported by the storage or {@code 0}, then it is left to the representation cache
+     */
+    private static void prepare(final HttpServletResponse httpServletResponse, final String format, final boolean isNegotiated, final long lastModified) {
 
-        ObjectMapper mapper = new ObjectMapper();
+        if (format.contains("html")) {
 
-        // CORS ORIGIN RESPONSE HEADER
-        httpServletResponse.setHeader("Access-Control-Allow-Origin", config.getProperty(LDPStatics.CORS_ACCESS_CONTROL_ALLOW_ORIGIN_IDENTIFIER));
-
-        // analyse ip range
-        String ips = httpServletRequest.getHeader("X-Forwarded-For");
-
-        boolean isTUintern = AnalyseIPRange.analyseAccessRights(ips, config.getProperty(LDPStatics.SERVICE_IPRANGE_TU_IDENTIFIER), config.getProperty(LDPStatics.SERVICE_IPRANGE_TU_EXCEPTIONS_IDENTIFIER));
-        boolean isUBintern = AnalyseIPRange.analyseAccessRights(ips, config.getProperty(LDPStatics.SERVICE_IPRANGE_UB_IDENTIFIER), config.getProperty(LDPStatics.SERVICE_IPRANGE_UB_EXCEPTIONS_IDENTIFIER));
-
-        logger.debug("[" + config.getProperty("service.name") + "] " + "Where is it from? " + httpServletRequest.getHeader("X-Forwarded-For") + ", " + isTUintern + ", " + isUBintern);
-
-        String format = "html";
-        String language = "de";
-        String authorization = "";
-        String contenttype = "";
-
-        Enumeration<String> headerNames = httpServletRequest.getHeaderNames();
-        while ( headerNames.hasMoreElements() ) {
-
-            String headerNameKey = headerNames.nextElement();
-            this.logger.debug("headerNameKey = " + headerNameKey + " / headerNameValue = " + httpServletRequest.getHeader(headerNameKey));
-
-            if (headerNameKey.equals("Accept")) {
-
-                if (httpServletRequest.getHeader(headerNameKey).contains("text/html")) {
-                    format = "html";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("application/rdf+xml")) {
-                    format = "rdf.xml";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("application/xhtml+xml")) {
-                    format = "rdfa";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("text/turtle")
-                        || httpServletRequest.getHeader(headerNameKey).contains("application/x-turtle")
-                        || httpServletRequest.getHeader(headerNameKey).contains("application/turtle")) {
-                    format = "rdf.ttl";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("application/ld+json")) {
-                    format = "json";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("application/n-quads")) {
-                    format = "nquads";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("application/sparql-results+json")) {
-                    format = "json";
-                } else if (httpServletRequest.getHeader(headerNameKey).contains("application/sparql-results+xml")) {
-                    format = "xml";
-                }
-            }
-            if (headerNameKey.equals("Authorization")) {
-                authorization = httpServletRequest.getHeader( headerNameKey );
-            }
-            if (headerNameKey.equals("Content-Type")) {
-                contenttype = httpServletRequest.getHeader(headerNameKey);
-            }
+            httpServletResponse.setContentType("text/html;charset=UTF-8");
+        } else if (format.contains("rdf.xml")) {
+
+            httpServletResponse.setContentType("application/rdf+xml;charset=UTF-8");
+        } else if (format.contains("rdf.ttl")) {
+
+            httpServletResponse.setContentType("text/turtle;charset=UTF-8");
+        } else if (format.contains("json")) {
+
+            httpServletResponse.setContentType("application/ld+json;charset=UTF-8");
+        } else if (format.contains("nquads")) {
+
+            httpServletResponse.setContentType("application/n-quads;charset=UTF-8");
         }
 
-        this.logger.info("contenttype = " + contenttype);
+        if (isNegotiated) {
 
-        if (httpServletRequest.getParameter("format") != null) {
-            format = httpServletRequest.getParameter("format");
+            ContentNegotiator.vary(httpServletResponse, "Accept");
         }
+        ContentNegotiator.vary(httpServletResponse, "Accept-Language");
 
-        this.logger.info("format = " + format);
-
-        // language
-        if (language != null && language.startsWith("de")) {
-            language = "de";
-        } else if (language != null && language.startsWith("en")) {
-            language = "en";
-        } else if (httpServletRequest.getParameter("lang") != null) {
-            language = httpServletRequest.getParameter("lang");
-        } else {
-            language = this.config.getProperty(LDPStatics.SERVICE_LANGUAGE_DEFAULT_IDENTIFIER);
+        if (lastModified > 0) {
+
+            httpServletResponse.setDateHeader("Last-Modified", lastModified);
         }
 
-        this.logger.info("language = " + language);
+        httpServletResponse.setStatus(HttpServletResponse.SC_OK);
+    }
 
-        String patronid = "";
+    /**
+     * Writes the resources as one JSON document: {@code {"graph": .., "format": .., "resources": [..]}} with one entry
+     * {@code {"uri": .., "status": .., "accessRights": .., "representation": ..}} per resource. The access rights are
+     * checked per resource - a forbidden resource gets status 403 and no representation, an unknown one status 404.
+     *
+     * Cached representations are written first, the others are fetched with one call of
+     * {@link LinkedDataStorage#getResources(String, java.util.Collection, String, boolean, LinkedDataStorage.ResourceConsumer)}
+     * and written as soon as the storage delivers them. If the storage fails in between, the document is closed with
+     * an {@code error} field, because the status has already been sent.
+     */
+    private void sendResources(LinkedDataStorage linkedDataStorage, String graph, Set<String> resources, String format, String language, boolean isAuthorized, Predicate<String> isAllowed, String forbiddenMessage, HttpServletResponse httpServletResponse) throws IOException {
 
-        // if not exists token
-        if (authorization.equals("")) {
+        RepresentationCache representationCache = this.context.getRepresentationCache();
+        long generation = representationCache.generation(graph);
 
-            // if exists PaiaService-Cookie: read content
-            Cookie[] cookies = httpServletRequest.getCookies();
+        try (JsonGenerator jsonGenerator = JSON_FACTORY.createGenerator(httpServletResponse.getOutputStream(), JsonEncoding.UTF8)) {
 
-            if (cookies != null) {
-                for (Cookie cookie : cookies) {
-                    if (cookie.getName().equals("PaiaService")) {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField("graph", graph);
+            jsonGenerator.writeStringField("format", format);
+            jsonGenerator.writeArrayFieldStart("resources");
 
-                        String value = URLDecoder.decode(cookie.getValue(), "UTF-8");
-                        this.logger.info(value);
-                        LoginResponse loginResponse = mapper.readValue(value, LoginResponse.class);
+            List<String> misses = new ArrayList<>();
 
-                        authorization = loginResponse.getAccess_token();
-                        patronid = loginResponse.getPatron();
+            for (String uri : resources) {
 
-                        break;
-                    }
+                Representation representation = representationCache.get(new RepresentationCache.Key(graph, uri, format, language, isAuthorized));
+
+                if (representation != null) {
+
+                    writeResource(jsonGenerator, uri, representation.getAccessRights(), new String(representation.getBody(), UTF_8), format, isAllowed, forbiddenMessage);
+                }
+                else {
+
+                    misses.add(uri);
                 }
             }
-        }
 
-        this.logger.info("authorization: " + authorization);
+            jsonGenerator.flush();
 
-        boolean isAuthorized = false;
+            try {
 
-        if (!authorization.equals("")) {
+                if (!misses.isEmpty()) {
 
-            if (Lookup.lookupAll(AuthorizationInterface.class).size() > 0) {
+                    linkedDataStorage.getResources(graph, misses, format, isAuthorized, (uri, accessRights, representation) -> {
 
-                AuthorizationInterface authorizationInterface = Lookup.lookup(AuthorizationInterface.class);
-                // init Authorization Service
-                authorizationInterface.init(this.config);
+                        if (representation != null) {
 
-                try {
+                            representationCache.put(new RepresentationCache.Key(graph, uri, format, language, isAuthorized), generation, accessRights, representation.getBytes(UTF_8));
+                        }
 
-                    isAuthorized = authorizationInterface.isTokenValid(httpServletResponse, "data", patronid, authorization);
+                        writeResource(jsonGenerator, uri, accessRights, representation, format, isAllowed, forbiddenMessage);
+                        jsonGenerator.flush();
+                    });
                 }
-                catch (AuthorizationException e) {
 
-                    // TODO correct error handling
-                    this.logger.error("[" + config.getProperty("service.name") + "] " + HttpServletResponse.SC_UNAUTHORIZED + "!");
-                }
-            } else {
+                jsonGenerator.writeEndArray();
+            }
+            catch (LinkedDataStorageException e) {
 
-                // TODO correct error handling
-                this.logger.error("[" + this.config.getProperty("service.name") + "] " + HttpServletResponse.SC_INTERNAL_SERVER_ERROR + ": " + "Authorization Interface not implemented!");
+                this.logger.error(e.getMessage());
+
+                jsonGenerator.writeEndArray();
+                jsonGenerator.writeStringField("error", "Failed to connect to backend! Please try again later!");
             }
+
+            jsonGenerator.writeEndObject();
         }
+    }
+
+    /**
+     * @return whether a resource with the given access rights may be served, the same for {@code /resource} and the
+     * batch lookup
+     */
+    static Predicate<String> isAllowed(boolean isUBintern, boolean isAuthorized) {
+
+        return (rights) -> !rights.equals("internal") || (rights.equals("internal") && isUBintern) || isAuthorized;
+    }
+
+    /**
+     * Writes one entry of the batch lookup. A resource without access rights is not served, as by {@code /resource}.
+     */
+    static void writeResource(JsonGenerator jsonGenerator, String uri, String accessRights, String representation, String format, Predicate<String> isAllowed, String forbiddenMessage) throws IOException {
 
-        this.logger.debug("[" + config.getProperty("service.name") + "] " + "Authorization: " + authorization + " - " + isAuthorized);
+        jsonGenerator.writeStartObject();
+        jsonGenerator.writeStringField("uri", uri);
 
-        // ... - if not is authorized - against DFN-AAI service
-        if (!isAuthorized) {
+        if (representation == null) {
 
-            // TODO if exists OpenAM-Session-Cookie: read content
-            this.logger.debug("[" + this.config.getProperty("service.name") + "] " + "Authorization: " + authorization + " - " + isAuthorized);
+            jsonGenerator.writeNumberField("status", HttpServletResponse.SC_NOT_FOUND);
         }
+        else if (accessRights != null && isAllowed.test(accessRights)) {
+
+            jsonGenerator.writeNumberField("status", HttpServletResponse.SC_OK);
+            jsonGenerator.writeStringField("accessRights", accessRights);
+            jsonGenerator.writeFieldName("representation");
+
+            // JSON-LD is embedded as it is, all other formats as string
+            if (format.equals(LDPStatics.FORMAT_JSON)) {
+
+                jsonGenerator.writeRawValue(representation);
+            }
+            else {
+
+                jsonGenerator.writeString(representation);
+            }
+        }
+        else {
+
+            jsonGenerator.writeNumberField("status", HttpServletResponse.SC_FORBIDDEN);
+            jsonGenerator.writeStringField("message", forbiddenMessage);
+        }
+
+        jsonGenerator.writeEndObject();
+    }
+
+    protected void doPost(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
+
+        this.context.getBackendExecutor().dispatch(httpServletRequest, httpServletResponse, this::processPost);
+    }
+
+    private void processPost(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
+
+        LinkedDataPlatformConfig config = this.context.getConfig();
+
+        // CORS ORIGIN RESPONSE HEADER
+        httpServletResponse.setHeader("Access-Control-Allow-Origin", config.getCorsAllowOrigin());
+
+        // headers, parameters and cookies are parsed once by the RequestContextFilter
+        RequestContext requestContext = RequestContext.of(httpServletRequest, this.context);
+
+        String format = requestContext.getFormat(ContentNegotiator.RESULTS);
+        String contenttype = requestContext.getContentType();
+
+        boolean isUBintern = requestContext.isUBintern();
+        boolean isAuthorized = requestContext.isAuthorized(httpServletResponse);
 
         // Linked Data Storage
-        if (Lookup.lookupAll(LinkedDataStorage.class).size() > 0) {
+        LinkedDataStorage linkedDataStorage = this.context.getLinkedDataStorage();
+
+        if (!this.context.isReady()) {
+
+            httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service not ready!");
+        }
+        else if (linkedDataStorage != null) {
 
             try {
 
-                String graph = config.getProperty("storage.graph.default");
+                String graph = config.getGraphDefault();
 
                 // TODO get graph from request
 
                 // TODO is graph valid?
-                if (!this.config.getProperty("storage.graphs").contains(graph)) {
+                if (!config.isGraph(graph)) {
 
                     httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "Bad request - graph is not valid!");
                 }
                 else {
 
-                    LinkedDataStorage linkedDataStorage = Lookup.lookup(LinkedDataStorage.class);
-                    // init LinkedDataStorage
-                    linkedDataStorage.init(this.config);
-
                     if (httpServletRequest.getPathInfo().startsWith("/sparql")) {
 
                         if (contenttype.startsWith("application/sparql-query")) {
 
-                            if (!format.equals("html") && !format.equals("xml") && !format.equals("json")) {
+                            if (format == null) {
+
+                                httpServletResponse.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE, "None of the available formats is acceptable: " + requestContext.getAccept());
+                            }
+                            else if (!format.equals("html") && !format.equals("xml") && !format.equals("json")) {
 
                                 httpServletResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "No valid {format} requested: " + format);
                             }
@@ -644,34 +603,38 @@ public class LinkedDataPlatformServiceEndpoint extends HttpServlet {
                                     else {
 
                                         // SPARQL
-                                        String resource = linkedDataStorage.sparqlQuery(graph, query, format, isAuthorized);
+                                        if (format.contains("html")) {
 
-                                        if (resource == null) {
+                                            httpServletResponse.setContentType("text/html;charset=UTF-8");
+                                        } else if (format.contains("xml")) {
 
-                                            httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Resource not found!");
+                                            httpServletResponse.setContentType("application/sparql-results+xml;charset=UTF-8");
+                                        } else if (format.contains("json")) {
+
+                                            httpServletResponse.setContentType("application/sparql-results+json;charset=UTF-8");
                                         }
-                                        else {
 
-                                            if (format.contains("html")) {
+                                        if (requestContext.isFormatNegotiated()) {
 
-                                                httpServletResponse.setContentType("text/html;charset=UTF-8");
-                                            } else if (format.contains("xml")) {
+                                            ContentNegotiator.vary(httpServletResponse, "Accept");
+                                        }
 
-                                                httpServletResponse.setContentType("application/sparql-results+xml;charset=UTF-8");
-                                            } else if (format.contains("json")) {
+                                        httpServletResponse.setStatus(HttpServletResponse.SC_OK);
 
-                                                httpServletResponse.setContentType("application/sparql-results+json;charset=UTF-8");
-                                            }
+                                        if (!this.context.getSparqlResultCache().send(linkedDataStorage, graph, query, format, isAuthorized, httpServletResponse)) {
 
-                                            httpServletResponse.setStatus(HttpServletResponse.SC_OK);
-                                            httpServletResponse.getWriter().println(resource);
+                                            httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Resource not found!");
                                         }
                                     }
                                 }
                                 catch (Exception e) {
 
                                     this.logger.error(e.getMessage());
-                                    httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Failed to connect to backend! Please try again later!");
+                                    // a streamed response may already be committed
+                                    if (!httpServletResponse.isCommitted()) {
+
+                                        httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Failed to connect to backend! Please try again later!");
+                                    }
                                 }
                             }
                         }
@@ -684,7 +647,17 @@ public class LinkedDataPlatformServiceEndpoint extends HttpServlet {
                                 httpServletResponse.sendError(HttpServletResponse.SC_NO_CONTENT, "No Content");
                             }
                             else {
-                                String status = linkedDataStorage.sparqlUpdate(data);
+                                String status;
+
+                                try {
+
+                                    status = linkedDataStorage.sparqlUpdate(data);
+                                }
+                                finally {
+
+                                    // also after a failed update: parts of it may have been written
+                                    this.context.invalidate(data);
+                                }
 
                                 if (status.equals("201")) {
 
@@ -712,7 +685,11 @@ public class LinkedDataPlatformServiceEndpoint extends HttpServlet {
             catch(Exception e) {
 
                 this.logger.error("something went wrong", e);
-                httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "something went wrong");
+                // a streamed response may already be committed
+                if (!httpServletResponse.isCommitted()) {
+
+                    httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "something went wrong");
+                }
             }
         }
         else {
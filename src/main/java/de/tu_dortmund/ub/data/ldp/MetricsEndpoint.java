@@ -0,0 +1,182 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp;
+
+import de.tu_dortmund.ub.data.ldp.auth.TokenValidationCache;
+import de.tu_dortmund.ub.data.ldp.cache.AccessRightsIndex;
+import de.tu_dortmund.ub.data.ldp.cache.RepresentationCache;
+import de.tu_dortmund.ub.data.ldp.cache.RepresentationPrefetcher;
+import de.tu_dortmund.ub.data.ldp.cache.SparqlResultCache;
+import de.tu_dortmund.ub.data.ldp.storage.CoalescingLinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.NegativeLookupLinkedDataStorage;
+import de.tu_dortmund.ub.util.concurrent.SingleFlight;
+import org.apache.log4j.Logger;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Metrics Endpoint
+ *
+ * Exposes {@link LinkedDataPlatformMetrics} together with gauges of the Jetty thread pool, the backend executor, the
+ * caches and the request coalescing in the Prometheus text format.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class MetricsEndpoint extends HttpServlet {
+
+    private Logger logger = Logger.getLogger(MetricsEndpoint.class.getName());
+
+    private final LinkedDataPlatformContext context;
+    private final ThreadPool                threadPool;
+
+    public MetricsEndpoint(LinkedDataPlatformContext context, ThreadPool threadPool) {
+
+        this.context = context;
+        this.threadPool = threadPool;
+
+        this.logger.info("Starting 'MetricsEndpoint' ...");
+    }
+
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+
+        StringBuilder out = new StringBuilder(16384);
+
+        this.context.getMetrics().writeTo(out);
+
+        // Jetty
+        gauge(out, "jetty_threads", "Threads of the Jetty pool.", this.threadPool.getThreads());
+        gauge(out, "jetty_threads_idle", "Idle threads of the Jetty pool.", this.threadPool.getIdleThreads());
+        gauge(out, "jetty_low_on_threads", "1 if the Jetty pool is low on threads.", this.threadPool.isLowOnThreads() ? 1 : 0);
+
+        if (this.threadPool instanceof QueuedThreadPool) {
+
+            QueuedThreadPool queuedThreadPool = (QueuedThreadPool) this.threadPool;
+
+            gauge(out, "jetty_threads_busy", "Busy threads of the Jetty pool.", queuedThreadPool.getBusyThreads());
+            gauge(out, "jetty_threads_max", "Maximum threads of the Jetty pool.", queuedThreadPool.getMaxThreads());
+            gauge(out, "jetty_queue_size", "Jobs waiting for a Jetty thread.", queuedThreadPool.getQueueSize());
+        }
+
+        // backend executor
+        BackendExecutor backendExecutor = this.context.getBackendExecutor();
+
+        gauge(out, "ldp_backend_executor_active", "Requests processed on the backend executor.", backendExecutor.getActiveCount());
+        gauge(out, "ldp_backend_executor_queued", "Requests waiting for a backend thread.", backendExecutor.getQueueSize());
+        counter(out, "ldp_backend_executor_rejections_total", "Requests rejected with 503.", backendExecutor.getRejections());
+        counter(out, "ldp_backend_executor_timeouts_total", "Requests answered with 503 after the timeout.", backendExecutor.getTimeouts());
+
+        // caches
+        TokenValidationCache tokenValidationCache = this.context.getTokenValidationCache();
+        RepresentationCache representationCache = this.context.getRepresentationCache();
+        SparqlResultCache sparqlResultCache = this.context.getSparqlResultCache();
+
+        out.append("# HELP ldp_cache_entries Entries of the caches.\n# TYPE ldp_cache_entries gauge\n");
+        out.append("ldp_cache_entries{cache=\"token\"} ").append(tokenValidationCache.size()).append('\n');
+        out.append("ldp_cache_entries{cache=\"resource\"} ").append(representationCache.size()).append('\n');
+        out.append("ldp_cache_entries{cache=\"sparql\"} ").append(sparqlResultCache.size()).append('\n');
+
+        out.append("# HELP ldp_cache_bytes Bytes held by the caches.\n# TYPE ldp_cache_bytes gauge\n");
+        out.append("ldp_cache_bytes{cache=\"resource\"} ").append(representationCache.getBytes()).append('\n');
+        out.append("ldp_cache_bytes{cache=\"sparql\"} ").append(sparqlResultCache.getBytes()).append('\n');
+
+        out.append("# HELP ldp_cache_hits_total Cache hits.\n# TYPE ldp_cache_hits_total counter\n");
+        out.append("ldp_cache_hits_total{cache=\"token\"} ").append(tokenValidationCache.getHits()).append('\n');
+        out.append("ldp_cache_hits_total{cache=\"resource\"} ").append(representationCache.getHits()).append('\n');
+        out.append("ldp_cache_hits_total{cache=\"sparql\"} ").append(sparqlResultCache.getHits()).append('\n');
+
+        out.append("# HELP ldp_cache_misses_total Cache misses.\n# TYPE ldp_cache_misses_total counter\n");
+        out.append("ldp_cache_misses_total{cache=\"token\"} ").append(tokenValidationCache.getMisses()).append('\n');
+        out.append("ldp_cache_misses_total{cache=\"resource\"} ").append(representationCache.getMisses()).append('\n');
+        out.append("ldp_cache_misses_total{cache=\"sparql\"} ").append(sparqlResultCache.getMisses()).append('\n');
+
+        // prefetching
+        RepresentationPrefetcher representationPrefetcher = this.context.getRepresentationPrefetcher();
+
+        gauge(out, "ldp_prefetch_entries", "Prefetched representations waiting to be requested.", representationPrefetcher.size());
+        counter(out, "ldp_prefetch_submitted_total", "Prefetches started after a 303 See Other.", representationPrefetcher.getSubmitted());
+        counter(out, "ldp_prefetch_hits_total", "Requests served from a prefetched representation.", representationPrefetcher.getHits());
+        counter(out, "ldp_prefetch_expired_total", "Prefetched representations not requested in time.", representationPrefetcher.getExpired());
+        counter(out, "ldp_prefetch_rejections_total", "Prefetches dropped because the pool was busy.", representationPrefetcher.getRejections());
+        counter(out, "ldp_prefetch_skipped_total", "Prefetches not started because the representation is too large to be cached.", representationPrefetcher.getSkipped());
+
+        // access rights index
+        AccessRightsIndex accessRightsIndex = this.context.getAccessRightsIndex();
+
+        gauge(out, "ldp_accessrights_index_entries", "Indexed resources that are not public.", accessRightsIndex.size());
+        counter(out, "ldp_accessrights_index_lookups_total", "Access rights answered by the index.", accessRightsIndex.getLookups());
+        counter(out, "ldp_accessrights_index_filtered_total", "Lookups answered by the Bloom filter alone.", accessRightsIndex.getFiltered());
+        counter(out, "ldp_accessrights_index_false_positives_total", "Lookups the Bloom filter passed on for a public resource.", accessRightsIndex.getFalsePositives());
+        counter(out, "ldp_accessrights_index_rebuilds_total", "Rebuilds after updates with unknown subjects.", accessRightsIndex.getRebuilds());
+
+        // negative lookups
+        NegativeLookupLinkedDataStorage negativeLookup = this.context.getNegativeLookup();
+
+        if (negativeLookup != null) {
+
+            gauge(out, "ldp_negative_lookup_entries", "Missing resources remembered.", negativeLookup.size());
+            counter(out, "ldp_negative_lookup_lookups_total", "Resource lookups checked for missing resources.", negativeLookup.getLookups());
+            counter(out, "ldp_negative_lookup_filtered_total", "Missing resources answered by the Bloom filter.", negativeLookup.getFiltered());
+            counter(out, "ldp_negative_lookup_remembered_total", "Missing resources answered by the remembered misses.", negativeLookup.getRemembered());
+            counter(out, "ldp_negative_lookup_false_positives_total", "Missing resources the Bloom filter passed on to the storage.", negativeLookup.getFalsePositives());
+        }
+
+        // coalescing
+        if (this.context.getLinkedDataStorage() instanceof CoalescingLinkedDataStorage) {
+
+            SingleFlight<String, Object> singleFlight = ((CoalescingLinkedDataStorage) this.context.getLinkedDataStorage()).getSingleFlight();
+
+            gauge(out, "ldp_coalescing_inflight", "Storage calls in flight.", singleFlight.getInFlight());
+            counter(out, "ldp_coalescing_calls_total", "Storage calls made.", singleFlight.getLeaders());
+            counter(out, "ldp_coalescing_coalesced_total", "Storage calls that joined a call in flight.", singleFlight.getFollowers());
+        }
+
+        gauge(out, "ldp_ready", "1 if the platform is ready.", this.context.isReady() ? 1 : 0);
+
+        response.setContentType("text/plain;version=0.0.4;charset=UTF-8");
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.getWriter().print(out);
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,186 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp;
+
+import org.eclipse.jetty.server.Request;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Metrics Filter
+ *
+ * Measures the resource and service requests from the filter to the completion of the response - for requests
+ * processed on the backend executor that is the end of the async cycle - and reports them to
+ * {@link LinkedDataPlatformMetrics}.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class MetricsFilter implements Filter {
+
+    public enum Endpoint { RESOURCE, SERVICE }
+
+    private final LinkedDataPlatformMetrics metrics;
+    private final Endpoint                  endpoint;
+
+    public MetricsFilter(final LinkedDataPlatformMetrics metrics, final Endpoint endpoint) {
+
+        this.metrics = metrics;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void init(final FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(final ServletRequest servletRequest, final ServletResponse servletResponse, final FilterChain filterChain) throws IOException, ServletException {
+
+        if (!(servletRequest instanceof HttpServletRequest)) {
+
+            filterChain.doFilter(servletRequest, servletResponse);
+
+            return;
+        }
+
+        final long start = System.nanoTime();
+
+        final HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
+        final HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
+
+        // the path info is reset when the servlet returns
+        final String route = this.route(httpServletRequest.getPathInfo());
+
+        try {
+
+            filterChain.doFilter(servletRequest, servletResponse);
+        }
+        finally {
+
+            if (httpServletRequest.isAsyncStarted()) {
+
+                httpServletRequest.getAsyncContext().addListener(new AsyncListener() {
+
+                    @Override
+                    public void onComplete(final AsyncEvent event) throws IOException {
+
+                        MetricsFilter.this.record(route, httpServletRequest, httpServletResponse, start);
+                    }
+
+                    @Override
+                    public void onTimeout(final AsyncEvent event) throws IOException {
+                    }
+
+                    @Override
+                    public void onError(final AsyncEvent event) throws IOException {
+                    }
+
+                    @Override
+                    public void onStartAsync(final AsyncEvent event) throws IOException {
+                    }
+                });
+            }
+            else {
+
+                this.record(route, httpServletRequest, httpServletResponse, start);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    private void record(final String route, final HttpServletRequest httpServletRequest, final HttpServletResponse httpServletResponse, final long start) {
+
+        final int status = httpServletResponse.getStatus();
+
+        this.metrics.recordRequest(status == HttpServletResponse.SC_SEE_OTHER ? "redirect" : route, httpServletRequest.getMethod(), status,
+                httpServletResponse.getContentType(), System.nanoTime() - start, written(httpServletRequest));
+    }
+
+    private String route(final String pathInfo) {
+
+        if (pathInfo == null) {
+
+            return "other";
+        }
+
+        if (this.endpoint == Endpoint.RESOURCE) {
+
+            final String segment = pathInfo.substring(pathInfo.lastIndexOf('/') + 1);
+
+            if (segment.startsWith("about-meta")) {
+
+                return "about-meta";
+            }
+            else if (segment.startsWith("about")) {
+
+                return "about";
+            }
+
+            return "resource";
+        }
+
+        if (pathInfo.startsWith("/resources")) {
+
+            return "service-resources";
+        }
+        else if (pathInfo.startsWith("/resource")) {
+
+            return "service-resource";
+        }
+        else if (pathInfo.startsWith("/search")) {
+
+            return "search";
+        }
+        else if (pathInfo.startsWith("/sparql")) {
+
+            return "sparql";
+        }
+
+        return "other";
+    }
+
+    /**
+     * @return the bytes written to the response body; Jetty counts them anyway
+     */
+    private static long written(final ServletRequest servletRequest) {
+
+        final Request request = Request.getBaseRequest(servletRequest);
+
+        return request != null ? request.getResponse().getHttpOutput().getWritten() : 0;
+    }
+}
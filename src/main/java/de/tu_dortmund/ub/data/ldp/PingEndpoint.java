@@ -25,65 +25,32 @@ SOFTWARE.
 package de.tu_dortmund.ub.data.ldp;
 
 import org.apache.log4j.Logger;
-import org.apache.log4j.PropertyConfigurator;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.*;
-import java.util.Properties;
+import java.io.IOException;
 
 /**
  * Created by Hans-Georg on 24.07.2015.
  */
 public class PingEndpoint extends HttpServlet {
 
-    private String conffile  = "";
-    private Properties config = new Properties();
     private Logger logger = Logger.getLogger(PingEndpoint.class.getName());
+    private final LinkedDataPlatformContext context;
 
-    public PingEndpoint() throws IOException {
+    public PingEndpoint(LinkedDataPlatformContext context) {
 
-        this("conf/ldp.properties");
-    }
-
-    public PingEndpoint(String conffile) throws IOException {
-
-        this.conffile = conffile;
-
-        // Init properties
-        try {
-            InputStream inputStream = new FileInputStream(this.conffile);
-
-            try {
-                BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
-
-                try {
-                    this.config.load(reader);
-
-                } finally {
-                    reader.close();
-                }
-            }
-            finally {
-                inputStream.close();
-            }
-        }
-        catch (IOException e) {
-            System.out.println("FATAL ERROR: Die Datei '" + this.conffile + "' konnte nicht geöffnet werden!");
-        }
-
-        // init logger
-        PropertyConfigurator.configure(this.config.getProperty("service.log4j-conf"));
+        this.context = context;
 
         this.logger.info("Starting 'PingEndpoint' ...");
-        this.logger.info("conf-file = " + this.conffile);
-        this.logger.info("log4j-conf-file = " + this.config.getProperty("service.log4j-conf"));
     }
 
     public void doOptions(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
 
+        LinkedDataPlatformConfig config = this.context.getConfig();
+
         response.setHeader("Access-Control-Allow-Methods", config.getProperty("Access-Control-Allow-Methods"));
         response.addHeader("Access-Control-Allow-Headers", config.getProperty("Access-Control-Allow-Headers"));
         response.setHeader("Accept", config.getProperty("Accept"));
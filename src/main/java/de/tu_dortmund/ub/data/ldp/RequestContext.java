@@ -0,0 +1,296 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import de.tu_dortmund.ub.data.ldp.auth.AuthorizationException;
+import de.tu_dortmund.ub.data.ldp.auth.AuthorizationInterface;
+import de.tu_dortmund.ub.data.ldp.auth.model.LoginResponse;
+import de.tu_dortmund.ub.util.rights.IPRangeClass;
+import org.apache.log4j.Logger;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.util.Enumeration;
+
+/**
+ * Request Context
+ *
+ * Everything the endpoints derive from the request headers, parameters and cookies, parsed once per request by
+ * {@link RequestContextFilter}. The token is validated lazily on the first call of
+ * {@link #isAuthorized(HttpServletResponse)}, i.e. on the backend thread and only if an endpoint needs it.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class RequestContext {
+
+    public static final String ATTRIBUTE = RequestContext.class.getName();
+
+    private static final ObjectReader LOGIN_RESPONSE_READER = new ObjectMapper().reader(LoginResponse.class);
+
+    private static Logger logger = Logger.getLogger(RequestContext.class.getName());
+
+    private final LinkedDataPlatformContext context;
+    private final String                    serviceName;
+
+    private final String       format;
+    private final String       accept;
+    private final String       profile;
+    private final String       language;
+    private final String       contentType;
+    private final String       authorization;
+    private final String       patronid;
+    private final String       expiresIn;
+    private final IPRangeClass ipRangeClass;
+
+    private volatile Boolean isAuthorized;
+
+    private RequestContext(final HttpServletRequest httpServletRequest, final LinkedDataPlatformContext context) throws IOException {
+
+        final LinkedDataPlatformConfig config = context.getConfig();
+
+        this.context = context;
+        this.serviceName = config.getServiceName();
+
+        if (logger.isDebugEnabled()) {
+
+            final Enumeration<String> headerNames = httpServletRequest.getHeaderNames();
+
+            while (headerNames.hasMoreElements()) {
+
+                final String headerNameKey = headerNames.nextElement();
+                logger.debug("headerNameKey = " + headerNameKey + " / headerNameValue = " + httpServletRequest.getHeader(headerNameKey));
+            }
+        }
+
+        // analyse ip range
+        this.ipRangeClass = config.getIPRangeMatcher().classify(httpServletRequest.getHeader("X-Forwarded-For"));
+
+        // format: the parameter wins over the Accept header, which is negotiated per endpoint
+        this.format = httpServletRequest.getParameter("format");
+        this.accept = httpServletRequest.getHeader("Accept");
+
+        // profile
+        final String profile = httpServletRequest.getParameter("profile");
+        this.profile = profile != null ? profile : config.getGraphDefault();
+
+        // language
+        final String acceptLanguage = httpServletRequest.getHeader("Accept-Language");
+        final String lang = httpServletRequest.getParameter("lang");
+
+        if (acceptLanguage == null || acceptLanguage.startsWith("de")) {
+
+            this.language = "de";
+        }
+        else if (acceptLanguage.startsWith("en")) {
+
+            this.language = "en";
+        }
+        else if (lang != null) {
+
+            this.language = lang;
+        }
+        else {
+
+            this.language = config.getLanguageDefault();
+        }
+
+        final String contentType = httpServletRequest.getHeader("Content-Type");
+        this.contentType = contentType != null ? contentType : "";
+
+        // token: Authorization header or PaiaService cookie
+        final String authorization = httpServletRequest.getHeader("Authorization");
+
+        String token = authorization != null ? authorization : "";
+        String patronid = "";
+        String expiresIn = null;
+
+        if (token.equals("")) {
+
+            final Cookie[] cookies = httpServletRequest.getCookies();
+
+            if (cookies != null) {
+
+                for (Cookie cookie : cookies) {
+
+                    if (cookie.getName().equals("PaiaService")) {
+
+                        final LoginResponse loginResponse = LOGIN_RESPONSE_READER.readValue(URLDecoder.decode(cookie.getValue(), "UTF-8"));
+
+                        token = loginResponse.getAccess_token() != null ? loginResponse.getAccess_token() : "";
+                        patronid = loginResponse.getPatron();
+                        expiresIn = loginResponse.getExpires_in();
+
+                        break;
+                    }
+                }
+            }
+        }
+
+        this.authorization = token;
+        this.patronid = patronid;
+        this.expiresIn = expiresIn;
+
+        logger.debug("[" + this.serviceName + "] " + "format = " + this.format + ", accept = " + this.accept + ", profile = " + this.profile + ", language = " + this.language + ", ip class = " + this.ipRangeClass);
+    }
+
+    /**
+     * @return the context built by {@link RequestContextFilter} or - if the filter is not installed - a new one
+     */
+    public static RequestContext of(final HttpServletRequest httpServletRequest, final LinkedDataPlatformContext context) throws IOException {
+
+        final Object requestContext = httpServletRequest.getAttribute(ATTRIBUTE);
+
+        if (requestContext instanceof RequestContext) {
+
+            return (RequestContext) requestContext;
+        }
+
+        return create(httpServletRequest, context);
+    }
+
+    static RequestContext create(final ServletRequest servletRequest, final LinkedDataPlatformContext context) throws IOException {
+
+        final RequestContext requestContext = new RequestContext((HttpServletRequest) servletRequest, context);
+        servletRequest.setAttribute(ATTRIBUTE, requestContext);
+
+        return requestContext;
+    }
+
+    /**
+     * Validates the token once; the result is kept for the rest of the request.
+     */
+    public boolean isAuthorized(final HttpServletResponse httpServletResponse) {
+
+        Boolean isAuthorized = this.isAuthorized;
+
+        if (isAuthorized == null) {
+
+            isAuthorized = this.validate(httpServletResponse);
+            this.isAuthorized = isAuthorized;
+        }
+
+        return isAuthorized;
+    }
+
+    /**
+     * @return the requested format or {@code null} if none of the formats of {@code contentNegotiator} is acceptable
+     */
+    public String getFormat(final ContentNegotiator contentNegotiator) {
+
+        return this.format != null ? this.format : contentNegotiator.negotiate(this.accept);
+    }
+
+    /**
+     * @return {@code true} if the format is negotiated from the {@code Accept} header, i.e. the response varies with it
+     */
+    public boolean isFormatNegotiated() {
+
+        return this.format == null;
+    }
+
+    public String getAccept() {
+
+        return this.accept;
+    }
+
+    public String getProfile() {
+
+        return this.profile;
+    }
+
+    public String getLanguage() {
+
+        return this.language;
+    }
+
+    public String getContentType() {
+
+        return this.contentType;
+    }
+
+    public String getAuthorization() {
+
+        return this.authorization;
+    }
+
+    public String getPatronid() {
+
+        return this.patronid;
+    }
+
+    public IPRangeClass getIPRangeClass() {
+
+        return this.ipRangeClass;
+    }
+
+    public boolean isTUintern() {
+
+        return this.ipRangeClass.isTUintern();
+    }
+
+    public boolean isUBintern() {
+
+        return this.ipRangeClass.isUBintern();
+    }
+
+    private boolean validate(final HttpServletResponse httpServletResponse) {
+
+        boolean isAuthorized = false;
+
+        if (!this.authorization.equals("")) {
+
+            final AuthorizationInterface authorizationInterface = this.context.getAuthorizationInterface();
+
+            if (authorizationInterface != null) {
+
+                try {
+
+                    isAuthorized = this.context.getTokenValidationCache().isTokenValid(authorizationInterface, httpServletResponse, "data", this.patronid, this.authorization, this.expiresIn);
+                }
+                catch (AuthorizationException e) {
+
+                    // TODO correct error handling
+                    logger.error("[" + this.serviceName + "] " + HttpServletResponse.SC_UNAUTHORIZED + "!");
+                }
+            }
+            else {
+
+                // TODO correct error handling
+                logger.error("[" + this.serviceName + "] " + HttpServletResponse.SC_INTERNAL_SERVER_ERROR + ": " + "Authorization Interface not implemented!");
+            }
+        }
+
+        // TODO - if not is authorized - against DFN-AAI service: if exists OpenAM-Session-Cookie: read content
+        logger.debug("[" + this.serviceName + "] " + "Authorization: " + this.authorization + " - " + isAuthorized);
+
+        return isAuthorized;
+    }
+}
@@ -29,6 +29,9 @@ import java.util.HashMap;
 import java.util.Properties;
 
 /**
+ * An implementation is initialized once at server start and shared by all request threads, so it has to be
+ * thread-safe.
+ *
  * @author Hans-Georg Becker
  * @version 0.9 (2015-06-05)
  */
@@ -36,6 +39,12 @@ public interface AuthorizationInterface {
 
     void init(Properties properties);
 
+    /**
+     * Releases connections and clients opened in {@link #init(Properties)}. Called once when the server stops.
+     */
+    default void shutdown() {
+    }
+
     HashMap<String,String> health(Properties properties);
 
 
@@ -0,0 +1,91 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.auth;
+
+import de.tu_dortmund.ub.util.metrics.CallMetrics;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Properties;
+
+/**
+ * Authorization Interface decorator that reports the duration of each token validation to {@link CallMetrics}.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class InstrumentedAuthorizationInterface implements AuthorizationInterface {
+
+    private final AuthorizationInterface authorizationInterface;
+    private final CallMetrics            callMetrics;
+
+    public InstrumentedAuthorizationInterface(final AuthorizationInterface authorizationInterface, final CallMetrics callMetrics) {
+
+        this.authorizationInterface = authorizationInterface;
+        this.callMetrics = callMetrics;
+    }
+
+    public AuthorizationInterface getAuthorizationInterface() {
+
+        return this.authorizationInterface;
+    }
+
+    @Override
+    public void init(final Properties properties) {
+
+        this.authorizationInterface.init(properties);
+    }
+
+    @Override
+    public void shutdown() {
+
+        this.authorizationInterface.shutdown();
+    }
+
+    @Override
+    public HashMap<String, String> health(final Properties properties) {
+
+        return this.authorizationInterface.health(properties);
+    }
+
+    @Override
+    public boolean isTokenValid(final HttpServletResponse httpServletResponse, final String service, final String patronid, final String access_token) throws AuthorizationException {
+
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+
+            final boolean isTokenValid = this.authorizationInterface.isTokenValid(httpServletResponse, service, patronid, access_token);
+            failed = false;
+
+            return isTokenValid;
+        }
+        finally {
+
+            this.callMetrics.record("isTokenValid", System.nanoTime() - start, failed);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015, Hans-Georg Becker
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp.auth;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded concurrent cache of positive results of {@link AuthorizationInterface#isTokenValid}, keyed by access token,
+ * service and patron.
+ *
+ * An entry lives as long as the token's {@code expires_in} (see {@link de.tu_dortmund.ub.data.ldp.auth.model.LoginResponse}),
+ * but never longer than the configured maximum TTL. Rejected tokens are not cached, so the authorization backend
+ * still writes its response headers for them; a rejection also revokes the other validations of the token, e.g.
+ * after a logout at the PAIA service.
+ *
+ * Lookups take no lock. The size is bounded by sampled eviction on insert: of a few entries, the expired ones are
+ * dropped, or else the one that expires first.
+ *
+ * @author Hans-Georg Becker
+ * @version 0.9 (2026-10-18)
+ */
+public class TokenValidationCache {
+
+    // entries looked at per eviction
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final ConcurrentHashMap<Key, Long> entries = new ConcurrentHashMap<>();
+
+    private final int  maxSize;
+    private final long maxTtlNanos;
+
+    private final LongAdder hits        = new LongAdder();
+    private final LongAdder misses      = new LongAdder();
+    private final LongAdder revocations = new LongAdder();
+
+    /**
+     * @param maxSize       maximum number of cached validations
+     * @param maxTtlSeconds maximum lifetime of an entry; {@code 0} disables the cache
+     */
+    public TokenValidationCache(final int maxSize, final long maxTtlSeconds) {
+
+        this.maxSize = maxSize;
+        this.maxTtlNanos = TimeUnit.SECONDS.toNanos(maxTtlSeconds);
+    }
+
+    public boolean isTokenValid(final AuthorizationInterface authorizationInterface, final HttpServletResponse httpServletResponse, final String service, final String patronid, final String access_token, final String expires_in) throws AuthorizationException {
+
+        if (this.maxTtlNanos <= 0 || this.maxSize <= 0) {
+
+            return authorizationInterface.isTokenValid(httpServletResponse, service, patronid, access_token);
+        }
+
+        final Key key = new Key(access_token, service, patronid);
+
+        if (this.isCached(key, System.nanoTime())) {
+
+            this.hits.increment();
+            return true;
+        }
+
+        this.misses.increment();
+
+        final boolean isValid;
+
+        try {
+
+            isValid = authorizationInterface.isTokenValid(httpServletResponse, service, patronid, access_token);
+        }
+        catch (AuthorizationException e) {
+
+            this.revoke(access_token);
+            throw e;
+        }
+
+        if (isValid) {
+
+            this.put(key, System.nanoTime() + this.ttlNanos(expires_in));
+        }
+        else {
+
+            this.revoke(access_token);
+        }
+
+        return isValid;
+    }
+
+    /**
+     * Removes all validations of the given access token, e.g. after a logout.
+     */
+    public void revoke(final String access_token) {
+
+        // a scan of the bounded table - it follows a call of the authorization backend anyway
+        if (access_token != null && this.entries.keySet().removeIf(key -> key.token.equals(access_token))) {
+
+            this.revocations.increment();
+        }
+    }
+
+    public void clear() {
+
+        this.entries.clear();
+    }
+
+    /**
+     * @return the number of cached validations
+     */
+    public int size() {
+
+        return this.entries.size();
+    }
+
+    public long getHits() {
+
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+
+        return this.misses.sum();
+    }
+
+    public long getRevocations() {
+
+        return this.revocations.sum();
+    }
+
+    private boolean isCached(final Key key, final long now) {
+
+        final Long validUntil = this.entries.get(key);
+
+        if (validUntil == null) {
+
+            return false;
+        }
+
+        if (validUntil - now > 0) {
+
+            return true;
+        }
+
+        this.entries.remove(key, validUntil);
+
+        return false;
+    }
+
+    private void put(final Key key, final long validUntil) {
+
+        this.entries.put(key, validUntil);
+
+        final long now = System.nanoTime();
+
+        while (this.entries.size() > this.maxSize) {
+
+            Map.Entry<Key, Long> first = null;
+            boolean evicted = false;
+            final Iterator<Map.Entry<Key, Long>> iterator = this.entries.entrySet().iterator();
+
+            for (int sampled = 0; sampled < EVICTION_SAMPLE && iterator.hasNext(); sampled++) {
+
+                final Map.Entry<Key, Long> entry = iterator.next();
+
+                if (entry.getKey().equals(key)) {
+
+                    continue;
+                }
+
+                if (entry.getValue() - now <= 0) {
+
+                    iterator.remove();
+                    evicted = true;
+                }
+                else if (first == null || entry.getValue() - first.getValue() < 0) {
+
+                    first = entry;
+                }
+            }
+
+            if (!evicted) {
+
+                if (first == null) {
+
+                    break;
+                }
+
+                this.entries.remove(first.getKey(), first.getValue());
+            }
+        }
+    }
+
+    private long ttlNanos(final String expires_in) {
+
+        if (expires_in != null && !expires_in.isEmpty()) {
+
+            try {
+
+                final long expiresIn = TimeUnit.SECONDS.toNanos(Long.parseLong(expires_in.trim()));
+
+                if (expiresIn >= 0) {
+
+                    return Math.min(expiresIn, this.maxTtlNanos);
+                }
+            }
+            catch (NumberFormatException e) {
+
+                // es gilt die maximale TTL
+            }
+        }
+
+        return this.maxTtlNanos;
+    }
+
+    private static final class Key {
+
+        private final String token;
+        private final String service;
+        private final String patronid;
+        private final int    hash;
+
+        private Key(final String token, final String service, final String patronid) {
+
+            this.token = token != null ? token : "";
+            this.service = service != null ? service : "";
+            this.patronid = patronid != null ? patronid : "";
+            this.hash = 31 * (31 * this.token.hashCode() + this.service.hashCode()) + this.patronid.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+
+            return this.token.equals(key.token) && this.patronid.equals(key.patronid) && this.service.equals(key.service);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return this.hash;
+        }
+    }
+}
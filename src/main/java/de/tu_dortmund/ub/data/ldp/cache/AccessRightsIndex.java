@@ -0,0 +1,318 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+import de.tu_dortmund.ub.data.ldp.storage.UpdateSubjects;
+import de.tu_dortmund.ub.util.collections.BloomFilter;
+import de.tu_dortmund.ub.util.concurrent.GraphRebuilder;
+import org.apache.log4j.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Index of the resources whose access rights are not {@code public}, per graph.
+ *
+ * The index is built at start from {@link LinkedDataStorage#listAccessRights(String, java.util.function.BiConsumer)}.
+ * A Bloom filter answers most lookups - public resources - without touching the exact map behind it, so the endpoints
+ * can refuse a forbidden resource without a backend call. Graphs the storage cannot list are not indexed and
+ * {@link #getAccessRights(String, String)} answers {@code null} for them.
+ *
+ * After an update the access rights of the subjects named in it are read again. An update whose subjects cannot be
+ * determined - e.g. a {@code CLEAR} - drops the graphs from the index and rebuilds them on a background thread; the
+ * storage answers for them in the meantime.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class AccessRightsIndex {
+
+    private static Logger logger = Logger.getLogger(AccessRightsIndex.class.getName());
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final String serviceName;
+
+    private final ConcurrentHashMap<String, Graph> graphs = new ConcurrentHashMap<>();
+
+    private final GraphRebuilder<Graph> rebuilder;
+
+    // the storage of the last update, read by the rebuilds
+    private volatile LinkedDataStorage linkedDataStorage;
+
+    private final LongAdder lookups        = new LongAdder();
+    private final LongAdder filtered       = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder refreshes      = new LongAdder();
+
+    public AccessRightsIndex(final String serviceName) {
+
+        this.serviceName = serviceName;
+        this.rebuilder = new GraphRebuilder<>(serviceName, "access rights index", this,
+                (graphs) -> this.read(this.linkedDataStorage, graphs),
+                (graphs, touched) -> this.publish(this.linkedDataStorage, graphs, touched));
+    }
+
+    /**
+     * Reads the resources that are not public from the storage - graph by graph - and replaces the index.
+     */
+    public synchronized void build(final LinkedDataStorage linkedDataStorage, final Collection<String> graphs) {
+
+        this.clear();
+        this.graphs.putAll(this.read(linkedDataStorage, graphs));
+    }
+
+    /**
+     * @return the access rights of the resource or {@code null} if the graph is not indexed
+     */
+    public String getAccessRights(final String graph, final String resource) {
+
+        final Graph index = graph != null ? this.graphs.get(graph) : null;
+
+        if (index == null) {
+
+            return null;
+        }
+
+        this.lookups.increment();
+
+        if (!index.filter.mightContain(resource)) {
+
+            this.filtered.increment();
+
+            return "public";
+        }
+
+        final String accessRights = index.restricted.get(resource);
+
+        if (accessRights == null) {
+
+            this.falsePositives.increment();
+
+            return "public";
+        }
+
+        return accessRights;
+    }
+
+    /**
+     * Brings the index up to date after {@code update} has been applied to the storage.
+     */
+    public synchronized void update(final LinkedDataStorage linkedDataStorage, final String update) {
+
+        if (this.graphs.isEmpty() && !this.rebuilder.isRebuilding()) {
+
+            return;
+        }
+
+        final Set<String> subjects = UpdateSubjects.of(update);
+
+        if (subjects == null) {
+
+            logger.info(String.format("[%s] the subjects of the update are unknown - rebuilding the access rights index", this.serviceName));
+
+            this.linkedDataStorage = linkedDataStorage;
+            this.rebuilder.rebuild(this.graphs.keySet());
+            this.graphs.clear();
+
+            return;
+        }
+
+        this.rebuilder.touched(subjects);
+
+        for (Map.Entry<String, Graph> entry : this.graphs.entrySet()) {
+
+            try {
+
+                for (String subject : subjects) {
+
+                    entry.getValue().put(subject, linkedDataStorage.getAccessRights(entry.getKey(), subject));
+                    this.refreshes.increment();
+                }
+            }
+            catch (LinkedDataStorageException | RuntimeException e) {
+
+                // without a reliable entry the graph is answered by the storage again
+                this.graphs.remove(entry.getKey(), entry.getValue());
+
+                logger.error(String.format("[%s] could not update the access rights index of graph '%s' - graph dropped from the index", this.serviceName, entry.getKey()), e);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+
+        this.graphs.clear();
+        this.rebuilder.cancel();
+    }
+
+    /**
+     * @return the number of indexed resources that are not public
+     */
+    public long size() {
+
+        long size = 0;
+
+        for (Graph graph : this.graphs.values()) {
+
+            size += graph.restricted.size();
+        }
+
+        return size;
+    }
+
+    public boolean isIndexed(final String graph) {
+
+        return graph != null && this.graphs.containsKey(graph);
+    }
+
+    public long getLookups() {
+
+        return this.lookups.sum();
+    }
+
+    /**
+     * @return the lookups answered by the Bloom filter alone
+     */
+    public long getFiltered() {
+
+        return this.filtered.sum();
+    }
+
+    /**
+     * @return the lookups the Bloom filter passed on for a public resource
+     */
+    public long getFalsePositives() {
+
+        return this.falsePositives.sum();
+    }
+
+    public long getRefreshes() {
+
+        return this.refreshes.sum();
+    }
+
+    public long getRebuilds() {
+
+        return this.rebuilder.getRebuilds();
+    }
+
+    /**
+     * Adds the graphs read by a rebuild to the index, with the access rights of the subjects updated during the read.
+     */
+    private void publish(final LinkedDataStorage linkedDataStorage, final Map<String, Graph> read, final Set<String> touched) {
+
+        for (Map.Entry<String, Graph> entry : read.entrySet()) {
+
+            try {
+
+                for (String subject : touched) {
+
+                    entry.getValue().put(subject, linkedDataStorage.getAccessRights(entry.getKey(), subject));
+                    this.refreshes.increment();
+                }
+            }
+            catch (LinkedDataStorageException | RuntimeException e) {
+
+                logger.error(String.format("[%s] could not update the rebuilt access rights index of graph '%s' - graph not indexed", this.serviceName, entry.getKey()), e);
+                continue;
+            }
+
+            this.graphs.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @return the indexes of the graphs the storage can list
+     */
+    private Map<String, Graph> read(final LinkedDataStorage linkedDataStorage, final Collection<String> graphs) {
+
+        final Map<String, Graph> read = new LinkedHashMap<>();
+
+        for (String graph : graphs) {
+
+            final long start = System.nanoTime();
+            final Map<String, String> restricted = new HashMap<>();
+
+            try {
+
+                if (!linkedDataStorage.listAccessRights(graph, restricted::put)) {
+
+                    logger.info(String.format("[%s] access rights of graph '%s' are not indexed - the storage cannot list them", this.serviceName, graph));
+                    continue;
+                }
+            }
+            catch (LinkedDataStorageException | RuntimeException e) {
+
+                logger.error(String.format("[%s] could not index the access rights of graph '%s'", this.serviceName, graph), e);
+                continue;
+            }
+
+            read.put(graph, new Graph(restricted));
+
+            logger.info(String.format("[%s] access rights of graph '%s' indexed in %.1f ms (%d resources not public)", this.serviceName, graph, (System.nanoTime() - start) / 1e6, restricted.size()));
+        }
+
+        return read;
+    }
+
+    private static final class Graph {
+
+        private final ConcurrentHashMap<String, String> restricted;
+        private final BloomFilter                       filter;
+
+        private Graph(final Map<String, String> restricted) {
+
+            // room for updates, so the false positive rate stays low until the next rebuild
+            this.restricted = new ConcurrentHashMap<>(restricted);
+            this.filter = new BloomFilter(Math.max(1024, 2L * restricted.size()), FALSE_POSITIVE_PROBABILITY);
+
+            for (String resource : restricted.keySet()) {
+
+                this.filter.add(resource);
+            }
+        }
+
+        private void put(final String resource, final String accessRights) {
+
+            if (accessRights != null && !accessRights.equals("public")) {
+
+                this.filter.add(resource);
+                this.restricted.put(resource, accessRights);
+            }
+            else {
+
+                this.restricted.remove(resource);
+            }
+        }
+    }
+}
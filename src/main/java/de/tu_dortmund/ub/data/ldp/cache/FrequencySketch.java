@@ -0,0 +1,106 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp.cache;
+
+/**
+ * Count-min sketch with four rows of saturating counters (0..15), used as the TinyLFU admission filter. All counters
+ * are halved after {@code 10 * maximumSize} increments, so the popularity of old keys fades out.
+ *
+ * Not thread-safe; the caller synchronizes.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+final class FrequencySketch {
+
+    private static final int   DEPTH       = 4;
+    private static final int   MAX_COUNT   = 15;
+    private static final int[] SEEDS       = { 0x97cb3127, 0x5cf2cd5b, 0x1f2f3b8f, 0xc3a5c85d };
+
+    private final int[] table;
+    private final int   width;
+    private final int   sampleSize;
+
+    private int additions = 0;
+
+    FrequencySketch(final int maximumSize) {
+
+        final int size = Math.max(16, maximumSize);
+
+        this.width = Integer.highestOneBit(size - 1) << 1;
+        this.table = new int[DEPTH * this.width];
+        this.sampleSize = 10 * size;
+    }
+
+    void increment(final int hash) {
+
+        boolean added = false;
+
+        for (int i = 0; i < DEPTH; i++) {
+
+            final int index = this.index(hash, i);
+
+            if (this.table[index] < MAX_COUNT) {
+
+                this.table[index]++;
+                added = true;
+            }
+        }
+
+        if (added && ++this.additions >= this.sampleSize) {
+
+            this.reset();
+        }
+    }
+
+    int frequency(final int hash) {
+
+        int frequency = MAX_COUNT;
+
+        for (int i = 0; i < DEPTH; i++) {
+
+            frequency = Math.min(frequency, this.table[this.index(hash, i)]);
+        }
+
+        return frequency;
+    }
+
+    private int index(final int hash, final int row) {
+
+        int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+        h ^= h >>> 16;
+
+        return row * this.width + (h & (this.width - 1));
+    }
+
+    private void reset() {
+
+        for (int i = 0; i < this.table.length; i++) {
+
+            this.table[i] >>>= 1;
+        }
+
+        this.additions >>>= 1;
+    }
+}
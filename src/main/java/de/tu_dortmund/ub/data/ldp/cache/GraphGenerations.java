@@ -0,0 +1,75 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-graph generation counters. A cache reads the generation before it asks the storage and stores the result only
+ * if the generation is still the same, so a result that overlapped an update is never cached.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+final class GraphGenerations {
+
+    private final ConcurrentHashMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    long get(final String graph) {
+
+        return this.counter(graph).get();
+    }
+
+    void increment(final String graph) {
+
+        this.counter(graph).incrementAndGet();
+    }
+
+    void incrementAll() {
+
+        for (AtomicLong generation : this.generations.values()) {
+
+            generation.incrementAndGet();
+        }
+    }
+
+    private AtomicLong counter(final String graph) {
+
+        AtomicLong counter = this.generations.get(graph);
+
+        if (counter == null) {
+
+            final AtomicLong created = new AtomicLong();
+            counter = this.generations.putIfAbsent(graph, created);
+
+            if (counter == null) {
+
+                counter = created;
+            }
+        }
+
+        return counter;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import javax.servlet.http.HttpServletRequest;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A cached resource representation: the bytes, the access rights of the resource and the validators derived from
+ * them.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class Representation {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    final String accessRights;
+    final byte[] body;
+    final String etag;
+    final long   lastModified;
+
+    /**
+     * @param lastModified as reported by the storage or {@code 0}, then the time of creation is used
+     */
+    Representation(final String accessRights, final byte[] body, final long lastModified) {
+
+        this.accessRights = accessRights;
+        this.body = body;
+        this.etag = etag(body);
+        // HTTP dates have a resolution of one second
+        this.lastModified = (lastModified > 0 ? lastModified : System.currentTimeMillis()) / 1000 * 1000;
+    }
+
+    public String getAccessRights() {
+
+        return this.accessRights;
+    }
+
+    /**
+     * @return the body itself, not a copy
+     */
+    public byte[] getBody() {
+
+        return this.body;
+    }
+
+    public String getETag() {
+
+        return this.etag;
+    }
+
+    public long getLastModified() {
+
+        return this.lastModified;
+    }
+
+    public int getLength() {
+
+        return this.body.length;
+    }
+
+    /**
+     * Evaluates {@code If-None-Match} and - only if that is absent - {@code If-Modified-Since} (RFC 7232, section 6).
+     */
+    public boolean isNotModified(final HttpServletRequest httpServletRequest) {
+
+        final String ifNoneMatch = httpServletRequest.getHeader("If-None-Match");
+
+        if (ifNoneMatch != null) {
+
+            for (String candidate : ifNoneMatch.split(",")) {
+
+                candidate = candidate.trim();
+
+                // weak comparison, as required for GET
+                if (candidate.startsWith("W/")) {
+
+                    candidate = candidate.substring(2);
+                }
+
+                if (candidate.equals("*") || candidate.equals(this.etag)) {
+
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        try {
+
+            final long ifModifiedSince = httpServletRequest.getDateHeader("If-Modified-Since");
+
+            return ifModifiedSince != -1 && this.lastModified <= ifModifiedSince;
+        }
+        catch (IllegalArgumentException e) {
+
+            // ungültiges Datum wird ignoriert
+            return false;
+        }
+    }
+
+    private static String etag(final byte[] body) {
+
+        try {
+
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(body);
+
+            final StringBuilder etag = new StringBuilder(2 + 2 * digest.length);
+            etag.append('"');
+
+            for (byte b : digest) {
+
+                etag.append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+            }
+
+            return etag.append('"').toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+
+            // every Java platform has to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+}
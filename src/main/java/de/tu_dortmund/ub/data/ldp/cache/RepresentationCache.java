@@ -0,0 +1,435 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of resource representations, keyed by graph, URI, format, language and authorization class.
+ *
+ * Every representation carries a strong ETag and a Last-Modified date, so conditional requests are answered with
+ * {@code 304 Not Modified} without touching the storage. A miss is read with one call of
+ * {@link LinkedDataStorage#getResourceRepresentation(String, String, String, boolean, LinkedDataStorage.RepresentationConsumer)},
+ * which delivers the access rights before the representation. Representations larger than the maximum entry size are
+ * not held in memory, but written to the response while they are read.
+ *
+ * {@link #invalidate(String)} drops all entries of a graph after an update. A representation that was read from the
+ * storage while the graph was updated is not stored, see {@link #generation(String)}.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class RepresentationCache {
+
+    /**
+     * Returned by {@link #load(LinkedDataStorage, Key, LinkedDataStorage.RepresentationConsumer)} for a representation
+     * larger than the maximum entry size.
+     */
+    public static final Representation TOO_LARGE = new Representation(null, new byte[0], 0);
+
+    private static final byte[] SKIPPED = new byte[0];
+
+    // receives what exceeds the maximum entry size when only the cache wants the representation: stops the read
+    private static final OutputStream STOP = new OutputStream() {
+
+        @Override
+        public void write(final int b) throws IOException {
+
+            throw new TooLargeException();
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+
+            throw new TooLargeException();
+        }
+    };
+
+    private final LinkedHashMap<Key, Representation> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final GraphGenerations generations = new GraphGenerations();
+
+    private final int  maxSize;
+    private final long maxBytes;
+    private final int  maxEntrySize;
+
+    private long bytes = 0;
+
+    private final LongAdder hits          = new LongAdder();
+    private final LongAdder misses        = new LongAdder();
+    private final LongAdder notModified   = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxSize      maximum number of cached representations; {@code 0} disables the cache
+     * @param maxBytes     maximum number of cached bytes
+     * @param maxEntrySize maximum size of a single representation in bytes
+     */
+    public RepresentationCache(final int maxSize, final long maxBytes, final int maxEntrySize) {
+
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+        this.maxEntrySize = maxSize > 0 ? (int) Math.max(0, Math.min(maxEntrySize, maxBytes)) : 0;
+    }
+
+    public Representation get(final Key key) {
+
+        final Representation representation;
+
+        synchronized (this.entries) {
+
+            representation = this.entries.get(key);
+        }
+
+        if (representation != null) {
+
+            this.hits.increment();
+        }
+        else {
+
+            this.misses.increment();
+        }
+
+        return representation;
+    }
+
+    /**
+     * @return {@code true} if the representation is cached; unlike {@link #get(Key)} this is not counted as a hit or
+     *         miss
+     */
+    public boolean contains(final Key key) {
+
+        synchronized (this.entries) {
+
+            return this.entries.containsKey(key);
+        }
+    }
+
+    /**
+     * @return the current generation of the graph; it changes with every {@link #invalidate(String)}
+     */
+    public long generation(final String graph) {
+
+        return this.generations.get(graph);
+    }
+
+    /**
+     * Creates the representation and caches it, if the graph has not been invalidated since {@code generation}.
+     */
+    public Representation put(final Key key, final long generation, final String accessRights, final byte[] body) {
+
+        return this.put(key, generation, accessRights, body, 0);
+    }
+
+    /**
+     * @param lastModified as reported by the storage or {@code 0} if unknown
+     */
+    public Representation put(final Key key, final long generation, final String accessRights, final byte[] body, final long lastModified) {
+
+        final Representation representation = new Representation(accessRights, body, lastModified);
+
+        if (body.length > this.maxEntrySize) {
+
+            return representation;
+        }
+
+        synchronized (this.entries) {
+
+            if (this.generation(key.graph) != generation) {
+
+                return representation;
+            }
+
+            final Representation previous = this.entries.put(key, representation);
+
+            if (previous != null) {
+
+                this.bytes -= previous.body.length;
+            }
+
+            this.bytes += body.length;
+
+            final Iterator<Representation> iterator = this.entries.values().iterator();
+
+            while ((this.entries.size() > this.maxSize || this.bytes > this.maxBytes) && iterator.hasNext()) {
+
+                this.bytes -= iterator.next().body.length;
+                iterator.remove();
+            }
+        }
+
+        return representation;
+    }
+
+    /**
+     * Reads the representation of {@code key} and its access rights from the storage and caches it. The read of a
+     * representation larger than the maximum entry size is stopped as soon as it exceeds it.
+     *
+     * @return {@code null} if the resource does not exist or {@link #TOO_LARGE}
+     */
+    public Representation load(final LinkedDataStorage linkedDataStorage, final Key key) throws LinkedDataStorageException {
+
+        try {
+
+            return this.load(linkedDataStorage, key, (accessRights, lastModified) -> STOP);
+        }
+        catch (TooLargeException e) {
+
+            return TOO_LARGE;
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the representation of {@code key} and its access rights from the storage and caches it.
+     *
+     * {@code consumer} gets the access rights before the representation is read. If it returns a stream, a
+     * representation larger than the maximum entry size is written to it while it is read; a smaller one is returned
+     * and has to be sent with {@link #send(Representation, HttpServletRequest, HttpServletResponse)}. If it returns
+     * {@code null}, the representation is not read; the result only carries the access rights and is not cached.
+     *
+     * @return {@code null} if the resource does not exist or {@link #TOO_LARGE} if it has been written to the stream
+     */
+    public Representation load(final LinkedDataStorage linkedDataStorage, final Key key, final LinkedDataStorage.RepresentationConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        final long generation = this.generation(key.graph);
+
+        final String[] accessRights = new String[1];
+        final long[] lastModified = new long[1];
+        final SpillOutputStream[] body = new SpillOutputStream[1];
+
+        final boolean found = linkedDataStorage.getResourceRepresentation(key.graph, key.uri, key.format, key.isAuthorized, (rights, modified) -> {
+
+            accessRights[0] = rights;
+            lastModified[0] = modified;
+
+            final OutputStream outputStream = consumer.accept(rights, modified);
+
+            if (outputStream != null) {
+
+                body[0] = new SpillOutputStream(outputStream, this.maxEntrySize);
+            }
+
+            return body[0];
+        });
+
+        if (!found) {
+
+            return null;
+        }
+
+        if (body[0] == null) {
+
+            return new Representation(accessRights[0], SKIPPED, lastModified[0]);
+        }
+
+        if (body[0].isSpilled()) {
+
+            body[0].flush();
+
+            return TOO_LARGE;
+        }
+
+        return this.put(key, generation, accessRights[0], body[0].toByteArray(), lastModified[0]);
+    }
+
+    /**
+     * Writes the representation to the response or answers {@code 304 Not Modified} if the request's validators
+     * match.
+     *
+     * The caller has set content type and status before.
+     */
+    public void send(final Representation representation, final HttpServletRequest httpServletRequest, final HttpServletResponse httpServletResponse) throws IOException {
+
+        httpServletResponse.setHeader("ETag", representation.etag);
+        httpServletResponse.setDateHeader("Last-Modified", representation.lastModified);
+
+        if (representation.isNotModified(httpServletRequest)) {
+
+            this.notModified.increment();
+            httpServletResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+        else {
+
+            httpServletResponse.setContentLength(representation.body.length);
+            httpServletResponse.getOutputStream().write(representation.body);
+        }
+    }
+
+    /**
+     * Drops all representations of the graph, e.g. after a SPARQL update.
+     */
+    public void invalidate(final String graph) {
+
+        synchronized (this.entries) {
+
+            this.generations.increment(graph);
+
+            final Iterator<Map.Entry<Key, Representation>> iterator = this.entries.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+
+                final Map.Entry<Key, Representation> entry = iterator.next();
+
+                if (entry.getKey().graph.equals(graph)) {
+
+                    this.bytes -= entry.getValue().body.length;
+                    iterator.remove();
+                }
+            }
+        }
+
+        this.invalidations.increment();
+    }
+
+    /**
+     * Drops the representations of all graphs, e.g. after an update whose graphs are not known.
+     */
+    public void invalidateAll() {
+
+        synchronized (this.entries) {
+
+            this.generations.incrementAll();
+
+            this.entries.clear();
+            this.bytes = 0;
+        }
+
+        this.invalidations.increment();
+    }
+
+    public void clear() {
+
+        synchronized (this.entries) {
+
+            this.generations.incrementAll();
+            this.entries.clear();
+            this.bytes = 0;
+        }
+    }
+
+    public int size() {
+
+        synchronized (this.entries) {
+
+            return this.entries.size();
+        }
+    }
+
+    public long getBytes() {
+
+        synchronized (this.entries) {
+
+            return this.bytes;
+        }
+    }
+
+    public long getHits() {
+
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+
+        return this.misses.sum();
+    }
+
+    public long getNotModified() {
+
+        return this.notModified.sum();
+    }
+
+    public long getInvalidations() {
+
+        return this.invalidations.sum();
+    }
+
+    public static final class Key {
+
+        private final String  graph;
+        private final String  uri;
+        private final String  format;
+        private final String  language;
+        private final boolean isAuthorized;
+        private final int     hash;
+
+        public Key(final String graph, final String uri, final String format, final String language, final boolean isAuthorized) {
+
+            this.graph = graph != null ? graph : "";
+            this.uri = uri;
+            this.format = format;
+            this.language = language != null ? language : "";
+            this.isAuthorized = isAuthorized;
+            this.hash = 31 * (31 * (31 * (31 * this.graph.hashCode() + uri.hashCode()) + format.hashCode()) + this.language.hashCode()) + (isAuthorized ? 1 : 0);
+        }
+
+        public String getGraph() {
+
+            return this.graph;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+
+            return this.isAuthorized == key.isAuthorized && this.uri.equals(key.uri) && this.format.equals(key.format)
+                    && this.graph.equals(key.graph) && this.language.equals(key.language);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return this.hash;
+        }
+    }
+
+    private static final class TooLargeException extends IOException {
+
+        private TooLargeException() {
+
+            super("The representation is too large to be cached!");
+        }
+    }
+}
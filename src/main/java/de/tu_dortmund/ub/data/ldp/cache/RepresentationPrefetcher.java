@@ -0,0 +1,382 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+import org.apache.log4j.Logger;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Representation Prefetcher
+ *
+ * Reads a representation in the background that a client is about to request, e.g. the {@code about} document while
+ * the client follows the {@code 303 See Other} to it. The result is kept for a short time and handed out once by
+ * {@link #take(RepresentationCache.Key)}; a request that arrives while the prefetch is still running waits for it
+ * instead of calling the storage a second time.
+ *
+ * Prefetching is best effort: if the pool is busy or the table is full, nothing is prefetched. A prefetched
+ * representation is discarded if its graph has been invalidated since, see {@link RepresentationCache#generation}. A
+ * resource the prefetch has not found is handed out as {@link #NOT_FOUND}, so the request does not read it again.
+ *
+ * A representation larger than the cache's maximum entry size is left to the request: its prefetch stops at that size,
+ * and the key is not prefetched again until its graph is invalidated.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class RepresentationPrefetcher extends AbstractLifeCycle {
+
+    private static Logger logger = Logger.getLogger(RepresentationPrefetcher.class.getName());
+
+    /**
+     * Handed out by {@link #take(RepresentationCache.Key)} for a resource that does not exist; it has no access rights.
+     */
+    public static final Representation NOT_FOUND = new Representation(null, new byte[0], 0);
+
+    private final String              serviceName;
+    private final RepresentationCache representationCache;
+    private final int                 threads;
+    private final int                 maxSize;
+    private final long                ttl;
+
+    private final LinkedHashMap<RepresentationCache.Key, Prefetch> prefetches = new LinkedHashMap<>();
+
+    // guarded by prefetches: the keys found too large with the generation of their graph, least recently used first
+    private final LinkedHashMap<RepresentationCache.Key, Long> tooLarge = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder submitted  = new LongAdder();
+    private final LongAdder hits       = new LongAdder();
+    private final LongAdder expired    = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder skipped    = new LongAdder();
+
+    private volatile ThreadPoolExecutor executor;
+
+    /**
+     * @param threads number of prefetch threads; {@code 0} disables prefetching
+     * @param maxSize maximum number of prefetched representations waiting to be taken
+     * @param ttl     time in milliseconds a prefetched representation is kept
+     */
+    public RepresentationPrefetcher(final String serviceName, final RepresentationCache representationCache, final int threads, final int maxSize, final long ttl) {
+
+        this.serviceName = serviceName;
+        this.representationCache = representationCache;
+        this.threads = threads;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+
+        if (this.threads <= 0 || this.maxSize <= 0) {
+
+            logger.info(String.format("[%s] prefetching disabled", this.serviceName));
+
+            return;
+        }
+
+        final AtomicInteger counter = new AtomicInteger();
+
+        // a full queue drops the prefetch; the client's request reads the representation itself then
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(this.threads, this.threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.maxSize), (runnable) -> {
+
+            final Thread thread = new Thread(runnable, "ldp-prefetch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        this.executor = executor;
+
+        logger.info(String.format("[%s] prefetcher started (threads = %d, size = %d, ttl = %d ms)", this.serviceName, this.threads, this.maxSize, this.ttl));
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+
+        final ThreadPoolExecutor executor = this.executor;
+
+        this.executor = null;
+
+        if (executor != null) {
+
+            executor.shutdownNow();
+        }
+
+        this.clear();
+    }
+
+    /**
+     * Starts reading the representation of {@code key}, unless it is cached, already being prefetched or too large.
+     *
+     * @return {@code true} if a prefetch has been started
+     */
+    public boolean prefetch(final LinkedDataStorage linkedDataStorage, final RepresentationCache.Key key) {
+
+        final ThreadPoolExecutor executor = this.executor;
+
+        if (executor == null || this.representationCache.contains(key)) {
+
+            return false;
+        }
+
+        final long generation = this.representationCache.generation(key.getGraph());
+        final FutureTask<Representation> task = new FutureTask<>(() -> this.load(linkedDataStorage, key, generation));
+        final Prefetch prefetch = new Prefetch(task, generation, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.ttl));
+
+        synchronized (this.prefetches) {
+
+            final Long tooLarge = this.tooLarge.get(key);
+
+            if (tooLarge != null && tooLarge == generation) {
+
+                this.skipped.increment();
+
+                return false;
+            }
+
+            this.expire();
+
+            if (this.prefetches.size() >= this.maxSize || this.prefetches.containsKey(key)) {
+
+                return false;
+            }
+
+            this.prefetches.put(key, prefetch);
+        }
+
+        try {
+
+            executor.execute(task);
+        }
+        catch (RejectedExecutionException e) {
+
+            synchronized (this.prefetches) {
+
+                this.prefetches.remove(key, prefetch);
+            }
+
+            this.rejections.increment();
+
+            return false;
+        }
+
+        this.submitted.increment();
+
+        return true;
+    }
+
+    /**
+     * Hands out the prefetched representation of {@code key} and forgets it; waits if the prefetch is still running.
+     *
+     * @return {@code null} if nothing usable has been prefetched, i.e. the caller has to read the representation, or
+     * {@link #NOT_FOUND} if the resource does not exist
+     */
+    public Representation take(final RepresentationCache.Key key) {
+
+        final Prefetch prefetch;
+
+        synchronized (this.prefetches) {
+
+            prefetch = this.prefetches.remove(key);
+        }
+
+        if (prefetch == null) {
+
+            return null;
+        }
+
+        final long remaining = prefetch.expires - System.nanoTime();
+
+        if (remaining <= 0) {
+
+            this.expired.increment();
+
+            return null;
+        }
+
+        try {
+
+            final Representation representation = prefetch.task.get(remaining, TimeUnit.NANOSECONDS);
+
+            // the graph has been updated since, or the representation is to be streamed by the request itself
+            if (representation == RepresentationCache.TOO_LARGE || this.representationCache.generation(key.getGraph()) != prefetch.generation) {
+
+                return null;
+            }
+
+            this.hits.increment();
+
+            return representation != null ? representation : NOT_FOUND;
+        }
+        catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+
+            return null;
+        }
+        catch (ExecutionException e) {
+
+            logger.warn(String.format("[%s] prefetch failed: %s", this.serviceName, e.getCause()));
+
+            return null;
+        }
+        catch (TimeoutException e) {
+
+            this.expired.increment();
+
+            return null;
+        }
+    }
+
+    public void clear() {
+
+        synchronized (this.prefetches) {
+
+            this.prefetches.clear();
+            this.tooLarge.clear();
+        }
+    }
+
+    public int size() {
+
+        synchronized (this.prefetches) {
+
+            return this.prefetches.size();
+        }
+    }
+
+    public long getSubmitted() {
+
+        return this.submitted.sum();
+    }
+
+    /**
+     * @return the prefetched representations that have been served
+     */
+    public long getHits() {
+
+        return this.hits.sum();
+    }
+
+    /**
+     * @return the prefetched representations that have not been taken in time
+     */
+    public long getExpired() {
+
+        return this.expired.sum();
+    }
+
+    public long getRejections() {
+
+        return this.rejections.sum();
+    }
+
+    /**
+     * @return the prefetches not started because the representation is too large to be cached
+     */
+    public long getSkipped() {
+
+        return this.skipped.sum();
+    }
+
+    /**
+     * Runs on a prefetch thread: reads the representation and remembers the key if it is too large.
+     */
+    private Representation load(final LinkedDataStorage linkedDataStorage, final RepresentationCache.Key key, final long generation) throws LinkedDataStorageException {
+
+        final Representation representation = this.representationCache.load(linkedDataStorage, key);
+
+        if (representation == RepresentationCache.TOO_LARGE) {
+
+            synchronized (this.prefetches) {
+
+                this.tooLarge.put(key, generation);
+
+                if (this.tooLarge.size() > this.maxSize) {
+
+                    final Iterator<RepresentationCache.Key> iterator = this.tooLarge.keySet().iterator();
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+
+        return representation;
+    }
+
+    /**
+     * Drops the expired prefetches at the head of the table, which is in the order of insertion.
+     */
+    private void expire() {
+
+        final long now = System.nanoTime();
+        final Iterator<Prefetch> iterator = this.prefetches.values().iterator();
+
+        while (iterator.hasNext()) {
+
+            final Prefetch prefetch = iterator.next();
+
+            if (prefetch.expires - now > 0) {
+
+                break;
+            }
+
+            iterator.remove();
+
+            this.expired.increment();
+        }
+    }
+
+    private static final class Prefetch {
+
+        private final FutureTask<Representation> task;
+        private final long                       generation;
+        private final long                       expires;
+
+        private Prefetch(final FutureTask<Representation> task, final long generation, final long expires) {
+
+            this.task = task;
+            this.generation = generation;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,494 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of SPARQL query results, keyed by graph, normalized query text, format and authorization flag.
+ *
+ * The cache is bounded by the number of entries and by bytes. Eviction follows the LRU order, but a new result is
+ * only admitted if it has been asked for more often than the entries it would displace (TinyLFU, see
+ * {@link FrequencySketch}). So a burst of one-off queries does not flush the results of the repeating dashboard
+ * queries.
+ *
+ * {@link #invalidate(String)} drops all results of a graph after an update. Queries with non-deterministic functions
+ * or federated {@code SERVICE} calls are never cached.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class SparqlResultCache {
+
+    private static final Pattern NOT_CACHEABLE = Pattern.compile("(?i)\\b(?:RAND|NOW|UUID|STRUUID|BNODE)\\s*\\(|\\bSERVICE\\b");
+
+    private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final GraphGenerations generations = new GraphGenerations();
+    private final FrequencySketch  sketch;
+
+    private final int  maxSize;
+    private final long maxBytes;
+    private final int  maxEntrySize;
+
+    private long bytes = 0;
+
+    private final LongAdder hits          = new LongAdder();
+    private final LongAdder misses        = new LongAdder();
+    private final LongAdder rejections    = new LongAdder();
+    private final LongAdder evictions     = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxSize      maximum number of cached results; {@code 0} disables the cache
+     * @param maxBytes     maximum number of cached bytes
+     * @param maxEntrySize maximum size of a single result in bytes
+     */
+    public SparqlResultCache(final int maxSize, final long maxBytes, final int maxEntrySize) {
+
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+        this.maxEntrySize = maxSize > 0 ? (int) Math.max(0, Math.min(maxEntrySize, maxBytes)) : 0;
+        this.sketch = new FrequencySketch(Math.max(0, maxSize));
+    }
+
+    /**
+     * Writes the result of the query to the response, from the cache if possible. The caller has set content type
+     * and status before.
+     *
+     * @return {@code false} if there is no result; nothing has been written then
+     */
+    public boolean send(final LinkedDataStorage linkedDataStorage, final String graph, final String query, final String format, final boolean isAuthorized, final HttpServletResponse httpServletResponse) throws LinkedDataStorageException, IOException {
+
+        final String normalized = query != null ? normalize(query) : null;
+
+        if (normalized == null || this.maxSize <= 0 || NOT_CACHEABLE.matcher(normalized).find()) {
+
+            return linkedDataStorage.sparqlQuery(graph, query, format, isAuthorized, httpServletResponse.getOutputStream());
+        }
+
+        final Key key = new Key(graph, normalized, format, isAuthorized);
+
+        byte[] result = this.get(key);
+
+        if (result == null) {
+
+            final long generation = this.generations.get(key.graph);
+
+            final SpillOutputStream outputStream = new SpillOutputStream(httpServletResponse.getOutputStream(), this.maxEntrySize);
+
+            if (!linkedDataStorage.sparqlQuery(graph, query, format, isAuthorized, outputStream)) {
+
+                return false;
+            }
+
+            if (outputStream.isSpilled()) {
+
+                // too large to be cached: the rest has already been streamed
+                outputStream.flush();
+
+                return true;
+            }
+
+            result = outputStream.toByteArray();
+
+            this.put(key, generation, result);
+        }
+
+        httpServletResponse.setContentLength(result.length);
+        httpServletResponse.getOutputStream().write(result);
+
+        return true;
+    }
+
+    public byte[] get(final Key key) {
+
+        final byte[] result;
+
+        synchronized (this.entries) {
+
+            this.sketch.increment(key.hash);
+            result = this.entries.get(key);
+        }
+
+        if (result != null) {
+
+            this.hits.increment();
+        }
+        else {
+
+            this.misses.increment();
+        }
+
+        return result;
+    }
+
+    /**
+     * Caches the result, if the graph has not been invalidated since {@code generation} and the result is admitted.
+     *
+     * @return {@code true} if the result has been cached
+     */
+    public boolean put(final Key key, final long generation, final byte[] result) {
+
+        if (result.length > this.maxEntrySize) {
+
+            return false;
+        }
+
+        synchronized (this.entries) {
+
+            if (this.generations.get(key.graph) != generation) {
+
+                return false;
+            }
+
+            final byte[] previous = this.entries.remove(key);
+
+            if (previous != null) {
+
+                this.bytes -= previous.length;
+            }
+
+            // TinyLFU admission: the candidate has to be more popular than every entry it displaces
+            final int frequency = this.sketch.frequency(key.hash);
+
+            final List<Key> victims = new ArrayList<>();
+
+            int size = this.entries.size();
+            long bytes = this.bytes;
+
+            final Iterator<Map.Entry<Key, byte[]>> iterator = this.entries.entrySet().iterator();
+
+            while ((size + 1 > this.maxSize || bytes + result.length > this.maxBytes) && iterator.hasNext()) {
+
+                final Map.Entry<Key, byte[]> victim = iterator.next();
+
+                if (previous == null && this.sketch.frequency(victim.getKey().hash) >= frequency) {
+
+                    this.rejections.increment();
+
+                    return false;
+                }
+
+                victims.add(victim.getKey());
+                size--;
+                bytes -= victim.getValue().length;
+            }
+
+            for (Key victim : victims) {
+
+                this.entries.remove(victim);
+            }
+
+            this.evictions.add(victims.size());
+
+            this.entries.put(key, result);
+            this.bytes = bytes + result.length;
+        }
+
+        return true;
+    }
+
+    /**
+     * Drops all results of the graph, e.g. after a SPARQL update.
+     */
+    public void invalidate(final String graph) {
+
+        synchronized (this.entries) {
+
+            this.generations.increment(graph);
+
+            final Iterator<Map.Entry<Key, byte[]>> iterator = this.entries.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+
+                final Map.Entry<Key, byte[]> entry = iterator.next();
+
+                if (entry.getKey().graph.equals(graph)) {
+
+                    this.bytes -= entry.getValue().length;
+                    iterator.remove();
+                }
+            }
+        }
+
+        this.invalidations.increment();
+    }
+
+    /**
+     * Drops the results of all graphs, e.g. after an update whose graphs are not known.
+     */
+    public void invalidateAll() {
+
+        synchronized (this.entries) {
+
+            this.generations.incrementAll();
+
+            this.entries.clear();
+            this.bytes = 0;
+        }
+
+        this.invalidations.increment();
+    }
+
+    public void clear() {
+
+        synchronized (this.entries) {
+
+            this.generations.incrementAll();
+
+            this.entries.clear();
+            this.bytes = 0;
+        }
+    }
+
+    public int size() {
+
+        synchronized (this.entries) {
+
+            return this.entries.size();
+        }
+    }
+
+    public long getBytes() {
+
+        synchronized (this.entries) {
+
+            return this.bytes;
+        }
+    }
+
+    public long getHits() {
+
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+
+        return this.misses.sum();
+    }
+
+    /**
+     * @return hits / (hits + misses) of all cacheable queries so far
+     */
+    public double getHitRatio() {
+
+        final long hits = this.hits.sum();
+        final long requests = hits + this.misses.sum();
+
+        return requests > 0 ? (double) hits / requests : 0.0;
+    }
+
+    public long getRejections() {
+
+        return this.rejections.sum();
+    }
+
+    public long getEvictions() {
+
+        return this.evictions.sum();
+    }
+
+    public long getInvalidations() {
+
+        return this.invalidations.sum();
+    }
+
+    /**
+     * Removes comments and collapses whitespace outside of string literals and IRIs, so queries that differ only in
+     * layout share one cache entry.
+     */
+    public static String normalize(final String query) {
+
+        final StringBuilder normalized = new StringBuilder(query.length());
+
+        boolean space = false;
+        int i = 0;
+
+        while (i < query.length()) {
+
+            final char c = query.charAt(i);
+
+            if (c == '"' || c == '\'') {
+
+                final int end = endOfLiteral(query, i);
+
+                appendSpace(normalized, space);
+                space = false;
+                normalized.append(query, i, end);
+                i = end;
+            }
+            else if (c == '<' && endOfIRI(query, i) > 0) {
+
+                final int end = endOfIRI(query, i);
+
+                appendSpace(normalized, space);
+                space = false;
+                normalized.append(query, i, end);
+                i = end;
+            }
+            else if (c == '#') {
+
+                while (i < query.length() && query.charAt(i) != '\n' && query.charAt(i) != '\r') {
+
+                    i++;
+                }
+
+                space = true;
+            }
+            else if (Character.isWhitespace(c)) {
+
+                space = true;
+                i++;
+            }
+            else {
+
+                appendSpace(normalized, space);
+                space = false;
+                normalized.append(c);
+
+                // an escaped character, e.g. in a prefixed name
+                if (c == '\\' && i + 1 < query.length()) {
+
+                    normalized.append(query.charAt(i + 1));
+                    i++;
+                }
+
+                i++;
+            }
+        }
+
+        return normalized.toString();
+    }
+
+    private static void appendSpace(final StringBuilder normalized, final boolean space) {
+
+        if (space && normalized.length() > 0) {
+
+            normalized.append(' ');
+        }
+    }
+
+    private static int endOfLiteral(final String query, final int start) {
+
+        final char quote = query.charAt(start);
+
+        // long literals: """...""" and '''...'''
+        final boolean isLong = query.startsWith(quote == '"' ? "\"\"\"" : "'''", start);
+        int i = start + (isLong ? 3 : 1);
+
+        while (i < query.length()) {
+
+            final char c = query.charAt(i);
+
+            if (c == '\\') {
+
+                i += 2;
+            }
+            else if (c == quote && (!isLong || query.startsWith(quote == '"' ? "\"\"\"" : "'''", i))) {
+
+                return i + (isLong ? 3 : 1);
+            }
+            else {
+
+                i++;
+            }
+        }
+
+        return query.length();
+    }
+
+    /**
+     * @return the end of the IRI reference starting at {@code start} or {@code -1} if the {@code <} is an operator
+     */
+    private static int endOfIRI(final String query, final int start) {
+
+        for (int i = start + 1; i < query.length(); i++) {
+
+            final char c = query.charAt(i);
+
+            if (c == '>') {
+
+                return i + 1;
+            }
+            if (c <= ' ' || c == '<' || c == '"' || c == '{' || c == '}' || c == '|' || c == '^' || c == '`' || c == '\\') {
+
+                return -1;
+            }
+        }
+
+        return -1;
+    }
+
+    public static final class Key {
+
+        private final String  graph;
+        private final String  query;
+        private final String  format;
+        private final boolean isAuthorized;
+        private final int     hash;
+
+        public Key(final String graph, final String query, final String format, final boolean isAuthorized) {
+
+            this.graph = graph != null ? graph : "";
+            this.query = query;
+            this.format = format != null ? format : "";
+            this.isAuthorized = isAuthorized;
+            this.hash = 31 * (31 * (31 * this.graph.hashCode() + query.hashCode()) + this.format.hashCode()) + (isAuthorized ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+
+            return this.isAuthorized == key.isAuthorized && this.query.equals(key.query) && this.format.equals(key.format)
+                    && this.graph.equals(key.graph);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return this.hash;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Buffers up to {@code limit} bytes in memory. Once the limit is exceeded, the buffer is written to the target stream
+ * and everything else goes there directly.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class SpillOutputStream extends OutputStream {
+
+    private final OutputStream target;
+    private final int          limit;
+
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    public SpillOutputStream(final OutputStream target, final int limit) {
+
+        this.target = target;
+        this.limit = limit;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+
+        if (this.buffer != null && this.buffer.size() + 1 <= this.limit) {
+
+            this.buffer.write(b);
+        }
+        else {
+
+            this.spill();
+            this.target.write(b);
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+
+        if (this.buffer != null && this.buffer.size() + len <= this.limit) {
+
+            this.buffer.write(b, off, len);
+        }
+        else {
+
+            this.spill();
+            this.target.write(b, off, len);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+
+        if (this.buffer == null) {
+
+            this.target.flush();
+        }
+    }
+
+    /**
+     * @return {@code true} if the limit was exceeded and the content went to the target stream
+     */
+    public boolean isSpilled() {
+
+        return this.buffer == null;
+    }
+
+    /**
+     * @return the buffered content, if not spilled
+     */
+    public byte[] toByteArray() {
+
+        return this.buffer != null ? this.buffer.toByteArray() : null;
+    }
+
+    private void spill() throws IOException {
+
+        if (this.buffer != null) {
+
+            this.buffer.writeTo(this.target);
+            this.buffer = null;
+        }
+    }
+}
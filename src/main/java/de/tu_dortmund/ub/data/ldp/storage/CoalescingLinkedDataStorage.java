@@ -0,0 +1,758 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.data.ldp.storage;
+
+import de.tu_dortmund.ub.util.concurrent.SingleFlight;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Linked Data Storage decorator that coalesces concurrent identical read calls: while a call for a key is running,
+ * further callers with the same arguments wait for it and share its result or its exception instead of calling the
+ * backend themselves.
+ *
+ * The calls run on a pool of {@code threads} storage threads, and every caller - the one that started the call as
+ * well as the ones waiting for it - gives up after {@code timeout} milliseconds with a {@link LinkedDataStorageException}.
+ * A call that hangs keeps its storage thread until the storage returns; if all threads hang, further calls are rejected.
+ *
+ * The streaming variants write the result straight to the stream of the caller that started the call and keep a copy
+ * of at most {@code maxBuffer} bytes for the waiting callers. A larger result is not shared: the waiting callers read it
+ * themselves. Updates, batches and the overloads without graph and authorization flag are passed through.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class CoalescingLinkedDataStorage implements LinkedDataStorage {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private static final Object NOT_FOUND = new Object();
+    private static final Object TOO_LARGE = new Object();
+
+    private final LinkedDataStorage linkedDataStorage;
+    private final long              timeout;
+    private final int               threads;
+    private final int               maxBuffer;
+
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+
+    private volatile ThreadPoolExecutor executor;
+
+    /**
+     * @param linkedDataStorage the storage to decorate
+     * @param timeout           how long a caller waits for a call in milliseconds; {@code 0} waits without limit
+     * @param threads           number of storage threads; {@code 0} runs the calls on the calling thread without a timeout
+     * @param maxBuffer         max. size of a streamed result shared with the waiting callers in bytes
+     */
+    public CoalescingLinkedDataStorage(final LinkedDataStorage linkedDataStorage, final long timeout, final int threads, final int maxBuffer) {
+
+        this.linkedDataStorage = linkedDataStorage;
+        this.timeout = timeout;
+        this.threads = threads;
+        this.maxBuffer = maxBuffer;
+
+        this.start();
+    }
+
+    public LinkedDataStorage getLinkedDataStorage() {
+
+        return this.linkedDataStorage;
+    }
+
+    public SingleFlight<String, Object> getSingleFlight() {
+
+        return this.singleFlight;
+    }
+
+    @Override
+    public void init(final Properties config) throws LinkedDataStorageException {
+
+        this.start();
+
+        this.linkedDataStorage.init(config);
+    }
+
+    @Override
+    public void shutdown() throws LinkedDataStorageException {
+
+        final ThreadPoolExecutor executor = this.executor;
+
+        if (executor != null) {
+
+            this.executor = null;
+            executor.shutdown();
+        }
+
+        this.linkedDataStorage.shutdown();
+    }
+
+    private synchronized void start() {
+
+        if (this.executor == null && this.timeout > 0 && this.threads > 0) {
+
+            final AtomicInteger counter = new AtomicInteger();
+            final ThreadFactory threadFactory = (runnable) -> {
+
+                final Thread thread = new Thread(runnable, "ldp-storage-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+
+                return thread;
+            };
+
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(this.threads, this.threads, 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+
+            this.executor = executor;
+        }
+    }
+
+    @Override
+    public HashMap<String, String> health(final Properties properties) {
+
+        return this.linkedDataStorage.health(properties);
+    }
+
+    @Override
+    public String getResource(final String resource, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.getResource(resource, format);
+    }
+
+    @Override
+    public String getResource(final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.getResource(resource, format, isAuthorized);
+    }
+
+    @Override
+    public String getResource(final String graph, final String resource, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.getResource(graph, resource, format);
+    }
+
+    @Override
+    public String getResource(final String graph, final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.coalesceString(key("getResource", graph, resource, format, isAuthorized), () ->
+                this.linkedDataStorage.getResource(graph, resource, format, isAuthorized));
+    }
+
+    @Override
+    public boolean getResource(final String graph, final String resource, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        return this.coalesceStream(key("getResource#stream", graph, resource, format, isAuthorized), outputStream, (buffer) ->
+                this.linkedDataStorage.getResource(graph, resource, format, isAuthorized, buffer));
+    }
+
+    @Override
+    public ResourceRepresentation getResourceRepresentation(final String graph, final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        try {
+
+            return (ResourceRepresentation) this.coalesce(key("getResourceRepresentation", graph, resource, format, isAuthorized), () ->
+                    this.linkedDataStorage.getResourceRepresentation(graph, resource, format, isAuthorized));
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean getResourceRepresentation(final String graph, final String resource, final String format, final boolean isAuthorized, final RepresentationConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        final Tee tee = new Tee(null, this.maxBuffer);
+
+        final Object result = this.coalesce(key("getResourceRepresentation#stream", graph, resource, format, isAuthorized), () -> {
+
+            tee.lead();
+
+            final String[] accessRights = new String[1];
+            final long[] lastModified = new long[1];
+
+            // the representation is read even if this caller skips it, the waiting callers may need it
+            try {
+
+                if (!this.linkedDataStorage.getResourceRepresentation(graph, resource, format, isAuthorized, (rights, modified) -> {
+
+                    accessRights[0] = rights;
+                    lastModified[0] = modified;
+
+                    try {
+
+                        tee.target(consumer.accept(rights, modified));
+                    }
+                    catch (IOException e) {
+
+                        // the caller's failure, the waiting callers still get the representation
+                        tee.fail(e);
+                    }
+
+                    return tee;
+                })) {
+
+                    return NOT_FOUND;
+                }
+            }
+            catch (IOException e) {
+
+                if (tee.isStopped(e)) {
+
+                    return TOO_LARGE;
+                }
+                throw e;
+            }
+
+            final Object body = tee.finish();
+
+            return body != TOO_LARGE ? new SharedRepresentation(accessRights[0], lastModified[0], (byte[]) body) : TOO_LARGE;
+        }, tee::abandon);
+
+        if (tee.isLeader()) {
+
+            tee.rethrow();
+
+            return result != NOT_FOUND;
+        }
+
+        if (result == NOT_FOUND) {
+
+            return false;
+        }
+
+        if (result == TOO_LARGE) {
+
+            // not shared, read it without the buffer
+            final Tee own = new Tee(null, 0);
+            final boolean found = (Boolean) this.unwrap(() -> this.call(() -> this.linkedDataStorage.getResourceRepresentation(graph, resource, format, isAuthorized, (rights, modified) -> {
+
+                own.target(consumer.accept(rights, modified));
+
+                return own;
+            }) && own.finish() != null, own::abandon));
+
+            own.rethrow();
+
+            return found;
+        }
+
+        final SharedRepresentation representation = (SharedRepresentation) result;
+        final OutputStream outputStream = consumer.accept(representation.accessRights, representation.lastModified);
+
+        if (outputStream != null) {
+
+            outputStream.write(representation.body);
+            outputStream.flush();
+        }
+
+        return true;
+    }
+
+    @Override
+    public void getResources(final String graph, final Collection<String> resources, final String format, final boolean isAuthorized, final ResourceConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        this.linkedDataStorage.getResources(graph, resources, format, isAuthorized, consumer);
+    }
+
+    @Override
+    public String getAccessRights(final String resource) throws LinkedDataStorageException {
+
+        return this.coalesceString(key("getAccessRights#default", null, resource, null, false), () ->
+                this.linkedDataStorage.getAccessRights(resource));
+    }
+
+    @Override
+    public String getAccessRights(final String graph, final String resource) throws LinkedDataStorageException {
+
+        return this.coalesceString(key("getAccessRights", graph, resource, null, false), () ->
+                this.linkedDataStorage.getAccessRights(graph, resource));
+    }
+
+    @Override
+    public boolean listAccessRights(final String graph, final BiConsumer<String, String> consumer) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.listAccessRights(graph, consumer);
+    }
+
+    @Override
+    public boolean listResources(final String graph, final Consumer<String> consumer) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.listResources(graph, consumer);
+    }
+
+    @Override
+    public String searchResource(final Properties query, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.searchResource(query, format);
+    }
+
+    @Override
+    public String searchResource(final Properties query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.searchResource(query, format, isAuthorized);
+    }
+
+    @Override
+    public String searchResource(final String graph, final Properties query, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.searchResource(graph, query, format);
+    }
+
+    @Override
+    public String searchResource(final String graph, final Properties query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.coalesceString(key("searchResource", graph, key(query), format, isAuthorized), () ->
+                this.linkedDataStorage.searchResource(graph, query, format, isAuthorized));
+    }
+
+    @Override
+    public boolean searchResource(final String graph, final Properties query, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        return this.coalesceStream(key("searchResource#stream", graph, key(query), format, isAuthorized), outputStream, (buffer) ->
+                this.linkedDataStorage.searchResource(graph, query, format, isAuthorized, buffer));
+    }
+
+    @Override
+    public String sparqlQuery(final String query, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.sparqlQuery(query, format);
+    }
+
+    @Override
+    public String sparqlQuery(final String query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.sparqlQuery(query, format, isAuthorized);
+    }
+
+    @Override
+    public String sparqlQuery(final String graph, final String query, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.sparqlQuery(graph, query, format);
+    }
+
+    @Override
+    public String sparqlQuery(final String graph, final String query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.coalesceString(key("sparqlQuery", graph, query, format, isAuthorized), () ->
+                this.linkedDataStorage.sparqlQuery(graph, query, format, isAuthorized));
+    }
+
+    @Override
+    public boolean sparqlQuery(final String graph, final String query, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        return this.coalesceStream(key("sparqlQuery#stream", graph, query, format, isAuthorized), outputStream, (buffer) ->
+                this.linkedDataStorage.sparqlQuery(graph, query, format, isAuthorized, buffer));
+    }
+
+    @Override
+    public String sparqlUpdate(final String data) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.sparqlUpdate(data);
+    }
+
+    private String coalesceString(final String key, final Callable<String> call) throws LinkedDataStorageException {
+
+        try {
+
+            return (String) this.coalesce(key, call::call);
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+    }
+
+    private boolean coalesceStream(final String key, final OutputStream outputStream, final StreamCall call) throws LinkedDataStorageException, IOException {
+
+        final Tee tee = new Tee(outputStream, this.maxBuffer);
+
+        final Object result = this.coalesce(key, () -> {
+
+            tee.lead();
+
+            try {
+
+                return call.writeTo(tee) ? tee.finish() : NOT_FOUND;
+            }
+            catch (IOException e) {
+
+                if (tee.isStopped(e)) {
+
+                    return TOO_LARGE;
+                }
+                throw e;
+            }
+        }, tee::abandon);
+
+        if (tee.isLeader()) {
+
+            // a failure of the caller's stream is not passed to the waiting callers, only to the caller
+            tee.rethrow();
+
+            return result != NOT_FOUND;
+        }
+
+        if (result == NOT_FOUND) {
+
+            return false;
+        }
+
+        if (result == TOO_LARGE) {
+
+            // not shared, read it without the buffer
+            final Tee own = new Tee(outputStream, 0);
+            final boolean found = (Boolean) this.unwrap(() -> this.call(() -> call.writeTo(own) && own.finish() != null, own::abandon));
+
+            own.rethrow();
+
+            return found;
+        }
+
+        outputStream.write((byte[]) result);
+        outputStream.flush();
+
+        return true;
+    }
+
+    private Object coalesce(final String key, final Callable<Object> call) throws LinkedDataStorageException, IOException {
+
+        return this.coalesce(key, call, null);
+    }
+
+    private Object coalesce(final String key, final Callable<Object> call, final Runnable abandon) throws LinkedDataStorageException, IOException {
+
+        return this.unwrap(() -> this.singleFlight.execute(key, () -> this.call(call, abandon), this.timeout, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Runs the call on a storage thread and waits for it at most {@code timeout} milliseconds. On timeout the call is
+     * interrupted and {@code abandon} is run, so that a late result is not written anywhere.
+     */
+    private Object call(final Callable<Object> call, final Runnable abandon) throws Exception {
+
+        final ThreadPoolExecutor executor = this.executor;
+
+        if (executor == null) {
+
+            return call.call();
+        }
+
+        final Future<Object> future;
+
+        try {
+
+            future = executor.submit(call);
+        }
+        catch (RejectedExecutionException e) {
+
+            throw new LinkedDataStorageException("All " + this.threads + " storage threads are busy!", e);
+        }
+
+        try {
+
+            return future.get(this.timeout, TimeUnit.MILLISECONDS);
+        }
+        catch (ExecutionException e) {
+
+            if (e.getCause() instanceof Exception) {
+
+                throw (Exception) e.getCause();
+            }
+
+            throw e;
+        }
+        catch (TimeoutException | InterruptedException e) {
+
+            if (abandon != null) {
+
+                abandon.run();
+            }
+            future.cancel(true);
+
+            throw e;
+        }
+    }
+
+    private Object unwrap(final Callable<Object> call) throws LinkedDataStorageException, IOException {
+
+        try {
+
+            return call.call();
+        }
+        catch (LinkedDataStorageException | IOException | RuntimeException e) {
+
+            throw e;
+        }
+        catch (TimeoutException e) {
+
+            throw new LinkedDataStorageException("Timed out after " + this.timeout + " ms waiting for the backend!", e);
+        }
+        catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new LinkedDataStorageException("Interrupted while waiting for the backend!", e);
+        }
+        catch (Exception e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+    }
+
+    private static String key(final String method, final String graph, final String argument, final String format, final boolean isAuthorized) {
+
+        return method + SEPARATOR + graph + SEPARATOR + argument + SEPARATOR + format + SEPARATOR + isAuthorized;
+    }
+
+    private static String key(final Properties query) {
+
+        return query != null ? new TreeMap<>(query).toString() : null;
+    }
+
+    private interface StreamCall {
+
+        boolean writeTo(OutputStream outputStream) throws LinkedDataStorageException, IOException;
+    }
+
+    /**
+     * A resource representation shared with the waiting callers.
+     */
+    private static final class SharedRepresentation {
+
+        private final String accessRights;
+        private final long   lastModified;
+        private final byte[] body;
+
+        private SharedRepresentation(final String accessRights, final long lastModified, final byte[] body) {
+
+            this.accessRights = accessRights;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Passes a streamed result through to the caller's stream and keeps a copy of at most {@code maxBuffer} bytes for the
+     * waiting callers. Up to that size the bytes are held back, so that the storage is not slowed down by the client.
+     *
+     * A failure of the caller's stream - e.g. a client that has gone away - does not fail the call: the stream is dropped,
+     * the copy is still filled for the waiting callers and the failure is rethrown to the caller by {@link #rethrow()}.
+     */
+    private static final class Tee extends OutputStream {
+
+        private final int          maxBuffer;
+        private       OutputStream outputStream;
+
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private boolean               leader;
+        private boolean               abandoned;
+        private IOException           failure;
+
+        private Tee(final OutputStream outputStream, final int maxBuffer) {
+
+            this.outputStream = outputStream;
+            this.maxBuffer = maxBuffer;
+        }
+
+        /**
+         * @param outputStream the caller's stream or {@code null} to drop the result once it exceeds {@code maxBuffer}
+         */
+        private synchronized void target(final OutputStream outputStream) {
+
+            this.outputStream = outputStream;
+        }
+
+        private synchronized void lead() {
+
+            this.leader = true;
+        }
+
+        private synchronized boolean isLeader() {
+
+            return this.leader;
+        }
+
+        /**
+         * Drops the caller's stream after it has failed.
+         */
+        private synchronized void fail(final IOException e) {
+
+            this.failure = e;
+            this.outputStream = null;
+        }
+
+        /**
+         * Throws the failure of the caller's stream, if any.
+         */
+        private synchronized void rethrow() throws IOException {
+
+            if (this.failure != null) {
+
+                throw this.failure;
+            }
+        }
+
+        /**
+         * @return {@code true} if the read has been stopped by the failure of the caller's stream, see {@link #write}
+         */
+        private synchronized boolean isStopped(final IOException e) {
+
+            return e == this.failure;
+        }
+
+        /**
+         * After a timeout: the caller has answered the request, further writes of the storage fail.
+         */
+        private synchronized void abandon() {
+
+            this.abandoned = true;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+
+            this.write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+
+            this.check();
+
+            if (this.buffer != null) {
+
+                if (this.buffer.size() + len <= this.maxBuffer) {
+
+                    this.buffer.write(b, off, len);
+
+                    return;
+                }
+
+                if (this.outputStream != null) {
+
+                    try {
+
+                        this.buffer.writeTo(this.outputStream);
+                    }
+                    catch (IOException e) {
+
+                        this.fail(e);
+                    }
+                }
+                this.buffer = null;
+            }
+
+            if (this.outputStream != null) {
+
+                try {
+
+                    this.outputStream.write(b, off, len);
+                }
+                catch (IOException e) {
+
+                    this.fail(e);
+                }
+            }
+
+            // the caller's stream has failed and the result is too large to be shared: nobody needs the rest of it
+            if (this.failure != null) {
+
+                throw this.failure;
+            }
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+
+            this.check();
+
+            if (this.buffer == null && this.outputStream != null) {
+
+                try {
+
+                    this.outputStream.flush();
+                }
+                catch (IOException e) {
+
+                    this.fail(e);
+                }
+            }
+        }
+
+        /**
+         * @return the result for the waiting callers, or {@code TOO_LARGE} if it exceeded {@code maxBuffer}
+         */
+        private synchronized Object finish() throws IOException {
+
+            this.check();
+
+            final Object result = this.buffer != null ? this.buffer.toByteArray() : TOO_LARGE;
+
+            if (this.outputStream != null) {
+
+                try {
+
+                    if (this.buffer != null) {
+
+                        this.buffer.writeTo(this.outputStream);
+                    }
+                    this.outputStream.flush();
+                }
+                catch (IOException e) {
+
+                    this.fail(e);
+                }
+            }
+            this.buffer = null;
+
+            return result;
+        }
+
+        private void check() throws IOException {
+
+            if (this.abandoned) {
+
+                throw new IOException("The caller has given up waiting!");
+            }
+        }
+    }
+}
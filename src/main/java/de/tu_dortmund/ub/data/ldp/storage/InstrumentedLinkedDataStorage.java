@@ -0,0 +1,314 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage;
+
+import de.tu_dortmund.ub.util.metrics.CallMetrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Linked Data Storage decorator that reports the duration of each call to {@link CallMetrics}. It wraps the storage
+ * provider directly, so it measures the calls that reach the backend - coalesced and cached requests do not count.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class InstrumentedLinkedDataStorage implements LinkedDataStorage {
+
+    private final LinkedDataStorage linkedDataStorage;
+    private final CallMetrics       callMetrics;
+
+    public InstrumentedLinkedDataStorage(final LinkedDataStorage linkedDataStorage, final CallMetrics callMetrics) {
+
+        this.linkedDataStorage = linkedDataStorage;
+        this.callMetrics = callMetrics;
+    }
+
+    public LinkedDataStorage getLinkedDataStorage() {
+
+        return this.linkedDataStorage;
+    }
+
+    @Override
+    public void init(final Properties config) throws LinkedDataStorageException {
+
+        this.linkedDataStorage.init(config);
+    }
+
+    @Override
+    public void shutdown() throws LinkedDataStorageException {
+
+        this.linkedDataStorage.shutdown();
+    }
+
+    @Override
+    public HashMap<String, String> health(final Properties properties) {
+
+        return this.linkedDataStorage.health(properties);
+    }
+
+    @Override
+    public String getResource(final String resource, final String format) throws LinkedDataStorageException {
+
+        return this.time("getResource", () -> this.linkedDataStorage.getResource(resource, format));
+    }
+
+    @Override
+    public String getResource(final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.time("getResource", () -> this.linkedDataStorage.getResource(resource, format, isAuthorized));
+    }
+
+    @Override
+    public String getResource(final String graph, final String resource, final String format) throws LinkedDataStorageException {
+
+        return this.time("getResource", () -> this.linkedDataStorage.getResource(graph, resource, format));
+    }
+
+    @Override
+    public String getResource(final String graph, final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.time("getResource", () -> this.linkedDataStorage.getResource(graph, resource, format, isAuthorized));
+    }
+
+    @Override
+    public boolean getResource(final String graph, final String resource, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+
+            final boolean found = this.linkedDataStorage.getResource(graph, resource, format, isAuthorized, outputStream);
+            failed = false;
+
+            return found;
+        }
+        finally {
+
+            this.callMetrics.record("getResource", System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public ResourceRepresentation getResourceRepresentation(final String graph, final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+
+            final ResourceRepresentation representation = this.linkedDataStorage.getResourceRepresentation(graph, resource, format, isAuthorized);
+            failed = false;
+
+            return representation;
+        }
+        finally {
+
+            this.callMetrics.record("getResourceRepresentation", System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public boolean getResourceRepresentation(final String graph, final String resource, final String format, final boolean isAuthorized, final RepresentationConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+
+            final boolean found = this.linkedDataStorage.getResourceRepresentation(graph, resource, format, isAuthorized, consumer);
+            failed = false;
+
+            return found;
+        }
+        finally {
+
+            this.callMetrics.record("getResourceRepresentation", System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public void getResources(final String graph, final Collection<String> resources, final String format, final boolean isAuthorized, final ResourceConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+
+            this.linkedDataStorage.getResources(graph, resources, format, isAuthorized, consumer);
+            failed = false;
+        }
+        finally {
+
+            this.callMetrics.record("getResources", System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public String getAccessRights(final String resource) throws LinkedDataStorageException {
+
+        return this.time("getAccessRights", () -> this.linkedDataStorage.getAccessRights(resource));
+    }
+
+    @Override
+    public String getAccessRights(final String graph, final String resource) throws LinkedDataStorageException {
+
+        return this.time("getAccessRights", () -> this.linkedDataStorage.getAccessRights(graph, resource));
+    }
+
+    @Override
+    public boolean listAccessRights(final String graph, final BiConsumer<String, String> consumer) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.listAccessRights(graph, consumer);
+    }
+
+    @Override
+    public boolean listResources(final String graph, final Consumer<String> consumer) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.listResources(graph, consumer);
+    }
+
+    @Override
+    public String searchResource(final Properties query, final String format) throws LinkedDataStorageException {
+
+        return this.time("searchResource", () -> this.linkedDataStorage.searchResource(query, format));
+    }
+
+    @Override
+    public String searchResource(final Properties query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.time("searchResource", () -> this.linkedDataStorage.searchResource(query, format, isAuthorized));
+    }
+
+    @Override
+    public String searchResource(final String graph, final Properties query, final String format) throws LinkedDataStorageException {
+
+        return this.time("searchResource", () -> this.linkedDataStorage.searchResource(graph, query, format));
+    }
+
+    @Override
+    public String searchResource(final String graph, final Properties query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.time("searchResource", () -> this.linkedDataStorage.searchResource(graph, query, format, isAuthorized));
+    }
+
+    @Override
+    public boolean searchResource(final String graph, final Properties query, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+
+            final boolean found = this.linkedDataStorage.searchResource(graph, query, format, isAuthorized, outputStream);
+            failed = false;
+
+            return found;
+        }
+        finally {
+
+            this.callMetrics.record("searchResource", System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public String sparqlQuery(final String query, final String format) throws LinkedDataStorageException {
+
+        return this.time("sparqlQuery", () -> this.linkedDataStorage.sparqlQuery(query, format));
+    }
+
+    @Override
+    public String sparqlQuery(final String query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.time("sparqlQuery", () -> this.linkedDataStorage.sparqlQuery(query, format, isAuthorized));
+    }
+
+    @Override
+    public String sparqlQuery(final String graph, final String query, final String format) throws LinkedDataStorageException {
+
+        return this.time("sparqlQuery", () -> this.linkedDataStorage.sparqlQuery(graph, query, format));
+    }
+
+    @Override
+    public String sparqlQuery(final String graph, final String query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.time("sparqlQuery", () -> this.linkedDataStorage.sparqlQuery(graph, query, format, isAuthorized));
+    }
+
+    @Override
+    public boolean sparqlQuery(final String graph, final String query, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+
+            final boolean found = this.linkedDataStorage.sparqlQuery(graph, query, format, isAuthorized, outputStream);
+            failed = false;
+
+            return found;
+        }
+        finally {
+
+            this.callMetrics.record("sparqlQuery", System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public String sparqlUpdate(final String data) throws LinkedDataStorageException {
+
+        return this.time("sparqlUpdate", () -> this.linkedDataStorage.sparqlUpdate(data));
+    }
+
+    private String time(final String method, final Call call) throws LinkedDataStorageException {
+
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+
+            final String result = call.call();
+            failed = false;
+
+            return result;
+        }
+        finally {
+
+            this.callMetrics.record(method, System.nanoTime() - start, failed);
+        }
+    }
+
+    private interface Call {
+
+        String call() throws LinkedDataStorageException;
+    }
+}
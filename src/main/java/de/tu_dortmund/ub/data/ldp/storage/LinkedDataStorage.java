@@ -23,20 +23,73 @@
 package de.tu_dortmund.ub.data.ldp.storage;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Properties;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Linked Data Storage Interface
  *
+ * An implementation is initialized once at server start and shared by all request threads, so it has to be
+ * thread-safe.
+ *
+ * The methods with an {@link OutputStream} parameter are the streaming variants used by the search and SPARQL
+ * endpoints: they write the UTF-8 encoded result directly to the response, so the first bytes can go out before the
+ * backend has finished.
+ * Their default implementations fall back to the {@code String} methods; implementations should override them to
+ * keep the memory per request bounded regardless of the result size.
+ *
+ * Resources are served with {@link #getResourceRepresentation(String, String, String, boolean, RepresentationConsumer)},
+ * which delivers the access rights and then streams the representation in one call.
+ *
  * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
  * @version 2015-08-15
  *
  */
 public interface LinkedDataStorage {
 
+    /**
+     * Receives the results of {@link #getResources(String, Collection, String, boolean, ResourceConsumer)}.
+     */
+    @FunctionalInterface
+    interface ResourceConsumer {
+
+        /**
+         * @param representation the representation or {@code null} if the resource does not exist
+         */
+        void accept(String resource, String accessRights, String representation) throws IOException;
+    }
+
+    /**
+     * Receives the access rights of a resource read with
+     * {@link #getResourceRepresentation(String, String, String, boolean, RepresentationConsumer)} before its
+     * representation.
+     */
+    @FunctionalInterface
+    interface RepresentationConsumer {
+
+        /**
+         * @param lastModified milliseconds since the epoch or {@code 0} if unknown
+         * @return the stream the representation is written to or {@code null} to skip it, e.g. if access is denied
+         */
+        OutputStream accept(String accessRights, long lastModified) throws IOException;
+    }
+
     void init(Properties config) throws LinkedDataStorageException;
 
+    /**
+     * Releases connections and clients opened in {@link #init(Properties)}. Called once when the server stops.
+     */
+    default void shutdown() throws LinkedDataStorageException {
+    }
+
     HashMap<String,String> health(Properties properties);
 
 
@@ -48,11 +101,110 @@ public interface LinkedDataStorage {
 
     String getResource(String graph, String resource, String format, boolean isAuthorized) throws LinkedDataStorageException;
 
+    /**
+     * @return {@code false} if the resource does not exist; nothing has been written then
+     */
+    default boolean getResource(String graph, String resource, String format, boolean isAuthorized, OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        return write(this.getResource(graph, resource, format, isAuthorized), outputStream);
+    }
+
+    /**
+     * Fetches the representation of a resource together with its access rights, so the endpoints need one backend call
+     * per resource instead of two.
+     *
+     * The default implementation calls {@link #getResource(String, String, String, boolean)} and - if the resource
+     * exists - {@link #getAccessRights(String, String)}; implementations should override it to read both at once.
+     *
+     * @return the representation or {@code null} if the resource does not exist
+     */
+    default ResourceRepresentation getResourceRepresentation(String graph, String resource, String format, boolean isAuthorized) throws LinkedDataStorageException {
+
+        final String representation = this.getResource(graph, resource, format, isAuthorized);
+
+        return representation != null ? new ResourceRepresentation(representation, this.getAccessRights(graph, resource), 0) : null;
+    }
+
+    /**
+     * Streaming variant of {@link #getResourceRepresentation(String, String, String, boolean)}: passes the access rights
+     * to {@code consumer} and writes the UTF-8 encoded representation to the stream it returns.
+     *
+     * The default implementation falls back to {@link #getResourceRepresentation(String, String, String, boolean)};
+     * implementations should override it to keep the memory per request bounded regardless of the size of the resource.
+     *
+     * @return {@code false} if the resource does not exist; {@code consumer} has not been called then
+     */
+    default boolean getResourceRepresentation(String graph, String resource, String format, boolean isAuthorized, RepresentationConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        final ResourceRepresentation representation = this.getResourceRepresentation(graph, resource, format, isAuthorized);
+
+        if (representation == null) {
+
+            return false;
+        }
+
+        final OutputStream outputStream = consumer.accept(representation.getAccessRights(), representation.getLastModified());
+
+        if (outputStream != null) {
+
+            write(representation.getRepresentation(), outputStream);
+        }
+
+        return true;
+    }
+
+    /**
+     * Fetches the access rights and representations of several resources, e.g. with one backend query for the whole
+     * set. {@code consumer} is called once per resource as soon as its result is available; the caller checks the
+     * access rights of each resource before it passes the representation on.
+     *
+     * The default implementation calls {@link #getResourceRepresentation(String, String, String, boolean)} for one
+     * resource after the other; the access rights of a resource that does not exist are {@code null}.
+     */
+    default void getResources(String graph, Collection<String> resources, String format, boolean isAuthorized, ResourceConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        for (String resource : resources) {
+
+            final ResourceRepresentation representation = this.getResourceRepresentation(graph, resource, format, isAuthorized);
+
+            if (representation != null) {
+
+                consumer.accept(resource, representation.getAccessRights(), representation.getRepresentation());
+            }
+            else {
+
+                consumer.accept(resource, null, null);
+            }
+        }
+    }
+
 
     String getAccessRights(String resource) throws LinkedDataStorageException;
 
     String getAccessRights(String graph, String resource) throws LinkedDataStorageException;
 
+    /**
+     * Passes every resource of the graph whose access rights are not {@code public} to {@code consumer}, together with
+     * its access rights. The platform builds its access rights index from it at start.
+     *
+     * @return {@code false} if the storage cannot list them, as the default implementation
+     */
+    default boolean listAccessRights(String graph, BiConsumer<String, String> consumer) throws LinkedDataStorageException {
+
+        return false;
+    }
+
+    /**
+     * Passes every resource of the graph - every subject IRI - to {@code consumer}; a resource may be passed more than
+     * once. The platform builds the filter of its negative lookup cache from it at start.
+     *
+     * @return {@code false} if the storage cannot list them, as the default implementation
+     */
+    default boolean listResources(String graph, Consumer<String> consumer) throws LinkedDataStorageException {
+
+        return false;
+    }
+
 
     String searchResource(Properties query, String format) throws LinkedDataStorageException;
 
@@ -62,6 +214,14 @@ public interface LinkedDataStorage {
 
     String searchResource(String graph, Properties query, String format, boolean isAuthorized) throws LinkedDataStorageException;
 
+    /**
+     * @return {@code false} if there is no result; nothing has been written then
+     */
+    default boolean searchResource(String graph, Properties query, String format, boolean isAuthorized, OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        return write(this.searchResource(graph, query, format, isAuthorized), outputStream);
+    }
+
 
     String sparqlQuery(String query, String format) throws LinkedDataStorageException;
 
@@ -71,7 +231,34 @@ public interface LinkedDataStorage {
 
     String sparqlQuery(String graph, String query, String format, boolean isAuthorized) throws LinkedDataStorageException;
 
+    /**
+     * @return {@code false} if there is no result; nothing has been written then
+     */
+    default boolean sparqlQuery(String graph, String query, String format, boolean isAuthorized, OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        return write(this.sparqlQuery(graph, query, format, isAuthorized), outputStream);
+    }
+
 
     String sparqlUpdate(String data) throws LinkedDataStorageException;
 
+
+    /**
+     * Writes a materialized result of the {@code String} methods; the stream is flushed but not closed.
+     *
+     * @return {@code false} if {@code result} is {@code null}
+     */
+    static boolean write(String result, OutputStream outputStream) throws IOException {
+
+        if (result == null) {
+
+            return false;
+        }
+
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        writer.write(result);
+        writer.flush();
+
+        return true;
+    }
 }
@@ -0,0 +1,562 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage;
+
+import de.tu_dortmund.ub.util.collections.ScalableBloomFilter;
+import de.tu_dortmund.ub.util.concurrent.GraphRebuilder;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Linked Data Storage decorator that answers lookups of resources that do not exist without calling the backend.
+ *
+ * Two layers are asked before the backend: a Bloom filter of the known subjects per graph - built by {@link #build}
+ * in one pass over {@link LinkedDataStorage#listResources(String, Consumer)}, if the storage can list them, and grown
+ * while it is read - and a bounded LRU set
+ * of the resources the backend has recently reported as missing, e.g. the broken links crawlers ask for again and
+ * again.
+ *
+ * An update through {@link #sparqlUpdate(String)} adds the subjects it names to the filters and empties the LRU set;
+ * if its subjects cannot be determined, the filters are dropped and rebuilt on a background thread. A miss that was
+ * read while an update was running is not remembered. Only the resource lookups with graph are answered; everything
+ * else is passed through.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class NegativeLookupLinkedDataStorage implements LinkedDataStorage {
+
+    private static Logger logger = Logger.getLogger(NegativeLookupLinkedDataStorage.class.getName());
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final char   SEPARATOR                  = '\u0000';
+
+    private final LinkedDataStorage linkedDataStorage;
+    private final String            serviceName;
+    private final int               maxSize;
+
+    private final ConcurrentHashMap<String, ScalableBloomFilter> filters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long>                sizes   = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Boolean>                 missing = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong                                     updates = new AtomicLong();
+
+    private final GraphRebuilder<ScalableBloomFilter> rebuilder;
+
+    private final LongAdder lookups        = new LongAdder();
+    private final LongAdder filtered       = new LongAdder();
+    private final LongAdder remembered     = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * @param maxSize maximum number of missing resources remembered; {@code 0} remembers none
+     */
+    public NegativeLookupLinkedDataStorage(final String serviceName, final LinkedDataStorage linkedDataStorage, final int maxSize) {
+
+        this.serviceName = serviceName;
+        this.linkedDataStorage = linkedDataStorage;
+        this.maxSize = maxSize;
+        this.rebuilder = new GraphRebuilder<>(serviceName, "negative lookup filters", this, this::read, this::publish);
+    }
+
+    public LinkedDataStorage getLinkedDataStorage() {
+
+        return this.linkedDataStorage;
+    }
+
+    /**
+     * Builds the filters of the graphs from the subjects the storage lists. Graphs it cannot list get no filter.
+     */
+    public synchronized void build(final Collection<String> graphs) {
+
+        this.filters.clear();
+        this.rebuilder.cancel();
+
+        this.filters.putAll(this.read(graphs));
+    }
+
+    /**
+     * @return the filters of the graphs the storage can list
+     */
+    private Map<String, ScalableBloomFilter> read(final Collection<String> graphs) {
+
+        final Map<String, ScalableBloomFilter> read = new LinkedHashMap<>();
+
+        for (String graph : graphs) {
+
+            final long start = System.nanoTime();
+
+            // sized from the last read of the graph - with room for the resources created until the next rebuild - so a
+            // rebuild fills a single filter; the first read grows it
+            final long size = this.sizes.getOrDefault(graph, 0L);
+            final ScalableBloomFilter filter = new ScalableBloomFilter(Math.max(1024, size + size / 2), FALSE_POSITIVE_PROBABILITY);
+
+            try {
+
+                if (!this.linkedDataStorage.listResources(graph, filter::add)) {
+
+                    logger.info(String.format("[%s] no negative lookup filter for graph '%s' - the storage cannot list its resources", this.serviceName, graph));
+                    continue;
+                }
+
+                read.put(graph, filter);
+                this.sizes.put(graph, filter.getInsertions());
+
+                logger.info(String.format("[%s] negative lookup filter of graph '%s' built in %.1f ms (%d resources, %d KiB)", this.serviceName, graph, (System.nanoTime() - start) / 1e6, filter.getInsertions(), filter.getSize() / 8192));
+            }
+            catch (LinkedDataStorageException | RuntimeException e) {
+
+                logger.error(String.format("[%s] could not build the negative lookup filter of graph '%s'", this.serviceName, graph), e);
+            }
+        }
+
+        return read;
+    }
+
+    /**
+     * @return {@code true} if the resource is known not to exist in the graph
+     */
+    public boolean isMissing(final String graph, final String resource) {
+
+        if (graph == null) {
+
+            return false;
+        }
+
+        this.lookups.increment();
+
+        final ScalableBloomFilter filter = this.filters.get(graph);
+
+        if (filter != null && !filter.mightContain(resource)) {
+
+            this.filtered.increment();
+
+            return true;
+        }
+
+        if (this.maxSize > 0) {
+
+            synchronized (this.missing) {
+
+                if (this.missing.get(key(graph, resource)) != null) {
+
+                    this.remembered.increment();
+
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    public int size() {
+
+        synchronized (this.missing) {
+
+            return this.missing.size();
+        }
+    }
+
+    public long getLookups() {
+
+        return this.lookups.sum();
+    }
+
+    /**
+     * @return the lookups answered by a filter
+     */
+    public long getFiltered() {
+
+        return this.filtered.sum();
+    }
+
+    /**
+     * @return the lookups answered by the set of missing resources
+     */
+    public long getRemembered() {
+
+        return this.remembered.sum();
+    }
+
+    /**
+     * @return the resources a filter let through that the backend reported as missing
+     */
+    public long getFalsePositives() {
+
+        return this.falsePositives.sum();
+    }
+
+    @Override
+    public void init(final Properties config) throws LinkedDataStorageException {
+
+        this.linkedDataStorage.init(config);
+    }
+
+    @Override
+    public void shutdown() throws LinkedDataStorageException {
+
+        this.linkedDataStorage.shutdown();
+    }
+
+    @Override
+    public HashMap<String, String> health(final Properties properties) {
+
+        return this.linkedDataStorage.health(properties);
+    }
+
+    @Override
+    public String getResource(final String resource, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.getResource(resource, format);
+    }
+
+    @Override
+    public String getResource(final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.getResource(resource, format, isAuthorized);
+    }
+
+    @Override
+    public String getResource(final String graph, final String resource, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.getResource(graph, resource, format);
+    }
+
+    @Override
+    public String getResource(final String graph, final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        if (this.isMissing(graph, resource)) {
+
+            return null;
+        }
+
+        final long updates = this.updates.get();
+        final String representation = this.linkedDataStorage.getResource(graph, resource, format, isAuthorized);
+
+        if (representation == null) {
+
+            this.missing(graph, resource, updates);
+        }
+
+        return representation;
+    }
+
+    @Override
+    public boolean getResource(final String graph, final String resource, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        if (this.isMissing(graph, resource)) {
+
+            return false;
+        }
+
+        final long updates = this.updates.get();
+
+        if (!this.linkedDataStorage.getResource(graph, resource, format, isAuthorized, outputStream)) {
+
+            this.missing(graph, resource, updates);
+
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public ResourceRepresentation getResourceRepresentation(final String graph, final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        if (this.isMissing(graph, resource)) {
+
+            return null;
+        }
+
+        final long updates = this.updates.get();
+        final ResourceRepresentation representation = this.linkedDataStorage.getResourceRepresentation(graph, resource, format, isAuthorized);
+
+        if (representation == null) {
+
+            this.missing(graph, resource, updates);
+        }
+
+        return representation;
+    }
+
+    @Override
+    public boolean getResourceRepresentation(final String graph, final String resource, final String format, final boolean isAuthorized, final RepresentationConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        if (this.isMissing(graph, resource)) {
+
+            return false;
+        }
+
+        final long updates = this.updates.get();
+
+        if (!this.linkedDataStorage.getResourceRepresentation(graph, resource, format, isAuthorized, consumer)) {
+
+            this.missing(graph, resource, updates);
+
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public void getResources(final String graph, final Collection<String> resources, final String format, final boolean isAuthorized, final ResourceConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        final List<String> lookups = new ArrayList<>(resources.size());
+
+        for (String resource : resources) {
+
+            if (this.isMissing(graph, resource)) {
+
+                consumer.accept(resource, null, null);
+            }
+            else {
+
+                lookups.add(resource);
+            }
+        }
+
+        if (lookups.isEmpty()) {
+
+            return;
+        }
+
+        final long updates = this.updates.get();
+
+        this.linkedDataStorage.getResources(graph, lookups, format, isAuthorized, (resource, accessRights, representation) -> {
+
+            if (representation == null) {
+
+                this.missing(graph, resource, updates);
+            }
+
+            consumer.accept(resource, accessRights, representation);
+        });
+    }
+
+    @Override
+    public String getAccessRights(final String resource) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.getAccessRights(resource);
+    }
+
+    @Override
+    public String getAccessRights(final String graph, final String resource) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.getAccessRights(graph, resource);
+    }
+
+    @Override
+    public boolean listAccessRights(final String graph, final BiConsumer<String, String> consumer) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.listAccessRights(graph, consumer);
+    }
+
+    @Override
+    public boolean listResources(final String graph, final Consumer<String> consumer) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.listResources(graph, consumer);
+    }
+
+    @Override
+    public String searchResource(final Properties query, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.searchResource(query, format);
+    }
+
+    @Override
+    public String searchResource(final Properties query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.searchResource(query, format, isAuthorized);
+    }
+
+    @Override
+    public String searchResource(final String graph, final Properties query, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.searchResource(graph, query, format);
+    }
+
+    @Override
+    public String searchResource(final String graph, final Properties query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.searchResource(graph, query, format, isAuthorized);
+    }
+
+    @Override
+    public boolean searchResource(final String graph, final Properties query, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        return this.linkedDataStorage.searchResource(graph, query, format, isAuthorized, outputStream);
+    }
+
+    @Override
+    public String sparqlQuery(final String query, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.sparqlQuery(query, format);
+    }
+
+    @Override
+    public String sparqlQuery(final String query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.sparqlQuery(query, format, isAuthorized);
+    }
+
+    @Override
+    public String sparqlQuery(final String graph, final String query, final String format) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.sparqlQuery(graph, query, format);
+    }
+
+    @Override
+    public String sparqlQuery(final String graph, final String query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.linkedDataStorage.sparqlQuery(graph, query, format, isAuthorized);
+    }
+
+    @Override
+    public boolean sparqlQuery(final String graph, final String query, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        return this.linkedDataStorage.sparqlQuery(graph, query, format, isAuthorized, outputStream);
+    }
+
+    @Override
+    public String sparqlUpdate(final String data) throws LinkedDataStorageException {
+
+        try {
+
+            return this.linkedDataStorage.sparqlUpdate(data);
+        }
+        finally {
+
+            // also after a failed update: parts of it may have been written
+            this.updated(data);
+        }
+    }
+
+    private synchronized void updated(final String data) {
+
+        this.updates.incrementAndGet();
+
+        synchronized (this.missing) {
+
+            this.missing.clear();
+        }
+
+        final Set<String> subjects = UpdateSubjects.of(data);
+
+        if (subjects != null) {
+
+            for (ScalableBloomFilter filter : this.filters.values()) {
+
+                for (String subject : subjects) {
+
+                    filter.add(subject);
+                }
+            }
+
+            this.rebuilder.touched(subjects);
+        }
+        else if (!this.filters.isEmpty() || this.rebuilder.isRebuilding()) {
+
+            logger.info(String.format("[%s] the subjects of the update are unknown - rebuilding the negative lookup filters", this.serviceName));
+
+            // without a filter no new resource is reported as missing in the meantime
+            this.rebuilder.rebuild(this.filters.keySet());
+            this.filters.clear();
+        }
+    }
+
+    /**
+     * Adds the filters read by a rebuild, with the subjects added during the read.
+     */
+    private void publish(final Map<String, ScalableBloomFilter> read, final Set<String> touched) {
+
+        for (ScalableBloomFilter filter : read.values()) {
+
+            for (String subject : touched) {
+
+                filter.add(subject);
+            }
+        }
+
+        this.filters.putAll(read);
+    }
+
+    private void missing(final String graph, final String resource, final long updates) {
+
+        if (graph == null) {
+
+            return;
+        }
+
+        if (this.filters.containsKey(graph)) {
+
+            this.falsePositives.increment();
+        }
+
+        if (this.maxSize > 0) {
+
+            synchronized (this.missing) {
+
+                // a miss read before an update may be outdated
+                if (this.updates.get() != updates) {
+
+                    return;
+                }
+
+                this.missing.put(key(graph, resource), Boolean.TRUE);
+
+                final Iterator<String> iterator = this.missing.keySet().iterator();
+
+                while (this.missing.size() > this.maxSize && iterator.hasNext()) {
+
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static String key(final String graph, final String resource) {
+
+        return graph + SEPARATOR + resource;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resource Representation
+ *
+ * The result of {@link LinkedDataStorage#getResourceRepresentation(String, String, String, boolean)}: the
+ * representation of a resource together with its access rights and - if the storage knows it - the time of its last
+ * modification.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class ResourceRepresentation {
+
+    private final String representation;
+    private final String accessRights;
+    private final long   lastModified;
+
+    private byte[] bytes;
+
+    /**
+     * @param lastModified milliseconds since the epoch or {@code 0} if unknown
+     */
+    public ResourceRepresentation(final String representation, final String accessRights, final long lastModified) {
+
+        this.representation = representation;
+        this.accessRights = accessRights;
+        this.lastModified = lastModified;
+    }
+
+    public String getRepresentation() {
+
+        return this.representation;
+    }
+
+    public String getAccessRights() {
+
+        return this.accessRights;
+    }
+
+    /**
+     * @return milliseconds since the epoch or {@code 0} if unknown
+     */
+    public long getLastModified() {
+
+        return this.lastModified;
+    }
+
+    /**
+     * @return the UTF-8 encoded representation; encoded on the first call
+     */
+    public byte[] getBytes() {
+
+        if (this.bytes == null) {
+
+            this.bytes = this.representation.getBytes(StandardCharsets.UTF_8);
+        }
+
+        return this.bytes;
+    }
+
+    /**
+     * @return the size of the UTF-8 encoded representation in bytes
+     */
+    public int getLength() {
+
+        return this.getBytes().length;
+    }
+}
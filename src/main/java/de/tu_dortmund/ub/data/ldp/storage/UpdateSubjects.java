@@ -0,0 +1,162 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Determines the subjects an update passed to {@link LinkedDataStorage#sparqlUpdate(String)} may touch, so indexes
+ * in front of the storage can be brought up to date without a rebuild.
+ *
+ * Prefixed names are expanded with the {@code PREFIX} declarations of the update. The patterns of a {@code WHERE}
+ * clause only select what is written, so the subjects are taken from the templates; a template with a variable as
+ * subject may touch any resource.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class UpdateSubjects {
+
+    // an IRI or a prefixed name at the start of a statement - after a line break, '{', '.' or ';' - is taken as subject
+    private static final Pattern SUBJECT = Pattern.compile("(?:^|[\\n{.;])\\s*(?:<([^<>\\s]*)>|([A-Za-z](?:[\\w-]|\\.(?=[\\w-]))*)?:((?:[\\w-]|\\.(?=[\\w-]))*))");
+
+    private static final Pattern VARIABLE = Pattern.compile("(?:^|[\\n{.])\\s*[?$]\\w");
+
+    private static final Pattern PREFIX = Pattern.compile("\\bPREFIX\\s+([A-Za-z](?:[\\w-]|\\.(?=[\\w-]))*)?:\\s*<([^<>\\s]*)>", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern WHERE = Pattern.compile("\\bWHERE\\s*\\{", Pattern.CASE_INSENSITIVE);
+
+    // graph operations and relative IRIs may touch subjects that are not written out
+    private static final Pattern UNBOUNDED = Pattern.compile("\\b(?:BASE|LOAD|CLEAR|DROP|CREATE|ADD|MOVE|COPY)\\b", Pattern.CASE_INSENSITIVE);
+
+    private UpdateSubjects() {
+    }
+
+    /**
+     * Some IRIs in predicates, objects or literals may be taken as subjects as well; callers only do needless work for
+     * them.
+     *
+     * @return the subject IRIs of an update or of N-Triples / N-Quads lines, {@code null} if the update may touch other
+     * subjects
+     */
+    public static Set<String> of(final String update) {
+
+        if (update == null || UNBOUNDED.matcher(update).find()) {
+
+            return null;
+        }
+
+        final Map<String, String> prefixes = new HashMap<>();
+        final Matcher declarations = PREFIX.matcher(update);
+
+        while (declarations.find()) {
+
+            prefixes.put(declarations.group(1) != null ? declarations.group(1) : "", declarations.group(2));
+        }
+
+        final String templates = templates(declarations.replaceAll(" "));
+
+        if (VARIABLE.matcher(templates).find()) {
+
+            return null;
+        }
+
+        final Set<String> subjects = new LinkedHashSet<>();
+        final Matcher matcher = SUBJECT.matcher(templates);
+
+        while (matcher.find()) {
+
+            if (matcher.group(1) != null) {
+
+                subjects.add(matcher.group(1));
+            }
+            else {
+
+                final String namespace = prefixes.get(matcher.group(2) != null ? matcher.group(2) : "");
+
+                // an undeclared prefix is no name but text in a literal - the storage would reject the update otherwise
+                if (namespace != null) {
+
+                    subjects.add(namespace + matcher.group(3));
+                }
+            }
+        }
+
+        return subjects.isEmpty() && !update.trim().isEmpty() ? null : subjects;
+    }
+
+    /**
+     * @return the update without its {@code WHERE} clauses - except the one of {@code DELETE WHERE}, which is the
+     * template as well
+     */
+    private static String templates(final String update) {
+
+        final StringBuilder templates = new StringBuilder(update.length());
+        final Matcher matcher = WHERE.matcher(update);
+        int position = 0;
+
+        while (matcher.find(position)) {
+
+            final String before = update.substring(0, matcher.start()).trim();
+
+            if (before.regionMatches(true, Math.max(0, before.length() - 6), "DELETE", 0, 6)) {
+
+                templates.append(update, position, matcher.end());
+                position = matcher.end();
+                continue;
+            }
+
+            templates.append(update, position, matcher.start());
+
+            // skip up to the matching brace
+            int depth = 1;
+            int end = matcher.end();
+
+            while (end < update.length() && depth > 0) {
+
+                final char ch = update.charAt(end++);
+
+                if (ch == '{') {
+
+                    depth++;
+                }
+                else if (ch == '}') {
+
+                    depth--;
+                }
+            }
+
+            templates.append(' ');
+            position = end;
+        }
+
+        return templates.append(update, position, update.length()).toString();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.mapped;
+
+import de.tu_dortmund.ub.data.ldp.storage.memory.Terms;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delta
+ *
+ * The inserts and deletes since the last merge, in the order they were made. They are appended to a log
+ * ({@code + statement} or {@code - statement} per line) before they become visible and are replayed from it on start,
+ * so a delta survives a restart until it is merged into the next {@link Generation}.
+ *
+ * Writers are serialized; readers get the immutable list of operations of a subject without locking.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+final class Delta {
+
+    private final Path   log;
+    private final Writer writer;
+
+    private final ConcurrentHashMap<String, List<Operation>> operations = new ConcurrentHashMap<>();
+
+    private volatile int size;
+
+    private Delta(final Path log) throws IOException {
+
+        this.log = log;
+
+        if (Files.exists(log)) {
+
+            try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+
+                    // a torn last line after a crash is skipped
+                    if (line.length() > 2 && (line.charAt(0) == '+' || line.charAt(0) == '-')) {
+
+                        try {
+
+                            this.put(new Operation(line.charAt(0) == '+', Terms.parse(line.substring(2))));
+                        }
+                        catch (IllegalArgumentException | NullPointerException e) {
+
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        this.writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Opens the delta of the log, which is created if it does not exist.
+     */
+    static Delta open(final Path log) throws IOException {
+
+        return new Delta(log);
+    }
+
+    /**
+     * Logs the operations and makes them visible.
+     */
+    synchronized void apply(final List<Operation> operations) throws IOException {
+
+        for (Operation operation : operations) {
+
+            this.writer.write(operation.toString());
+            this.writer.write('\n');
+        }
+
+        this.writer.flush();
+
+        for (Operation operation : operations) {
+
+            this.put(operation);
+        }
+    }
+
+    /**
+     * @return the operations on the statements of {@code subject} or {@code null}
+     */
+    List<Operation> get(final String subject) {
+
+        return this.operations.get(subject);
+    }
+
+    /**
+     * @return the operations by subject
+     */
+    Map<String, List<Operation>> getOperations() {
+
+        return Collections.unmodifiableMap(this.operations);
+    }
+
+    int size() {
+
+        return this.size;
+    }
+
+    Path getLog() {
+
+        return this.log;
+    }
+
+    void close() throws IOException {
+
+        this.writer.close();
+    }
+
+    private void put(final Operation operation) {
+
+        // copy on write, the readers keep the list they have
+        final List<Operation> current = this.operations.get(operation.terms[0]);
+        final List<Operation> operations = new ArrayList<>(current != null ? current.size() + 1 : 1);
+
+        if (current != null) {
+
+            operations.addAll(current);
+        }
+
+        operations.add(operation);
+
+        this.operations.put(operation.terms[0], Collections.unmodifiableList(operations));
+        this.size++;
+    }
+
+    /**
+     * Insert or delete of a statement
+     */
+    static final class Operation {
+
+        final boolean  insert;
+        final String[] terms;
+
+        Operation(final boolean insert, final String[] terms) {
+
+            this.insert = insert;
+            this.terms = terms;
+        }
+
+        /**
+         * @return the statement without the sign, which identifies it
+         */
+        String getKey() {
+
+            return key(this.terms);
+        }
+
+        static String key(final String[] terms) {
+
+            return terms[0] + ' ' + terms[1] + ' ' + terms[2] + (terms[3] != null ? " " + terms[3] : "") + " .";
+        }
+
+        @Override
+        public String toString() {
+
+            return (this.insert ? "+ " : "- ") + this.getKey();
+        }
+    }
+}
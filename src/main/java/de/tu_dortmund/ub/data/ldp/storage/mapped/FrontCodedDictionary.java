@@ -0,0 +1,380 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.mapped;
+
+import de.tu_dortmund.ub.data.ldp.storage.memory.TermDecoder;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Front-Coded Dictionary
+ *
+ * Memory-mapped dictionary of RDF terms in N-Triples syntax. The terms are sorted by their UTF-8 bytes and numbered
+ * from {@code 1}; in blocks of {@value #BLOCK_SIZE} terms the first term is stored in full, the others as the length
+ * of the prefix shared with the previous term plus the remaining suffix. A second file holds the offsets of the
+ * blocks, so a term is found by a binary search over the first terms of the blocks and a scan of one block.
+ *
+ * Since {@code "} sorts before {@code <} and {@code _}, the literals are the first ids.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+final class FrontCodedDictionary implements TermDecoder {
+
+    static final int BLOCK_SIZE = 16;
+
+    @FunctionalInterface
+    interface TermVisitor {
+
+        void visit(int id, String term);
+    }
+
+    private final MappedFile terms;
+    private final MappedFile blocks;
+    private final int        size;
+
+    FrontCodedDictionary(final Path terms, final Path blocks) throws IOException {
+
+        this.terms = new MappedFile(terms);
+        this.blocks = new MappedFile(blocks);
+        this.size = (int) this.blocks.getLong(0);
+    }
+
+    /**
+     * Writes the dictionary.
+     *
+     * @param term the UTF-8 bytes of the {@code i}-th term, in ascending order
+     */
+    static void write(final Path terms, final Path blocks, final int size, final IntFunction<byte[]> term) throws IOException {
+
+        try (OutputStream termStream = new BufferedOutputStream(Files.newOutputStream(terms), 1 << 16);
+             DataOutputStream blockStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(blocks), 1 << 16))) {
+
+            // the first entry of the block file is the number of terms
+            blockStream.writeLong(size);
+
+            final ByteArrayOutputStream block = new ByteArrayOutputStream(4096);
+            long offset = 0;
+            byte[] previous = null;
+
+            for (int i = 0; i < size; i++) {
+
+                final byte[] value = term.apply(i);
+
+                if (i % BLOCK_SIZE == 0) {
+
+                    writeVarint(block, value.length);
+                    block.write(value);
+                }
+                else {
+
+                    final int shared = sharedPrefix(previous, value);
+
+                    writeVarint(block, shared);
+                    writeVarint(block, value.length - shared);
+                    block.write(value, shared, value.length - shared);
+                }
+
+                previous = value;
+
+                if (i % BLOCK_SIZE == BLOCK_SIZE - 1 || i == size - 1) {
+
+                    // a block must not cross a segment of the mapping
+                    if ((offset & (MappedFile.SEGMENT_SIZE - 1)) + block.size() > MappedFile.SEGMENT_SIZE) {
+
+                        final long padding = MappedFile.SEGMENT_SIZE - (offset & (MappedFile.SEGMENT_SIZE - 1));
+
+                        for (long p = 0; p < padding; p++) {
+
+                            termStream.write(0);
+                        }
+
+                        offset += padding;
+                    }
+
+                    blockStream.writeLong(offset);
+                    block.writeTo(termStream);
+
+                    offset += block.size();
+                    block.reset();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the id of the term or {@code 0} if it is not in the dictionary
+     */
+    int lookup(final String term) {
+
+        final byte[] key = term.getBytes(StandardCharsets.UTF_8);
+
+        // the last block whose first term is not greater than the key
+        int low = 0;
+        int high = (this.size + BLOCK_SIZE - 1) / BLOCK_SIZE - 1;
+        int block = -1;
+
+        while (low <= high) {
+
+            final int middle = (low + high) >>> 1;
+
+            if (this.compareFirst(middle, key) <= 0) {
+
+                block = middle;
+                low = middle + 1;
+            }
+            else {
+
+                high = middle - 1;
+            }
+        }
+
+        if (block < 0) {
+
+            return 0;
+        }
+
+        final Cursor cursor = new Cursor(block * BLOCK_SIZE + 1);
+
+        for (int id = block * BLOCK_SIZE + 1; id <= Math.min(this.size, (block + 1) * BLOCK_SIZE); id++) {
+
+            cursor.advance();
+
+            final int compare = cursor.compareTo(key);
+
+            if (compare == 0) {
+
+                return id;
+            }
+            if (compare > 0) {
+
+                break;
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public String decode(final int id) {
+
+        final Cursor cursor = new Cursor(id);
+        cursor.advance();
+
+        return cursor.toString();
+    }
+
+    @Override
+    public void write(final int id, final OutputStream outputStream) throws IOException {
+
+        final Cursor cursor = new Cursor(id);
+        cursor.advance();
+
+        outputStream.write(cursor.buffer, 0, cursor.length);
+    }
+
+    /**
+     * Decodes the terms {@code from} to {@code to} (exclusive) in one pass.
+     */
+    void scan(final int from, final int to, final TermVisitor visitor) {
+
+        final Cursor cursor = new Cursor(from);
+
+        for (int id = from; id < to && id <= this.size; id++) {
+
+            cursor.advance();
+            visitor.visit(id, cursor.toString());
+        }
+    }
+
+    int size() {
+
+        return this.size;
+    }
+
+    /**
+     * @return bytes of the mapped files
+     */
+    long getBytes() {
+
+        return this.terms.size() + this.blocks.size();
+    }
+
+    private int compareFirst(final int block, final byte[] key) {
+
+        long position = this.blocks.getLong(8L * (block + 1));
+        int length = 0;
+
+        for (int shift = 0; ; shift += 7) {
+
+            final byte b = this.terms.get(position++);
+            length |= (b & 0x7f) << shift;
+
+            if (b >= 0) {
+
+                break;
+            }
+        }
+
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+
+            final int compare = (this.terms.get(position + i) & 0xff) - (key[i] & 0xff);
+
+            if (compare != 0) {
+
+                return compare;
+            }
+        }
+
+        return length - key.length;
+    }
+
+    private static int sharedPrefix(final byte[] a, final byte[] b) {
+
+        final int length = Math.min(a.length, b.length);
+
+        int i = 0;
+
+        while (i < length && a[i] == b[i]) {
+
+            i++;
+        }
+
+        return i;
+    }
+
+    private static void writeVarint(final OutputStream outputStream, int value) throws IOException {
+
+        while ((value & ~0x7f) != 0) {
+
+            outputStream.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+
+        outputStream.write(value);
+    }
+
+    /**
+     * Decodes the terms of a block one after the other into a reusable buffer.
+     */
+    private final class Cursor {
+
+        private byte[] buffer = new byte[128];
+        private int    length;
+        private long   position;
+        private int    next;
+
+        /**
+         * Positions the cursor, so that the next {@link #advance()} decodes {@code id}.
+         */
+        private Cursor(final int id) {
+
+            this.next = (id - 1) / BLOCK_SIZE * BLOCK_SIZE + 1;
+
+            while (this.next < id) {
+
+                this.advance();
+            }
+        }
+
+        private void advance() {
+
+            if ((this.next - 1) % BLOCK_SIZE == 0) {
+
+                this.position = FrontCodedDictionary.this.blocks.getLong(8L * ((this.next - 1) / BLOCK_SIZE + 1));
+                this.length = this.read(0, this.readVarint());
+            }
+            else {
+
+                final int shared = this.readVarint();
+
+                this.length = this.read(shared, this.readVarint());
+            }
+
+            this.next++;
+        }
+
+        private int read(final int from, final int count) {
+
+            if (from + count > this.buffer.length) {
+
+                this.buffer = Arrays.copyOf(this.buffer, Math.max(from + count, this.buffer.length * 2));
+            }
+
+            for (int i = 0; i < count; i++) {
+
+                this.buffer[from + i] = FrontCodedDictionary.this.terms.get(this.position++);
+            }
+
+            return from + count;
+        }
+
+        private int readVarint() {
+
+            int value = 0;
+
+            for (int shift = 0; ; shift += 7) {
+
+                final byte b = FrontCodedDictionary.this.terms.get(this.position++);
+                value |= (b & 0x7f) << shift;
+
+                if (b >= 0) {
+
+                    return value;
+                }
+            }
+        }
+
+        private int compareTo(final byte[] key) {
+
+            for (int i = 0; i < Math.min(this.length, key.length); i++) {
+
+                final int compare = (this.buffer[i] & 0xff) - (key[i] & 0xff);
+
+                if (compare != 0) {
+
+                    return compare;
+                }
+            }
+
+            return this.length - key.length;
+        }
+
+        @Override
+        public String toString() {
+
+            return new String(this.buffer, 0, this.length, StandardCharsets.UTF_8);
+        }
+    }
+}
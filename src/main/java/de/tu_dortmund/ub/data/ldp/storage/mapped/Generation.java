@@ -0,0 +1,142 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.mapped;
+
+import de.tu_dortmund.ub.data.ldp.storage.memory.RdfSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Generation
+ *
+ * One immutable, complete set of index files in a directory named by its number, e.g. {@code 00000003}. A generation
+ * is written to a temporary directory and renamed when it is complete, so a directory with a number is always
+ * complete. Opening it only maps the files.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+final class Generation {
+
+    static final String MANIFEST = "manifest.properties";
+
+    private final long                 number;
+    private final FrontCodedDictionary dictionary;
+    private final MappedQuadStore      store;
+    private final RdfSerializer        serializer;
+    private final int                  literals;
+    private final long                 lastModified;
+
+    private Generation(final long number, final Path directory) throws IOException {
+
+        final Properties manifest = new Properties();
+
+        try (InputStream inputStream = Files.newInputStream(directory.resolve(MANIFEST))) {
+
+            manifest.load(inputStream);
+        }
+
+        this.number = number;
+        this.dictionary = new FrontCodedDictionary(directory.resolve("terms"), directory.resolve("terms.blocks"));
+        this.store = new MappedQuadStore(directory);
+        this.serializer = new RdfSerializer(this.dictionary);
+        this.literals = Integer.parseInt(manifest.getProperty("literals", "0"));
+        this.lastModified = Files.getLastModifiedTime(directory.resolve(MANIFEST)).toMillis();
+    }
+
+    /**
+     * @return the newest generation in {@code root} or {@code null} if there is none
+     */
+    static Generation open(final Path root) throws IOException {
+
+        final long number = latest(root);
+
+        return number > 0 ? new Generation(number, directory(root, number)) : null;
+    }
+
+    /**
+     * @return the number of the newest generation or {@code 0}
+     */
+    static long latest(final Path root) throws IOException {
+
+        long latest = 0;
+
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(root, "[0-9][0-9][0-9][0-9][0-9][0-9][0-9][0-9]")) {
+
+            for (Path directory : directories) {
+
+                latest = Math.max(latest, Long.parseLong(directory.getFileName().toString()));
+            }
+        }
+
+        return latest;
+    }
+
+    static Path directory(final Path root, final long number) {
+
+        return root.resolve(String.format("%08d", number));
+    }
+
+    long getNumber() {
+
+        return this.number;
+    }
+
+    FrontCodedDictionary getDictionary() {
+
+        return this.dictionary;
+    }
+
+    MappedQuadStore getStore() {
+
+        return this.store;
+    }
+
+    RdfSerializer getSerializer() {
+
+        return this.serializer;
+    }
+
+    /**
+     * @return the number of literals, which are the ids {@code 1} to {@code literals}
+     */
+    int getLiterals() {
+
+        return this.literals;
+    }
+
+    /**
+     * @return the time the generation was written, in milliseconds since the epoch
+     */
+    long getLastModified() {
+
+        return this.lastModified;
+    }
+}
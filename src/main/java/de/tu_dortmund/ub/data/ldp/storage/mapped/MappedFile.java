@@ -0,0 +1,90 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.mapped;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Mapped File
+ *
+ * Read-only memory mapping of a file of any size in segments of 1 GB. The writers align their records, so that no
+ * record crosses a segment boundary. Absolute reads do not change the buffers, so the file can be read by any number
+ * of threads.
+ *
+ * The mapping stays valid after the channel is closed and is released by the garbage collector.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+final class MappedFile {
+
+    static final int  SEGMENT_SHIFT = 30;
+    static final long SEGMENT_SIZE  = 1L << SEGMENT_SHIFT;
+
+    private static final int SEGMENT_MASK = (int) SEGMENT_SIZE - 1;
+
+    private final MappedByteBuffer[] segments;
+    private final long               size;
+
+    MappedFile(final Path file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            this.size = channel.size();
+            this.segments = new MappedByteBuffer[(int) ((this.size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+
+            for (int i = 0; i < this.segments.length; i++) {
+
+                final long position = (long) i << SEGMENT_SHIFT;
+
+                this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, this.size - position));
+            }
+        }
+    }
+
+    byte get(final long position) {
+
+        return this.segments[(int) (position >>> SEGMENT_SHIFT)].get((int) position & SEGMENT_MASK);
+    }
+
+    int getInt(final long position) {
+
+        return this.segments[(int) (position >>> SEGMENT_SHIFT)].getInt((int) position & SEGMENT_MASK);
+    }
+
+    long getLong(final long position) {
+
+        return this.segments[(int) (position >>> SEGMENT_SHIFT)].getLong((int) position & SEGMENT_MASK);
+    }
+
+    long size() {
+
+        return this.size;
+    }
+}
@@ -0,0 +1,1043 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.mapped;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+import de.tu_dortmund.ub.data.ldp.storage.ResourceRepresentation;
+import de.tu_dortmund.ub.data.ldp.storage.memory.RdfSerializer;
+import de.tu_dortmund.ub.data.ldp.storage.memory.StatementBuffer;
+import de.tu_dortmund.ub.data.ldp.storage.memory.TermDictionary;
+import de.tu_dortmund.ub.data.ldp.storage.memory.Terms;
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Mapped Linked Data Storage
+ *
+ * {@link LinkedDataStorage} for read-mostly data on immutable, memory-mapped index files: a front-coded term
+ * dictionary and the quads in four sorted permutations ({@link Generation}). Nothing is loaded at start - the files are
+ * mapped and the page cache of the operating system does the caching - so the heap stays small regardless of the size
+ * of the data.
+ *
+ * Updates ({@code INSERT DATA} / {@code DELETE DATA} with one N-Triples or N-Quads statement per line) go into a
+ * {@link Delta}, which is logged, consulted for the subjects it touches and merged into a new generation in the
+ * background once it has {@code storage.mapped.merge.threshold} operations.
+ *
+ * Configuration:
+ * <ul>
+ *     <li>{@code storage.mapped.directory} - directory of the generations and the delta logs; the first generation is
+ *     written by {@link MappedStoreWriter}</li>
+ *     <li>{@code storage.mapped.graph.<name>} - IRI of the graph {@code <name>}; unmapped names match all graphs</li>
+ *     <li>{@code storage.mapped.merge.threshold} - operations in the delta that start a merge (default 100,000)</li>
+ *     <li>{@code storage.mapped.accessrights.predicate} - predicate of the access rights (default
+ *     {@code dcterms:accessRights}); resources without one are {@code public}</li>
+ * </ul>
+ *
+ * SPARQL queries are not supported; {@code searchResource} finds the subjects with a literal containing {@code q}.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class MappedLinkedDataStorage implements LinkedDataStorage {
+
+    public static final String DIRECTORY_IDENTIFIER              = "storage.mapped.directory";
+    public static final String GRAPH_IDENTIFIER                  = "storage.mapped.graph";
+    public static final String MERGE_THRESHOLD_IDENTIFIER        = "storage.mapped.merge.threshold";
+    public static final String ACCESSRIGHTS_PREDICATE_IDENTIFIER = "storage.mapped.accessrights.predicate";
+
+    private static final String ACCESSRIGHTS_PREDICATE = "http://purl.org/dc/terms/accessRights";
+    private static final String LOG_PREFIX             = "delta-";
+    private static final String LOG_SUFFIX             = ".nq";
+
+    private static Logger logger = Logger.getLogger(MappedLinkedDataStorage.class.getName());
+
+    private final HashMap<String, String> graphs  = new HashMap<>();
+    private final AtomicBoolean           merging = new AtomicBoolean();
+    private final Object                  lock    = new Object();
+
+    private String          serviceName;
+    private Path            root;
+    private String          accessRights;
+    private int             mergeThreshold;
+    private ExecutorService merger;
+
+    private volatile State state;
+
+    @Override
+    public void init(final Properties config) throws LinkedDataStorageException {
+
+        this.serviceName = config.getProperty("service.name");
+
+        final String directory = config.getProperty(DIRECTORY_IDENTIFIER);
+
+        if (directory == null) {
+
+            throw new LinkedDataStorageException("'" + DIRECTORY_IDENTIFIER + "' is missing");
+        }
+
+        for (String key : config.stringPropertyNames()) {
+
+            if (key.startsWith(GRAPH_IDENTIFIER + ".")) {
+
+                this.graphs.put(key.substring(GRAPH_IDENTIFIER.length() + 1), "<" + config.getProperty(key).trim() + ">");
+            }
+        }
+
+        this.accessRights = "<" + config.getProperty(ACCESSRIGHTS_PREDICATE_IDENTIFIER, ACCESSRIGHTS_PREDICATE).trim() + ">";
+        this.mergeThreshold = Integer.parseInt(config.getProperty(MERGE_THRESHOLD_IDENTIFIER, "100000").trim());
+        this.root = Paths.get(directory);
+
+        try {
+
+            final long start = System.nanoTime();
+
+            Files.createDirectories(this.root);
+
+            final Generation base = Generation.open(this.root);
+            final long number = base != null ? base.getNumber() : 0;
+
+            this.cleanUp(number);
+
+            // delta-<n>.nq holds the changes to be merged into generation n; at most a frozen and a current one
+            final TreeMap<Long, Path> logs = this.logs();
+            final Delta frozen = logs.size() > 1 ? Delta.open(logs.firstEntry().getValue()) : null;
+            final Delta current = Delta.open(logs.isEmpty() ? this.log(number + 1) : logs.lastEntry().getValue());
+
+            this.state = new State(base, frozen, current);
+            this.merger = Executors.newSingleThreadExecutor(runnable -> {
+
+                final Thread thread = new Thread(runnable, "ldp-mapped-merge");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+            logger.info(String.format("[%s] mapped store '%s' opened in %.1f ms: generation %d, %d quads, %d terms, %d operations in the delta",
+                    this.serviceName, this.root, (System.nanoTime() - start) / 1e6, number,
+                    base != null ? base.getStore().size() : 0, base != null ? base.getDictionary().size() : 0,
+                    current.size() + (frozen != null ? frozen.size() : 0)));
+
+            if (frozen != null) {
+
+                // a merge was interrupted
+                this.scheduleMerge();
+            }
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException("could not open '" + this.root + "'", e);
+        }
+    }
+
+    @Override
+    public void shutdown() throws LinkedDataStorageException {
+
+        if (this.merger != null) {
+
+            // an interrupted merge leaves a temporary directory, which is removed on the next start
+            this.merger.shutdownNow();
+        }
+
+        final State state = this.state;
+
+        try {
+
+            if (state != null) {
+
+                state.current.close();
+
+                if (state.frozen != null) {
+
+                    state.frozen.close();
+                }
+            }
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public HashMap<String, String> health(final Properties properties) {
+
+        final State state = this.state;
+        final HashMap<String, String> health = new HashMap<>();
+
+        if (state == null) {
+
+            health.put("mapped", "not opened");
+        }
+        else {
+
+            final Generation base = state.base;
+
+            health.put("mapped", String.format("generation = %d, quads = %d, terms = %d, delta = %d, bytes = %d%s",
+                    base != null ? base.getNumber() : 0, base != null ? base.getStore().size() : 0, base != null ? base.getDictionary().size() : 0,
+                    state.current.size() + (state.frozen != null ? state.frozen.size() : 0),
+                    base != null ? base.getStore().getBytes() + base.getDictionary().getBytes() : 0,
+                    this.merging.get() ? ", merging" : ""));
+        }
+
+        return health;
+    }
+
+    @Override
+    public String getResource(final String resource, final String format) throws LinkedDataStorageException {
+
+        return this.getResource(null, resource, format, false);
+    }
+
+    @Override
+    public String getResource(final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.getResource(null, resource, format, isAuthorized);
+    }
+
+    @Override
+    public String getResource(final String graph, final String resource, final String format) throws LinkedDataStorageException {
+
+        return this.getResource(graph, resource, format, false);
+    }
+
+    @Override
+    public String getResource(final String graph, final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try {
+
+            return this.getResource(graph, resource, format, isAuthorized, outputStream) ? new String(outputStream.toByteArray(), StandardCharsets.UTF_8) : null;
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean getResource(final String graph, final String resource, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        if (!RdfSerializer.isSupported(format)) {
+
+            throw new LinkedDataStorageException("unsupported format: " + format);
+        }
+
+        final State state = this.state;
+        final String subject = "<" + resource + ">";
+        final String graphTerm = graph != null ? this.graphs.get(graph) : null;
+
+        if (!state.isChanged(subject)) {
+
+            // served from the mapped files only
+            final Generation base = state.base;
+            final int s = base != null ? base.getDictionary().lookup(subject) : 0;
+            final int g = graphTerm != null && s != 0 ? base.getDictionary().lookup(graphTerm) : -1;
+
+            if (s == 0 || g == 0) {
+
+                return false;
+            }
+
+            final StatementBuffer statements = new StatementBuffer();
+
+            base.getStore().match(g, s, 0, 0, statements);
+
+            if (statements.size() == 0) {
+
+                return false;
+            }
+
+            base.getSerializer().write(s, statements.getStatements(), statements.size(), format, outputStream);
+
+            return true;
+        }
+
+        final Map<String, String[]> statements = this.statements(state, subject, graphTerm);
+
+        if (statements.isEmpty()) {
+
+            return false;
+        }
+
+        final TermDictionary dictionary = new TermDictionary(4 * statements.size());
+        final StatementBuffer buffer = new StatementBuffer();
+        final int s = dictionary.encode(subject);
+
+        for (String[] terms : statements.values()) {
+
+            buffer.accept(terms[3] != null ? dictionary.encode(terms[3]) : 0, s, dictionary.encode(terms[1]), dictionary.encode(terms[2]));
+        }
+
+        new RdfSerializer(dictionary).write(s, buffer.getStatements(), buffer.size(), format, outputStream);
+
+        return true;
+    }
+
+    @Override
+    public ResourceRepresentation getResourceRepresentation(final String graph, final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final String[] accessRights = new String[1];
+        final long[] lastModified = new long[1];
+
+        try {
+
+            if (!this.getResourceRepresentation(graph, resource, format, isAuthorized, (rights, modified) -> {
+
+                accessRights[0] = rights;
+                lastModified[0] = modified;
+
+                return outputStream;
+            })) {
+
+                return null;
+            }
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+
+        return new ResourceRepresentation(new String(outputStream.toByteArray(), StandardCharsets.UTF_8), accessRights[0], lastModified[0]);
+    }
+
+    /**
+     * Reads the statements of the resource once and takes the access rights from them. Resources served from the
+     * mapped files report the time their generation was written as last modification.
+     */
+    @Override
+    public boolean getResourceRepresentation(final String graph, final String resource, final String format, final boolean isAuthorized, final RepresentationConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        if (!RdfSerializer.isSupported(format)) {
+
+            throw new LinkedDataStorageException("unsupported format: " + format);
+        }
+
+        final State state = this.state;
+        final String subject = "<" + resource + ">";
+        final String graphTerm = graph != null ? this.graphs.get(graph) : null;
+
+        if (!state.isChanged(subject)) {
+
+            final Generation base = state.base;
+            final int s = base != null ? base.getDictionary().lookup(subject) : 0;
+            final int g = graphTerm != null && s != 0 ? base.getDictionary().lookup(graphTerm) : -1;
+
+            if (s == 0 || g == 0) {
+
+                return false;
+            }
+
+            final StatementBuffer statements = new StatementBuffer();
+
+            base.getStore().match(g, s, 0, 0, statements);
+
+            if (statements.size() == 0) {
+
+                return false;
+            }
+
+            final int accessRights = statements.object(base.getDictionary().lookup(this.accessRights));
+            final OutputStream outputStream = consumer.accept(accessRights != 0 ? Terms.value(base.getDictionary().decode(accessRights)) : "public", base.getLastModified());
+
+            if (outputStream != null) {
+
+                base.getSerializer().write(s, statements.getStatements(), statements.size(), format, outputStream);
+            }
+
+            return true;
+        }
+
+        final Map<String, String[]> statements = this.statements(state, subject, graphTerm);
+
+        if (statements.isEmpty()) {
+
+            return false;
+        }
+
+        final TermDictionary dictionary = new TermDictionary(4 * statements.size());
+        final StatementBuffer buffer = new StatementBuffer();
+        final int s = dictionary.encode(subject);
+        String accessRights = "public";
+
+        for (String[] terms : statements.values()) {
+
+            buffer.accept(terms[3] != null ? dictionary.encode(terms[3]) : 0, s, dictionary.encode(terms[1]), dictionary.encode(terms[2]));
+
+            if (terms[1].equals(this.accessRights)) {
+
+                accessRights = Terms.value(terms[2]);
+            }
+        }
+
+        final OutputStream outputStream = consumer.accept(accessRights, 0);
+
+        if (outputStream != null) {
+
+            new RdfSerializer(dictionary).write(s, buffer.getStatements(), buffer.size(), format, outputStream);
+        }
+
+        return true;
+    }
+
+    @Override
+    public String getAccessRights(final String resource) throws LinkedDataStorageException {
+
+        return this.getAccessRights(null, resource);
+    }
+
+    @Override
+    public String getAccessRights(final String graph, final String resource) throws LinkedDataStorageException {
+
+        final State state = this.state;
+        final String subject = "<" + resource + ">";
+        final String graphTerm = graph != null ? this.graphs.get(graph) : null;
+
+        if (!state.isChanged(subject)) {
+
+            final Generation base = state.base;
+            final int s = base != null ? base.getDictionary().lookup(subject) : 0;
+            final int p = s != 0 ? base.getDictionary().lookup(this.accessRights) : 0;
+            final int g = graphTerm != null && p != 0 ? base.getDictionary().lookup(graphTerm) : -1;
+            final int[] value = { 0 };
+
+            if (p != 0 && g != 0) {
+
+                base.getStore().match(g, s, p, 0, (quadGraph, quadSubject, quadPredicate, object) -> value[0] = object);
+            }
+
+            return value[0] != 0 ? Terms.value(base.getDictionary().decode(value[0])) : "public";
+        }
+
+        for (String[] terms : this.statements(state, subject, graphTerm).values()) {
+
+            if (terms[1].equals(this.accessRights)) {
+
+                return Terms.value(terms[2]);
+            }
+        }
+
+        return "public";
+    }
+
+    @Override
+    public boolean listAccessRights(final String graph, final BiConsumer<String, String> consumer) throws LinkedDataStorageException {
+
+        final State state = this.state;
+        final String graphTerm = graph != null ? this.graphs.get(graph) : null;
+        final Generation base = state.base;
+
+        if (base != null) {
+
+            final FrontCodedDictionary dictionary = base.getDictionary();
+            final int p = dictionary.lookup(this.accessRights);
+            final int g = graphTerm != null && p != 0 ? dictionary.lookup(graphTerm) : -1;
+
+            if (p != 0 && g != 0) {
+
+                base.getStore().match(g, 0, p, 0, (quadGraph, s, quadPredicate, o) -> {
+
+                    final String subject = dictionary.decode(s);
+                    final String value = Terms.value(dictionary.decode(o));
+
+                    // subjects changed by the deltas are listed below
+                    if (Terms.isIri(subject) && !value.equals("public") && !state.isChanged(subject)) {
+
+                        consumer.accept(Terms.value(subject), value);
+                    }
+                });
+            }
+        }
+
+        final Set<String> changed = new HashSet<>();
+
+        for (Delta delta : state.deltas()) {
+
+            changed.addAll(delta.getOperations().keySet());
+        }
+
+        for (String subject : changed) {
+
+            for (String[] terms : this.statements(state, subject, graphTerm).values()) {
+
+                if (terms[1].equals(this.accessRights) && Terms.isIri(subject) && !Terms.value(terms[2]).equals("public")) {
+
+                    consumer.accept(Terms.value(subject), Terms.value(terms[2]));
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean listResources(final String graph, final Consumer<String> consumer) throws LinkedDataStorageException {
+
+        final State state = this.state;
+        final String graphTerm = graph != null ? this.graphs.get(graph) : null;
+        final Generation base = state.base;
+
+        if (base != null) {
+
+            final FrontCodedDictionary dictionary = base.getDictionary();
+            final int g = graphTerm != null ? dictionary.lookup(graphTerm) : -1;
+            final int[] previous = { 0 };
+
+            if (g != 0) {
+
+                // the statements of a subject are adjacent in GSPO order
+                base.getStore().match(g, 0, 0, 0, (quadGraph, s, p, o) -> {
+
+                    if (s != previous[0]) {
+
+                        previous[0] = s;
+
+                        final String subject = dictionary.decode(s);
+
+                        if (Terms.isIri(subject)) {
+
+                            consumer.accept(Terms.value(subject));
+                        }
+                    }
+                });
+            }
+        }
+
+        // subjects inserted since the generation was written; deleted ones may be passed as well
+        for (Delta delta : state.deltas()) {
+
+            for (Map.Entry<String, List<Delta.Operation>> entry : delta.getOperations().entrySet()) {
+
+                for (Delta.Operation operation : entry.getValue()) {
+
+                    if (operation.insert && Terms.isIri(entry.getKey()) && (graphTerm == null || graphTerm.equals(operation.terms[3]))) {
+
+                        consumer.accept(Terms.value(entry.getKey()));
+                        break;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String searchResource(final Properties query, final String format) throws LinkedDataStorageException {
+
+        return this.searchResource(null, query, format, false);
+    }
+
+    @Override
+    public String searchResource(final Properties query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.searchResource(null, query, format, isAuthorized);
+    }
+
+    @Override
+    public String searchResource(final String graph, final Properties query, final String format) throws LinkedDataStorageException {
+
+        return this.searchResource(graph, query, format, false);
+    }
+
+    @Override
+    public String searchResource(final String graph, final Properties query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try {
+
+            return this.searchResource(graph, query, format, isAuthorized, outputStream) ? new String(outputStream.toByteArray(), StandardCharsets.UTF_8) : null;
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Scans the literals of the dictionary - the first ids - and of the delta for {@code q} (case-insensitive);
+     * {@code start} and {@code rows} (default 10) page through the subjects. Deletes in the delta are not taken into
+     * account until they are merged.
+     */
+    @Override
+    public boolean searchResource(final String graph, final Properties query, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        final String q = query.getProperty("q");
+
+        if (q == null || q.trim().isEmpty()) {
+
+            return false;
+        }
+
+        final State state = this.state;
+        final String needle = q.trim().toLowerCase(Locale.ROOT);
+        final String graphTerm = graph != null ? this.graphs.get(graph) : null;
+        final int start = Integer.parseInt(query.getProperty("start", "0"));
+        final int rows = Integer.parseInt(query.getProperty("rows", "10"));
+        final Set<String> subjects = new LinkedHashSet<>();
+
+        final Generation base = state.base;
+        final int g = base != null && graphTerm != null ? base.getDictionary().lookup(graphTerm) : -1;
+
+        if (base != null && g != 0) {
+
+            base.getDictionary().scan(1, base.getLiterals() + 1, (id, term) -> {
+
+                if (subjects.size() < start + rows && Terms.value(term).toLowerCase(Locale.ROOT).contains(needle)) {
+
+                    base.getStore().match(g, 0, 0, id, (quadGraph, subject, predicate, object) -> subjects.add(base.getDictionary().decode(subject)));
+                }
+            });
+        }
+
+        for (Delta delta : state.deltas()) {
+
+            for (List<Delta.Operation> operations : delta.getOperations().values()) {
+
+                for (Delta.Operation operation : operations) {
+
+                    if (operation.insert && Terms.isLiteral(operation.terms[2]) && (graphTerm == null || graphTerm.equals(operation.terms[3]))
+                            && Terms.value(operation.terms[2]).toLowerCase(Locale.ROOT).contains(needle)) {
+
+                        subjects.add(operation.terms[0]);
+                    }
+                }
+            }
+        }
+
+        final List<String> page = new ArrayList<>();
+        int position = 0;
+
+        for (String subject : subjects) {
+
+            if (position++ >= start && page.size() < rows) {
+
+                page.add(subject);
+            }
+        }
+
+        if (page.isEmpty()) {
+
+            return false;
+        }
+
+        RdfSerializer.writeSubjects(page, format, outputStream);
+
+        return true;
+    }
+
+    @Override
+    public String sparqlQuery(final String query, final String format) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(null, query, format, false);
+    }
+
+    @Override
+    public String sparqlQuery(final String query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(null, query, format, isAuthorized);
+    }
+
+    @Override
+    public String sparqlQuery(final String graph, final String query, final String format) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(graph, query, format, false);
+    }
+
+    @Override
+    public String sparqlQuery(final String graph, final String query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        throw new LinkedDataStorageException("SPARQL queries are not supported by " + MappedLinkedDataStorage.class.getSimpleName());
+    }
+
+    /**
+     * Applies {@code INSERT DATA} and {@code DELETE DATA} blocks - or plain statements, which are inserted - with one
+     * N-Triples or N-Quads statement per line. Nothing is applied if a line cannot be parsed.
+     *
+     * @return {@code 201} or {@code 400}
+     */
+    @Override
+    public String sparqlUpdate(final String data) throws LinkedDataStorageException {
+
+        final List<Delta.Operation> operations = new ArrayList<>();
+        boolean insert = true;
+
+        for (String line : data.split("\r?\n")) {
+
+            String statement = line.trim();
+            final String upper = statement.toUpperCase(Locale.ROOT);
+
+            if (upper.startsWith("INSERT DATA") || upper.startsWith("DELETE DATA")) {
+
+                insert = upper.startsWith("INSERT");
+                statement = statement.substring("INSERT DATA".length()).trim();
+            }
+            if (statement.startsWith("{")) {
+
+                statement = statement.substring(1).trim();
+            }
+            if (statement.endsWith("}")) {
+
+                statement = statement.substring(0, statement.length() - 1).trim();
+            }
+
+            if (statement.isEmpty()) {
+
+                continue;
+            }
+
+            try {
+
+                final String[] terms = Terms.parse(statement);
+
+                if (terms != null) {
+
+                    operations.add(new Delta.Operation(insert, terms));
+                }
+            }
+            catch (IllegalArgumentException e) {
+
+                logger.warn(String.format("[%s] update rejected: %s in '%s'", this.serviceName, e.getMessage(), statement));
+
+                return "400";
+            }
+        }
+
+        try {
+
+            // the lock keeps the delta from being frozen while it is written
+            synchronized (this.lock) {
+
+                this.state.current.apply(operations);
+            }
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException("could not write the delta", e);
+        }
+
+        if (this.state.current.size() >= this.mergeThreshold) {
+
+            this.scheduleMerge();
+        }
+
+        return "201";
+    }
+
+    /**
+     * @return the statements of the subject in the base generation with the operations of the delta applied
+     */
+    private Map<String, String[]> statements(final State state, final String subject, final String graphTerm) {
+
+        final Map<String, String[]> statements = new LinkedHashMap<>();
+        final Generation base = state.base;
+        final int s = base != null ? base.getDictionary().lookup(subject) : 0;
+
+        if (s != 0) {
+
+            final FrontCodedDictionary dictionary = base.getDictionary();
+
+            base.getStore().match(-1, s, 0, 0, (g, quadSubject, p, o) -> {
+
+                final String[] terms = { subject, dictionary.decode(p), dictionary.decode(o), g != 0 ? dictionary.decode(g) : null };
+
+                statements.put(Delta.Operation.key(terms), terms);
+            });
+        }
+
+        for (Delta delta : state.deltas()) {
+
+            final List<Delta.Operation> operations = delta.get(subject);
+
+            if (operations != null) {
+
+                for (Delta.Operation operation : operations) {
+
+                    if (operation.insert) {
+
+                        statements.put(operation.getKey(), operation.terms);
+                    }
+                    else {
+
+                        statements.remove(operation.getKey());
+                    }
+                }
+            }
+        }
+
+        if (graphTerm != null) {
+
+            statements.values().removeIf(terms -> !graphTerm.equals(terms[3]));
+        }
+
+        return statements;
+    }
+
+    private void scheduleMerge() {
+
+        if (this.merging.compareAndSet(false, true)) {
+
+            this.merger.execute(() -> {
+
+                try {
+
+                    this.merge();
+                }
+                catch (Exception e) {
+
+                    logger.error(String.format("[%s] merge failed - the delta is kept", this.serviceName), e);
+                }
+                finally {
+
+                    this.merging.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Freezes the current delta and writes the base generation with the frozen delta applied as the next generation.
+     */
+    private void merge() throws IOException {
+
+        final State frozen;
+
+        synchronized (this.lock) {
+
+            State state = this.state;
+
+            if (state.frozen == null) {
+
+                if (state.current.size() == 0) {
+
+                    return;
+                }
+
+                final long number = number(state.current.getLog());
+
+                state = new State(state.base, state.current, Delta.open(this.log(number + 1)));
+                this.state = state;
+            }
+
+            frozen = state;
+        }
+
+        final long start = System.nanoTime();
+        final long number = number(frozen.frozen.getLog());
+        final Generation base = frozen.base;
+
+        // the last operation on a statement wins
+        final Map<String, Delta.Operation> operations = new HashMap<>();
+
+        for (List<Delta.Operation> subjectOperations : frozen.frozen.getOperations().values()) {
+
+            for (Delta.Operation operation : subjectOperations) {
+
+                operations.put(operation.getKey(), operation);
+            }
+        }
+
+        final MappedStoreWriter writer = new MappedStoreWriter((int) Math.min(Integer.MAX_VALUE - 8, (base != null ? base.getStore().size() : 0) + operations.size()));
+
+        if (base != null) {
+
+            final FrontCodedDictionary dictionary = base.getDictionary();
+
+            base.getStore().match(-1, 0, 0, 0, (g, s, p, o) -> {
+
+                final String[] terms = { dictionary.decode(s), dictionary.decode(p), dictionary.decode(o), g != 0 ? dictionary.decode(g) : null };
+
+                if (!operations.containsKey(Delta.Operation.key(terms))) {
+
+                    writer.add(terms);
+                }
+            });
+        }
+
+        for (Delta.Operation operation : operations.values()) {
+
+            if (operation.insert) {
+
+                writer.add(operation.terms);
+            }
+        }
+
+        writer.write(this.root, number);
+
+        final Generation generation = Generation.open(this.root);
+
+        synchronized (this.lock) {
+
+            this.state = new State(generation, null, this.state.current);
+        }
+
+        frozen.frozen.close();
+        Files.deleteIfExists(frozen.frozen.getLog());
+
+        logger.info(String.format("[%s] merged %d operations into generation %d (%d quads) in %.1f s",
+                this.serviceName, frozen.frozen.size(), number, generation.getStore().size(), (System.nanoTime() - start) / 1e9));
+
+        // the previous generation may still be mapped by running requests; its files are only unlinked
+        this.cleanUp(number);
+    }
+
+    /**
+     * Removes generations older than {@code number}, temporary directories and the logs merged into {@code number}.
+     */
+    private void cleanUp(final long number) throws IOException {
+
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(this.root)) {
+
+            for (Path path : paths) {
+
+                final String name = path.getFileName().toString();
+
+                if (name.endsWith(".tmp")
+                        || name.matches("[0-9]{8}") && Long.parseLong(name) < number
+                        || name.startsWith(LOG_PREFIX) && name.endsWith(LOG_SUFFIX) && number(path) <= number) {
+
+                    delete(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the delta logs by number
+     */
+    private TreeMap<Long, Path> logs() throws IOException {
+
+        final TreeMap<Long, Path> logs = new TreeMap<>();
+
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(this.root, LOG_PREFIX + "*" + LOG_SUFFIX)) {
+
+            for (Path path : paths) {
+
+                logs.put(number(path), path);
+            }
+        }
+
+        return logs;
+    }
+
+    private Path log(final long number) {
+
+        return this.root.resolve(LOG_PREFIX + number + LOG_SUFFIX);
+    }
+
+    private static long number(final Path log) {
+
+        final String name = log.getFileName().toString();
+
+        return Long.parseLong(name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length()));
+    }
+
+    private static void delete(final Path path) throws IOException {
+
+        if (Files.isDirectory(path)) {
+
+            try (Stream<Path> paths = Files.walk(path)) {
+
+                for (Path child : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+
+                    Files.delete(child);
+                }
+            }
+        }
+        else {
+
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * The base generation and the deltas on top of it, swapped as a whole
+     */
+    private static final class State {
+
+        private final Generation base;
+        private final Delta      frozen;
+        private final Delta      current;
+
+        private State(final Generation base, final Delta frozen, final Delta current) {
+
+            this.base = base;
+            this.frozen = frozen;
+            this.current = current;
+        }
+
+        private boolean isChanged(final String subject) {
+
+            return this.current.get(subject) != null || (this.frozen != null && this.frozen.get(subject) != null);
+        }
+
+        /**
+         * @return the deltas in the order they are applied
+         */
+        private List<Delta> deltas() {
+
+            final List<Delta> deltas = new ArrayList<>(2);
+
+            if (this.frozen != null) {
+
+                deltas.add(this.frozen);
+            }
+
+            deltas.add(this.current);
+
+            return deltas;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.mapped;
+
+import de.tu_dortmund.ub.data.ldp.storage.memory.QuadStore;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Mapped Quad Store
+ *
+ * The four permutations of a {@link QuadStore} as memory-mapped files of 16-byte rows: {@code gspo} (graph, subject,
+ * predicate, object), {@code spo} (subject, predicate, object, graph), {@code pos} (predicate, object, subject,
+ * graph) and {@code osp} (object, subject, predicate, graph). A pattern is answered like {@link QuadStore#match} by a
+ * binary search for the bound prefix and a scan of the range.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+final class MappedQuadStore {
+
+    private static final int ROW_SIZE = 16;
+
+    // positions of graph, subject, predicate and object in the rows of an index
+    private static final int[] GSPO = { 0, 1, 2, 3 };
+    private static final int[] SPO  = { 3, 0, 1, 2 };
+    private static final int[] POS  = { 3, 2, 0, 1 };
+    private static final int[] OSP  = { 3, 1, 2, 0 };
+
+    private final MappedFile gspo;
+    private final MappedFile spo;
+    private final MappedFile pos;
+    private final MappedFile osp;
+    private final long       size;
+
+    MappedQuadStore(final Path directory) throws IOException {
+
+        this.gspo = new MappedFile(directory.resolve("gspo"));
+        this.spo = new MappedFile(directory.resolve("spo"));
+        this.pos = new MappedFile(directory.resolve("pos"));
+        this.osp = new MappedFile(directory.resolve("osp"));
+        this.size = this.gspo.size() / ROW_SIZE;
+    }
+
+    /**
+     * Writes the indexes of a built store.
+     */
+    static void write(final Path directory, final QuadStore store) throws IOException {
+
+        write(directory.resolve("gspo"), store, QuadStore.Index.GSPO, GSPO);
+        write(directory.resolve("spo"), store, QuadStore.Index.SPO, SPO);
+        write(directory.resolve("pos"), store, QuadStore.Index.POS, POS);
+        write(directory.resolve("osp"), store, QuadStore.Index.OSP, OSP);
+    }
+
+    /**
+     * Calls {@code consumer} for every quad matching the pattern; {@code 0} matches any term, a graph of {@code -1}
+     * any graph including the default graph.
+     *
+     * @return the number of matches
+     */
+    int match(final int graph, final int subject, final int predicate, final int object, final QuadStore.QuadConsumer consumer) {
+
+        final MappedFile index;
+        final int[] layout;
+        final int[] keys;
+        final int prefix;
+
+        if (graph >= 0 && subject != 0) {
+
+            index = this.gspo;
+            layout = GSPO;
+            keys = new int[] { graph, subject, predicate, object };
+            prefix = 2 + (predicate != 0 ? 1 + (object != 0 ? 1 : 0) : 0);
+        }
+        else if (subject != 0) {
+
+            index = this.spo;
+            layout = SPO;
+            keys = new int[] { subject, predicate, object };
+            prefix = 1 + (predicate != 0 ? 1 + (object != 0 ? 1 : 0) : 0);
+        }
+        else if (predicate != 0) {
+
+            index = this.pos;
+            layout = POS;
+            keys = new int[] { predicate, object };
+            prefix = 1 + (object != 0 ? 1 : 0);
+        }
+        else if (object != 0) {
+
+            index = this.osp;
+            layout = OSP;
+            keys = new int[] { object };
+            prefix = 1;
+        }
+        else {
+
+            index = this.gspo;
+            layout = GSPO;
+            keys = new int[] { graph };
+            prefix = graph >= 0 ? 1 : 0;
+        }
+
+        final long from = prefix > 0 ? bound(index, this.size, keys, prefix, false) : 0;
+        final long to = prefix > 0 ? bound(index, this.size, keys, prefix, true) : this.size;
+
+        int matches = 0;
+
+        for (long row = from; row < to; row++) {
+
+            final long position = row * ROW_SIZE;
+            final int g = index.getInt(position + 4 * layout[0]);
+            final int s = index.getInt(position + 4 * layout[1]);
+            final int p = index.getInt(position + 4 * layout[2]);
+            final int o = index.getInt(position + 4 * layout[3]);
+
+            if ((graph < 0 || g == graph) && (subject == 0 || s == subject) && (predicate == 0 || p == predicate) && (object == 0 || o == object)) {
+
+                consumer.accept(g, s, p, o);
+                matches++;
+            }
+        }
+
+        return matches;
+    }
+
+    long size() {
+
+        return this.size;
+    }
+
+    /**
+     * @return bytes of the mapped files
+     */
+    long getBytes() {
+
+        return 4 * this.size * ROW_SIZE;
+    }
+
+    private static long bound(final MappedFile index, final long size, final int[] keys, final int prefix, final boolean upper) {
+
+        long low = 0;
+        long high = size;
+
+        while (low < high) {
+
+            final long middle = (low + high) >>> 1;
+
+            int compare = 0;
+
+            for (int c = 0; c < prefix && compare == 0; c++) {
+
+                compare = Integer.compare(index.getInt(middle * ROW_SIZE + 4 * c), keys[c]);
+            }
+
+            if (compare < 0 || (upper && compare == 0)) {
+
+                low = middle + 1;
+            }
+            else {
+
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static void write(final Path file, final QuadStore store, final QuadStore.Index index, final int[] layout) throws IOException {
+
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+
+            final int[] row = new int[4];
+            final IOException[] failure = { null };
+
+            store.forEach(index, (g, s, p, o) -> {
+
+                if (failure[0] != null) {
+
+                    return;
+                }
+
+                row[layout[0]] = g;
+                row[layout[1]] = s;
+                row[layout[2]] = p;
+                row[layout[3]] = o;
+
+                try {
+
+                    for (int value : row) {
+
+                        outputStream.writeInt(value);
+                    }
+                }
+                catch (IOException e) {
+
+                    failure[0] = e;
+                }
+            });
+
+            if (failure[0] != null) {
+
+                throw failure[0];
+            }
+        }
+    }
+}
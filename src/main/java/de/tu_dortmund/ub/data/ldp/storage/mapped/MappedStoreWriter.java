@@ -0,0 +1,210 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.mapped;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+import de.tu_dortmund.ub.data.ldp.storage.memory.IntSort;
+import de.tu_dortmund.ub.data.ldp.storage.memory.NQuadsReader;
+import de.tu_dortmund.ub.data.ldp.storage.memory.QuadStore;
+import de.tu_dortmund.ub.data.ldp.storage.memory.TermDictionary;
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Mapped Store Writer
+ *
+ * Builds a {@link Generation} of index files: the statements are collected in memory, the terms are sorted and
+ * numbered by rank, the quads are renumbered and sorted into the four permutations. Used by
+ * {@link MappedLinkedDataStorage} to merge its delta and from the command line for the initial import:
+ *
+ * <pre>
+ * java -cp ... de.tu_dortmund.ub.data.ldp.storage.mapped.MappedStoreWriter directory file.nq[.gz] ...
+ * </pre>
+ *
+ * Building needs heap like the {@link de.tu_dortmund.ub.data.ldp.storage.memory.MemoryLinkedDataStorage} for the
+ * same data; serving the result does not.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class MappedStoreWriter {
+
+    private static Logger logger = Logger.getLogger(MappedStoreWriter.class.getName());
+
+    private final TermDictionary dictionary = new TermDictionary();
+
+    private int[] graphs;
+    private int[] subjects;
+    private int[] predicates;
+    private int[] objects;
+    private int   size;
+
+    public MappedStoreWriter(final int expectedSize) {
+
+        final int capacity = Math.max(16, expectedSize);
+
+        this.graphs = new int[capacity];
+        this.subjects = new int[capacity];
+        this.predicates = new int[capacity];
+        this.objects = new int[capacity];
+    }
+
+    /**
+     * @param terms subject, predicate, object and graph ({@code null} for the default graph) in N-Triples syntax
+     */
+    public void add(final String[] terms) {
+
+        if (this.size == this.subjects.length) {
+
+            final int capacity = this.size + (this.size >> 1);
+
+            this.graphs = Arrays.copyOf(this.graphs, capacity);
+            this.subjects = Arrays.copyOf(this.subjects, capacity);
+            this.predicates = Arrays.copyOf(this.predicates, capacity);
+            this.objects = Arrays.copyOf(this.objects, capacity);
+        }
+
+        this.graphs[this.size] = terms[3] != null ? this.dictionary.encode(terms[3]) : 0;
+        this.subjects[this.size] = this.dictionary.encode(terms[0]);
+        this.predicates[this.size] = this.dictionary.encode(terms[1]);
+        this.objects[this.size] = this.dictionary.encode(terms[2]);
+        this.size++;
+    }
+
+    public int size() {
+
+        return this.size;
+    }
+
+    /**
+     * Writes the statements as generation {@code number} of {@code root}.
+     *
+     * @return the directory of the generation
+     */
+    public Path write(final Path root, final long number) throws IOException {
+
+        final Path directory = Generation.directory(root, number);
+        final Path temporary = root.resolve(directory.getFileName() + ".tmp");
+
+        Files.createDirectories(temporary);
+
+        // terms in byte order, ids by rank
+        final int terms = this.dictionary.size();
+        final int[] sorted = new int[terms];
+
+        for (int i = 0; i < terms; i++) {
+
+            sorted[i] = i + 1;
+        }
+
+        IntSort.sort(sorted, this.dictionary::compare);
+
+        final int[] rank = new int[terms + 1];
+        int literals = 0;
+
+        for (int i = 0; i < terms; i++) {
+
+            rank[sorted[i]] = i + 1;
+
+            if (this.dictionary.kind(sorted[i]) == '"') {
+
+                literals++;
+            }
+        }
+
+        FrontCodedDictionary.write(temporary.resolve("terms"), temporary.resolve("terms.blocks"), terms, i -> this.dictionary.toBytes(sorted[i]));
+
+        final QuadStore store = new QuadStore(this.size);
+
+        for (int i = 0; i < this.size; i++) {
+
+            store.add(this.graphs[i] != 0 ? rank[this.graphs[i]] : 0, rank[this.subjects[i]], rank[this.predicates[i]], rank[this.objects[i]]);
+        }
+
+        store.build();
+
+        MappedQuadStore.write(temporary, store);
+
+        final Properties manifest = new Properties();
+        manifest.setProperty("quads", String.valueOf(store.size()));
+        manifest.setProperty("terms", String.valueOf(terms));
+        manifest.setProperty("literals", String.valueOf(literals));
+
+        try (OutputStream outputStream = Files.newOutputStream(temporary.resolve(Generation.MANIFEST))) {
+
+            manifest.store(outputStream, "LinkedDataPlatform mapped store");
+        }
+
+        Files.move(temporary, directory, StandardCopyOption.ATOMIC_MOVE);
+
+        return directory;
+    }
+
+    public static void main(final String[] args) throws Exception {
+
+        if (args.length < 2) {
+
+            System.err.println("usage: MappedStoreWriter directory file.nq[.gz] ...");
+            System.exit(2);
+        }
+
+        BasicConfigurator.configure();
+
+        final Path root = Paths.get(args[0]);
+        final MappedStoreWriter writer = new MappedStoreWriter(1 << 20);
+        final NQuadsReader reader = new NQuadsReader();
+        final long start = System.nanoTime();
+
+        Files.createDirectories(root);
+
+        for (int i = 1; i < args.length; i++) {
+
+            try (InputStream inputStream = NQuadsReader.open(args[i])) {
+
+                logger.info(String.format("read %d statements from '%s'", reader.read(new InputStreamReader(inputStream, StandardCharsets.UTF_8), writer::add), args[i]));
+            }
+            catch (LinkedDataStorageException e) {
+
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+
+        final Path directory = writer.write(root, Generation.latest(root) + 1);
+
+        logger.info(String.format("wrote %d statements (%d lines rejected) to '%s' in %.1f s", writer.size(), reader.getRejected(), directory, (System.nanoTime() - start) / 1e9));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.memory;
+
+/**
+ * Int Sort
+ *
+ * Sorts {@code int} arrays - row numbers, term ids - with a comparator, without boxing: a stable merge sort with a
+ * scratch array and insertion sort for short runs.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class IntSort {
+
+    @FunctionalInterface
+    public interface IntComparator {
+
+        int compare(int a, int b);
+    }
+
+    private IntSort() {
+    }
+
+    public static void sort(final int[] values, final IntComparator comparator) {
+
+        mergeSort(values, values.clone(), 0, values.length, comparator);
+    }
+
+    private static void mergeSort(final int[] values, final int[] scratch, final int from, final int to, final IntComparator comparator) {
+
+        if (to - from <= 32) {
+
+            for (int i = from + 1; i < to; i++) {
+
+                final int value = values[i];
+                int j = i - 1;
+
+                while (j >= from && comparator.compare(values[j], value) > 0) {
+
+                    values[j + 1] = values[j];
+                    j--;
+                }
+
+                values[j + 1] = value;
+            }
+
+            return;
+        }
+
+        final int middle = (from + to) >>> 1;
+
+        // sort the halves into scratch, merge back into values
+        mergeSort(scratch, values, from, middle, comparator);
+        mergeSort(scratch, values, middle, to, comparator);
+
+        if (comparator.compare(scratch[middle - 1], scratch[middle]) <= 0) {
+
+            System.arraycopy(scratch, from, values, from, to - from);
+
+            return;
+        }
+
+        for (int i = from, left = from, right = middle; i < to; i++) {
+
+            if (right >= to || (left < middle && comparator.compare(scratch[left], scratch[right]) <= 0)) {
+
+                values[i] = scratch[left++];
+            }
+            else {
+
+                values[i] = scratch[right++];
+            }
+        }
+    }
+}
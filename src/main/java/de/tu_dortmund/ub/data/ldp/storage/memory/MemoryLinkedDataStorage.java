@@ -0,0 +1,504 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.memory;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+import de.tu_dortmund.ub.data.ldp.storage.ResourceRepresentation;
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * In-Memory Linked Data Storage
+ *
+ * Reference implementation of {@link LinkedDataStorage} that loads N-Triples and N-Quads files at start and answers
+ * all resource calls from memory: the terms are dictionary-encoded ({@link TermDictionary}) and the quads are held in
+ * sorted GSPO, SPO, POS and OSP permutations of {@code int} columns ({@link QuadStore}). A quad costs 32 bytes, a term
+ * its UTF-8 bytes plus about 24 bytes, so {@code storage.memory.maxquads} - the capacity allocated up front - bounds
+ * the heap; more quads are rejected.
+ *
+ * Configuration:
+ * <ul>
+ *     <li>{@code storage.memory.load} - files (comma-separated, {@code .gz} allowed) loaded into the default graph or
+ *     the graph given in the quads</li>
+ *     <li>{@code storage.memory.load.<name>} - files loaded into the graph {@code <name>}</li>
+ *     <li>{@code storage.memory.graph.<name>} - IRI of the graph {@code <name>}; unmapped names - e.g. profiles - match
+ *     all graphs</li>
+ *     <li>{@code storage.memory.maxquads} - maximum number of quads (default 10,000,000)</li>
+ *     <li>{@code storage.memory.accessrights.predicate} - predicate of the access rights (default
+ *     {@code dcterms:accessRights}); resources without one are {@code public}</li>
+ * </ul>
+ *
+ * SPARQL is not supported; {@code searchResource} finds the subjects with a literal containing {@code q}.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class MemoryLinkedDataStorage implements LinkedDataStorage {
+
+    public static final String LOAD_IDENTIFIER                    = "storage.memory.load";
+    public static final String GRAPH_IDENTIFIER                   = "storage.memory.graph";
+    public static final String MAXQUADS_IDENTIFIER                = "storage.memory.maxquads";
+    public static final String ACCESSRIGHTS_PREDICATE_IDENTIFIER = "storage.memory.accessrights.predicate";
+
+    private static final String ACCESSRIGHTS_PREDICATE = "http://purl.org/dc/terms/accessRights";
+    private static final int    MAXQUADS               = 10000000;
+
+    private static Logger logger = Logger.getLogger(MemoryLinkedDataStorage.class.getName());
+
+    private final HashMap<String, Integer> graphs = new HashMap<>();
+
+    private TermDictionary dictionary;
+    private QuadStore      store;
+    private RdfSerializer  serializer;
+    private int            accessRights;
+
+    @Override
+    public void init(final Properties config) throws LinkedDataStorageException {
+
+        final String serviceName = config.getProperty("service.name");
+        final int maxQuads = Integer.parseInt(config.getProperty(MAXQUADS_IDENTIFIER, String.valueOf(MAXQUADS)).trim());
+        final long start = System.nanoTime();
+
+        final TermDictionary dictionary = new TermDictionary();
+        final QuadStore store = new QuadStore(maxQuads);
+
+        for (String key : config.stringPropertyNames()) {
+
+            if (key.startsWith(GRAPH_IDENTIFIER + ".")) {
+
+                this.graphs.put(key.substring(GRAPH_IDENTIFIER.length() + 1), dictionary.encode("<" + config.getProperty(key).trim() + ">"));
+            }
+        }
+
+        this.accessRights = dictionary.encode("<" + config.getProperty(ACCESSRIGHTS_PREDICATE_IDENTIFIER, ACCESSRIGHTS_PREDICATE).trim() + ">");
+
+        final NQuadsReader reader = new NQuadsReader();
+
+        for (String key : config.stringPropertyNames()) {
+
+            if (!key.equals(LOAD_IDENTIFIER) && !key.startsWith(LOAD_IDENTIFIER + ".")) {
+
+                continue;
+            }
+
+            int graph = 0;
+
+            if (!key.equals(LOAD_IDENTIFIER)) {
+
+                final Integer id = this.graphs.get(key.substring(LOAD_IDENTIFIER.length() + 1));
+
+                if (id == null) {
+
+                    throw new LinkedDataStorageException("'" + key + "': no '" + GRAPH_IDENTIFIER + "." + key.substring(LOAD_IDENTIFIER.length() + 1) + "' configured");
+                }
+
+                graph = id;
+            }
+
+            for (String file : config.getProperty(key).split("\\s*,\\s*")) {
+
+                if (file.trim().isEmpty()) {
+
+                    continue;
+                }
+
+                try (InputStream inputStream = NQuadsReader.open(file.trim())) {
+
+                    final int defaultGraph = graph;
+                    final int quads = reader.read(new InputStreamReader(inputStream, StandardCharsets.UTF_8), terms -> {
+
+                        if (store.size() == maxQuads) {
+
+                            throw new LinkedDataStorageException("more than " + maxQuads + " quads - raise '" + MAXQUADS_IDENTIFIER + "'");
+                        }
+
+                        store.add(terms[3] != null ? dictionary.encode(terms[3]) : defaultGraph, dictionary.encode(terms[0]), dictionary.encode(terms[1]), dictionary.encode(terms[2]));
+                    });
+
+                    logger.info(String.format("[%s] loaded %d quads from '%s'", serviceName, quads, file.trim()));
+                }
+                catch (IOException e) {
+
+                    throw new LinkedDataStorageException("could not load '" + file.trim() + "'", e);
+                }
+            }
+        }
+
+        store.build();
+
+        this.dictionary = dictionary;
+        this.store = store;
+        this.serializer = new RdfSerializer(dictionary);
+
+        logger.info(String.format("[%s] in-memory store ready in %.1f s: %d quads, %d terms, %d lines rejected, heap ~ %d MB",
+                serviceName, (System.nanoTime() - start) / 1e9, store.size(), dictionary.size(), reader.getRejected(),
+                (store.getBytes() + dictionary.getBytes()) >> 20));
+    }
+
+    @Override
+    public HashMap<String, String> health(final Properties properties) {
+
+        final HashMap<String, String> health = new HashMap<>();
+
+        if (this.store != null) {
+
+            health.put("memory", "quads = " + this.store.size() + ", terms = " + this.dictionary.size() + ", bytes = " + (this.store.getBytes() + this.dictionary.getBytes()));
+        }
+        else {
+
+            health.put("memory", "not loaded");
+        }
+
+        return health;
+    }
+
+    @Override
+    public String getResource(final String resource, final String format) throws LinkedDataStorageException {
+
+        return this.getResource(null, resource, format, false);
+    }
+
+    @Override
+    public String getResource(final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.getResource(null, resource, format, isAuthorized);
+    }
+
+    @Override
+    public String getResource(final String graph, final String resource, final String format) throws LinkedDataStorageException {
+
+        return this.getResource(graph, resource, format, false);
+    }
+
+    @Override
+    public String getResource(final String graph, final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try {
+
+            return this.getResource(graph, resource, format, isAuthorized, outputStream) ? new String(outputStream.toByteArray(), StandardCharsets.UTF_8) : null;
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean getResource(final String graph, final String resource, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        if (!RdfSerializer.isSupported(format)) {
+
+            throw new LinkedDataStorageException("unsupported format: " + format);
+        }
+
+        final int subject = this.dictionary.lookup("<" + resource + ">");
+        final int g = this.graph(graph);
+
+        if (subject == 0) {
+
+            return false;
+        }
+
+        final StatementBuffer statements = new StatementBuffer();
+
+        this.store.match(g, subject, 0, 0, statements);
+
+        if (statements.size() == 0) {
+
+            return false;
+        }
+
+        this.serializer.write(subject, statements.getStatements(), statements.size(), format, outputStream);
+
+        return true;
+    }
+
+    @Override
+    public ResourceRepresentation getResourceRepresentation(final String graph, final String resource, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final String[] accessRights = new String[1];
+
+        try {
+
+            if (!this.getResourceRepresentation(graph, resource, format, isAuthorized, (rights, lastModified) -> {
+
+                accessRights[0] = rights;
+
+                return outputStream;
+            })) {
+
+                return null;
+            }
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+
+        return new ResourceRepresentation(new String(outputStream.toByteArray(), StandardCharsets.UTF_8), accessRights[0], 0);
+    }
+
+    /**
+     * Reads the statements of the resource once and takes the access rights from them.
+     */
+    @Override
+    public boolean getResourceRepresentation(final String graph, final String resource, final String format, final boolean isAuthorized, final RepresentationConsumer consumer) throws LinkedDataStorageException, IOException {
+
+        if (!RdfSerializer.isSupported(format)) {
+
+            throw new LinkedDataStorageException("unsupported format: " + format);
+        }
+
+        final int subject = this.dictionary.lookup("<" + resource + ">");
+        final int g = this.graph(graph);
+
+        if (subject == 0) {
+
+            return false;
+        }
+
+        final StatementBuffer statements = new StatementBuffer();
+
+        this.store.match(g, subject, 0, 0, statements);
+
+        if (statements.size() == 0) {
+
+            return false;
+        }
+
+        final int accessRights = statements.object(this.accessRights);
+        final OutputStream outputStream = consumer.accept(accessRights != 0 ? Terms.value(this.dictionary.decode(accessRights)) : "public", 0);
+
+        if (outputStream != null) {
+
+            this.serializer.write(subject, statements.getStatements(), statements.size(), format, outputStream);
+        }
+
+        return true;
+    }
+
+    @Override
+    public String getAccessRights(final String resource) throws LinkedDataStorageException {
+
+        return this.getAccessRights(null, resource);
+    }
+
+    @Override
+    public String getAccessRights(final String graph, final String resource) throws LinkedDataStorageException {
+
+        final int subject = this.dictionary.lookup("<" + resource + ">");
+        final int g = this.graph(graph);
+        final int[] value = { 0 };
+
+        if (subject != 0) {
+
+            this.store.match(g, subject, this.accessRights, 0, (quadGraph, s, p, o) -> value[0] = o);
+        }
+
+        return value[0] != 0 ? Terms.value(this.dictionary.decode(value[0])) : "public";
+    }
+
+    @Override
+    public boolean listAccessRights(final String graph, final BiConsumer<String, String> consumer) throws LinkedDataStorageException {
+
+        this.store.match(this.graph(graph), 0, this.accessRights, 0, (quadGraph, s, p, o) -> {
+
+            final String subject = this.dictionary.decode(s);
+            final String value = Terms.value(this.dictionary.decode(o));
+
+            if (Terms.isIri(subject) && !value.equals("public")) {
+
+                consumer.accept(Terms.value(subject), value);
+            }
+        });
+
+        return true;
+    }
+
+    @Override
+    public boolean listResources(final String graph, final Consumer<String> consumer) throws LinkedDataStorageException {
+
+        final int[] previous = { 0 };
+
+        // the statements of a subject are adjacent in GSPO order
+        this.store.match(this.graph(graph), 0, 0, 0, (quadGraph, s, p, o) -> {
+
+            if (s != previous[0]) {
+
+                previous[0] = s;
+
+                final String subject = this.dictionary.decode(s);
+
+                if (Terms.isIri(subject)) {
+
+                    consumer.accept(Terms.value(subject));
+                }
+            }
+        });
+
+        return true;
+    }
+
+    @Override
+    public String searchResource(final Properties query, final String format) throws LinkedDataStorageException {
+
+        return this.searchResource(null, query, format, false);
+    }
+
+    @Override
+    public String searchResource(final Properties query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.searchResource(null, query, format, isAuthorized);
+    }
+
+    @Override
+    public String searchResource(final String graph, final Properties query, final String format) throws LinkedDataStorageException {
+
+        return this.searchResource(graph, query, format, false);
+    }
+
+    @Override
+    public String searchResource(final String graph, final Properties query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try {
+
+            return this.searchResource(graph, query, format, isAuthorized, outputStream) ? new String(outputStream.toByteArray(), StandardCharsets.UTF_8) : null;
+        }
+        catch (IOException e) {
+
+            throw new LinkedDataStorageException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Scans the literals of the dictionary for {@code q} (case-insensitive) and collects their subjects through the OSP
+     * index; {@code start} and {@code rows} (default 10) page through them.
+     */
+    @Override
+    public boolean searchResource(final String graph, final Properties query, final String format, final boolean isAuthorized, final OutputStream outputStream) throws LinkedDataStorageException, IOException {
+
+        final String q = query.getProperty("q");
+        final int g = this.graph(graph);
+
+        if (q == null || q.trim().isEmpty()) {
+
+            return false;
+        }
+
+        final String needle = q.trim().toLowerCase(Locale.ROOT);
+        final int start = Integer.parseInt(query.getProperty("start", "0"));
+        final int rows = Integer.parseInt(query.getProperty("rows", "10"));
+        final Set<Integer> subjects = new LinkedHashSet<>();
+
+        for (int id = 1; id <= this.dictionary.size() && subjects.size() < start + rows; id++) {
+
+            if (this.dictionary.kind(id) == '"' && Terms.value(this.dictionary.decode(id)).toLowerCase(Locale.ROOT).contains(needle)) {
+
+                this.store.match(g, 0, 0, id, (quadGraph, s, p, o) -> subjects.add(s));
+            }
+        }
+
+        final List<String> page = new ArrayList<>();
+        int position = 0;
+
+        for (Integer subject : subjects) {
+
+            if (position++ >= start && page.size() < rows) {
+
+                page.add(this.dictionary.decode(subject));
+            }
+        }
+
+        if (page.isEmpty()) {
+
+            return false;
+        }
+
+        RdfSerializer.writeSubjects(page, format, outputStream);
+
+        return true;
+    }
+
+    @Override
+    public String sparqlQuery(final String query, final String format) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(null, query, format, false);
+    }
+
+    @Override
+    public String sparqlQuery(final String query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(null, query, format, isAuthorized);
+    }
+
+    @Override
+    public String sparqlQuery(final String graph, final String query, final String format) throws LinkedDataStorageException {
+
+        return this.sparqlQuery(graph, query, format, false);
+    }
+
+    @Override
+    public String sparqlQuery(final String graph, final String query, final String format, final boolean isAuthorized) throws LinkedDataStorageException {
+
+        throw new LinkedDataStorageException("SPARQL is not supported by " + MemoryLinkedDataStorage.class.getSimpleName());
+    }
+
+    @Override
+    public String sparqlUpdate(final String data) throws LinkedDataStorageException {
+
+        throw new LinkedDataStorageException("SPARQL is not supported by " + MemoryLinkedDataStorage.class.getSimpleName());
+    }
+
+    /**
+     * @return the id of a configured graph or {@code -1} for all graphs
+     */
+    private int graph(final String graph) {
+
+        final Integer id = graph != null ? this.graphs.get(graph) : null;
+
+        return id != null ? id : -1;
+    }
+}
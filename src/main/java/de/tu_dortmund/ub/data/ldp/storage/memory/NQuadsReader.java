@@ -0,0 +1,134 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.memory;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * N-Quads Reader
+ *
+ * Reads N-Triples or N-Quads line by line. Lines that cannot be parsed are logged and skipped; blank node labels get
+ * a prefix per document, so that the labels of different documents do not collide.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class NQuadsReader {
+
+    /**
+     * Receives the statements: subject, predicate, object and graph ({@code null} for the default graph).
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        void statement(String[] terms) throws LinkedDataStorageException;
+    }
+
+    private static Logger logger = Logger.getLogger(NQuadsReader.class.getName());
+
+    private int documents;
+    private int rejected;
+
+    /**
+     * @return the number of statements read
+     */
+    public int read(final Reader reader, final Handler handler) throws IOException, LinkedDataStorageException {
+
+        final BufferedReader lines = new BufferedReader(reader, 1 << 16);
+        final String blankNodes = "d" + ++this.documents + "_";
+
+        int statements = 0;
+        int number = 0;
+        String line;
+
+        while ((line = lines.readLine()) != null) {
+
+            number++;
+
+            final String[] terms;
+
+            try {
+
+                terms = Terms.parse(line);
+            }
+            catch (IllegalArgumentException e) {
+
+                this.rejected++;
+                logger.warn(String.format("line %d rejected: %s", number, e.getMessage()));
+
+                continue;
+            }
+
+            if (terms == null) {
+
+                continue;
+            }
+
+            terms[0] = blankNode(terms[0], blankNodes);
+            terms[2] = blankNode(terms[2], blankNodes);
+
+            if (terms[3] != null) {
+
+                terms[3] = blankNode(terms[3], blankNodes);
+            }
+
+            handler.statement(terms);
+            statements++;
+        }
+
+        return statements;
+    }
+
+    /**
+     * @return the number of lines rejected so far
+     */
+    public int getRejected() {
+
+        return this.rejected;
+    }
+
+    /**
+     * Opens a file, which may be gzipped ({@code .gz}).
+     */
+    public static InputStream open(final String file) throws IOException {
+
+        final InputStream inputStream = new FileInputStream(file);
+
+        return file.endsWith(".gz") ? new GZIPInputStream(inputStream, 1 << 16) : inputStream;
+    }
+
+    private static String blankNode(final String term, final String prefix) {
+
+        return Terms.isBlank(term) ? "_:" + prefix + term.substring(2) : term;
+    }
+}
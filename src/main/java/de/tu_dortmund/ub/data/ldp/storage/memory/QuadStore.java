@@ -0,0 +1,394 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.memory;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Quad Store
+ *
+ * Quads of term ids in four {@code int} columns (graph, subject, predicate, object; graph {@code 0} is the default
+ * graph) and four sorted permutations of the rows as indexes:
+ *
+ * <ul>
+ *     <li>SPO - statements about a subject, e.g. a resource representation</li>
+ *     <li>POS - subjects with a predicate and value, e.g. access rights or types</li>
+ *     <li>OSP - statements pointing to a term, e.g. search hits</li>
+ *     <li>GSPO - the same within a named graph</li>
+ * </ul>
+ *
+ * A quad costs 32 bytes: 16 in the columns and 4 per index. Quads are added while loading; {@link #build()} removes
+ * duplicates and sorts the indexes, after which the store is immutable and safe for concurrent readers.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class QuadStore {
+
+    public static final int BYTES_PER_QUAD = 32;
+
+    /**
+     * Receives the matching quads without allocating.
+     */
+    @FunctionalInterface
+    public interface QuadConsumer {
+
+        void accept(int graph, int subject, int predicate, int object);
+    }
+
+    /**
+     * Sort orders of the indexes; the graph is the last key of all but {@link #GSPO}.
+     */
+    public enum Index {
+
+        GSPO, SPO, POS, OSP
+    }
+
+    private int[] graphs;
+    private int[] subjects;
+    private int[] predicates;
+    private int[] objects;
+    private int   size;
+
+    private int[] spo;
+    private int[] pos;
+    private int[] osp;
+    private int[] gspo;
+
+    private volatile boolean built = false;
+
+    /**
+     * @param expectedSize number of quads to allocate for, so that loading a known amount of data does not resize
+     */
+    public QuadStore(final int expectedSize) {
+
+        final int capacity = Math.max(16, expectedSize);
+
+        this.graphs = new int[capacity];
+        this.subjects = new int[capacity];
+        this.predicates = new int[capacity];
+        this.objects = new int[capacity];
+    }
+
+    public void add(final int graph, final int subject, final int predicate, final int object) {
+
+        if (this.built) {
+
+            throw new IllegalStateException("the store is built and cannot be changed");
+        }
+
+        if (this.size == this.subjects.length) {
+
+            final int capacity = this.size + (this.size >> 1);
+
+            this.graphs = Arrays.copyOf(this.graphs, capacity);
+            this.subjects = Arrays.copyOf(this.subjects, capacity);
+            this.predicates = Arrays.copyOf(this.predicates, capacity);
+            this.objects = Arrays.copyOf(this.objects, capacity);
+        }
+
+        this.graphs[this.size] = graph;
+        this.subjects[this.size] = subject;
+        this.predicates[this.size] = predicate;
+        this.objects[this.size] = object;
+        this.size++;
+    }
+
+    /**
+     * Removes duplicate quads and sorts the indexes - the three remaining ones in parallel.
+     */
+    public void build() {
+
+        if (this.size < this.subjects.length) {
+
+            this.graphs = Arrays.copyOf(this.graphs, this.size);
+            this.subjects = Arrays.copyOf(this.subjects, this.size);
+            this.predicates = Arrays.copyOf(this.predicates, this.size);
+            this.objects = Arrays.copyOf(this.objects, this.size);
+        }
+
+        final int[] gspo = identity(this.size);
+        IntSort.sort(gspo, this::compareGSPO);
+
+        // duplicates are adjacent in GSPO order
+        int distinct = 0;
+
+        for (int i = 0; i < gspo.length; i++) {
+
+            if (distinct == 0 || this.compareGSPO(gspo[distinct - 1], gspo[i]) != 0) {
+
+                gspo[distinct++] = gspo[i];
+            }
+        }
+
+        this.gspo = Arrays.copyOf(gspo, distinct);
+
+        final int[] spo = this.gspo.clone();
+        final int[] pos = this.gspo.clone();
+        final int[] osp = this.gspo.clone();
+
+        ForkJoinTask.invokeAll(
+                ForkJoinTask.adapt(() -> IntSort.sort(spo, this::compareSPO)),
+                ForkJoinTask.adapt(() -> IntSort.sort(pos, this::comparePOS)),
+                ForkJoinTask.adapt(() -> IntSort.sort(osp, this::compareOSP)));
+
+        this.spo = spo;
+        this.pos = pos;
+        this.osp = osp;
+
+        this.built = true;
+    }
+
+    /**
+     * Calls {@code consumer} for every quad matching the pattern; {@code 0} matches any term, a graph of {@code -1}
+     * any graph including the default graph.
+     *
+     * @return the number of matches
+     */
+    public int match(final int graph, final int subject, final int predicate, final int object, final QuadConsumer consumer) {
+
+        if (!this.built) {
+
+            throw new IllegalStateException("the store is not built yet");
+        }
+
+        final int[] index;
+        final int[][] columns;
+        final int[] keys;
+        final int prefix;
+
+        // the bound prefix of the key selects a range of the index, the rest is filtered
+        if (graph >= 0 && subject != 0) {
+
+            index = this.gspo;
+            columns = new int[][] { this.graphs, this.subjects, this.predicates, this.objects };
+            keys = new int[] { graph, subject, predicate, object };
+            prefix = 2 + (predicate != 0 ? 1 + (object != 0 ? 1 : 0) : 0);
+        }
+        else if (subject != 0) {
+
+            index = this.spo;
+            columns = new int[][] { this.subjects, this.predicates, this.objects };
+            keys = new int[] { subject, predicate, object };
+            prefix = 1 + (predicate != 0 ? 1 + (object != 0 ? 1 : 0) : 0);
+        }
+        else if (predicate != 0) {
+
+            index = this.pos;
+            columns = new int[][] { this.predicates, this.objects };
+            keys = new int[] { predicate, object };
+            prefix = 1 + (object != 0 ? 1 : 0);
+        }
+        else if (object != 0) {
+
+            index = this.osp;
+            columns = new int[][] { this.objects };
+            keys = new int[] { object };
+            prefix = 1;
+        }
+        else {
+
+            // graph 0 is the default graph, -1 any graph
+            index = this.gspo;
+            columns = new int[][] { this.graphs };
+            keys = new int[] { graph };
+            prefix = graph >= 0 ? 1 : 0;
+        }
+
+        final int from = prefix > 0 ? bound(index, columns, keys, prefix, false) : 0;
+        final int to = prefix > 0 ? bound(index, columns, keys, prefix, true) : index.length;
+
+        int matches = 0;
+
+        for (int i = from; i < to; i++) {
+
+            final int row = index[i];
+
+            if ((graph < 0 || this.graphs[row] == graph)
+                    && (subject == 0 || this.subjects[row] == subject)
+                    && (predicate == 0 || this.predicates[row] == predicate)
+                    && (object == 0 || this.objects[row] == object)) {
+
+                consumer.accept(this.graphs[row], this.subjects[row], this.predicates[row], this.objects[row]);
+                matches++;
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Calls {@code consumer} for every quad in the order of {@code index}.
+     */
+    public void forEach(final Index index, final QuadConsumer consumer) {
+
+        if (!this.built) {
+
+            throw new IllegalStateException("the store is not built yet");
+        }
+
+        final int[] rows = index == Index.GSPO ? this.gspo : index == Index.SPO ? this.spo : index == Index.POS ? this.pos : this.osp;
+
+        for (int row : rows) {
+
+            consumer.accept(this.graphs[row], this.subjects[row], this.predicates[row], this.objects[row]);
+        }
+    }
+
+    /**
+     * @return {@code true} if at least one quad matches
+     */
+    public boolean contains(final int graph, final int subject, final int predicate, final int object) {
+
+        final boolean[] found = { false };
+
+        this.match(graph, subject, predicate, object, (g, s, p, o) -> found[0] = true);
+
+        return found[0];
+    }
+
+    /**
+     * @return number of distinct quads after {@link #build()}, of added quads before
+     */
+    public int size() {
+
+        return this.built ? this.gspo.length : this.size;
+    }
+
+    public boolean isBuilt() {
+
+        return this.built;
+    }
+
+    /**
+     * @return bytes held by the columns and indexes
+     */
+    public long getBytes() {
+
+        return (long) this.subjects.length * 16 + (this.built ? (long) this.gspo.length * 16 : 0);
+    }
+
+    /**
+     * @return first ({@code upper == false}) or last + 1 position of the rows whose first {@code prefix} columns equal
+     * {@code keys}
+     */
+    private static int bound(final int[] index, final int[][] columns, final int[] keys, final int prefix, final boolean upper) {
+
+        int low = 0;
+        int high = index.length;
+
+        while (low < high) {
+
+            final int middle = (low + high) >>> 1;
+            final int row = index[middle];
+
+            int compare = 0;
+
+            for (int c = 0; c < prefix && compare == 0; c++) {
+
+                compare = Integer.compare(columns[c][row], keys[c]);
+            }
+
+            if (compare < 0 || (upper && compare == 0)) {
+
+                low = middle + 1;
+            }
+            else {
+
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private int compareGSPO(final int a, final int b) {
+
+        int compare = Integer.compare(this.graphs[a], this.graphs[b]);
+
+        return compare != 0 ? compare : this.compareSPO(a, b);
+    }
+
+    private int compareSPO(final int a, final int b) {
+
+        int compare = Integer.compare(this.subjects[a], this.subjects[b]);
+
+        if (compare == 0) {
+
+            compare = Integer.compare(this.predicates[a], this.predicates[b]);
+        }
+        if (compare == 0) {
+
+            compare = Integer.compare(this.objects[a], this.objects[b]);
+        }
+
+        return compare;
+    }
+
+    private int comparePOS(final int a, final int b) {
+
+        int compare = Integer.compare(this.predicates[a], this.predicates[b]);
+
+        if (compare == 0) {
+
+            compare = Integer.compare(this.objects[a], this.objects[b]);
+        }
+        if (compare == 0) {
+
+            compare = Integer.compare(this.subjects[a], this.subjects[b]);
+        }
+
+        return compare;
+    }
+
+    private int compareOSP(final int a, final int b) {
+
+        int compare = Integer.compare(this.objects[a], this.objects[b]);
+
+        if (compare == 0) {
+
+            compare = Integer.compare(this.subjects[a], this.subjects[b]);
+        }
+        if (compare == 0) {
+
+            compare = Integer.compare(this.predicates[a], this.predicates[b]);
+        }
+
+        return compare;
+    }
+
+    private static int[] identity(final int size) {
+
+        final int[] rows = new int[size];
+
+        for (int i = 0; i < size; i++) {
+
+            rows[i] = i;
+        }
+
+        return rows;
+    }
+}
@@ -0,0 +1,473 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.memory;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RDF Serializer
+ *
+ * Writes the statements of one subject - as found by {@link QuadStore#match} - in the formats of the resource
+ * endpoint. N-Quads are copied byte by byte from the {@link TermDecoder}; Turtle uses the N-Triples form of the
+ * terms, grouped by predicate; JSON-LD (expanded), RDF/XML, HTML and RDFa are built from the parsed terms.
+ *
+ * The format is matched like the endpoint does it, i.e. {@code html.en} is HTML.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class RdfSerializer {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final byte[] SPACE       = { ' ' };
+    private static final byte[] END_OF_LINE = { ' ', '.', '\n' };
+
+    private final TermDecoder dictionary;
+
+    public RdfSerializer(final TermDecoder dictionary) {
+
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @return {@code true} if {@code format} is one of the supported formats
+     */
+    public static boolean isSupported(final String format) {
+
+        return format != null && (format.contains("nquads") || format.contains("rdf.ttl") || format.contains("json")
+                || format.contains("rdf.xml") || format.contains("html") || format.contains("rdfa"));
+    }
+
+    /**
+     * Writes the statements; the stream is flushed but not closed.
+     *
+     * @param statements graph, predicate and object ids of the statements of {@code subject}, three per statement
+     * @param count      number of statements
+     */
+    public void write(final int subject, final int[] statements, final int count, final String format, final OutputStream outputStream) throws IOException {
+
+        if (format.contains("nquads")) {
+
+            this.writeNQuads(subject, statements, count, outputStream);
+        }
+        else if (format.contains("rdf.ttl")) {
+
+            this.writeTurtle(subject, statements, count, outputStream);
+        }
+        else if (format.contains("json")) {
+
+            this.writeJsonLd(subject, statements, count, outputStream);
+        }
+        else if (format.contains("rdf.xml")) {
+
+            this.writeRdfXml(subject, statements, count, outputStream);
+        }
+        else if (format.contains("html") || format.contains("rdfa")) {
+
+            this.writeHtml(subject, statements, count, format.contains("rdfa"), outputStream);
+        }
+        else {
+
+            throw new IllegalArgumentException("unsupported format: " + format);
+        }
+    }
+
+    /**
+     * Writes a list of subjects as SPARQL results with the single variable {@code s} ({@code json} or {@code xml}) or
+     * as an HTML list.
+     */
+    public static void writeSubjects(final List<String> subjects, final String format, final OutputStream outputStream) throws IOException {
+
+        if (format.contains("json")) {
+
+            final JsonGenerator json = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8);
+
+            json.writeStartObject();
+            json.writeObjectFieldStart("head");
+            json.writeArrayFieldStart("vars");
+            json.writeString("s");
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeObjectFieldStart("results");
+            json.writeArrayFieldStart("bindings");
+
+            for (String subject : subjects) {
+
+                json.writeStartObject();
+                json.writeObjectFieldStart("s");
+                json.writeStringField("type", Terms.isBlank(subject) ? "bnode" : "uri");
+                json.writeStringField("value", Terms.value(subject));
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+            json.flush();
+        }
+        else {
+
+            final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+
+            if (format.contains("html")) {
+
+                writer.write("<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"/></head><body><ul>\n");
+
+                for (String subject : subjects) {
+
+                    final String value = escapeXml(Terms.value(subject));
+
+                    writer.write("<li><a href=\"" + value + "\">" + value + "</a></li>\n");
+                }
+
+                writer.write("</ul></body></html>\n");
+            }
+            else {
+
+                writer.write("<?xml version=\"1.0\"?>\n<sparql xmlns=\"http://www.w3.org/2005/sparql-results#\">\n<head><variable name=\"s\"/></head>\n<results>\n");
+
+                for (String subject : subjects) {
+
+                    final String element = Terms.isBlank(subject) ? "bnode" : "uri";
+
+                    writer.write("<result><binding name=\"s\"><" + element + ">" + escapeXml(Terms.value(subject)) + "</" + element + "></binding></result>\n");
+                }
+
+                writer.write("</results>\n</sparql>\n");
+            }
+
+            writer.flush();
+        }
+    }
+
+    private void writeNQuads(final int subject, final int[] statements, final int count, final OutputStream outputStream) throws IOException {
+
+        for (int i = 0; i < count; i++) {
+
+            final int graph = statements[3 * i];
+
+            this.dictionary.write(subject, outputStream);
+            outputStream.write(SPACE);
+            this.dictionary.write(statements[3 * i + 1], outputStream);
+            outputStream.write(SPACE);
+            this.dictionary.write(statements[3 * i + 2], outputStream);
+
+            if (graph != 0) {
+
+                outputStream.write(SPACE);
+                this.dictionary.write(graph, outputStream);
+            }
+
+            outputStream.write(END_OF_LINE);
+        }
+
+        outputStream.flush();
+    }
+
+    private void writeTurtle(final int subject, final int[] statements, final int count, final OutputStream outputStream) throws IOException {
+
+        final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        final Map<Integer, StringBuilder> predicates = this.group(statements, count, (builder, object) -> {
+
+            builder.append(builder.length() == 0 ? " " : " ,\n        ").append(this.dictionary.decode(object));
+        });
+
+        if (!predicates.isEmpty()) {
+
+            writer.write(this.dictionary.decode(subject));
+
+            String separator = "\n    ";
+
+            for (Map.Entry<Integer, StringBuilder> entry : predicates.entrySet()) {
+
+                writer.write(separator);
+                writer.write(this.dictionary.decode(entry.getKey()));
+                writer.write(entry.getValue().toString());
+
+                separator = " ;\n    ";
+            }
+
+            writer.write(" .\n");
+        }
+
+        writer.flush();
+    }
+
+    private void writeJsonLd(final int subject, final int[] statements, final int count, final OutputStream outputStream) throws IOException {
+
+        final JsonGenerator json = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8);
+        final String subjectTerm = this.dictionary.decode(subject);
+
+        json.writeStartArray();
+        json.writeStartObject();
+        json.writeStringField("@id", Terms.isBlank(subjectTerm) ? subjectTerm : Terms.value(subjectTerm));
+
+        int previous = 0;
+
+        for (int i : this.orderByPredicate(statements, count)) {
+
+            final int predicate = statements[3 * i + 1];
+
+            if (predicate != previous) {
+
+                if (previous != 0) {
+
+                    json.writeEndArray();
+                }
+
+                json.writeArrayFieldStart(Terms.value(this.dictionary.decode(predicate)));
+                previous = predicate;
+            }
+
+            final String object = this.dictionary.decode(statements[3 * i + 2]);
+
+            json.writeStartObject();
+
+            if (Terms.isLiteral(object)) {
+
+                json.writeStringField("@value", Terms.value(object));
+
+                if (Terms.language(object) != null) {
+
+                    json.writeStringField("@language", Terms.language(object));
+                }
+                else if (Terms.datatype(object) != null && !Terms.XSD_STRING.equals(Terms.datatype(object))) {
+
+                    json.writeStringField("@type", Terms.datatype(object));
+                }
+            }
+            else {
+
+                json.writeStringField("@id", Terms.isBlank(object) ? object : Terms.value(object));
+            }
+
+            json.writeEndObject();
+        }
+
+        if (previous != 0) {
+
+            json.writeEndArray();
+        }
+
+        json.writeEndObject();
+        json.writeEndArray();
+        json.flush();
+    }
+
+    private void writeRdfXml(final int subject, final int[] statements, final int count, final OutputStream outputStream) throws IOException {
+
+        final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        final String subjectTerm = this.dictionary.decode(subject);
+
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\">\n");
+        writer.write(Terms.isBlank(subjectTerm)
+                ? "  <rdf:Description rdf:nodeID=\"" + escapeXml(Terms.value(subjectTerm)) + "\">\n"
+                : "  <rdf:Description rdf:about=\"" + escapeXml(Terms.value(subjectTerm)) + "\">\n");
+
+        for (int i : this.orderByPredicate(statements, count)) {
+
+            final String predicate = Terms.value(this.dictionary.decode(statements[3 * i + 1]));
+            final String object = this.dictionary.decode(statements[3 * i + 2]);
+
+            // the local name starts after the last '#' or '/'; the namespace is declared on the element itself
+            final int split = Math.max(predicate.lastIndexOf('#'), predicate.lastIndexOf('/')) + 1;
+
+            writer.write("    <p:" + predicate.substring(split) + " xmlns:p=\"" + escapeXml(predicate.substring(0, split)) + "\"");
+
+            if (Terms.isLiteral(object)) {
+
+                if (Terms.language(object) != null) {
+
+                    writer.write(" xml:lang=\"" + escapeXml(Terms.language(object)) + "\"");
+                }
+                else if (Terms.datatype(object) != null && !Terms.XSD_STRING.equals(Terms.datatype(object))) {
+
+                    writer.write(" rdf:datatype=\"" + escapeXml(Terms.datatype(object)) + "\"");
+                }
+
+                writer.write(">" + escapeXml(Terms.value(object)) + "</p:" + predicate.substring(split) + ">\n");
+            }
+            else if (Terms.isBlank(object)) {
+
+                writer.write(" rdf:nodeID=\"" + escapeXml(Terms.value(object)) + "\"/>\n");
+            }
+            else {
+
+                writer.write(" rdf:resource=\"" + escapeXml(Terms.value(object)) + "\"/>\n");
+            }
+        }
+
+        writer.write("  </rdf:Description>\n</rdf:RDF>\n");
+        writer.flush();
+    }
+
+    private void writeHtml(final int subject, final int[] statements, final int count, final boolean rdfa, final OutputStream outputStream) throws IOException {
+
+        final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        final String subjectValue = escapeXml(Terms.value(this.dictionary.decode(subject)));
+
+        if (rdfa) {
+
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!DOCTYPE html>\n<html xmlns=\"http://www.w3.org/1999/xhtml\" version=\"XHTML+RDFa 1.1\">\n");
+        }
+        else {
+
+            writer.write("<!DOCTYPE html>\n<html>\n");
+        }
+
+        writer.write("<head><meta charset=\"UTF-8\"/><title>" + subjectValue + "</title></head>\n<body>\n<h1>" + subjectValue + "</h1>\n");
+        writer.write(rdfa ? "<table about=\"" + subjectValue + "\">\n" : "<table>\n");
+
+        for (int i : this.orderByPredicate(statements, count)) {
+
+            final String predicate = escapeXml(Terms.value(this.dictionary.decode(statements[3 * i + 1])));
+            final String object = this.dictionary.decode(statements[3 * i + 2]);
+            final String value = escapeXml(Terms.value(object));
+
+            writer.write("<tr><th>" + predicate + "</th><td>");
+
+            if (Terms.isLiteral(object)) {
+
+                final String language = Terms.language(object);
+                final String datatype = Terms.datatype(object);
+
+                writer.write(rdfa ? "<span property=\"" + predicate + "\"" : "<span");
+
+                if (language != null) {
+
+                    writer.write(" xml:lang=\"" + escapeXml(language) + "\"");
+                }
+                if (rdfa && datatype != null) {
+
+                    writer.write(" datatype=\"" + escapeXml(datatype) + "\"");
+                }
+
+                writer.write(">" + value + "</span>");
+            }
+            else {
+
+                writer.write((rdfa ? "<a rel=\"" + predicate + "\" href=\"" : "<a href=\"") + value + "\">" + value + "</a>");
+            }
+
+            writer.write("</td></tr>\n");
+        }
+
+        writer.write("</table>\n</body>\n</html>\n");
+        writer.flush();
+    }
+
+    private Map<Integer, StringBuilder> group(final int[] statements, final int count, final ObjectAppender appender) {
+
+        final Map<Integer, StringBuilder> predicates = new LinkedHashMap<>();
+
+        for (int i = 0; i < count; i++) {
+
+            appender.append(predicates.computeIfAbsent(statements[3 * i + 1], predicate -> new StringBuilder()), statements[3 * i + 2]);
+        }
+
+        return predicates;
+    }
+
+    /**
+     * @return the statement indexes, the statements of a predicate next to each other in the order of their first
+     * occurrence
+     */
+    private int[] orderByPredicate(final int[] statements, final int count) {
+
+        final Map<Integer, int[]> positions = new LinkedHashMap<>();
+        final int[] order = new int[count];
+
+        // counting sort over the predicates
+        for (int i = 0; i < count; i++) {
+
+            positions.computeIfAbsent(statements[3 * i + 1], predicate -> new int[1])[0]++;
+        }
+
+        int offset = 0;
+
+        for (int[] position : positions.values()) {
+
+            final int size = position[0];
+
+            position[0] = offset;
+            offset += size;
+        }
+
+        for (int i = 0; i < count; i++) {
+
+            order[positions.get(statements[3 * i + 1])[0]++] = i;
+        }
+
+        return order;
+    }
+
+    static String escapeXml(final String value) {
+
+        final StringBuilder escaped = new StringBuilder(value.length() + 16);
+
+        for (int i = 0; i < value.length(); i++) {
+
+            final char c = value.charAt(i);
+
+            switch (c) {
+
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '"':
+                    escaped.append("&quot;");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+
+        return escaped.toString();
+    }
+
+    private interface ObjectAppender {
+
+        void append(StringBuilder builder, int object);
+    }
+}
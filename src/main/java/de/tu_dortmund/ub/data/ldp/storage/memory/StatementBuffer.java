@@ -0,0 +1,82 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.memory;
+
+import java.util.Arrays;
+
+/**
+ * Statement Buffer
+ *
+ * Collects graph, predicate and object of the statements of one subject - three ids per statement - in the layout
+ * expected by {@link RdfSerializer#write}.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class StatementBuffer implements QuadStore.QuadConsumer {
+
+    private int[] statements = new int[48];
+    private int   size;
+
+    @Override
+    public void accept(final int graph, final int subject, final int predicate, final int object) {
+
+        if (3 * this.size == this.statements.length) {
+
+            this.statements = Arrays.copyOf(this.statements, this.statements.length * 2);
+        }
+
+        this.statements[3 * this.size] = graph;
+        this.statements[3 * this.size + 1] = predicate;
+        this.statements[3 * this.size + 2] = object;
+        this.size++;
+    }
+
+    /**
+     * @return the object of the first statement with the predicate or {@code 0} if there is none
+     */
+    public int object(final int predicate) {
+
+        for (int i = 0; predicate != 0 && i < this.size; i++) {
+
+            if (this.statements[3 * i + 1] == predicate) {
+
+                return this.statements[3 * i + 2];
+            }
+        }
+
+        return 0;
+    }
+
+    public int[] getStatements() {
+
+        return this.statements;
+    }
+
+    public int size() {
+
+        return this.size;
+    }
+}
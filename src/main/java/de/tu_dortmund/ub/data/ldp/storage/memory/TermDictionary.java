@@ -0,0 +1,329 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.memory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Term Dictionary
+ *
+ * Maps RDF terms in N-Triples syntax ({@code <iri>}, {@code _:label}, {@code "literal"@lang}, ...) to dense
+ * {@code int} ids starting at {@code 1} and back. The UTF-8 bytes of the terms are appended to 1 MB chunks, the ids
+ * are found through an open-addressing hash table of primitive arrays, so a term costs its bytes plus about 24 bytes
+ * and no objects.
+ *
+ * Adding is single-threaded (the loader); after loading the dictionary is only read and can be shared.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class TermDictionary implements TermDecoder {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    private byte[] chunk;
+    private int    position;
+
+    // per id: position in the chunks (chunk << 32 | offset), length and hash
+    private long[] offsets;
+    private int[]  lengths;
+    private int[]  hashes;
+    private int    size;
+
+    // open addressing, 0 = empty
+    private int[] table;
+    private long  bytes;
+
+    public TermDictionary() {
+
+        this(1024);
+    }
+
+    /**
+     * @param expectedSize number of terms to allocate for, so that loading a known amount of data does not resize
+     */
+    public TermDictionary(final int expectedSize) {
+
+        final int capacity = Math.max(16, expectedSize + 1);
+
+        this.offsets = new long[capacity];
+        this.lengths = new int[capacity];
+        this.hashes = new int[capacity];
+        this.table = new int[tableSize(capacity)];
+    }
+
+    /**
+     * @return the id of the term, which is added if it is new
+     */
+    public int encode(final String term) {
+
+        final byte[] value = term.getBytes(StandardCharsets.UTF_8);
+        final int hash = hash(value, 0, value.length);
+
+        int slot = hash & (this.table.length - 1);
+
+        for (int id = this.table[slot]; id != 0; id = this.table[slot]) {
+
+            if (this.hashes[id] == hash && this.equals(id, value)) {
+
+                return id;
+            }
+
+            slot = (slot + 1) & (this.table.length - 1);
+        }
+
+        final int id = ++this.size;
+
+        if (id == this.offsets.length) {
+
+            this.grow();
+        }
+
+        this.offsets[id] = this.append(value);
+        this.lengths[id] = value.length;
+        this.hashes[id] = hash;
+
+        if (this.size * 2 > this.table.length) {
+
+            this.rehash(this.table.length * 2);
+        }
+        else {
+
+            this.table[slot] = id;
+        }
+
+        return id;
+    }
+
+    /**
+     * @return the id of the term or {@code 0} if it is not in the dictionary
+     */
+    public int lookup(final String term) {
+
+        final byte[] value = term.getBytes(StandardCharsets.UTF_8);
+        final int hash = hash(value, 0, value.length);
+
+        int slot = hash & (this.table.length - 1);
+
+        for (int id = this.table[slot]; id != 0; id = this.table[slot]) {
+
+            if (this.hashes[id] == hash && this.equals(id, value)) {
+
+                return id;
+            }
+
+            slot = (slot + 1) & (this.table.length - 1);
+        }
+
+        return 0;
+    }
+
+    @Override
+    public String decode(final int id) {
+
+        final long offset = this.offsets[id];
+
+        return new String(this.chunks.get((int) (offset >>> 32)), (int) offset, this.lengths[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the UTF-8 bytes of the term without decoding them.
+     */
+    @Override
+    public void write(final int id, final OutputStream outputStream) throws IOException {
+
+        final long offset = this.offsets[id];
+
+        outputStream.write(this.chunks.get((int) (offset >>> 32)), (int) offset, this.lengths[id]);
+    }
+
+    /**
+     * @return the first byte of the term: {@code <} for IRIs, {@code _} for blank nodes, {@code "} for literals
+     */
+    public byte kind(final int id) {
+
+        final long offset = this.offsets[id];
+
+        return this.chunks.get((int) (offset >>> 32))[(int) offset];
+    }
+
+    /**
+     * @return the UTF-8 bytes of the term
+     */
+    public byte[] toBytes(final int id) {
+
+        final long offset = this.offsets[id];
+        final int start = (int) offset;
+
+        return Arrays.copyOfRange(this.chunks.get((int) (offset >>> 32)), start, start + this.lengths[id]);
+    }
+
+    /**
+     * Compares the UTF-8 bytes of two terms - unsigned, i.e. in code point order.
+     */
+    public int compare(final int a, final int b) {
+
+        final byte[] chunkA = this.chunks.get((int) (this.offsets[a] >>> 32));
+        final byte[] chunkB = this.chunks.get((int) (this.offsets[b] >>> 32));
+        final int startA = (int) this.offsets[a];
+        final int startB = (int) this.offsets[b];
+        final int length = Math.min(this.lengths[a], this.lengths[b]);
+
+        for (int i = 0; i < length; i++) {
+
+            final int compare = (chunkA[startA + i] & 0xff) - (chunkB[startB + i] & 0xff);
+
+            if (compare != 0) {
+
+                return compare;
+            }
+        }
+
+        return this.lengths[a] - this.lengths[b];
+    }
+
+    public int size() {
+
+        return this.size;
+    }
+
+    /**
+     * @return bytes held by the dictionary
+     */
+    public long getBytes() {
+
+        return (long) this.chunks.size() * CHUNK_SIZE + (long) this.offsets.length * 16 + (long) this.table.length * 4;
+    }
+
+    /**
+     * @return bytes of the terms themselves
+     */
+    public long getTermBytes() {
+
+        return this.bytes;
+    }
+
+    private long append(final byte[] value) {
+
+        if (this.chunk == null || this.position + value.length > this.chunk.length) {
+
+            // terms larger than a chunk get a chunk of their own
+            this.chunk = new byte[Math.max(CHUNK_SIZE, value.length)];
+            this.chunks.add(this.chunk);
+            this.position = 0;
+        }
+
+        final long offset = ((long) (this.chunks.size() - 1) << 32) | this.position;
+
+        System.arraycopy(value, 0, this.chunk, this.position, value.length);
+
+        this.position += value.length;
+        this.bytes += value.length;
+
+        return offset;
+    }
+
+    private boolean equals(final int id, final byte[] value) {
+
+        if (this.lengths[id] != value.length) {
+
+            return false;
+        }
+
+        final long offset = this.offsets[id];
+        final byte[] chunk = this.chunks.get((int) (offset >>> 32));
+        final int start = (int) offset;
+
+        for (int i = 0; i < value.length; i++) {
+
+            if (chunk[start + i] != value[i]) {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void grow() {
+
+        final int capacity = this.offsets.length + (this.offsets.length >> 1);
+
+        this.offsets = Arrays.copyOf(this.offsets, capacity);
+        this.lengths = Arrays.copyOf(this.lengths, capacity);
+        this.hashes = Arrays.copyOf(this.hashes, capacity);
+    }
+
+    private void rehash(final int tableSize) {
+
+        final int[] table = new int[tableSize];
+
+        for (int id = 1; id <= this.size; id++) {
+
+            int slot = this.hashes[id] & (tableSize - 1);
+
+            while (table[slot] != 0) {
+
+                slot = (slot + 1) & (tableSize - 1);
+            }
+
+            table[slot] = id;
+        }
+
+        this.table = table;
+    }
+
+    private static int tableSize(final int capacity) {
+
+        int tableSize = 16;
+
+        while (tableSize < capacity * 2) {
+
+            tableSize <<= 1;
+        }
+
+        return tableSize;
+    }
+
+    private static int hash(final byte[] value, final int from, final int to) {
+
+        // FNV-1a, then spread, since the table uses the low bits
+        int hash = 0x811c9dc5;
+
+        for (int i = from; i < to; i++) {
+
+            hash = (hash ^ value[i]) * 0x01000193;
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,341 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy
+    of this software and associated documentation files (the "Software"), to deal
+    in the Software without restriction, including without limitation the rights
+    to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+    copies of the Software, and to permit persons to whom the Software is
+    furnished to do so, subject to the following conditions:
+    The above copyright notice and this permission notice shall be included in all
+    copies or substantial portions of the Software.
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+    IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+    FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+    AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+    LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+    OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+    SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.data.ldp.storage.memory;
+
+/**
+ * RDF terms in N-Triples syntax
+ *
+ * Parsing of N-Triples/N-Quads lines and access to the parts of a term. Terms are kept in their N-Triples form, which
+ * is also valid Turtle, so most formats can write them unchanged.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class Terms {
+
+    public static final String XSD_STRING = "http://www.w3.org/2001/XMLSchema#string";
+
+    private Terms() {
+    }
+
+    /**
+     * Parses an N-Triples or N-Quads statement.
+     *
+     * @return subject, predicate, object and graph ({@code null} for the default graph) or {@code null} for an empty
+     * or comment line
+     * @throws IllegalArgumentException if the line is not a statement
+     */
+    public static String[] parse(final String line) {
+
+        final String[] terms = new String[4];
+
+        int position = skip(line, 0);
+
+        if (position == line.length() || line.charAt(position) == '#') {
+
+            return null;
+        }
+
+        for (int i = 0; i < 4; i++) {
+
+            if (i == 3 && line.charAt(position) == '.') {
+
+                break;
+            }
+
+            final int end = end(line, position);
+
+            terms[i] = line.substring(position, end);
+            position = skip(line, end);
+
+            if (position == line.length()) {
+
+                throw new IllegalArgumentException("missing '.'");
+            }
+        }
+
+        if (line.charAt(position) != '.' || skip(line, position + 1) != line.length() && line.charAt(skip(line, position + 1)) != '#') {
+
+            throw new IllegalArgumentException("expected '.' at position " + position);
+        }
+
+        if (!isIri(terms[0]) && !isBlank(terms[0]) || !isIri(terms[1]) || terms[3] != null && !isIri(terms[3]) && !isBlank(terms[3])) {
+
+            throw new IllegalArgumentException("invalid subject, predicate or graph");
+        }
+
+        return terms;
+    }
+
+    public static boolean isIri(final String term) {
+
+        return term.length() > 1 && term.charAt(0) == '<';
+    }
+
+    public static boolean isBlank(final String term) {
+
+        return term.startsWith("_:");
+    }
+
+    public static boolean isLiteral(final String term) {
+
+        return term.length() > 1 && term.charAt(0) == '"';
+    }
+
+    /**
+     * @return the IRI without brackets, the label of a blank node or the unescaped lexical form of a literal
+     */
+    public static String value(final String term) {
+
+        if (isIri(term)) {
+
+            return unescape(term, 1, term.length() - 1);
+        }
+        if (isBlank(term)) {
+
+            return term.substring(2);
+        }
+
+        return unescape(term, 1, closingQuote(term));
+    }
+
+    /**
+     * @return the language tag of a literal or {@code null}
+     */
+    public static String language(final String term) {
+
+        if (!isLiteral(term)) {
+
+            return null;
+        }
+
+        final int quote = closingQuote(term);
+
+        return quote + 1 < term.length() && term.charAt(quote + 1) == '@' ? term.substring(quote + 2) : null;
+    }
+
+    /**
+     * @return the datatype IRI of a literal - without brackets - or {@code null} for plain and language-tagged literals
+     */
+    public static String datatype(final String term) {
+
+        if (!isLiteral(term)) {
+
+            return null;
+        }
+
+        final int quote = closingQuote(term);
+
+        return quote + 3 < term.length() && term.charAt(quote + 1) == '^' ? term.substring(quote + 4, term.length() - 1) : null;
+    }
+
+    /**
+     * @return the literal in N-Triples syntax
+     */
+    public static String literal(final String value) {
+
+        final StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+
+            final char c = value.charAt(i);
+
+            switch (c) {
+
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                default:
+                    literal.append(c);
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+
+    private static int closingQuote(final String term) {
+
+        for (int i = 1; i < term.length(); i++) {
+
+            final char c = term.charAt(i);
+
+            if (c == '\\') {
+
+                i++;
+            }
+            else if (c == '"') {
+
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("unterminated literal");
+    }
+
+    private static int skip(final String line, int position) {
+
+        while (position < line.length() && (line.charAt(position) == ' ' || line.charAt(position) == '\t')) {
+
+            position++;
+        }
+
+        return position;
+    }
+
+    private static int end(final String line, final int start) {
+
+        final char first = line.charAt(start);
+
+        if (first == '<') {
+
+            final int end = line.indexOf('>', start);
+
+            if (end < 0) {
+
+                throw new IllegalArgumentException("unterminated IRI");
+            }
+
+            return end + 1;
+        }
+
+        if (first == '"') {
+
+            int end = start + 1;
+
+            while (end < line.length() && line.charAt(end) != '"') {
+
+                end += line.charAt(end) == '\\' ? 2 : 1;
+            }
+
+            if (end >= line.length()) {
+
+                throw new IllegalArgumentException("unterminated literal");
+            }
+
+            end++;
+
+            if (end < line.length() && line.charAt(end) == '@') {
+
+                end++;
+
+                while (end < line.length() && (Character.isLetterOrDigit(line.charAt(end)) || line.charAt(end) == '-')) {
+
+                    end++;
+                }
+            }
+            else if (line.startsWith("^^<", end)) {
+
+                end = line.indexOf('>', end);
+
+                if (end < 0) {
+
+                    throw new IllegalArgumentException("unterminated datatype");
+                }
+
+                end++;
+            }
+
+            return end;
+        }
+
+        if (line.startsWith("_:", start)) {
+
+            int end = start + 2;
+
+            while (end < line.length() && line.charAt(end) != ' ' && line.charAt(end) != '\t') {
+
+                end++;
+            }
+
+            // "_:b1." at the end of the line
+            return line.charAt(end - 1) == '.' && end - 1 > start + 2 ? end - 1 : end;
+        }
+
+        throw new IllegalArgumentException("unexpected '" + first + "' at position " + start);
+    }
+
+    private static String unescape(final String term, final int from, final int to) {
+
+        if (term.indexOf('\\', from) < 0 || term.indexOf('\\', from) >= to) {
+
+            return term.substring(from, to);
+        }
+
+        final StringBuilder value = new StringBuilder(to - from);
+
+        for (int i = from; i < to; i++) {
+
+            final char c = term.charAt(i);
+
+            if (c != '\\' || i + 1 >= to) {
+
+                value.append(c);
+                continue;
+            }
+
+            final char escaped = term.charAt(++i);
+
+            switch (escaped) {
+
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    value.append((char) Integer.parseInt(term.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                case 'U':
+                    value.appendCodePoint(Integer.parseInt(term.substring(i + 1, i + 9), 16));
+                    i += 8;
+                    break;
+                default:
+                    value.append(escaped);
+            }
+        }
+
+        return value.toString();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+
+
+package de.tu_dortmund.ub.util.collections;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter for strings: {@link #mightContain(CharSequence)} never answers {@code false} for a string that has been
+ * added, and answers {@code true} for other strings with a small probability chosen at construction.
+ *
+ * The bits are set with atomic operations, so strings can be added and tested concurrently without a lock. Strings
+ * cannot be removed; a filter that has seen many removals in its backing set has to be rebuilt.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long            size;
+    private final int             hashes;
+
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions       number of strings the filter is sized for
+     * @param falsePositiveProbability probability of a false positive once {@code expectedInsertions} strings have been
+     *                                 added, e.g. {@code 0.01}
+     */
+    public BloomFilter(final long expectedInsertions, final double falsePositiveProbability) {
+
+        final long n = Math.max(1, expectedInsertions);
+        final double p = Math.min(0.5, Math.max(1e-9, falsePositiveProbability));
+
+        final long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        final int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+
+        this.bits = new AtomicLongArray(words);
+        this.size = 64L * words;
+        this.hashes = (int) Math.max(1, Math.min(16, Math.round((double) this.size / n * Math.log(2))));
+    }
+
+    public void add(final CharSequence value) {
+
+        final long hash = hash(value);
+        final long h1 = mix(hash);
+        final long h2 = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+
+        for (int i = 0; i < this.hashes; i++) {
+
+            final long bit = Long.remainderUnsigned(h1 + i * h2, this.size);
+            final int word = (int) (bit >>> 6);
+            final long mask = 1L << bit;
+
+            long current;
+
+            while (((current = this.bits.get(word)) & mask) == 0 && !this.bits.compareAndSet(word, current, current | mask)) {
+
+                // another thread has changed the word in between
+            }
+        }
+
+        this.insertions.increment();
+    }
+
+    public boolean mightContain(final CharSequence value) {
+
+        final long hash = hash(value);
+        final long h1 = mix(hash);
+        final long h2 = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+
+        for (int i = 0; i < this.hashes; i++) {
+
+            final long bit = Long.remainderUnsigned(h1 + i * h2, this.size);
+
+            if ((this.bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the number of {@link #add(CharSequence)} calls, including repeated strings
+     */
+    public long getInsertions() {
+
+        return this.insertions.sum();
+    }
+
+    /**
+     * @return the size of the filter in bits
+     */
+    public long getSize() {
+
+        return this.size;
+    }
+
+    public int getHashes() {
+
+        return this.hashes;
+    }
+
+    /**
+     * @return the expected probability of a false positive after {@link #getInsertions()} insertions
+     */
+    public double getFalsePositiveProbability() {
+
+        return Math.pow(1 - Math.exp(-this.hashes * (double) this.getInsertions() / this.size), this.hashes);
+    }
+
+    // FNV-1a over the UTF-16 code units
+    private static long hash(final CharSequence value) {
+
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    // finalizer of MurmurHash3, spreads the bits of the FNV hash over the whole word
+    private static long mix(long hash) {
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93e185a53c3L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+
+
+
+package de.tu_dortmund.ub.util.collections;
+
+import java.util.Arrays;
+
+/**
+ * Bloom filter for strings that grows with its content, for sets whose size is not known before they are read.
+ *
+ * It is a chain of {@link BloomFilter}s: once the last one holds the strings it is sized for, a new one with four times
+ * the capacity and half the false positive probability is added. {@link #mightContain(CharSequence)} asks all of them,
+ * so the false positive probability stays below the one chosen at construction, however many strings are added.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class ScalableBloomFilter {
+
+    private static final int GROWTH = 4;
+
+    private final long   initialInsertions;
+    private final double falsePositiveProbability;
+
+    private volatile BloomFilter[] filters;
+
+    /**
+     * @param initialInsertions        number of strings the first filter is sized for
+     * @param falsePositiveProbability upper bound of the probability of a false positive, e.g. {@code 0.01}
+     */
+    public ScalableBloomFilter(final long initialInsertions, final double falsePositiveProbability) {
+
+        this.initialInsertions = Math.max(1, initialInsertions);
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.filters = new BloomFilter[] { this.filter(0) };
+    }
+
+    public void add(final CharSequence value) {
+
+        final BloomFilter[] filters = this.filters;
+        BloomFilter filter = filters[filters.length - 1];
+
+        if (filter.getInsertions() >= this.capacity(filters.length - 1)) {
+
+            filter = this.grow(filters.length);
+        }
+
+        filter.add(value);
+    }
+
+    public boolean mightContain(final CharSequence value) {
+
+        for (BloomFilter filter : this.filters) {
+
+            if (filter.mightContain(value)) {
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the number of {@link #add(CharSequence)} calls, including repeated strings
+     */
+    public long getInsertions() {
+
+        long insertions = 0;
+
+        for (BloomFilter filter : this.filters) {
+
+            insertions += filter.getInsertions();
+        }
+
+        return insertions;
+    }
+
+    /**
+     * @return the size of the filters in bits
+     */
+    public long getSize() {
+
+        long size = 0;
+
+        for (BloomFilter filter : this.filters) {
+
+            size += filter.getSize();
+        }
+
+        return size;
+    }
+
+    /**
+     * @return the number of filters in the chain
+     */
+    public int getFilters() {
+
+        return this.filters.length;
+    }
+
+    private synchronized BloomFilter grow(final int length) {
+
+        // unless another thread has grown the chain already
+        if (this.filters.length == length) {
+
+            final BloomFilter[] filters = Arrays.copyOf(this.filters, length + 1);
+            filters[length] = this.filter(length);
+
+            this.filters = filters;
+        }
+
+        return this.filters[this.filters.length - 1];
+    }
+
+    private long capacity(final int index) {
+
+        // saturates at Long.MAX_VALUE
+        return (long) (this.initialInsertions * Math.pow(GROWTH, index));
+    }
+
+    // the probabilities p/2, p/4, ... add up to less than p
+    private BloomFilter filter(final int index) {
+
+        return new BloomFilter(this.capacity(index), this.falsePositiveProbability / Math.pow(2, index + 1));
+    }
+}
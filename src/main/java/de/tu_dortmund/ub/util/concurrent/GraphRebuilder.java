@@ -0,0 +1,230 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.util.concurrent;
+
+import org.apache.log4j.Logger;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rebuilds the per-graph parts of an index on a background thread, for indexes in front of a storage that cannot tell
+ * which subjects an update has touched.
+ *
+ * The owner drops the graphs from its index and passes them to {@link #rebuild(Collection)}; the rebuild thread reads
+ * them without holding the owner's lock and publishes the result unless another rebuild has been requested meanwhile
+ * - then it reads them again. Subjects of updates that came in during the read are passed to the publisher along with
+ * the result, see {@link #touched(Collection)}.
+ *
+ * The state is guarded by the owner's lock, which is also held while publishing, so an update of the owner never
+ * overlaps with a rebuild being published.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class GraphRebuilder<T> {
+
+    private static Logger logger = Logger.getLogger(GraphRebuilder.class.getName());
+
+    /**
+     * Reads the graphs from the storage, without holding the owner's lock.
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+
+        Map<String, T> read(Collection<String> graphs);
+    }
+
+    /**
+     * Adds the graphs read to the index, with the subjects updated during the read; called holding the owner's lock.
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+
+        void publish(Map<String, T> graphs, Set<String> touched);
+    }
+
+    private final String       serviceName;
+    private final String       index;
+    private final Object       lock;
+    private final Reader<T>    reader;
+    private final Publisher<T> publisher;
+
+    private final ThreadPoolExecutor executor;
+
+    // guarded by lock: the graphs to rebuild, the subjects updated while they are read and the rebuilds requested so far
+    private final Set<String> rebuilding = new LinkedHashSet<>();
+    private       Set<String> touched;
+    private       long        requests;
+    private       boolean     scheduled;
+
+    private final LongAdder rebuilds = new LongAdder();
+
+    /**
+     * @param index name of the index in log messages
+     * @param lock  the owner's lock
+     */
+    public GraphRebuilder(final String serviceName, final String index, final Object lock, final Reader<T> reader, final Publisher<T> publisher) {
+
+        this.serviceName = serviceName;
+        this.index = index;
+        this.lock = lock;
+        this.reader = reader;
+        this.publisher = publisher;
+
+        this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+
+            final Thread thread = new Thread(runnable, "ldp-rebuild");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Rebuilds the graphs in the background; a rebuild still reading is read again.
+     */
+    public void rebuild(final Collection<String> graphs) {
+
+        synchronized (this.lock) {
+
+            this.rebuilding.addAll(graphs);
+            this.requests++;
+
+            if (!this.scheduled) {
+
+                this.scheduled = true;
+                this.executor.execute(this::run);
+            }
+        }
+    }
+
+    /**
+     * Records the subjects of an update, so a rebuild still reading brings them up to date before it is published.
+     */
+    public void touched(final Collection<String> subjects) {
+
+        synchronized (this.lock) {
+
+            if (this.touched != null) {
+
+                this.touched.addAll(subjects);
+            }
+        }
+    }
+
+    /**
+     * Drops the pending rebuilds; a rebuild still reading is discarded.
+     */
+    public void cancel() {
+
+        synchronized (this.lock) {
+
+            this.rebuilding.clear();
+            this.requests++;
+        }
+    }
+
+    public boolean isRebuilding() {
+
+        synchronized (this.lock) {
+
+            return !this.rebuilding.isEmpty();
+        }
+    }
+
+    /**
+     * @return the rebuilds that have been published
+     */
+    public long getRebuilds() {
+
+        return this.rebuilds.sum();
+    }
+
+    private void run() {
+
+        try {
+
+            while (true) {
+
+                final Set<String> graphs;
+                final long requests;
+
+                synchronized (this.lock) {
+
+                    if (this.rebuilding.isEmpty()) {
+
+                        this.touched = null;
+                        this.scheduled = false;
+
+                        return;
+                    }
+
+                    graphs = new LinkedHashSet<>(this.rebuilding);
+                    requests = this.requests;
+                    this.touched = new HashSet<>();
+                }
+
+                final Map<String, T> read = this.reader.read(graphs);
+
+                synchronized (this.lock) {
+
+                    if (requests != this.requests) {
+
+                        continue;
+                    }
+
+                    this.publisher.publish(read, this.touched);
+                    this.rebuilding.clear();
+                    this.touched = null;
+                    this.scheduled = false;
+                    this.rebuilds.increment();
+
+                    return;
+                }
+            }
+        }
+        catch (RuntimeException e) {
+
+            logger.error(String.format("[%s] could not rebuild the %s", this.serviceName, this.index), e);
+
+            synchronized (this.lock) {
+
+                this.rebuilding.clear();
+                this.touched = null;
+                this.scheduled = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.util.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller (the leader) executes the call in its own thread,
+ * all callers arriving while it runs wait for and share its result - or its exception.
+ *
+ * A waiting caller gives up after its timeout with a {@link TimeoutException}; the leader is not interrupted and its
+ * result is still delivered to the others. Nothing is cached: once the call has finished, the next caller starts a
+ * new one.
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder leaders   = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+    private final LongAdder timeouts  = new LongAdder();
+
+    /**
+     * @param timeout how long a follower waits for the leader; {@code 0} waits without limit
+     */
+    public V execute(final K key, final Callable<V> callable, final long timeout, final TimeUnit unit) throws Exception {
+
+        final CompletableFuture<V> flight = new CompletableFuture<>();
+        final CompletableFuture<V> running = this.flights.putIfAbsent(key, flight);
+
+        if (running == null) {
+
+            this.leaders.increment();
+
+            try {
+
+                final V result = callable.call();
+                flight.complete(result);
+
+                return result;
+            }
+            catch (Throwable e) {
+
+                flight.completeExceptionally(e);
+                throw e;
+            }
+            finally {
+
+                this.flights.remove(key, flight);
+            }
+        }
+
+        this.followers.increment();
+
+        try {
+
+            return timeout > 0 ? running.get(timeout, unit) : running.get();
+        }
+        catch (ExecutionException e) {
+
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof Exception) {
+
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+
+                throw (Error) cause;
+            }
+
+            throw e;
+        }
+        catch (TimeoutException e) {
+
+            this.timeouts.increment();
+            throw e;
+        }
+    }
+
+    public int getInFlight() {
+
+        return this.flights.size();
+    }
+
+    public long getLeaders() {
+
+        return this.leaders.sum();
+    }
+
+    /**
+     * @return number of calls that shared the result of a running call instead of starting their own
+     */
+    public long getFollowers() {
+
+        return this.followers.sum();
+    }
+
+    public long getTimeouts() {
+
+        return this.timeouts.sum();
+    }
+}
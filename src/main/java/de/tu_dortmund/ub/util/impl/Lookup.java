@@ -1,22 +1,69 @@
-package de.tu_dortmund.ub.util.impl;
-
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.ServiceLoader;
-
-public class Lookup  {
-
-    public static <T> T lookup( Class<T> clazz ) {
-
-        Iterator<T> iterator = ServiceLoader.load(clazz).iterator();
-        return iterator.hasNext() ? iterator.next() : null;
-    }
-
-    public static <T> Collection<? extends T> lookupAll( Class<T> clazz ) {
-        Collection<T> result = new ArrayList<T>();
-        for ( T e : ServiceLoader.load( clazz ) )
-            result.add( e );
-        return result;
-    }
-}
\ No newline at end of file
+package de.tu_dortmund.ub.util.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Provider registry based on {@link ServiceLoader}.
+ *
+ * The providers of an interface are resolved and instantiated on first access only and kept as singletons
+ * afterwards, so the request path does not scan META-INF/services again. Use {@link #reload(Class)} or
+ * {@link #reloadAll()} to force a new scan.
+ */
+public class Lookup  {
+
+    private static final ConcurrentMap<Class<?>, List<?>> providers = new ConcurrentHashMap<Class<?>, List<?>>();
+
+    public static <T> T lookup( Class<T> clazz ) {
+
+        List<T> result = providers( clazz );
+        return result.isEmpty() ? null : result.get( 0 );
+    }
+
+    public static <T> Collection<? extends T> lookupAll( Class<T> clazz ) {
+
+        return providers( clazz );
+    }
+
+    public static <T> boolean isAvailable( Class<T> clazz ) {
+
+        return !providers( clazz ).isEmpty();
+    }
+
+    public static <T> Collection<? extends T> reload( Class<T> clazz ) {
+
+        providers.remove( clazz );
+        return providers( clazz );
+    }
+
+    public static void reloadAll() {
+
+        providers.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> providers( Class<T> clazz ) {
+
+        List<T> result = (List<T>) providers.get( clazz );
+
+        if ( result == null ) {
+
+            // no computeIfAbsent: a provider may use the Lookup itself while being instantiated
+            List<T> loaded = new ArrayList<T>();
+            for ( T e : ServiceLoader.load( clazz ) )
+                loaded.add( e );
+
+            // the map is not read again: reloadAll() may have cleared it in the meantime
+            List<T> inserted = Collections.unmodifiableList( loaded );
+            List<T> previous = (List<T>) providers.putIfAbsent( clazz, inserted );
+            result = previous != null ? previous : inserted;
+        }
+
+        return result;
+    }
+}
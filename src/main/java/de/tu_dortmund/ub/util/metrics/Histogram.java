@@ -0,0 +1,181 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.util.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with fixed bucket bounds.
+ *
+ * Each bucket is a {@link LongAdder}, so concurrent {@link #record(long)} calls do not contend; recording costs a
+ * binary search over the bounds and two adds. The output follows the Prometheus text format (cumulative buckets, sum
+ * and count).
+ *
+ * @author Dipl.-Math. Hans-Georg Becker, M.L.I.S. (UB Dortmund)
+ * @version 2026-10-18
+ *
+ */
+public final class Histogram {
+
+    /**
+     * 0.5 ms to about 65 s
+     */
+    public static final long[] LATENCY_NANOS = exponentialBounds(500_000L, 2.0, 18);
+
+    /**
+     * 256 bytes to 64 MB
+     */
+    public static final long[] SIZE_BYTES = exponentialBounds(256L, 4.0, 10);
+
+    private final long[]      bounds;
+    private final LongAdder[] counts;
+    private final LongAdder   sum = new LongAdder();
+
+    /**
+     * @param bounds inclusive upper bounds of the buckets in ascending order; values above the last bound are counted
+     *               in the {@code +Inf} bucket
+     */
+    public Histogram(final long[] bounds) {
+
+        this.bounds = bounds.clone();
+        this.counts = new LongAdder[bounds.length + 1];
+
+        for (int i = 0; i < this.counts.length; i++) {
+
+            this.counts[i] = new LongAdder();
+        }
+    }
+
+    public static long[] exponentialBounds(final long start, final double factor, final int count) {
+
+        final long[] bounds = new long[count];
+        double bound = start;
+
+        for (int i = 0; i < count; i++) {
+
+            bounds[i] = Math.round(bound);
+            bound *= factor;
+        }
+
+        return bounds;
+    }
+
+    public void record(final long value) {
+
+        int bucket = Arrays.binarySearch(this.bounds, value);
+
+        if (bucket < 0) {
+
+            bucket = -bucket - 1;
+        }
+
+        this.counts[bucket].increment();
+        this.sum.add(value);
+    }
+
+    public long getCount() {
+
+        long count = 0;
+
+        for (LongAdder adder : this.counts) {
+
+            count += adder.sum();
+        }
+
+        return count;
+    }
+
+    public long getSum() {
+
+        return this.sum.sum();
+    }
+
+    /**
+     * @return an upper estimate of the value at the given quantile (0..1), i.e. the bound of its bucket;
+     * {@link Long#MAX_VALUE} if it is in the {@code +Inf} bucket, {@code 0} if nothing was recorded
+     */
+    public long getValueAtQuantile(final double quantile) {
+
+        final long[] counts = new long[this.counts.length];
+        long total = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+
+            counts[i] = this.counts[i].sum();
+            total += counts[i];
+        }
+
+        if (total == 0) {
+
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long cumulative = 0;
+
+        for (int i = 0; i < this.bounds.length; i++) {
+
+            cumulative += counts[i];
+
+            if (cumulative >= rank) {
+
+                return this.bounds[i];
+            }
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Appends the buckets, sum and count in the Prometheus text format.
+     *
+     * @param labels rendered labels without braces, e.g. {@code route="about"}; may be empty
+     * @param scale  factor from the recorded unit to the exposed one, e.g. {@code 1e-9} for nanoseconds to seconds
+     */
+    public void writeTo(final StringBuilder out, final String name, final String labels, final double scale) {
+
+        final String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+
+        for (int i = 0; i < this.bounds.length; i++) {
+
+            cumulative += this.counts[i].sum();
+
+            out.append(name).append("_bucket{").append(prefix).append("le=\"").append(format(this.bounds[i] * scale)).append("\"} ").append(cumulative).append('\n');
+        }
+
+        cumulative += this.counts[this.bounds.length].sum();
+
+        out.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+        out.append(name).append("_sum{").append(labels).append("} ").append(format(this.sum.sum() * scale)).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(cumulative).append('\n');
+    }
+
+    private static String format(final double value) {
+
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+}
@@ -24,44 +24,43 @@ SOFTWARE.
 
 package de.tu_dortmund.ub.util.rights;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Created by cihabe on 16.05.2015.
+ *
+ * The configured ranges are compiled into an {@link IPRangeMatcher} on first use. Request handling should hold a
+ * compiled matcher and use {@link IPRangeMatcher#classify(String)}, which answers the TU and UB question in one pass.
  */
 public class AnalyseIPRange {
 
-    public static boolean analyseAccessRights(String ips, String iprange, String ipexceptions) {
+    private static final int MAX_COMPILED_RANGES = 64;
 
-        boolean allowed = false;
+    private static final ConcurrentHashMap<String, IPRangeMatcher> compiledRanges = new ConcurrentHashMap<>();
 
-        if (ips != null) {
+    public static boolean analyseAccessRights(String ips, String iprange, String ipexceptions) {
 
-            String tmp[] = ips.split(", ");
-            String ip = tmp[tmp.length - 1];
+        if (ips == null) {
 
-            String[] ranges = iprange.split("\\|");
-            for (String range : ranges) {
+            return false;
+        }
 
-                if (ip.matches(range)) {
+        String key = iprange + '\u0000' + ipexceptions;
 
-                    allowed = true;
-                    break;
-                }
-            }
+        IPRangeMatcher matcher = compiledRanges.get(key);
 
-            String[] exceptions = ipexceptions.split("\\|");
-            if (allowed) {
+        if (matcher == null) {
 
-                for (String exception : exceptions) {
+            matcher = IPRangeMatcher.compile(iprange, ipexceptions);
 
-                    if (ip.matches(exception)) {
+            if (compiledRanges.size() >= MAX_COMPILED_RANGES) {
 
-                        allowed = false;
-                        break;
-                    }
-                }
+                compiledRanges.clear();
             }
+
+            compiledRanges.put(key, matcher);
         }
 
-        return allowed;
+        return matcher.matches(ips);
     }
 }
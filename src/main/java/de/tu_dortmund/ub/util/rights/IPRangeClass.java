@@ -0,0 +1,65 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.util.rights;
+
+/**
+ * Result of {@link IPRangeMatcher#classify(String)}: is the client inside the TU and/or the UB network?
+ */
+public enum IPRangeClass {
+
+    EXTERNAL(false, false),
+    TU(true, false),
+    UB(false, true),
+    TU_UB(true, true);
+
+    private final boolean isTUintern;
+    private final boolean isUBintern;
+
+    IPRangeClass(final boolean isTUintern, final boolean isUBintern) {
+
+        this.isTUintern = isTUintern;
+        this.isUBintern = isUBintern;
+    }
+
+    public boolean isTUintern() {
+
+        return this.isTUintern;
+    }
+
+    public boolean isUBintern() {
+
+        return this.isUBintern;
+    }
+
+    public static IPRangeClass valueOf(final boolean isTUintern, final boolean isUBintern) {
+
+        if (isTUintern) {
+
+            return isUBintern ? TU_UB : TU;
+        }
+
+        return isUBintern ? UB : EXTERNAL;
+    }
+}
@@ -0,0 +1,569 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2015, Hans-Georg Becker, http://orcid.org/0000-0003-0432-294X
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+
+package de.tu_dortmund.ub.util.rights;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * IP ranges and their exceptions compiled into a binary prefix trie over IPv4 and IPv6 addresses.
+ *
+ * The ranges are configured as '|'-separated lists. Each entry is either
+ * <ul>
+ *     <li>an address or a CIDR block, e.g. {@code 129.217.0.0/16} or {@code 2001:638:500::/40},</li>
+ *     <li>an octet prefix in the legacy regex notation, e.g. {@code 129\.217\..*} or {@code 129.217.*},</li>
+ *     <li>any other regular expression; such entries cannot be compiled into the trie and are matched with a
+ *     precompiled {@link Pattern} instead.</li>
+ * </ul>
+ *
+ * A lookup walks at most 32 (IPv4) or 128 (IPv6) trie nodes and does not allocate as long as no regex entries are
+ * configured. The TU and UB ranges share one trie, so {@link #classify(String)} answers both questions in one pass.
+ *
+ * Instances are immutable and thread-safe.
+ */
+public final class IPRangeMatcher {
+
+    private static Logger logger = Logger.getLogger(IPRangeMatcher.class.getName());
+
+    private static final int ROOT_IPV4 = 0;
+    private static final int ROOT_IPV6 = 1;
+
+    // marks of a trie node
+    private static final int TU_RANGE     = 1;
+    private static final int TU_EXCEPTION = 2;
+    private static final int UB_RANGE     = 4;
+    private static final int UB_EXCEPTION = 8;
+
+    private static final long IPV4_MAPPED_PREFIX = 0x0000ffffL;
+
+    private final int[]  children;
+    private final byte[] marks;
+
+    private final Pattern[] patterns;
+    private final int[]     patternMarks;
+
+    private IPRangeMatcher(final Builder builder) {
+
+        this.children = Arrays.copyOf(builder.children, 2 * builder.size);
+        this.marks = Arrays.copyOf(builder.marks, builder.size);
+        this.patterns = builder.patterns.toArray(new Pattern[builder.patterns.size()]);
+        this.patternMarks = new int[builder.patternMarks.size()];
+
+        for (int i = 0; i < this.patternMarks.length; i++) {
+
+            this.patternMarks[i] = builder.patternMarks.get(i);
+        }
+    }
+
+    /**
+     * Compiles the TU and UB ranges (see {@code service.iprange.*}) into one matcher. {@code null} values are treated
+     * as empty lists.
+     */
+    public static IPRangeMatcher compile(final String tuRanges, final String tuExceptions, final String ubRanges, final String ubExceptions) {
+
+        final Builder builder = new Builder();
+
+        builder.add(tuRanges, TU_RANGE);
+        builder.add(tuExceptions, TU_EXCEPTION);
+        builder.add(ubRanges, UB_RANGE);
+        builder.add(ubExceptions, UB_EXCEPTION);
+
+        return new IPRangeMatcher(builder);
+    }
+
+    /**
+     * Compiles a single list of ranges and exceptions; use {@link #matches(String)} for lookups.
+     */
+    public static IPRangeMatcher compile(final String ranges, final String exceptions) {
+
+        return compile(ranges, exceptions, null, null);
+    }
+
+    /**
+     * @param ips value of the {@code X-Forwarded-For} header; the last address is the client address
+     * @return the network class of the client address; {@link IPRangeClass#EXTERNAL} for {@code null} or unparsable input
+     */
+    public IPRangeClass classify(final String ips) {
+
+        final int marks = this.lookup(ips);
+
+        return IPRangeClass.valueOf(isAllowed(marks, TU_RANGE, TU_EXCEPTION), isAllowed(marks, UB_RANGE, UB_EXCEPTION));
+    }
+
+    /**
+     * @return {@code true} if the client address lies in the ranges and not in the exceptions given to {@link #compile(String, String)}
+     */
+    public boolean matches(final String ips) {
+
+        return isAllowed(this.lookup(ips), TU_RANGE, TU_EXCEPTION);
+    }
+
+    private static boolean isAllowed(final int marks, final int range, final int exception) {
+
+        return (marks & range) != 0 && (marks & exception) == 0;
+    }
+
+    private int lookup(final String ips) {
+
+        if (ips == null) {
+
+            return 0;
+        }
+
+        // last address of the list
+        int from = ips.lastIndexOf(',') + 1;
+        int to = ips.length();
+
+        while (from < to && ips.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && ips.charAt(to - 1) <= ' ') {
+            to--;
+        }
+
+        int marks;
+
+        final long ipv4 = parseIPv4(ips, from, to);
+
+        if (ipv4 >= 0) {
+
+            marks = this.walk(ROOT_IPV4, ipv4 << 32, 0L, 32);
+        }
+        else if (parseIPv6(ips, from, to, IPV6_VALID) == 1L) {
+
+            final long high = parseIPv6(ips, from, to, IPV6_HIGH);
+            final long low = parseIPv6(ips, from, to, IPV6_LOW);
+
+            if (high == 0L && (low >>> 32) == IPV4_MAPPED_PREFIX) {
+
+                marks = this.walk(ROOT_IPV4, low << 32, 0L, 32);
+            }
+            else {
+
+                marks = this.walk(ROOT_IPV6, high, low, 128);
+            }
+        }
+        else {
+
+            marks = 0;
+        }
+
+        if (this.patterns.length > 0) {
+
+            final String ip = ips.substring(from, to);
+
+            for (int i = 0; i < this.patterns.length; i++) {
+
+                if ((marks & this.patternMarks[i]) == 0 && this.patterns[i].matcher(ip).matches()) {
+
+                    marks |= this.patternMarks[i];
+                }
+            }
+        }
+
+        return marks;
+    }
+
+    private int walk(final int root, final long high, final long low, final int bits) {
+
+        int node = root;
+        int marks = this.marks[node];
+
+        for (int i = 0; i < bits; i++) {
+
+            final int bit = (int) (i < 64 ? high >>> (63 - i) : low >>> (127 - i)) & 1;
+
+            node = this.children[2 * node + bit];
+
+            if (node == 0) {
+                break;
+            }
+
+            marks |= this.marks[node];
+        }
+
+        return marks;
+    }
+
+    /**
+     * @return the address as unsigned 32-bit value or {@code -1} if {@code s[from, to)} is no dotted IPv4 address
+     */
+    static long parseIPv4(final CharSequence s, final int from, final int to) {
+
+        long address = 0L;
+        int octets = 0;
+        int value = -1;
+
+        for (int i = from; i < to; i++) {
+
+            final char c = s.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+
+                if (value > 255) {
+                    return -1L;
+                }
+            }
+            else if (c == '.' && value >= 0 && octets < 3) {
+
+                address = (address << 8) | value;
+                octets++;
+                value = -1;
+            }
+            else {
+
+                return -1L;
+            }
+        }
+
+        if (octets != 3 || value < 0) {
+            return -1L;
+        }
+
+        return (address << 8) | value;
+    }
+
+    static final int IPV6_VALID = 0;
+    static final int IPV6_HIGH  = 1;
+    static final int IPV6_LOW   = 2;
+
+    /**
+     * Parses {@code s[from, to)} as IPv6 address without allocating.
+     *
+     * @param part {@link #IPV6_VALID}: returns 1 if the address is valid, 0 otherwise;
+     *             {@link #IPV6_HIGH} / {@link #IPV6_LOW}: returns the upper / lower 64 bits of a valid address
+     */
+    static long parseIPv6(final CharSequence s, final int from, int to, final int part) {
+
+        // zone id
+        for (int i = from; i < to; i++) {
+
+            if (s.charAt(i) == '%') {
+                to = i;
+                break;
+            }
+        }
+
+        long headHigh = 0L, headLow = 0L;
+        long high = 0L, low = 0L;
+        int headGroups = -1;
+        int groups = 0;
+        int group = -1;
+        int digits = 0;
+
+        int i = from;
+
+        if (to - from >= 2 && s.charAt(from) == ':' && s.charAt(from + 1) == ':') {
+
+            headGroups = 0;
+            i = from + 2;
+        }
+        else if (to > from && s.charAt(from) == ':') {
+
+            return part == IPV6_VALID ? 0L : -1L;
+        }
+
+        for (; i < to; i++) {
+
+            final char c = s.charAt(i);
+            final int digit = Character.digit(c, 16);
+
+            if (digit >= 0 && c < 128) {
+
+                group = (group < 0 ? 0 : group << 4) | digit;
+
+                if (++digits > 4) {
+                    return part == IPV6_VALID ? 0L : -1L;
+                }
+            }
+            else if (c == ':' && group >= 0) {
+
+                high = (high << 16) | (low >>> 48);
+                low = (low << 16) | group;
+                groups++;
+                group = -1;
+                digits = 0;
+
+                if (i + 1 < to && s.charAt(i + 1) == ':') {
+
+                    if (headGroups >= 0) {
+                        return part == IPV6_VALID ? 0L : -1L;
+                    }
+
+                    headGroups = groups;
+                    headHigh = high;
+                    headLow = low;
+                    high = 0L;
+                    low = 0L;
+                    groups = 0;
+                    i++;
+                }
+            }
+            else if (c == '.' && group >= 0) {
+
+                // embedded IPv4 address as last two groups
+                int start = i - 1;
+
+                while (start > from && s.charAt(start - 1) != ':') {
+                    start--;
+                }
+
+                final long ipv4 = parseIPv4(s, start, to);
+
+                if (ipv4 < 0) {
+                    return part == IPV6_VALID ? 0L : -1L;
+                }
+
+                high = (high << 32) | (low >>> 32);
+                low = (low << 32) | ipv4;
+                groups += 2;
+                group = -1;
+                digits = 0;
+                i = to;
+                break;
+            }
+            else {
+
+                return part == IPV6_VALID ? 0L : -1L;
+            }
+        }
+
+        if (group >= 0) {
+
+            high = (high << 16) | (low >>> 48);
+            low = (low << 16) | group;
+            groups++;
+        }
+        else if (i < to || (to > from && s.charAt(to - 1) == ':' && (headGroups < 0 || to - from < 2 || s.charAt(to - 2) != ':'))) {
+
+            return part == IPV6_VALID ? 0L : -1L;
+        }
+
+        if (headGroups < 0) {
+
+            if (groups != 8) {
+                return part == IPV6_VALID ? 0L : -1L;
+            }
+        }
+        else {
+
+            if (headGroups + groups > 7) {
+                return part == IPV6_VALID ? 0L : -1L;
+            }
+
+            // head << (16 * (8 - headGroups)) | tail
+            final int shift = 16 * (8 - headGroups);
+
+            if (shift < 64) {
+
+                high |= (headHigh << shift) | (shift == 0 ? 0L : headLow >>> (64 - shift));
+                low |= headLow << shift;
+            }
+            else if (shift < 128) {
+
+                high |= headLow << (shift - 64);
+            }
+        }
+
+        switch (part) {
+
+            case IPV6_HIGH:
+                return high;
+            case IPV6_LOW:
+                return low;
+            default:
+                return 1L;
+        }
+    }
+
+    private static final class Builder {
+
+        private int[]  children = new int[64];
+        private byte[] marks    = new byte[32];
+        private int    size     = 2;
+
+        private final List<Pattern> patterns     = new ArrayList<>();
+        private final List<Integer> patternMarks = new ArrayList<>();
+
+        private void add(final String entries, final int mark) {
+
+            if (entries == null || entries.trim().isEmpty()) {
+                return;
+            }
+
+            for (String entry : entries.split("\\|")) {
+
+                entry = entry.trim();
+
+                if (entry.isEmpty()) {
+                    continue;
+                }
+
+                if (!this.addPrefix(entry, mark)) {
+
+                    logger.warn("IP range '" + entry + "' is no CIDR block or octet prefix - matching it as regular expression!");
+
+                    this.patterns.add(Pattern.compile(entry));
+                    this.patternMarks.add(mark);
+                }
+            }
+        }
+
+        private boolean addPrefix(String entry, final int mark) {
+
+            if (entry.startsWith("^")) {
+                entry = entry.substring(1);
+            }
+            if (entry.endsWith("$")) {
+                entry = entry.substring(0, entry.length() - 1);
+            }
+
+            // CIDR or single address
+            final int slash = entry.indexOf('/');
+            final String address = slash < 0 ? entry : entry.substring(0, slash);
+
+            final long ipv4 = parseIPv4(address, 0, address.length());
+
+            if (ipv4 >= 0) {
+
+                final int length = slash < 0 ? 32 : parseLength(entry.substring(slash + 1), 32);
+
+                if (length < 0) {
+                    return false;
+                }
+
+                this.insert(ROOT_IPV4, ipv4 << 32, 0L, length, mark);
+                return true;
+            }
+
+            if (parseIPv6(address, 0, address.length(), IPV6_VALID) == 1L) {
+
+                final int length = slash < 0 ? 128 : parseLength(entry.substring(slash + 1), 128);
+
+                if (length < 0) {
+                    return false;
+                }
+
+                final long high = parseIPv6(address, 0, address.length(), IPV6_HIGH);
+                final long low = parseIPv6(address, 0, address.length(), IPV6_LOW);
+
+                if (high == 0L && (low >>> 32) == IPV4_MAPPED_PREFIX && length >= 96) {
+
+                    this.insert(ROOT_IPV4, low << 32, 0L, length - 96, mark);
+                }
+                else {
+
+                    this.insert(ROOT_IPV6, high, low, length, mark);
+                }
+                return true;
+            }
+
+            if (slash >= 0) {
+                return false;
+            }
+
+            // legacy octet prefix: 129\.217\..* / 129.217.*
+            final String[] octets = entry.contains("\\.") ? entry.split("\\\\\\.", -1) : entry.split("\\.", -1);
+
+            long prefix = 0L;
+            int length = 0;
+            boolean wildcard = false;
+
+            for (int i = 0; i < octets.length; i++) {
+
+                final String octet = octets[i];
+
+                if (!wildcard && octet.matches("\\d{1,3}") && Integer.parseInt(octet) <= 255 && i < 4) {
+
+                    prefix = (prefix << 8) | Integer.parseInt(octet);
+                    length += 8;
+                }
+                else if (octet.equals("*") || octet.equals(".*") || octet.equals(".+") || octet.equals("\\d+") || octet.equals("\\d{1,3}")
+                        || octet.equals("[0-9]+") || octet.equals("[0-9]*") || octet.equals("[0-9]{1,3}")) {
+
+                    // the tail matches one or more arbitrary octets
+                    wildcard = true;
+                }
+                else {
+
+                    return false;
+                }
+            }
+
+            if (!wildcard && length != 32) {
+                return false;
+            }
+
+            this.insert(ROOT_IPV4, length == 0 ? 0L : prefix << (64 - length), 0L, length, mark);
+            return true;
+        }
+
+        private static int parseLength(final String length, final int max) {
+
+            try {
+
+                final int value = Integer.parseInt(length.trim());
+
+                return value >= 0 && value <= max ? value : -1;
+            }
+            catch (NumberFormatException e) {
+
+                return -1;
+            }
+        }
+
+        private void insert(final int root, final long high, final long low, final int length, final int mark) {
+
+            int node = root;
+
+            for (int i = 0; i < length; i++) {
+
+                final int bit = (int) (i < 64 ? high >>> (63 - i) : low >>> (127 - i)) & 1;
+                final int index = 2 * node + bit;
+
+                if (this.children[index] == 0) {
+
+                    if (this.size == this.marks.length) {
+
+                        this.marks = Arrays.copyOf(this.marks, 2 * this.size);
+                        this.children = Arrays.copyOf(this.children, 4 * this.size);
+                    }
+
+                    this.children[index] = this.size++;
+                }
+
+                node = this.children[index];
+            }
+
+            this.marks[node] |= mark;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package de.tu_dortmund.ub.data.ldp;
+
+import junit.framework.TestCase;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit test for {@link BackendExecutor}.
+ */
+public class BackendExecutorTest
+    extends TestCase
+{
+    public void testHungRequestsAreAnsweredWith503() throws Exception
+    {
+        CountDownLatch release = new CountDownLatch( 1 );
+        CountDownLatch finished = new CountDownLatch( 1 );
+        BackendExecutor backendExecutor = new BackendExecutor( "test", 2, 0, 7, 200, false );
+
+        Server server = this.server( backendExecutor, ( request, response ) -> {
+            try
+            {
+                release.await();
+                response.getWriter().write( "late" );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                finished.countDown();
+            }
+        } );
+
+        try
+        {
+            int port = ( (ServerConnector) server.getConnectors()[0] ).getLocalPort();
+            HttpURLConnection connection = (HttpURLConnection) new URL( "http://localhost:" + port + "/hung" ).openConnection();
+            connection.setReadTimeout( 10000 );
+
+            assertEquals( HttpServletResponse.SC_SERVICE_UNAVAILABLE, connection.getResponseCode() );
+            assertEquals( "7", connection.getHeaderField( "Retry-After" ) );
+            assertEquals( 1, backendExecutor.getTimeouts() );
+
+            // the task ends later without touching the answered request
+            release.countDown();
+            assertTrue( finished.await( 5, TimeUnit.SECONDS ) );
+        }
+        finally
+        {
+            release.countDown();
+            server.stop();
+            backendExecutor.stop();
+        }
+    }
+
+    public void testCommittedResponsesAreNotCutOff() throws Exception
+    {
+        BackendExecutor backendExecutor = new BackendExecutor( "test", 2, 0, 7, 200, false );
+
+        Server server = this.server( backendExecutor, ( request, response ) -> {
+            try
+            {
+                response.setStatus( HttpServletResponse.SC_OK );
+                response.getOutputStream().write( 'a' );
+                response.flushBuffer();
+
+                // the deadline passes while the response is written
+                Thread.sleep( 600 );
+
+                response.getOutputStream().write( 'b' );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        } );
+
+        try
+        {
+            int port = ( (ServerConnector) server.getConnectors()[0] ).getLocalPort();
+            HttpURLConnection connection = (HttpURLConnection) new URL( "http://localhost:" + port + "/slow" ).openConnection();
+            connection.setReadTimeout( 10000 );
+
+            assertEquals( HttpServletResponse.SC_OK, connection.getResponseCode() );
+
+            try ( InputStream inputStream = connection.getInputStream() )
+            {
+                byte[] body = new byte[2];
+                int length = 0;
+                int read;
+
+                while ( length < body.length && ( read = inputStream.read( body, length, body.length - length ) ) > 0 )
+                {
+                    length += read;
+                }
+
+                assertEquals( "ab", new String( body, 0, length, StandardCharsets.UTF_8 ) );
+            }
+            assertEquals( 0, backendExecutor.getTimeouts() );
+        }
+        finally
+        {
+            server.stop();
+            backendExecutor.stop();
+        }
+    }
+
+    private Server server( BackendExecutor backendExecutor, BackendExecutor.Task task ) throws Exception
+    {
+        Server server = new Server( 0 );
+        ServletContextHandler context = new ServletContextHandler();
+        ServletHolder holder = new ServletHolder( new HttpServlet()
+        {
+            @Override
+            protected void doGet( HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse ) throws IOException
+            {
+                try
+                {
+                    backendExecutor.dispatch( httpServletRequest, httpServletResponse, task );
+                }
+                catch ( ServletException e )
+                {
+                    throw new IOException( e );
+                }
+            }
+        } );
+        holder.setAsyncSupported( true );
+        context.addServlet( holder, "/*" );
+        server.setHandler( context );
+
+        backendExecutor.start();
+        server.start();
+
+        return server;
+    }
+}
@@ -0,0 +1,42 @@
+package de.tu_dortmund.ub.data.ldp;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for {@link ContentNegotiator}.
+ */
+public class ContentNegotiatorTest
+    extends TestCase
+{
+    public void testQualityValuesAndSpecificity()
+    {
+        ContentNegotiator negotiator = ContentNegotiator.RESOURCE;
+
+        assertEquals( "html", negotiator.negotiate( null ) );
+        assertEquals( "html", negotiator.negotiate( "*/*" ) );
+        assertEquals( "html", negotiator.negotiate( "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8" ) );
+        assertEquals( "rdf.ttl", negotiator.negotiate( "text/html;q=0.5, text/turtle" ) );
+        assertEquals( "rdf.ttl", negotiator.negotiate( "application/rdf+xml;q=0.9, text/turtle;q=1.0" ) );
+        assertEquals( "json", negotiator.negotiate( "text/*;q=0, */*;q=0.1, application/json" ) );
+        assertEquals( "rdf.xml", negotiator.negotiate( "text/*;q=0, */*" ) );
+        assertEquals( "nquads", negotiator.negotiate( "APPLICATION/N-QUADS" ) );
+        assertNull( negotiator.negotiate( "image/png" ) );
+        assertNull( negotiator.negotiate( "text/html;q=0" ) );
+
+        assertEquals( "json", ContentNegotiator.RESULTS.negotiate( "application/sparql-results+json" ) );
+        assertEquals( "xml", ContentNegotiator.RESULTS.negotiate( "application/sparql-results+xml, application/json;q=0.5" ) );
+    }
+
+    public void testResultsAreMemoized()
+    {
+        ContentNegotiator negotiator = new ContentNegotiator( new String[][] { { "text/html", "html" }, { "text/turtle", "rdf.ttl" } } );
+
+        assertEquals( "rdf.ttl", negotiator.negotiate( "text/turtle, text/html;q=0.1" ) );
+        assertNull( negotiator.negotiate( "image/png" ) );
+        assertEquals( 2, negotiator.getTableSize() );
+
+        assertEquals( "rdf.ttl", negotiator.negotiate( "text/turtle, text/html;q=0.1" ) );
+        assertNull( negotiator.negotiate( "image/png" ) );
+        assertEquals( 2, negotiator.getTableSize() );
+    }
+}
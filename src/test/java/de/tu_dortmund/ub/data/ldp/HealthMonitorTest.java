@@ -0,0 +1,86 @@
+package de.tu_dortmund.ub.data.ldp;
+
+import de.tu_dortmund.ub.data.ldp.auth.AuthorizationInterface;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import junit.framework.TestCase;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test for {@link HealthMonitor}.
+ */
+public class HealthMonitorTest
+    extends TestCase
+{
+    public void testHungProbeTimesOutAndIsNotStartedTwice() throws Exception
+    {
+        CountDownLatch release = new CountDownLatch( 1 );
+        AtomicInteger storageProbes = new AtomicInteger();
+
+        AuthorizationInterface authorizationInterface = provider( AuthorizationInterface.class, () -> {
+            HashMap<String, String> health = new HashMap<>();
+            health.put( "ils", "ok" );
+            return health;
+        } );
+        LinkedDataStorage linkedDataStorage = provider( LinkedDataStorage.class, () -> {
+            storageProbes.incrementAndGet();
+            release.await();
+            return new HashMap<>();
+        } );
+
+        Properties properties = new Properties();
+        properties.setProperty( LDPStatics.SERVICE_NAME_IDENTIFIER, "test" );
+
+        LinkedDataPlatformContext context = new LinkedDataPlatformContext( new LinkedDataPlatformConfig( properties ), linkedDataStorage, authorizationInterface );
+        HealthMonitor healthMonitor = new HealthMonitor( context, 60000, 100 );
+
+        try
+        {
+            long start = System.nanoTime();
+
+            healthMonitor.start();
+
+            assertTrue( System.nanoTime() - start < 2000000000L );
+
+            HealthMonitor.Snapshot snapshot = healthMonitor.getSnapshot();
+
+            assertEquals( HealthMonitor.Status.UP, snapshot.getChecks().get( HealthMonitor.AUTHORIZATION ).getStatus() );
+            assertEquals( "ok", snapshot.getChecks().get( HealthMonitor.AUTHORIZATION ).getDetails().get( "ils" ) );
+            assertEquals( HealthMonitor.Status.TIMEOUT, snapshot.getChecks().get( HealthMonitor.STORAGE ).getStatus() );
+            assertFalse( snapshot.isUp() );
+
+            healthMonitor.refresh();
+
+            assertEquals( HealthMonitor.Status.TIMEOUT, healthMonitor.getSnapshot().getChecks().get( HealthMonitor.STORAGE ).getStatus() );
+            assertEquals( 1, storageProbes.get() );
+
+            release.countDown();
+            Thread.sleep( 50 );
+
+            healthMonitor.refresh();
+
+            assertEquals( HealthMonitor.Status.UP, healthMonitor.getSnapshot().getChecks().get( HealthMonitor.STORAGE ).getStatus() );
+            assertEquals( 2, storageProbes.get() );
+        }
+        finally
+        {
+            release.countDown();
+            healthMonitor.stop();
+        }
+    }
+
+    private interface Health
+    {
+        HashMap<String, String> health() throws Exception;
+    }
+
+    private static <T> T provider( Class<T> type, Health health )
+    {
+        return type.cast( Proxy.newProxyInstance( type.getClassLoader(), new Class<?>[] { type },
+                ( proxy, method, args ) -> method.getName().equals( "health" ) ? health.health() : null ) );
+    }
+}
@@ -0,0 +1,34 @@
+package de.tu_dortmund.ub.data.ldp;
+
+import junit.framework.TestCase;
+
+import java.util.Properties;
+
+/**
+ * Unit test for {@link LinkedDataPlatformConfig}.
+ */
+public class LinkedDataPlatformConfigTest
+    extends TestCase
+{
+    public void testSnapshotIsDetachedAndTyped()
+    {
+        Properties properties = new Properties();
+        properties.setProperty( LDPStatics.STORAGE_GRAPHS_IDENTIFIER, "gnd|bib, ubdo ;  hbz" );
+        properties.setProperty( LDPStatics.SERVICE_ISTEST_IDENTIFIER, "true" );
+        properties.setProperty( LDPStatics.BACKEND_EXECUTOR_THREADS_IDENTIFIER, " 8 " );
+
+        LinkedDataPlatformConfig config = new LinkedDataPlatformConfig( properties );
+        properties.setProperty( LDPStatics.STORAGE_GRAPHS_IDENTIFIER, "other" );
+
+        assertEquals( 4, config.getGraphs().size() );
+        assertTrue( config.isGraph( "ubdo" ) );
+        assertTrue( config.isGraph( "hbz" ) );
+        assertFalse( config.isGraph( "gn" ) );
+        assertFalse( config.isGraph( null ) );
+
+        assertTrue( config.isTest() );
+        assertEquals( 8, config.getInt( LDPStatics.BACKEND_EXECUTOR_THREADS_IDENTIFIER, 64 ) );
+        assertEquals( 256, config.getInt( LDPStatics.BACKEND_EXECUTOR_QUEUE_IDENTIFIER, 256 ) );
+        assertEquals( "gnd|bib, ubdo ;  hbz", config.toProperties().getProperty( LDPStatics.STORAGE_GRAPHS_IDENTIFIER ) );
+    }
+}
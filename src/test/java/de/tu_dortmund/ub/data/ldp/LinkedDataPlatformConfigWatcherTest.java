@@ -0,0 +1,66 @@
+package de.tu_dortmund.ub.data.ldp;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Properties;
+
+/**
+ * Unit test for {@link LinkedDataPlatformConfigWatcher}.
+ */
+public class LinkedDataPlatformConfigWatcherTest
+    extends TestCase
+{
+    public void testChangedFileIsPublishedAndBrokenFileIsRejected() throws Exception
+    {
+        File dir = Files.createTempDirectory( "ldp-conf" ).toFile();
+        File conffile = new File( dir, "ldp.properties" );
+
+        write( conffile, "gnd" );
+
+        LinkedDataPlatformContext context = new LinkedDataPlatformContext( LinkedDataPlatformConfig.load( conffile.getPath() ) );
+        LinkedDataPlatformConfigWatcher watcher = new LinkedDataPlatformConfigWatcher( conffile.getPath(), context );
+
+        try
+        {
+            watcher.start();
+
+            write( conffile, "gnd|bib" );
+
+            for ( int i = 0; i < 100 && !context.getConfig().isGraph( "bib" ); i++ )
+            {
+                Thread.sleep( 100 );
+            }
+
+            assertTrue( context.getConfig().isGraph( "bib" ) );
+
+            new FileOutputStream( conffile ).close();
+
+            assertFalse( watcher.reload() );
+            assertTrue( context.getConfig().isGraph( "bib" ) );
+            assertTrue( watcher.getFailures() > 0 );
+        }
+        finally
+        {
+            watcher.stop();
+            conffile.delete();
+            dir.delete();
+        }
+    }
+
+    private static void write( File conffile, String graphs ) throws IOException
+    {
+        Properties properties = new Properties();
+        properties.setProperty( LDPStatics.SERVICE_NAME_IDENTIFIER, "test" );
+        properties.setProperty( LDPStatics.STORAGE_GRAPHS_IDENTIFIER, graphs );
+
+        try ( OutputStream outputStream = new FileOutputStream( conffile ) )
+        {
+            properties.store( outputStream, null );
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package de.tu_dortmund.ub.data.ldp;
+
+import de.tu_dortmund.ub.data.ldp.cache.RepresentationCache;
+import de.tu_dortmund.ub.data.ldp.cache.SparqlResultCache;
+import junit.framework.TestCase;
+
+import java.util.Properties;
+
+/**
+ * Unit test for {@link LinkedDataPlatformContext}.
+ */
+public class LinkedDataPlatformContextTest
+    extends TestCase
+{
+    public void testUpdatesInvalidateEveryGraph()
+    {
+        Properties properties = new Properties();
+        properties.setProperty( LDPStatics.SERVICE_NAME_IDENTIFIER, "test" );
+        properties.setProperty( LDPStatics.STORAGE_GRAPHS_IDENTIFIER, "gnd, bib" );
+        properties.setProperty( LDPStatics.STORAGE_GRAPH_DEFAULT_IDENTIFIER, "gnd" );
+
+        LinkedDataPlatformContext context = new LinkedDataPlatformContext( new LinkedDataPlatformConfig( properties ), null, null );
+
+        RepresentationCache representationCache = context.getRepresentationCache();
+        RepresentationCache.Key key = new RepresentationCache.Key( "bib", "http://example.org/a", "nquads", "de", false );
+        long generation = representationCache.generation( "bib" );
+
+        representationCache.put( key, generation, "public", new byte[ 10 ] );
+        assertNotNull( representationCache.get( key ) );
+
+        SparqlResultCache sparqlResultCache = context.getSparqlResultCache();
+        SparqlResultCache.Key query = new SparqlResultCache.Key( "bib", "SELECT * WHERE { ?s ?p ?o }", "json", false );
+
+        assertTrue( sparqlResultCache.put( query, 0, new byte[ 10 ] ) );
+
+        // the update is posted to the default graph, but writes to another one
+        context.invalidate( "INSERT DATA { GRAPH <http://example.org/graph/bib> { <http://example.org/a> <http://purl.org/dc/terms/title> \"A\" } }" );
+
+        assertNull( representationCache.get( key ) );
+        assertEquals( 0, representationCache.size() );
+        assertTrue( representationCache.generation( "bib" ) != generation );
+
+        assertNull( sparqlResultCache.get( query ) );
+        assertEquals( 0, sparqlResultCache.size() );
+    }
+}
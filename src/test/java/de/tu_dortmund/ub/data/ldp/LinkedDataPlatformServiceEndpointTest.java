@@ -0,0 +1,48 @@
+package de.tu_dortmund.ub.data.ldp;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import junit.framework.TestCase;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.util.function.Predicate;
+
+/**
+ * Unit test for the batch lookup of {@link LinkedDataPlatformServiceEndpoint}.
+ */
+public class LinkedDataPlatformServiceEndpointTest
+    extends TestCase
+{
+    public void testBatchEntriesAreCheckedLikeSingleResources() throws Exception
+    {
+        Predicate<String> external = LinkedDataPlatformServiceEndpoint.isAllowed( false, false );
+
+        assertEquals( HttpServletResponse.SC_OK, entry( "public", "A", external ).get( "status" ).asInt() );
+        assertEquals( "A", entry( "public", "A", external ).get( "representation" ).asText() );
+        assertEquals( HttpServletResponse.SC_FORBIDDEN, entry( "internal", "B", external ).get( "status" ).asInt() );
+        assertNull( entry( "internal", "B", external ).get( "representation" ) );
+        assertEquals( HttpServletResponse.SC_NOT_FOUND, entry( null, null, external ).get( "status" ).asInt() );
+
+        // a found resource without access rights is not served
+        assertEquals( HttpServletResponse.SC_FORBIDDEN, entry( null, "C", external ).get( "status" ).asInt() );
+        assertEquals( HttpServletResponse.SC_FORBIDDEN, entry( null, "C", LinkedDataPlatformServiceEndpoint.isAllowed( true, true ) ).get( "status" ).asInt() );
+
+        assertEquals( HttpServletResponse.SC_OK, entry( "internal", "B", LinkedDataPlatformServiceEndpoint.isAllowed( true, false ) ).get( "status" ).asInt() );
+        assertEquals( HttpServletResponse.SC_OK, entry( "internal", "B", LinkedDataPlatformServiceEndpoint.isAllowed( false, true ) ).get( "status" ).asInt() );
+    }
+
+    private static JsonNode entry( String accessRights, String representation, Predicate<String> isAllowed ) throws Exception
+    {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try ( JsonGenerator jsonGenerator = new JsonFactory().createGenerator( outputStream ) )
+        {
+            LinkedDataPlatformServiceEndpoint.writeResource( jsonGenerator, "http://example.org/a", accessRights, representation, "nquads", isAllowed, "forbidden" );
+        }
+
+        return new ObjectMapper().readTree( outputStream.toByteArray() );
+    }
+}
@@ -0,0 +1,170 @@
+package de.tu_dortmund.ub.data.ldp.auth;
+
+import junit.framework.TestCase;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test for {@link TokenValidationCache}.
+ */
+public class TokenValidationCacheTest
+    extends TestCase
+{
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Set<String> rejected = new HashSet<>();
+
+    private final AuthorizationInterface authorizationInterface = new AuthorizationInterface()
+    {
+        @Override
+        public void init( Properties properties )
+        {
+        }
+
+        @Override
+        public HashMap<String, String> health( Properties properties )
+        {
+            return new HashMap<>();
+        }
+
+        @Override
+        public boolean isTokenValid( HttpServletResponse httpServletResponse, String service, String patronid, String access_token )
+        {
+            calls.incrementAndGet();
+            return !rejected.contains( access_token );
+        }
+    };
+
+    public void testValidationsLiveForTheirTtl() throws Exception
+    {
+        TokenValidationCache cache = new TokenValidationCache( 10, 300 );
+
+        assertTrue( validate( cache, "a", null ) );
+        assertTrue( validate( cache, "a", null ) );
+        assertEquals( 1, calls.get() );
+        assertEquals( 1, cache.getHits() );
+
+        // expires_in of the cookie
+        assertTrue( validate( cache, "b", "0" ) );
+        assertTrue( validate( cache, "b", "0" ) );
+        assertEquals( 3, calls.get() );
+
+        // disabled
+        TokenValidationCache disabled = new TokenValidationCache( 10, 0 );
+
+        assertTrue( validate( disabled, "a", null ) );
+        assertTrue( validate( disabled, "a", null ) );
+        assertEquals( 5, calls.get() );
+        assertEquals( 0, disabled.size() );
+    }
+
+    public void testRevocation() throws Exception
+    {
+        TokenValidationCache cache = new TokenValidationCache( 10, 300 );
+
+        validate( cache, "a", null );
+        cache.isTokenValid( authorizationInterface, null, "data", "other", "a", null );
+        cache.revoke( "a" );
+
+        assertEquals( 0, cache.size() );
+        assertEquals( 1, cache.getRevocations() );
+
+        validate( cache, "a", null );
+        assertEquals( 3, calls.get() );
+
+        // a rejection drops the validations of the token for the other patrons and services, too
+        cache.isTokenValid( authorizationInterface, null, "data", "other", "a", null );
+        rejected.add( "a" );
+
+        assertFalse( cache.isTokenValid( authorizationInterface, null, "paia", "patron", "a", null ) );
+        assertEquals( 0, cache.size() );
+
+        rejected.clear();
+        validate( cache, "a", null );
+        assertEquals( 6, calls.get() );
+    }
+
+    public void testTheTokensExpiringFirstAreEvicted() throws Exception
+    {
+        TokenValidationCache cache = new TokenValidationCache( 2, 300 );
+
+        validate( cache, "a", null );
+        validate( cache, "b", "100" );
+        validate( cache, "c", null );
+
+        assertEquals( 2, cache.size() );
+        assertEquals( 3, calls.get() );
+
+        validate( cache, "a", null );
+        validate( cache, "c", null );
+        assertEquals( 3, calls.get() );
+
+        validate( cache, "b", "100" );
+        assertEquals( 4, calls.get() );
+        assertEquals( 2, cache.size() );
+    }
+
+    public void testConcurrentValidationsStayBounded() throws Exception
+    {
+        TokenValidationCache cache = new TokenValidationCache( 100, 300 );
+        Thread[] threads = new Thread[4];
+
+        for ( int t = 0; t < threads.length; t++ )
+        {
+            int offset = t * 1000;
+
+            threads[t] = new Thread( () -> {
+                for ( int i = 0; i < 1000; i++ )
+                {
+                    try
+                    {
+                        assertTrue( validate( cache, "token" + ( offset + i ), null ) );
+                        assertTrue( validate( cache, "token" + ( offset + i ), null ) );
+                    }
+                    catch ( AuthorizationException e )
+                    {
+                        throw new IllegalStateException( e );
+                    }
+                }
+            } );
+            threads[t].start();
+        }
+
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+
+        // other threads may evict a validation before it is asked again
+        assertTrue( cache.size() <= 100 + threads.length );
+        assertEquals( 8000, cache.getHits() + cache.getMisses() );
+        assertTrue( cache.getHits() > 0 );
+    }
+
+    public void testExpiredTokensAreDroppedFirst() throws Exception
+    {
+        TokenValidationCache cache = new TokenValidationCache( 2, 300 );
+
+        validate( cache, "a", null );
+        validate( cache, "b", "0" );
+        validate( cache, "a", null );
+
+        // b is expired, so a survives although the cache is full
+        validate( cache, "c", null );
+
+        assertEquals( 2, cache.size() );
+
+        validate( cache, "a", null );
+        validate( cache, "c", null );
+        assertEquals( 3, calls.get() );
+    }
+
+    private boolean validate( TokenValidationCache cache, String token, String expiresIn ) throws AuthorizationException
+    {
+        return cache.isTokenValid( authorizationInterface, null, "data", "patron", token, expiresIn );
+    }
+}
@@ -0,0 +1,86 @@
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import de.tu_dortmund.ub.data.ldp.storage.UpdateSubjects;
+import de.tu_dortmund.ub.data.ldp.storage.memory.MemoryLinkedDataStorage;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+
+/**
+ * Unit test for {@link AccessRightsIndex}.
+ */
+public class AccessRightsIndexTest
+    extends TestCase
+{
+    public void testSubjectsOfAnUpdate()
+    {
+        assertEquals( new LinkedHashSet<>( Arrays.asList( "http://example.org/a", "http://example.org/c" ) ),
+                UpdateSubjects.of( "INSERT DATA {\n<http://example.org/a> <http://purl.org/dc/terms/title> \"Title A\" .\n"
+                        + "<http://example.org/c> <http://purl.org/dc/terms/title> <http://example.org/o> . }" ) );
+        assertEquals( new LinkedHashSet<>( Arrays.asList( "http://example.org/d" ) ),
+                UpdateSubjects.of( "<http://example.org/d> <http://purl.org/dc/terms/title> \"Title D\" ." ) );
+
+        assertEquals( new LinkedHashSet<>( Arrays.asList( "http://example.org/a" ) ),
+                UpdateSubjects.of( "PREFIX ex: <http://example.org/> INSERT DATA { ex:a ex:b ex:c }" ) );
+        assertEquals( new LinkedHashSet<>( Arrays.asList( "http://example.org/a" ) ),
+                UpdateSubjects.of( "PREFIX ex: <http://example.org/>\nDELETE { ex:a ex:b ?o } WHERE { ?s ex:b ?o . FILTER ( ?o != ex:c ) }" ) );
+        assertEquals( new LinkedHashSet<>( Arrays.asList( "http://example.org/a" ) ),
+                UpdateSubjects.of( "DELETE WHERE { <http://example.org/a> ?p ?o }" ) );
+
+        assertNull( UpdateSubjects.of( "DELETE { ?s ?p ?o } WHERE { ?s ?p ?o }" ) );
+        assertNull( UpdateSubjects.of( "DELETE WHERE { ?s ?p ?o }" ) );
+        assertNull( UpdateSubjects.of( "CLEAR ALL" ) );
+    }
+
+    public void testLookupsAndUpdates() throws Exception
+    {
+        File file = File.createTempFile( "ldp", ".nq" );
+
+        try
+        {
+            Files.write( file.toPath(), ( "<http://example.org/a> <http://purl.org/dc/terms/title> \"Title A\" .\n"
+                    + "<http://example.org/b> <http://purl.org/dc/terms/accessRights> \"internal\" <http://example.org/graph/b> .\n" ).getBytes( StandardCharsets.UTF_8 ) );
+
+            Properties config = new Properties();
+            config.setProperty( MemoryLinkedDataStorage.LOAD_IDENTIFIER, file.getAbsolutePath() );
+            config.setProperty( MemoryLinkedDataStorage.GRAPH_IDENTIFIER + ".b", "http://example.org/graph/b" );
+
+            MemoryLinkedDataStorage storage = new MemoryLinkedDataStorage();
+            storage.init( config );
+
+            AccessRightsIndex index = new AccessRightsIndex( "test" );
+            index.build( storage, Arrays.asList( "b" ) );
+
+            assertEquals( 1, index.size() );
+            assertEquals( "internal", index.getAccessRights( "b", "http://example.org/b" ) );
+            assertEquals( "public", index.getAccessRights( "b", "http://example.org/a" ) );
+            assertNull( index.getAccessRights( "other", "http://example.org/b" ) );
+            assertEquals( 2, index.getLookups() );
+
+            index.update( storage, "INSERT DATA { <http://example.org/b> <http://purl.org/dc/terms/title> \"Title B\" . }" );
+
+            assertEquals( 1, index.getRefreshes() );
+            assertEquals( "internal", index.getAccessRights( "b", "http://example.org/b" ) );
+
+            // the graph is answered by the storage until the rebuild thread has read it again
+            index.update( storage, "CLEAR ALL" );
+
+            for ( int i = 0; i < 1000 && index.getRebuilds() == 0; i++ )
+            {
+                Thread.sleep( 5 );
+            }
+
+            assertEquals( 1, index.getRebuilds() );
+            assertTrue( index.isIndexed( "b" ) );
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import junit.framework.TestCase;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Unit test for {@link RepresentationCache} and {@link Representation}.
+ */
+public class RepresentationCacheTest
+    extends TestCase
+{
+    private static final long LAST_MODIFIED = 1600000123456L;
+
+    public void testValidators()
+    {
+        RepresentationCache cache = new RepresentationCache( 10, 1024, 1024 );
+
+        Representation a = cache.put( key( "a" ), 0, "public", bytes( "A" ), LAST_MODIFIED );
+        Representation b = cache.put( key( "b" ), 0, "public", bytes( "A" ), 0 );
+
+        assertEquals( "\"6dcd4ce23d88e2ee9568ba546c007c63d9131c1b\"", a.getETag() );
+        assertEquals( a.getETag(), b.getETag() );
+        assertFalse( a.getETag().equals( cache.put( key( "c" ), 0, "public", bytes( "B" ), 0 ).getETag() ) );
+
+        // HTTP dates have a resolution of one second
+        assertEquals( 1600000123000L, a.getLastModified() );
+        assertEquals( 0, b.getLastModified() % 1000 );
+        assertTrue( b.getLastModified() > LAST_MODIFIED );
+    }
+
+    public void testConditionalRequests()
+    {
+        Representation representation = new RepresentationCache( 10, 1024, 1024 ).put( key( "a" ), 0, "public", bytes( "A" ), LAST_MODIFIED );
+        String etag = representation.getETag();
+
+        assertTrue( representation.isNotModified( request( "If-None-Match", etag ) ) );
+        assertTrue( representation.isNotModified( request( "If-None-Match", "W/" + etag ) ) );
+        assertTrue( representation.isNotModified( request( "If-None-Match", "\"other\", " + etag ) ) );
+        assertTrue( representation.isNotModified( request( "If-None-Match", "*" ) ) );
+        assertFalse( representation.isNotModified( request( "If-None-Match", "\"other\"" ) ) );
+        assertFalse( representation.isNotModified( request() ) );
+
+        assertTrue( representation.isNotModified( request( "If-Modified-Since", date( LAST_MODIFIED ) ) ) );
+        assertTrue( representation.isNotModified( request( "If-Modified-Since", date( LAST_MODIFIED + 60000 ) ) ) );
+        assertFalse( representation.isNotModified( request( "If-Modified-Since", date( LAST_MODIFIED - 60000 ) ) ) );
+        assertFalse( representation.isNotModified( request( "If-Modified-Since", "yesterday" ) ) );
+
+        // If-None-Match takes precedence over If-Modified-Since
+        assertFalse( representation.isNotModified( request( "If-None-Match", "\"other\"", "If-Modified-Since", date( LAST_MODIFIED ) ) ) );
+    }
+
+    public void testSend() throws Exception
+    {
+        RepresentationCache cache = new RepresentationCache( 10, 1024, 1024 );
+        Representation representation = cache.put( key( "a" ), 0, "public", bytes( "Title A" ), LAST_MODIFIED );
+
+        Map<String, Object> response = new HashMap<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        cache.send( representation, request(), response( response, body ) );
+
+        assertEquals( representation.getETag(), response.get( "ETag" ) );
+        assertEquals( 1600000123000L, response.get( "Last-Modified" ) );
+        assertEquals( 7, response.get( "Content-Length" ) );
+        assertEquals( "Title A", new String( body.toByteArray(), StandardCharsets.UTF_8 ) );
+        assertNull( response.get( "Status" ) );
+
+        response.clear();
+        body.reset();
+
+        cache.send( representation, request( "If-None-Match", representation.getETag() ), response( response, body ) );
+
+        assertEquals( HttpServletResponse.SC_NOT_MODIFIED, response.get( "Status" ) );
+        assertEquals( 0, body.size() );
+        assertEquals( 1, cache.getNotModified() );
+    }
+
+    public void testPutIsGuardedByTheGeneration()
+    {
+        RepresentationCache cache = new RepresentationCache( 10, 1024, 1024 );
+        long generation = cache.generation( "gnd" );
+
+        cache.invalidate( "gnd" );
+
+        // read before the update: served, but not cached
+        assertNotNull( cache.put( key( "a" ), generation, "public", bytes( "A" ) ) );
+        assertNull( cache.get( key( "a" ) ) );
+
+        assertNotNull( cache.put( key( "a" ), cache.generation( "gnd" ), "public", bytes( "A" ) ) );
+        assertNotNull( cache.get( key( "a" ) ) );
+
+        // other graphs are not affected
+        long other = cache.generation( "bib" );
+        cache.invalidate( "gnd" );
+        assertEquals( other, cache.generation( "bib" ) );
+        assertEquals( 0, cache.size() );
+    }
+
+    public void testEvictionIsBoundedByBytes()
+    {
+        RepresentationCache cache = new RepresentationCache( 10, 25, 20 );
+
+        cache.put( key( "a" ), 0, "public", new byte[ 10 ] );
+        cache.put( key( "b" ), 0, "public", new byte[ 10 ] );
+        cache.get( key( "a" ) );
+        cache.put( key( "c" ), 0, "public", new byte[ 10 ] );
+
+        // the least recently used one is evicted
+        assertEquals( 2, cache.size() );
+        assertEquals( 20, cache.getBytes() );
+        assertNotNull( cache.get( key( "a" ) ) );
+        assertNull( cache.get( key( "b" ) ) );
+
+        // larger than the maximum entry size: served, but not cached
+        assertEquals( 21, cache.put( key( "d" ), 0, "public", new byte[ 21 ] ).getLength() );
+        assertNull( cache.get( key( "d" ) ) );
+        assertEquals( 20, cache.getBytes() );
+
+        // replacing an entry does not count its bytes twice
+        cache.put( key( "a" ), 0, "public", new byte[ 5 ] );
+        assertEquals( 15, cache.getBytes() );
+    }
+
+    public void testLargeRepresentationsAreStreamed() throws Exception
+    {
+        RepresentationCache cache = new RepresentationCache( 10, 1024, 4 );
+        LinkedDataStorage storage = storage();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        // small enough: returned and cached, nothing written yet
+        Representation small = cache.load( storage, key( "abc" ), ( accessRights, lastModified ) -> body );
+        assertEquals( "abc", new String( small.getBody(), StandardCharsets.UTF_8 ) );
+        assertEquals( 0, body.size() );
+        assertNotNull( cache.get( key( "abc" ) ) );
+
+        // too large: written while read, not cached
+        assertSame( RepresentationCache.TOO_LARGE, cache.load( storage, key( "abcdefgh" ), ( accessRights, lastModified ) -> body ) );
+        assertEquals( "abcdefgh", body.toString( "UTF-8" ) );
+        assertNull( cache.get( key( "abcdefgh" ) ) );
+
+        // without a stream only the access rights are read
+        Representation skipped = cache.load( storage, key( "internal" ), ( accessRights, lastModified ) -> null );
+        assertEquals( "internal", skipped.getAccessRights() );
+        assertEquals( 0, skipped.getLength() );
+        assertNull( cache.get( key( "internal" ) ) );
+
+        assertNull( cache.load( storage, key( "missing" ), ( accessRights, lastModified ) -> body ) );
+
+        // the variant without a stream drops large representations
+        assertSame( RepresentationCache.TOO_LARGE, cache.load( storage, key( "abcdefgh" ) ) );
+    }
+
+    private static LinkedDataStorage storage()
+    {
+        return (LinkedDataStorage) Proxy.newProxyInstance( LinkedDataStorage.class.getClassLoader(), new Class<?>[] { LinkedDataStorage.class },
+                ( proxy, method, args ) -> {
+                    String resource = ( (String) args[1] ).substring( "http://example.org/".length() );
+
+                    if ( !method.getName().equals( "getResourceRepresentation" ) || args.length != 5 || resource.equals( "missing" ) )
+                    {
+                        return false;
+                    }
+
+                    OutputStream outputStream = ( (LinkedDataStorage.RepresentationConsumer) args[4] ).accept( resource.equals( "internal" ) ? "internal" : "public", LAST_MODIFIED );
+
+                    if ( outputStream != null )
+                    {
+                        assertFalse( resource.equals( "internal" ) );
+                        outputStream.write( bytes( resource ) );
+                    }
+
+                    return true;
+                } );
+    }
+
+    private static RepresentationCache.Key key( String uri )
+    {
+        return new RepresentationCache.Key( "gnd", "http://example.org/" + uri, "nquads", "de", false );
+    }
+
+    private static byte[] bytes( String value )
+    {
+        return value.getBytes( StandardCharsets.UTF_8 );
+    }
+
+    private static String date( long time )
+    {
+        SimpleDateFormat format = new SimpleDateFormat( "EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US );
+        format.setTimeZone( TimeZone.getTimeZone( "GMT" ) );
+
+        return format.format( time );
+    }
+
+    private static HttpServletRequest request( String... headers )
+    {
+        Map<String, String> values = new HashMap<>();
+
+        for ( int i = 0; i < headers.length; i += 2 )
+        {
+            values.put( headers[ i ], headers[ i + 1 ] );
+        }
+
+        return (HttpServletRequest) Proxy.newProxyInstance( HttpServletRequest.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+                ( proxy, method, args ) -> {
+                    switch ( method.getName() )
+                    {
+                        case "getHeader":
+                            return values.get( args[ 0 ] );
+                        case "getDateHeader":
+                            String value = values.get( args[ 0 ] );
+                            if ( value == null )
+                            {
+                                return -1L;
+                            }
+                            SimpleDateFormat format = new SimpleDateFormat( "EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US );
+                            try
+                            {
+                                return format.parse( value ).getTime();
+                            }
+                            catch ( ParseException e )
+                            {
+                                throw new IllegalArgumentException( value );
+                            }
+                        default:
+                            return null;
+                    }
+                } );
+    }
+
+    private static HttpServletResponse response( Map<String, Object> values, ByteArrayOutputStream body )
+    {
+        ServletOutputStream outputStream = new ServletOutputStream()
+        {
+            @Override
+            public void write( int b )
+            {
+                body.write( b );
+            }
+
+            @Override
+            public boolean isReady()
+            {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener( WriteListener writeListener )
+            {
+            }
+        };
+
+        return (HttpServletResponse) Proxy.newProxyInstance( HttpServletResponse.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+                ( proxy, method, args ) -> {
+                    switch ( method.getName() )
+                    {
+                        case "setHeader":
+                        case "setDateHeader":
+                            values.put( (String) args[ 0 ], args[ 1 ] );
+                            return null;
+                        case "setStatus":
+                            values.put( "Status", args[ 0 ] );
+                            return null;
+                        case "setContentLength":
+                            values.put( "Content-Length", args[ 0 ] );
+                            return null;
+                        case "getOutputStream":
+                            return outputStream;
+                        default:
+                            return null;
+                    }
+                } );
+    }
+}
@@ -0,0 +1,136 @@
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.memory.MemoryLinkedDataStorage;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test for {@link RepresentationPrefetcher}.
+ */
+public class RepresentationPrefetcherTest
+    extends TestCase
+{
+    public void testPrefetchedRepresentationsAreTakenOnce() throws Exception
+    {
+        File file = File.createTempFile( "ldp", ".nq" );
+
+        try
+        {
+            Files.write( file.toPath(), "<http://example.org/a> <http://purl.org/dc/terms/title> \"Title A\" .\n".getBytes( StandardCharsets.UTF_8 ) );
+
+            Properties config = new Properties();
+            config.setProperty( MemoryLinkedDataStorage.LOAD_IDENTIFIER, file.getAbsolutePath() );
+
+            MemoryLinkedDataStorage storage = new MemoryLinkedDataStorage();
+            storage.init( config );
+
+            RepresentationCache representationCache = new RepresentationCache( 10, 1048576, 65536 );
+            RepresentationPrefetcher prefetcher = new RepresentationPrefetcher( "test", representationCache, 1, 10, 10000 );
+            prefetcher.start();
+
+            try
+            {
+                RepresentationCache.Key key = new RepresentationCache.Key( null, "http://example.org/a", "nquads", "de", false );
+
+                assertTrue( prefetcher.prefetch( storage, key ) );
+                assertEquals( "public", prefetcher.take( key ).getAccessRights() );
+                assertNull( prefetcher.take( key ) );
+                assertEquals( 1, prefetcher.getHits() );
+
+                // cached representations are not prefetched again
+                assertFalse( prefetcher.prefetch( storage, key ) );
+
+                // nor handed out after the graph has been updated
+                RepresentationCache.Key en = new RepresentationCache.Key( null, "http://example.org/a", "nquads", "en", false );
+
+                assertTrue( prefetcher.prefetch( storage, en ) );
+                representationCache.invalidate( "" );
+                assertNull( prefetcher.take( en ) );
+                assertEquals( 1, prefetcher.getHits() );
+                assertEquals( 0, prefetcher.size() );
+
+                // a resource the prefetch has not found is not read again
+                RepresentationCache.Key missing = new RepresentationCache.Key( null, "http://example.org/missing", "nquads", "de", false );
+
+                assertTrue( prefetcher.prefetch( storage, missing ) );
+                assertSame( RepresentationPrefetcher.NOT_FOUND, prefetcher.take( missing ) );
+                assertNull( RepresentationPrefetcher.NOT_FOUND.getAccessRights() );
+                assertNull( prefetcher.take( missing ) );
+                assertEquals( 2, prefetcher.getHits() );
+            }
+            finally
+            {
+                prefetcher.stop();
+            }
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    public void testRepresentationsTooLargeToBeCachedAreNotPrefetched() throws Exception
+    {
+        AtomicInteger reads = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+
+        // a representation of 100 chunks of 10 bytes
+        LinkedDataStorage storage = (LinkedDataStorage) Proxy.newProxyInstance( LinkedDataStorage.class.getClassLoader(), new Class<?>[] { LinkedDataStorage.class },
+                ( proxy, method, args ) -> {
+                    if ( !method.getName().equals( "getResourceRepresentation" ) || args.length != 5 )
+                    {
+                        return null;
+                    }
+                    reads.incrementAndGet();
+                    OutputStream outputStream = ( (LinkedDataStorage.RepresentationConsumer) args[4] ).accept( "public", 0 );
+                    for ( int i = 0; i < 100; i++ )
+                    {
+                        outputStream.write( "0123456789".getBytes( StandardCharsets.UTF_8 ) );
+                        written.incrementAndGet();
+                    }
+                    return true;
+                } );
+
+        RepresentationCache representationCache = new RepresentationCache( 10, 1048576, 25 );
+        RepresentationPrefetcher prefetcher = new RepresentationPrefetcher( "test", representationCache, 1, 10, 10000 );
+        prefetcher.start();
+
+        try
+        {
+            RepresentationCache.Key key = new RepresentationCache.Key( null, "http://example.org/large", "nquads", "de", false );
+
+            assertTrue( prefetcher.prefetch( storage, key ) );
+
+            // the request reads it itself
+            assertNull( prefetcher.take( key ) );
+            assertEquals( 0, prefetcher.getHits() );
+
+            // the read has stopped at the maximum entry size
+            assertEquals( 1, reads.get() );
+            assertEquals( 2, written.get() );
+
+            // and is not started again until the graph is updated
+            assertFalse( prefetcher.prefetch( storage, key ) );
+            assertEquals( 1, prefetcher.getSkipped() );
+            assertEquals( 1, reads.get() );
+
+            representationCache.invalidate( "" );
+
+            assertTrue( prefetcher.prefetch( storage, key ) );
+            assertNull( prefetcher.take( key ) );
+            assertEquals( 2, reads.get() );
+        }
+        finally
+        {
+            prefetcher.stop();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package de.tu_dortmund.ub.data.ldp.cache;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for {@link SparqlResultCache}.
+ */
+public class SparqlResultCacheTest
+    extends TestCase
+{
+    public void testNormalize()
+    {
+        assertEquals( "SELECT ?s WHERE { ?s ?p \"a  b\" }",
+                SparqlResultCache.normalize( "  SELECT ?s\n\tWHERE {  ?s ?p \"a  b\" } # comment\n" ) );
+        assertEquals( "SELECT * WHERE { <http://example.org/a#b> ?p ?o FILTER(?o < 3) }",
+                SparqlResultCache.normalize( "SELECT *  WHERE { <http://example.org/a#b> ?p ?o   FILTER(?o <  3) }" ) );
+        assertEquals( "ASK { ?s ?p \"\"\"x \" # y\"\"\" }",
+                SparqlResultCache.normalize( "ASK {\n ?s ?p \"\"\"x \" # y\"\"\" }" ) );
+    }
+
+    public void testAdmissionAndInvalidation()
+    {
+        SparqlResultCache cache = new SparqlResultCache( 2, 1024, 1024 );
+
+        SparqlResultCache.Key a = new SparqlResultCache.Key( "gnd", "A", "json", false );
+        SparqlResultCache.Key b = new SparqlResultCache.Key( "gnd", "B", "json", false );
+        SparqlResultCache.Key c = new SparqlResultCache.Key( "bib", "C", "json", false );
+
+        for ( int i = 0; i < 3; i++ )
+        {
+            cache.get( a );
+            cache.get( b );
+        }
+
+        assertTrue( cache.put( a, 0, new byte[ 10 ] ) );
+        assertTrue( cache.put( b, 0, new byte[ 10 ] ) );
+
+        // a one-off query does not displace the popular ones
+        cache.get( c );
+        assertFalse( cache.put( c, 0, new byte[ 10 ] ) );
+        assertEquals( 1, cache.getRejections() );
+
+        cache.invalidate( "gnd" );
+        assertEquals( 0, cache.size() );
+        assertFalse( "stale generation", cache.put( a, 0, new byte[ 10 ] ) );
+        assertTrue( cache.put( a, 1, new byte[ 10 ] ) );
+        assertEquals( 10, cache.getBytes() );
+    }
+}
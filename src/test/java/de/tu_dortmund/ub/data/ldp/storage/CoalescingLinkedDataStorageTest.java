@@ -0,0 +1,293 @@
+package de.tu_dortmund.ub.data.ldp.storage;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test for {@link CoalescingLinkedDataStorage}.
+ */
+public class CoalescingLinkedDataStorageTest
+    extends TestCase
+{
+    private static final byte[] RESULT = "0123456789".getBytes();
+
+    public void testTheLeaderTimesOut() throws Exception
+    {
+        CountDownLatch release = new CountDownLatch( 1 );
+        CoalescingLinkedDataStorage storage = new CoalescingLinkedDataStorage( storage( new AtomicInteger(), release ), 100, 2, 1024 );
+
+        try
+        {
+            long start = System.currentTimeMillis();
+
+            try
+            {
+                storage.sparqlQuery( "bib", "SELECT", "json", false );
+                fail( "timeout expected" );
+            }
+            catch ( LinkedDataStorageException e )
+            {
+                assertTrue( System.currentTimeMillis() - start < 5000 );
+            }
+
+            assertEquals( 0, storage.getSingleFlight().getInFlight() );
+        }
+        finally
+        {
+            release.countDown();
+            storage.shutdown();
+        }
+    }
+
+    public void testSmallStreamsAreShared() throws Exception
+    {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals( 1, this.coalesce( calls, 1024 ) );
+    }
+
+    public void testLargeStreamsAreNotBuffered() throws Exception
+    {
+        AtomicInteger calls = new AtomicInteger();
+
+        // the waiting caller reads the result itself
+        assertEquals( 2, this.coalesce( calls, 4 ) );
+    }
+
+    public void testAFailingLeaderStreamDoesNotFailTheFollowers() throws Exception
+    {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch( 1 );
+        CoalescingLinkedDataStorage storage = new CoalescingLinkedDataStorage( storage( calls, release ), 5000, 4, 1024 );
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+
+        try
+        {
+            // the client of the caller that starts the call has gone away
+            OutputStream leaderStream = new OutputStream()
+            {
+                @Override
+                public void write( int b ) throws IOException
+                {
+                    throw new IOException( "Broken pipe" );
+                }
+            };
+            ByteArrayOutputStream followerStream = new ByteArrayOutputStream();
+
+            Future<Boolean> leader = executor.submit( () -> storage.sparqlQuery( "bib", "SELECT", "json", false, leaderStream ) );
+
+            while ( calls.get() == 0 )
+            {
+                Thread.sleep( 5 );
+            }
+
+            Future<Boolean> follower = executor.submit( () -> storage.sparqlQuery( "bib", "SELECT", "json", false, followerStream ) );
+
+            while ( storage.getSingleFlight().getFollowers() == 0 )
+            {
+                Thread.sleep( 5 );
+            }
+
+            release.countDown();
+
+            assertTrue( follower.get() );
+            assertEquals( new String( RESULT ), followerStream.toString() );
+            assertEquals( 1, calls.get() );
+
+            try
+            {
+                leader.get();
+                fail( "the failure of the leader's stream expected" );
+            }
+            catch ( ExecutionException e )
+            {
+                assertTrue( e.getCause() instanceof IOException );
+                assertEquals( "Broken pipe", e.getCause().getMessage() );
+            }
+        }
+        finally
+        {
+            release.countDown();
+            executor.shutdownNow();
+            storage.shutdown();
+        }
+    }
+
+    public void testTheReadStopsWhenNobodyNeedsTheRest() throws Exception
+    {
+        AtomicInteger written = new AtomicInteger();
+
+        // a result of 100 chunks
+        LinkedDataStorage linkedDataStorage = (LinkedDataStorage) Proxy.newProxyInstance( LinkedDataStorage.class.getClassLoader(), new Class<?>[] { LinkedDataStorage.class },
+                ( proxy, method, args ) -> {
+                    if ( !method.getName().equals( "sparqlQuery" ) )
+                    {
+                        return null;
+                    }
+                    for ( int i = 0; i < 100; i++ )
+                    {
+                        ( (OutputStream) args[4] ).write( RESULT );
+                        written.incrementAndGet();
+                    }
+                    return true;
+                } );
+        CoalescingLinkedDataStorage storage = new CoalescingLinkedDataStorage( linkedDataStorage, 5000, 4, 15 );
+
+        try
+        {
+            // the caller's stream fails and the result is too large to be shared
+            storage.sparqlQuery( "bib", "SELECT", "json", false, new OutputStream()
+            {
+                @Override
+                public void write( int b ) throws IOException
+                {
+                    throw new IOException( "Broken pipe" );
+                }
+            } );
+            fail( "the failure of the caller's stream expected" );
+        }
+        catch ( IOException e )
+        {
+            assertEquals( "Broken pipe", e.getMessage() );
+            assertEquals( 1, written.get() );
+        }
+        finally
+        {
+            storage.shutdown();
+        }
+    }
+
+    public void testRepresentationsAreSharedWithTheirAccessRights() throws Exception
+    {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch( 1 );
+        CoalescingLinkedDataStorage storage = new CoalescingLinkedDataStorage( storage( calls, release ), 5000, 4, 1024 );
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+
+        try
+        {
+            ByteArrayOutputStream followerStream = new ByteArrayOutputStream();
+
+            // the caller that starts the call skips the representation, the waiting one needs it
+            Future<Boolean> leader = executor.submit( () -> storage.getResourceRepresentation( "bib", "http://example.org/a", "nquads", false, ( accessRights, lastModified ) -> null ) );
+
+            while ( calls.get() == 0 )
+            {
+                Thread.sleep( 5 );
+            }
+
+            Future<Boolean> follower = executor.submit( () -> storage.getResourceRepresentation( "bib", "http://example.org/a", "nquads", false, ( accessRights, lastModified ) -> {
+                assertEquals( "internal", accessRights );
+                return followerStream;
+            } ) );
+
+            while ( storage.getSingleFlight().getFollowers() == 0 )
+            {
+                Thread.sleep( 5 );
+            }
+
+            release.countDown();
+
+            assertTrue( leader.get() );
+            assertTrue( follower.get() );
+            assertEquals( new String( RESULT ), followerStream.toString() );
+            assertEquals( 1, calls.get() );
+        }
+        finally
+        {
+            release.countDown();
+            executor.shutdownNow();
+            storage.shutdown();
+        }
+    }
+
+    private int coalesce( AtomicInteger calls, int maxBuffer ) throws Exception
+    {
+        CountDownLatch release = new CountDownLatch( 1 );
+        CoalescingLinkedDataStorage storage = new CoalescingLinkedDataStorage( storage( calls, release ), 5000, 4, maxBuffer );
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+
+        try
+        {
+            ByteArrayOutputStream leaderStream = new ByteArrayOutputStream();
+            ByteArrayOutputStream followerStream = new ByteArrayOutputStream();
+
+            Future<Boolean> leader = executor.submit( () -> storage.sparqlQuery( "bib", "SELECT", "json", false, leaderStream ) );
+
+            while ( calls.get() == 0 )
+            {
+                Thread.sleep( 5 );
+            }
+
+            Future<Boolean> follower = executor.submit( () -> storage.sparqlQuery( "bib", "SELECT", "json", false, followerStream ) );
+
+            while ( storage.getSingleFlight().getFollowers() == 0 )
+            {
+                Thread.sleep( 5 );
+            }
+
+            release.countDown();
+
+            assertTrue( leader.get() );
+            assertTrue( follower.get() );
+            assertEquals( new String( RESULT ), leaderStream.toString() );
+            assertEquals( new String( RESULT ), followerStream.toString() );
+
+            return calls.get();
+        }
+        finally
+        {
+            release.countDown();
+            executor.shutdownNow();
+            storage.shutdown();
+        }
+    }
+
+    private static LinkedDataStorage storage( AtomicInteger calls, CountDownLatch release )
+    {
+        return (LinkedDataStorage) Proxy.newProxyInstance( LinkedDataStorage.class.getClassLoader(), new Class<?>[] { LinkedDataStorage.class },
+                ( proxy, method, args ) -> {
+                    if ( method.getName().equals( "getResourceRepresentation" ) && args.length == 5 )
+                    {
+                        calls.incrementAndGet();
+                        release.await();
+
+                        OutputStream outputStream = ( (LinkedDataStorage.RepresentationConsumer) args[4] ).accept( "internal", 0 );
+
+                        if ( outputStream != null )
+                        {
+                            outputStream.write( RESULT );
+                        }
+                        return true;
+                    }
+
+                    if ( !method.getName().equals( "sparqlQuery" ) )
+                    {
+                        return null;
+                    }
+
+                    calls.incrementAndGet();
+                    release.await();
+
+                    if ( args.length == 5 )
+                    {
+                        OutputStream outputStream = (OutputStream) args[4];
+                        outputStream.write( RESULT, 0, 5 );
+                        outputStream.write( RESULT, 5, 5 );
+                        return true;
+                    }
+
+                    return new String( RESULT );
+                } );
+    }
+}
@@ -0,0 +1,175 @@
+package de.tu_dortmund.ub.data.ldp.storage;
+
+import junit.framework.TestCase;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Unit test for {@link NegativeLookupLinkedDataStorage}.
+ */
+public class NegativeLookupLinkedDataStorageTest
+    extends TestCase
+{
+    private static final String EX = "http://example.org/";
+
+    // resources of graph "bib"; graph "other" cannot be listed
+    private final List<String> resources = new CopyOnWriteArrayList<>();
+    private final Set<String> existing = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicInteger lists = new AtomicInteger();
+    private final AtomicReference<Runnable> duringLookup = new AtomicReference<>();
+
+    public void testTheFilterAnswersAbsentResources() throws Exception
+    {
+        // more resources than the filter is first sized for
+        for ( int i = 0; i < 5000; i++ )
+        {
+            this.resources.add( EX + i );
+        }
+
+        NegativeLookupLinkedDataStorage storage = this.storage( 10 );
+
+        for ( String resource : this.resources )
+        {
+            assertFalse( resource, storage.isMissing( "bib", resource ) );
+        }
+
+        assertNull( storage.getResource( "bib", EX + "absent", "nquads", false ) );
+        assertEquals( 0, this.lookups.get() );
+        assertEquals( 1, storage.getFiltered() );
+
+        // a single pass over the resources
+        assertEquals( 1, this.lists.get() );
+    }
+
+    public void testMissesAreRememberedUpToMaxSize() throws Exception
+    {
+        NegativeLookupLinkedDataStorage storage = this.storage( 2 );
+
+        assertNull( storage.getResource( "other", EX + "1", "nquads", false ) );
+        assertNull( storage.getResource( "other", EX + "2", "nquads", false ) );
+        assertTrue( storage.isMissing( "other", EX + "1" ) );
+        assertNull( storage.getResource( "other", EX + "3", "nquads", false ) );
+
+        // the least recently used miss expires
+        assertEquals( 2, storage.size() );
+        assertTrue( storage.isMissing( "other", EX + "1" ) );
+        assertFalse( storage.isMissing( "other", EX + "2" ) );
+        assertTrue( storage.isMissing( "other", EX + "3" ) );
+        assertEquals( 3, this.lookups.get() );
+    }
+
+    public void testAnUpdateClearsTheMisses() throws Exception
+    {
+        NegativeLookupLinkedDataStorage storage = this.storage( 10 );
+
+        assertNull( storage.getResource( "other", EX + "new", "nquads", false ) );
+        assertTrue( storage.isMissing( "other", EX + "new" ) );
+        assertTrue( storage.isMissing( "bib", EX + "new" ) );
+
+        this.existing.add( EX + "new" );
+        storage.sparqlUpdate( "INSERT DATA { <" + EX + "new> <http://purl.org/dc/terms/title> \"New\" . }" );
+
+        assertEquals( 0, storage.size() );
+        assertFalse( storage.isMissing( "other", EX + "new" ) );
+        assertFalse( storage.isMissing( "bib", EX + "new" ) );
+        assertEquals( "new", storage.getResource( "bib", EX + "new", "nquads", false ) );
+    }
+
+    public void testAMissReadDuringAnUpdateIsNotRemembered() throws Exception
+    {
+        NegativeLookupLinkedDataStorage storage = this.storage( 10 );
+
+        // the backend answers "missing" while the resource is created
+        this.duringLookup.set( () -> {
+            try
+            {
+                storage.sparqlUpdate( "INSERT DATA { <" + EX + "racy> <http://purl.org/dc/terms/title> \"Racy\" . }" );
+            }
+            catch ( LinkedDataStorageException e )
+            {
+                throw new IllegalStateException( e );
+            }
+        } );
+
+        assertNull( storage.getResource( "other", EX + "racy", "nquads", false ) );
+        assertFalse( storage.isMissing( "other", EX + "racy" ) );
+        assertEquals( 0, storage.size() );
+    }
+
+    public void testUnknownSubjectsRebuildTheFilters() throws Exception
+    {
+        this.resources.add( EX + "a" );
+
+        NegativeLookupLinkedDataStorage storage = this.storage( 10 );
+
+        assertTrue( storage.isMissing( "bib", EX + "b" ) );
+
+        this.resources.add( EX + "b" );
+        storage.sparqlUpdate( "LOAD <" + EX + "dump.nq>" );
+
+        // the filter is dropped at once and built again in the background
+        assertFalse( storage.isMissing( "bib", EX + "b" ) );
+
+        for ( int i = 0; i < 1000 && this.lists.get() < 2; i++ )
+        {
+            Thread.sleep( 5 );
+        }
+
+        for ( int i = 0; i < 1000 && !storage.isMissing( "bib", EX + "c" ); i++ )
+        {
+            Thread.sleep( 5 );
+        }
+
+        assertEquals( 2, this.lists.get() );
+        assertTrue( storage.isMissing( "bib", EX + "c" ) );
+        assertFalse( storage.isMissing( "bib", EX + "a" ) );
+        assertFalse( storage.isMissing( "bib", EX + "b" ) );
+    }
+
+    private NegativeLookupLinkedDataStorage storage( int maxSize )
+    {
+        LinkedDataStorage linkedDataStorage = (LinkedDataStorage) Proxy.newProxyInstance( LinkedDataStorage.class.getClassLoader(), new Class<?>[] { LinkedDataStorage.class },
+                ( proxy, method, args ) -> {
+                    switch ( method.getName() )
+                    {
+                        case "listResources":
+                            if ( !args[0].equals( "bib" ) )
+                            {
+                                return false;
+                            }
+                            this.lists.incrementAndGet();
+                            this.resources.forEach( (Consumer<String>) args[1] );
+                            return true;
+
+                        case "getResource":
+                            this.lookups.incrementAndGet();
+                            Runnable runnable = this.duringLookup.getAndSet( null );
+                            if ( runnable != null )
+                            {
+                                runnable.run();
+                            }
+                            return this.existing.contains( args[1] ) ? "new" : null;
+
+                        case "sparqlUpdate":
+                            return "ok";
+
+                        default:
+                            return null;
+                    }
+                } );
+
+        NegativeLookupLinkedDataStorage storage = new NegativeLookupLinkedDataStorage( "test", linkedDataStorage, maxSize );
+        storage.build( Arrays.asList( "bib", "other" ) );
+
+        return storage;
+    }
+}
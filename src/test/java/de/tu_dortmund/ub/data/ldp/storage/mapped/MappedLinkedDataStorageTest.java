@@ -0,0 +1,138 @@
+package de.tu_dortmund.ub.data.ldp.storage.mapped;
+
+import de.tu_dortmund.ub.data.ldp.storage.memory.NQuadsReader;
+import junit.framework.TestCase;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Unit test for {@link MappedLinkedDataStorage}.
+ */
+public class MappedLinkedDataStorageTest
+    extends TestCase
+{
+    private Path root;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        StringBuilder data = new StringBuilder();
+        data.append( "<http://example.org/a> <http://purl.org/dc/terms/title> \"Title A\"@en .\n" );
+        data.append( "<http://example.org/b> <http://purl.org/dc/terms/accessRights> \"internal\" <http://example.org/graph/b> .\n" );
+
+        // more than one block of the dictionary
+        for ( int i = 0; i < 100; i++ )
+        {
+            data.append( "<http://example.org/r/" ).append( i ).append( "> <http://purl.org/dc/terms/title> \"Title " ).append( i ).append( "\" .\n" );
+        }
+
+        root = Files.createTempDirectory( "ldp-mapped" );
+
+        MappedStoreWriter writer = new MappedStoreWriter( 16 );
+        new NQuadsReader().read( new StringReader( data.toString() ), writer::add );
+        writer.write( root, 1 );
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        try ( Stream<Path> paths = Files.walk( root ) )
+        {
+            paths.sorted( Comparator.reverseOrder() ).forEach( path -> path.toFile().delete() );
+        }
+    }
+
+    public void testDictionaryFindsEveryTerm() throws Exception
+    {
+        FrontCodedDictionary dictionary = new FrontCodedDictionary( root.resolve( "00000001/terms" ), root.resolve( "00000001/terms.blocks" ) );
+
+        assertEquals( 207, dictionary.size() );
+
+        for ( int id = 1; id <= dictionary.size(); id++ )
+        {
+            assertEquals( id, dictionary.lookup( dictionary.decode( id ) ) );
+        }
+
+        assertEquals( 0, dictionary.lookup( "<http://example.org/r/100>" ) );
+        assertEquals( 0, dictionary.lookup( "\"\"" ) );
+        assertEquals( 0, dictionary.lookup( "~" ) );
+        assertTrue( dictionary.decode( 1 ).startsWith( "\"" ) );
+    }
+
+    public void testResourcesAndUpdates() throws Exception
+    {
+        MappedLinkedDataStorage storage = open( 1000 );
+
+        try
+        {
+            assertEquals( "<http://example.org/r/42> <http://purl.org/dc/terms/title> \"Title 42\" .\n", storage.getResource( "http://example.org/r/42", "nquads" ) );
+            assertNull( storage.getResource( "http://example.org/missing", "nquads" ) );
+            assertEquals( "internal", storage.getAccessRights( "b", "http://example.org/b" ) );
+            assertEquals( "public", storage.getAccessRights( "http://example.org/a" ) );
+            assertNull( storage.getResource( "b", "http://example.org/a", "nquads" ) );
+            assertEquals( "internal", storage.getResourceRepresentation( "b", "http://example.org/b", "nquads", false ).getAccessRights() );
+            assertTrue( storage.getResourceRepresentation( null, "http://example.org/a", "nquads", false ).getLastModified() > 0 );
+
+            assertEquals( "201", storage.sparqlUpdate( "DELETE DATA {\n<http://example.org/a> <http://purl.org/dc/terms/title> \"Title A\"@en .\n}\n"
+                    + "INSERT DATA {\n<http://example.org/a> <http://purl.org/dc/terms/title> \"Titel A\"@de .\n<http://example.org/c> <http://purl.org/dc/terms/title> \"Title C\" .\n}" ) );
+            assertEquals( "400", storage.sparqlUpdate( "INSERT DATA { <http://example.org/a> broken }" ) );
+
+            assertEquals( "<http://example.org/a> <http://purl.org/dc/terms/title> \"Titel A\"@de .\n", storage.getResource( "http://example.org/a", "nquads" ) );
+            assertNotNull( storage.getResource( "http://example.org/c", "rdf.ttl" ) );
+            assertEquals( "public", storage.getResourceRepresentation( null, "http://example.org/c", "nquads", false ).getAccessRights() );
+
+            Map<String, String> restricted = new HashMap<>();
+            assertTrue( storage.listAccessRights( "b", restricted::put ) );
+            assertEquals( Collections.singletonMap( "http://example.org/b", "internal" ), restricted );
+        }
+        finally
+        {
+            storage.shutdown();
+        }
+
+        // the delta is replayed from its log, then merged into generation 2 with the next update
+        storage = open( 1 );
+
+        try
+        {
+            assertEquals( "<http://example.org/a> <http://purl.org/dc/terms/title> \"Titel A\"@de .\n", storage.getResource( "http://example.org/a", "nquads" ) );
+
+            assertEquals( "201", storage.sparqlUpdate( "<http://example.org/d> <http://purl.org/dc/terms/title> \"Title D\" ." ) );
+
+            for ( int i = 0; i < 100 && !storage.health( new Properties() ).get( "mapped" ).startsWith( "generation = 2," ); i++ )
+            {
+                Thread.sleep( 50 );
+            }
+
+            assertTrue( storage.health( new Properties() ).get( "mapped" ).startsWith( "generation = 2, quads = 104, " ) );
+            assertNotNull( storage.getResource( "http://example.org/c", "nquads" ) );
+            assertNotNull( storage.getResource( "http://example.org/d", "nquads" ) );
+            assertFalse( Files.exists( root.resolve( "00000001" ) ) );
+        }
+        finally
+        {
+            storage.shutdown();
+        }
+    }
+
+    private MappedLinkedDataStorage open( int mergeThreshold ) throws Exception
+    {
+        Properties config = new Properties();
+        config.setProperty( MappedLinkedDataStorage.DIRECTORY_IDENTIFIER, root.toString() );
+        config.setProperty( MappedLinkedDataStorage.GRAPH_IDENTIFIER + ".b", "http://example.org/graph/b" );
+        config.setProperty( MappedLinkedDataStorage.MERGE_THRESHOLD_IDENTIFIER, String.valueOf( mergeThreshold ) );
+
+        MappedLinkedDataStorage storage = new MappedLinkedDataStorage();
+        storage.init( config );
+
+        return storage;
+    }
+}
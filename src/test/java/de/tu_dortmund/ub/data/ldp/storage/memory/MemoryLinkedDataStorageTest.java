@@ -0,0 +1,178 @@
+package de.tu_dortmund.ub.data.ldp.storage.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.tu_dortmund.ub.data.ldp.storage.LinkedDataStorageException;
+import de.tu_dortmund.ub.data.ldp.storage.NegativeLookupLinkedDataStorage;
+import de.tu_dortmund.ub.data.ldp.storage.ResourceRepresentation;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Unit test for {@link MemoryLinkedDataStorage}.
+ */
+public class MemoryLinkedDataStorageTest
+    extends TestCase
+{
+    private static final String DATA = ""
+            + "# test data\n"
+            + "<http://example.org/a> <http://purl.org/dc/terms/title> \"Titel \\\"A\\\"\"@de .\n"
+            + "<http://example.org/a> <http://purl.org/dc/terms/title> \"Title A\"@en .\n"
+            + "<http://example.org/a> <http://purl.org/dc/terms/creator> _:c1 .\n"
+            + "_:c1 <http://xmlns.com/foaf/0.1/name> \"Jane\" .\n"
+            + "<http://example.org/b> <http://purl.org/dc/terms/accessRights> \"internal\" <http://example.org/graph/b> .\n"
+            + "<http://example.org/b> <http://purl.org/dc/terms/extent> \"12\"^^<http://www.w3.org/2001/XMLSchema#integer> <http://example.org/graph/b> .\n"
+            + "<http://example.org/a> <http://purl.org/dc/terms/title> \"Title A\"@en .\n"
+            + "this is not a statement\n";
+
+    private File file;
+    private MemoryLinkedDataStorage storage;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        file = File.createTempFile( "ldp", ".nq" );
+        Files.write( file.toPath(), DATA.getBytes( StandardCharsets.UTF_8 ) );
+
+        Properties config = new Properties();
+        config.setProperty( MemoryLinkedDataStorage.LOAD_IDENTIFIER, file.getAbsolutePath() );
+        config.setProperty( MemoryLinkedDataStorage.GRAPH_IDENTIFIER + ".b", "http://example.org/graph/b" );
+
+        storage = new MemoryLinkedDataStorage();
+        storage.init( config );
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        file.delete();
+    }
+
+    public void testNQuadsAreServedFromTheIndexes() throws Exception
+    {
+        String nquads = storage.getResource( "http://example.org/a", "nquads" );
+
+        assertEquals( 3, nquads.split( "\n" ).length );
+        assertTrue( nquads.contains( "<http://example.org/a> <http://purl.org/dc/terms/title> \"Titel \\\"A\\\"\"@de .\n" ) );
+        assertTrue( nquads.contains( "<http://purl.org/dc/terms/creator> _:d1_c1 .\n" ) );
+
+        assertTrue( storage.getResource( "b", "http://example.org/b", "nquads" ).endsWith( " <http://example.org/graph/b> .\n" ) );
+        assertNull( storage.getResource( "http://example.org/missing", "nquads" ) );
+    }
+
+    public void testTurtleAndJsonLd() throws Exception
+    {
+        String turtle = storage.getResource( "http://example.org/a", "rdf.ttl" );
+
+        assertTrue( turtle.startsWith( "<http://example.org/a>\n    <http://purl.org/dc/terms/title> \"Titel \\\"A\\\"\"@de ,\n        \"Title A\"@en ;\n" ) );
+        assertTrue( turtle.endsWith( " .\n" ) );
+
+        JsonNode json = new ObjectMapper().readTree( storage.getResource( "http://example.org/b", "json" ) );
+
+        assertEquals( "http://example.org/b", json.get( 0 ).get( "@id" ).asText() );
+        assertEquals( "12", json.get( 0 ).get( "http://purl.org/dc/terms/extent" ).get( 0 ).get( "@value" ).asText() );
+        assertEquals( "http://www.w3.org/2001/XMLSchema#integer", json.get( 0 ).get( "http://purl.org/dc/terms/extent" ).get( 0 ).get( "@type" ).asText() );
+
+        assertTrue( storage.getResource( "http://example.org/a", "rdf.xml" ).contains( "<p:title xmlns:p=\"http://purl.org/dc/terms/\" xml:lang=\"de\">Titel &quot;A&quot;</p:title>" ) );
+    }
+
+    public void testAccessRightsAndSearch() throws Exception
+    {
+        assertEquals( "internal", storage.getAccessRights( "http://example.org/b" ) );
+        assertEquals( "internal", storage.getAccessRights( "b", "http://example.org/b" ) );
+        assertEquals( "public", storage.getAccessRights( "http://example.org/a" ) );
+
+        Properties query = new Properties();
+        query.setProperty( "q", "title" );
+
+        JsonNode json = new ObjectMapper().readTree( storage.searchResource( query, "json" ) );
+
+        assertEquals( 1, json.get( "results" ).get( "bindings" ).size() );
+        assertEquals( "http://example.org/a", json.get( "results" ).get( "bindings" ).get( 0 ).get( "s" ).get( "value" ).asText() );
+    }
+
+    public void testGetResourcesReportsEveryResource() throws Exception
+    {
+        List<String> results = new ArrayList<>();
+
+        storage.getResources( "b", Arrays.asList( "http://example.org/b", "http://example.org/a" ), "nquads", false,
+                ( resource, accessRights, representation ) -> results.add( resource + " " + accessRights + " " + ( representation != null ) ) );
+
+        assertEquals( Arrays.asList( "http://example.org/b internal true", "http://example.org/a null false" ), results );
+    }
+
+    public void testResourceRepresentationCarriesTheAccessRights() throws Exception
+    {
+        ResourceRepresentation representation = storage.getResourceRepresentation( "b", "http://example.org/b", "nquads", false );
+
+        assertEquals( "internal", representation.getAccessRights() );
+        assertEquals( storage.getResource( "b", "http://example.org/b", "nquads" ), representation.getRepresentation() );
+        assertEquals( representation.getRepresentation().length(), representation.getLength() );
+
+        assertEquals( "public", storage.getResourceRepresentation( null, "http://example.org/a", "nquads", false ).getAccessRights() );
+        assertNull( storage.getResourceRepresentation( null, "http://example.org/missing", "nquads", false ) );
+    }
+
+    public void testNegativeLookupsAreAnsweredBeforeTheStorage() throws Exception
+    {
+        List<String> resources = new ArrayList<>();
+
+        assertTrue( storage.listResources( "b", resources::add ) );
+        assertEquals( Collections.singletonList( "http://example.org/b" ), resources );
+
+        NegativeLookupLinkedDataStorage negativeLookup = new NegativeLookupLinkedDataStorage( "test", storage, 10 );
+        negativeLookup.build( Collections.singletonList( "b" ) );
+
+        assertNotNull( negativeLookup.getResourceRepresentation( "b", "http://example.org/b", "nquads", false ) );
+        assertNull( negativeLookup.getResourceRepresentation( "b", "http://example.org/a", "nquads", false ) );
+        assertEquals( 1, negativeLookup.getFiltered() );
+
+        // the subjects of an update are added to the filter, even if the storage rejects it
+        try
+        {
+            negativeLookup.sparqlUpdate( "INSERT DATA { GRAPH <http://example.org/graph/b> { <http://example.org/a> <http://purl.org/dc/terms/title> \"A\" } }" );
+            fail();
+        }
+        catch ( LinkedDataStorageException e )
+        {
+            // expected
+        }
+
+        assertNull( negativeLookup.getResource( "b", "http://example.org/a", "nquads", false ) );
+        assertEquals( 1, negativeLookup.getFalsePositives() );
+        assertEquals( 1, negativeLookup.size() );
+
+        assertNull( negativeLookup.getResource( "b", "http://example.org/a", "nquads", false ) );
+        assertEquals( 1, negativeLookup.getRemembered() );
+        assertEquals( 4, negativeLookup.getLookups() );
+    }
+
+    public void testQuadStoreMatchesEveryPattern()
+    {
+        QuadStore store = new QuadStore( 4 );
+        store.add( 0, 1, 2, 3 );
+        store.add( 0, 1, 2, 4 );
+        store.add( 5, 1, 2, 3 );
+        store.add( 5, 6, 2, 3 );
+        store.add( 0, 1, 2, 3 );
+        store.build();
+
+        assertEquals( 4, store.size() );
+        assertEquals( 2, store.match( 0, 1, 0, 0, ( g, s, p, o ) -> { } ) );
+        assertEquals( 3, store.match( -1, 1, 0, 0, ( g, s, p, o ) -> { } ) );
+        assertEquals( 4, store.match( -1, 0, 2, 0, ( g, s, p, o ) -> { } ) );
+        assertEquals( 3, store.match( -1, 0, 0, 3, ( g, s, p, o ) -> { } ) );
+        assertEquals( 1, store.match( 0, 0, 2, 4, ( g, s, p, o ) -> { } ) );
+        assertEquals( 2, store.match( 5, 0, 0, 0, ( g, s, p, o ) -> { } ) );
+        assertTrue( store.contains( 5, 6, 2, 3 ) );
+        assertFalse( store.contains( 0, 6, 2, 3 ) );
+    }
+}
@@ -0,0 +1,112 @@
+package de.tu_dortmund.ub.util.concurrent;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit test for {@link GraphRebuilder}.
+ */
+public class GraphRebuilderTest
+    extends TestCase
+{
+    private final Object lock = new Object();
+    private final List<CountDownLatch> started = Arrays.asList( new CountDownLatch( 1 ), new CountDownLatch( 1 ) );
+    private final List<CountDownLatch> release = Arrays.asList( new CountDownLatch( 1 ), new CountDownLatch( 1 ) );
+    private final List<List<String>> reads = new CopyOnWriteArrayList<>();
+    private final List<Map<String, Integer>> published = new CopyOnWriteArrayList<>();
+    private final List<Set<String>> touched = new CopyOnWriteArrayList<>();
+
+    public void testARebuildRequestedDuringTheReadReadsAgain() throws Exception
+    {
+        GraphRebuilder<Integer> rebuilder = this.rebuilder();
+
+        rebuilder.rebuild( Collections.singletonList( "a" ) );
+        assertTrue( this.started.get( 0 ).await( 5, TimeUnit.SECONDS ) );
+        assertTrue( rebuilder.isRebuilding() );
+
+        // an update with unknown subjects while the first read is running
+        rebuilder.rebuild( Collections.singletonList( "b" ) );
+        this.release.get( 0 ).countDown();
+
+        // an update with known subjects while the second read is running
+        assertTrue( this.started.get( 1 ).await( 5, TimeUnit.SECONDS ) );
+        rebuilder.touched( Collections.singletonList( "s" ) );
+        this.release.get( 1 ).countDown();
+
+        for ( int i = 0; i < 1000 && rebuilder.getRebuilds() < 1; i++ )
+        {
+            Thread.sleep( 5 );
+        }
+
+        assertEquals( 1, rebuilder.getRebuilds() );
+        assertFalse( rebuilder.isRebuilding() );
+        assertEquals( Arrays.asList( Collections.singletonList( "a" ), Arrays.asList( "a", "b" ) ), this.reads );
+
+        // only the second read is published, with the subjects updated during it
+        assertEquals( 1, this.published.size() );
+        assertEquals( Integer.valueOf( 2 ), this.published.get( 0 ).get( "a" ) );
+        assertEquals( Integer.valueOf( 2 ), this.published.get( 0 ).get( "b" ) );
+        assertEquals( Collections.singleton( "s" ), this.touched.get( 0 ) );
+    }
+
+    public void testACancelledRebuildIsNotPublished() throws Exception
+    {
+        GraphRebuilder<Integer> rebuilder = this.rebuilder();
+
+        rebuilder.rebuild( Collections.singletonList( "a" ) );
+        assertTrue( this.started.get( 0 ).await( 5, TimeUnit.SECONDS ) );
+
+        rebuilder.cancel();
+        assertFalse( rebuilder.isRebuilding() );
+        this.release.get( 0 ).countDown();
+
+        // a later rebuild runs again
+        this.release.get( 1 ).countDown();
+        rebuilder.rebuild( Collections.singletonList( "b" ) );
+
+        for ( int i = 0; i < 1000 && rebuilder.getRebuilds() < 1; i++ )
+        {
+            Thread.sleep( 5 );
+        }
+
+        assertEquals( 1, rebuilder.getRebuilds() );
+        assertEquals( 1, this.published.size() );
+        assertNull( this.published.get( 0 ).get( "a" ) );
+        assertEquals( Integer.valueOf( 2 ), this.published.get( 0 ).get( "b" ) );
+    }
+
+    private GraphRebuilder<Integer> rebuilder()
+    {
+        return new GraphRebuilder<>( "test", "index", this.lock,
+                ( graphs ) -> {
+                    int read = this.reads.size();
+                    this.reads.add( new ArrayList<>( graphs ) );
+                    this.started.get( read ).countDown();
+                    try
+                    {
+                        this.release.get( read ).await( 5, TimeUnit.SECONDS );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    Map<String, Integer> result = new HashMap<>();
+                    graphs.forEach( ( graph ) -> result.put( graph, read + 1 ) );
+                    return result;
+                },
+                ( graphs, touched ) -> {
+                    this.published.add( graphs );
+                    this.touched.add( touched );
+                } );
+    }
+}
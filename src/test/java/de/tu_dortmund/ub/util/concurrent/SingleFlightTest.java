@@ -0,0 +1,83 @@
+package de.tu_dortmund.ub.util.concurrent;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Unit test for {@link SingleFlight}.
+ */
+public class SingleFlightTest
+    extends TestCase
+{
+    public void testFollowersShareResultAndException() throws Exception
+    {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try
+        {
+            CountDownLatch started = new CountDownLatch( 1 );
+            CountDownLatch release = new CountDownLatch( 1 );
+
+            Future<String> leader = executor.submit( () -> singleFlight.execute( "k", () -> {
+                started.countDown();
+                release.await();
+                throw new IOException( "backend down" );
+            }, 0, TimeUnit.MILLISECONDS ) );
+
+            started.await();
+
+            try
+            {
+                singleFlight.execute( "k", () -> "not called", 50, TimeUnit.MILLISECONDS );
+                fail( "timeout expected" );
+            }
+            catch ( TimeoutException e )
+            {
+                assertEquals( 1, singleFlight.getTimeouts() );
+            }
+
+            new Thread( () -> {
+                try { Thread.sleep( 50 ); } catch ( InterruptedException e ) { }
+                release.countDown();
+            } ).start();
+
+            try
+            {
+                singleFlight.execute( "k", () -> "not called", 0, TimeUnit.MILLISECONDS );
+                fail( "exception of the leader expected" );
+            }
+            catch ( IOException e )
+            {
+                assertEquals( "backend down", e.getMessage() );
+            }
+
+            try
+            {
+                leader.get();
+                fail();
+            }
+            catch ( ExecutionException e )
+            {
+                assertTrue( e.getCause() instanceof IOException );
+            }
+
+            assertEquals( 1, singleFlight.getLeaders() );
+            assertEquals( 2, singleFlight.getFollowers() );
+            assertEquals( 0, singleFlight.getInFlight() );
+            assertEquals( "next", singleFlight.execute( "k", () -> "next", 0, TimeUnit.MILLISECONDS ) );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
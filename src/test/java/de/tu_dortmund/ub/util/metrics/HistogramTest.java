@@ -0,0 +1,47 @@
+package de.tu_dortmund.ub.util.metrics;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for {@link Histogram}.
+ */
+public class HistogramTest
+    extends TestCase
+{
+    public void testBucketsQuantilesAndPrometheusFormat()
+    {
+        Histogram histogram = new Histogram( new long[] { 10, 100, 1000 } );
+
+        histogram.record( 5 );
+        histogram.record( 10 );
+        histogram.record( 50 );
+        histogram.record( 500 );
+        histogram.record( 5000 );
+
+        assertEquals( 5, histogram.getCount() );
+        assertEquals( 5565, histogram.getSum() );
+
+        assertEquals( 10, histogram.getValueAtQuantile( 0.4 ) );
+        assertEquals( 100, histogram.getValueAtQuantile( 0.5 ) );
+        assertEquals( 1000, histogram.getValueAtQuantile( 0.8 ) );
+        assertEquals( Long.MAX_VALUE, histogram.getValueAtQuantile( 0.99 ) );
+
+        StringBuilder out = new StringBuilder();
+        histogram.writeTo( out, "x", "route=\"about\"", 1 );
+
+        assertEquals( "x_bucket{route=\"about\",le=\"10\"} 2\n"
+                + "x_bucket{route=\"about\",le=\"100\"} 3\n"
+                + "x_bucket{route=\"about\",le=\"1000\"} 4\n"
+                + "x_bucket{route=\"about\",le=\"+Inf\"} 5\n"
+                + "x_sum{route=\"about\"} 5565\n"
+                + "x_count{route=\"about\"} 5\n", out.toString() );
+    }
+
+    public void testEmpty()
+    {
+        Histogram histogram = new Histogram( Histogram.LATENCY_NANOS );
+
+        assertEquals( 0, histogram.getCount() );
+        assertEquals( 0, histogram.getValueAtQuantile( 0.99 ) );
+    }
+}
@@ -0,0 +1,56 @@
+package de.tu_dortmund.ub.util.rights;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for {@link IPRangeMatcher}.
+ */
+public class IPRangeMatcherTest
+    extends TestCase
+{
+    public void testLegacyRegexPrefixes()
+    {
+        IPRangeMatcher matcher = IPRangeMatcher.compile( "129\\.217\\..*|192\\.168\\.1\\.10", "129\\.217\\.13\\..*" );
+
+        assertTrue( matcher.matches( "129.217.1.2" ) );
+        assertTrue( matcher.matches( "192.168.1.10" ) );
+        assertFalse( matcher.matches( "192.168.1.11" ) );
+        assertFalse( matcher.matches( "129.217.13.5" ) );
+        assertFalse( matcher.matches( "129.218.1.2" ) );
+        assertFalse( matcher.matches( null ) );
+        assertFalse( matcher.matches( "no address" ) );
+    }
+
+    public void testCidrAndIPv6()
+    {
+        IPRangeMatcher matcher = IPRangeMatcher.compile( "10.0.0.0/8|2001:638:500::/40|::1", "10.1.0.0/16" );
+
+        assertTrue( matcher.matches( "10.200.3.4" ) );
+        assertFalse( matcher.matches( "10.1.3.4" ) );
+        assertTrue( matcher.matches( "::ffff:10.2.3.4" ) );
+        assertTrue( matcher.matches( "2001:638:5ff:1::17" ) );
+        assertFalse( matcher.matches( "2001:638:600::1" ) );
+        assertTrue( matcher.matches( "::1" ) );
+        assertTrue( matcher.matches( "2001:0638:0500:0000:0000:0000:0000:0001" ) );
+        assertFalse( matcher.matches( "2001:638:500:::1" ) );
+    }
+
+    public void testClassifyUsesLastForwardedAddress()
+    {
+        IPRangeMatcher matcher = IPRangeMatcher.compile( "129\\.217\\..*", "", "129\\.217\\.1\\..*", "129\\.217\\.1\\.99" );
+
+        assertEquals( IPRangeClass.TU_UB, matcher.classify( "8.8.8.8, 129.217.1.2" ) );
+        assertEquals( IPRangeClass.TU, matcher.classify( "129.217.1.99" ) );
+        assertEquals( IPRangeClass.TU, matcher.classify( "129.217.2.1" ) );
+        assertEquals( IPRangeClass.EXTERNAL, matcher.classify( "129.217.1.2, 8.8.8.8" ) );
+    }
+
+    public void testRegexFallback()
+    {
+        IPRangeMatcher matcher = IPRangeMatcher.compile( "129\\.217\\.1[0-9]\\..*", "" );
+
+        assertTrue( matcher.matches( "129.217.15.1" ) );
+        assertFalse( matcher.matches( "129.217.25.1" ) );
+        assertEquals( AnalyseIPRange.analyseAccessRights( "129.217.15.1", "129\\.217\\.1[0-9]\\..*", "" ), matcher.matches( "129.217.15.1" ) );
+    }
+}